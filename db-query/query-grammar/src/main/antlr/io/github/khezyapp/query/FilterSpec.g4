@@ -80,7 +80,7 @@ anyIdentifier
     ;
 
 aggregateFunction
-    : (COUNT | SUM | AVG | MIN | MAX)
+    : (COUNT | SUM | AVG | MIN | MAX | COUNT_DISTINCT_APPROX)
       '(' (path | '*') ')'
     ;
 
@@ -99,6 +99,7 @@ SUM         : [Ss][Uu][Mm] ;
 AVG         : [Aa][Vv][Gg] ;
 MIN         : [Mm][Ii][Nn] ;
 MAX         : [Mm][Aa][Xx] ;
+COUNT_DISTINCT_APPROX : [Cc][Oo][Uu][Nn][Tt] '_' [Dd][Ii][Ss][Tt][Ii][Nn][Cc][Tt] '_' [Aa][Pp][Pp][Rr][Oo][Xx] ;
 
 LEFT        : [Ll][Ee][Ff][Tt] ;
 INNER       : [Ii][Nn][Nn][Ee][Rr] ;
@@ -291,6 +291,8 @@ public class ASTSpecVisitor extends FilterSpecBaseVisitor<ASTSpec> {
             aggFunc = AggregateFunction.AVG;
         } else if (Objects.nonNull(ctx.MIN())) {
             aggFunc = AggregateFunction.MIN;
+        } else if (Objects.nonNull(ctx.COUNT_DISTINCT_APPROX())) {
+            aggFunc = AggregateFunction.COUNT_DISTINCT_APPROX;
         } else {
             aggFunc = AggregateFunction.MAX;
         }
@@ -13,7 +13,12 @@ public enum AggregateFunction {
     /** The MIN aggregate function. */
     MIN("MIN"),
     /** The MAX aggregate function. */
-    MAX("MAX");
+    MAX("MAX"),
+    /**
+     * Approximate number of distinct values. SQL backends fall back to an exact {@code COUNT(DISTINCT ...)};
+     * in-process aggregation estimates it with a HyperLogLog sketch.
+     */
+    COUNT_DISTINCT_APPROX("COUNT_DISTINCT_APPROX");
 
     private final String value;
 
@@ -440,6 +440,14 @@ public final class ASTSpecConditions {
         return new AggregateOperand(AggregateFunction.MAX, pathOperand(path));
     }
 
+    /**
+     * Creates a COUNT_DISTINCT_APPROX aggregate operand.
+     */
+    public static AggregateOperand countDistinctApprox(final String path) {
+        Objects.requireNonNull(path, "path must not be null");
+        return new AggregateOperand(AggregateFunction.COUNT_DISTINCT_APPROX, pathOperand(path));
+    }
+
     /**
      * Creates a custom aggregate operand.
      *
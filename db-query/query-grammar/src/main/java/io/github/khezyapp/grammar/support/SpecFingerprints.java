@@ -0,0 +1,49 @@
+package io.github.khezyapp.grammar.support;
+
+import io.github.khezyapp.grammar.ast.QuerySpec;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Objects;
+
+/**
+ * Utility class for computing stable fingerprints of query specifications.
+ * <p>
+ * The AST is built from records, so two specifications parsed from equivalent input render the same
+ * text and therefore the same fingerprint. Fingerprints are used as cache keys; they are SHA-256 hex
+ * digests so keys stay short regardless of the filter size.
+ * </p>
+ */
+public final class SpecFingerprints {
+
+    private SpecFingerprints() {
+    }
+
+    /**
+     * Computes the fingerprint of a query specification.
+     *
+     * @param querySpec the specification, may be {@code null} for "no filter"
+     * @return the hex-encoded fingerprint
+     */
+    public static String of(final QuerySpec querySpec) {
+        return of(Objects.toString(querySpec));
+    }
+
+    /**
+     * Computes the fingerprint of an arbitrary text, such as rendered SQL.
+     *
+     * @param text the text to fingerprint
+     * @return the hex-encoded fingerprint
+     */
+    public static String of(final String text) {
+        try {
+            final var digest = MessageDigest.getInstance("SHA-256")
+                    .digest(Objects.toString(text).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package io.github.khezyapp.grammar.support;
+
+import io.github.khezyapp.grammar.ast.ASTSpec;
+import io.github.khezyapp.grammar.ast.BetweenComparisonSpec;
+import io.github.khezyapp.grammar.ast.BinaryComparisonSpec;
+import io.github.khezyapp.grammar.ast.ComparisonOperator;
+import io.github.khezyapp.grammar.ast.InComparisonSpec;
+import io.github.khezyapp.grammar.ast.LogicalAndSpec;
+import io.github.khezyapp.grammar.ast.LogicalOrSpec;
+import io.github.khezyapp.grammar.ast.QuerySpec;
+import io.github.khezyapp.grammar.ast.SpecificationVisitor;
+import io.github.khezyapp.grammar.ast.UnaryComparisonSpec;
+import io.github.khezyapp.grammar.ast.operand.AggregateOperand;
+import io.github.khezyapp.grammar.ast.operand.LiteralOperand;
+import io.github.khezyapp.grammar.ast.operand.Operand;
+import io.github.khezyapp.grammar.ast.operand.PathOperand;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Utility class for collecting the attribute paths referenced by a query specification.
+ * <p>
+ * Paths are gathered from the WHERE and HAVING clauses (including paths inside aggregates) and from
+ * GROUP BY, in order of first appearance.
+ * </p>
+ * <p>
+ * {@link #aggregates(QuerySpec)} lists the aggregates a HAVING clause filters on, for callers that compute
+ * them themselves. {@link #pinned(QuerySpec, String)} tells which values the WHERE clause restricts a path to,
+ * e.g., to route a query to the shards holding those keys.
+ * </p>
+ */
+public final class SpecPaths {
+
+    private SpecPaths() {
+    }
+
+    /**
+     * Collects the dotted paths referenced by the specification.
+     *
+     * @param querySpec the specification, may be {@code null}
+     * @return an unmodifiable set of paths (e.g., "author.name")
+     */
+    public static Set<String> collect(final QuerySpec querySpec) {
+        if (Objects.isNull(querySpec)) {
+            return Set.of();
+        }
+        final var collector = new PathCollector();
+        querySpec.accept(collector);
+        return Collections.unmodifiableSet(collector.paths);
+    }
+
+    /**
+     * Collects the aggregates referenced by the HAVING clause of the specification.
+     *
+     * @param querySpec the specification, may be {@code null}
+     * @return an unmodifiable set of aggregates, in order of first appearance
+     */
+    public static Set<AggregateOperand> aggregates(final QuerySpec querySpec) {
+        if (Objects.isNull(querySpec) || Objects.isNull(querySpec.havingSpec())) {
+            return Set.of();
+        }
+        final var collector = new PathCollector();
+        querySpec.havingSpec().accept(collector);
+        return Collections.unmodifiableSet(collector.aggregates);
+    }
+
+    /**
+     * Gets the finite set of values the WHERE clause restricts a path to.
+     * <p>
+     * The path is pinned by {@code path = literal} and {@code path IN (literals)}. Under AND, one pinned child
+     * is enough and several are intersected; under OR, every child must be pinned and their values are joined.
+     * Any other condition on the path (ranges, LIKE, NULL checks) leaves it unpinned.
+     * </p>
+     *
+     * @param querySpec the specification, may be {@code null}
+     * @param path      the dotted path (e.g., "tenant.id")
+     * @return the literal values, in order of first appearance, or empty if the path can take any value
+     */
+    public static Optional<Set<Object>> pinned(final QuerySpec querySpec,
+                                               final String path) {
+        Objects.requireNonNull(path, "path must not be null");
+        if (Objects.isNull(querySpec) || Objects.isNull(querySpec.whereSpec())) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(pinned(querySpec.whereSpec(), path)).map(Collections::unmodifiableSet);
+    }
+
+    /**
+     * Collects the values a condition restricts a path to.
+     *
+     * @param spec the condition
+     * @param path the dotted path
+     * @return the values, or {@code null} if the condition does not pin the path
+     */
+    private static Set<Object> pinned(final ASTSpec spec,
+                                      final String path) {
+        if (spec instanceof LogicalAndSpec andSpec) {
+            Set<Object> values = null;
+            for (final var child : andSpec.children()) {
+                final var childValues = pinned(child, path);
+                if (Objects.isNull(childValues)) {
+                    continue;
+                }
+                if (Objects.isNull(values)) {
+                    values = childValues;
+                } else {
+                    values.retainAll(childValues);
+                }
+            }
+            return values;
+        }
+        if (spec instanceof LogicalOrSpec orSpec) {
+            final var values = new LinkedHashSet<Object>();
+            for (final var child : orSpec.children()) {
+                final var childValues = pinned(child, path);
+                if (Objects.isNull(childValues)) {
+                    return null;
+                }
+                values.addAll(childValues);
+            }
+            return values;
+        }
+        if (spec instanceof BinaryComparisonSpec binary && binary.operator() == ComparisonOperator.EQ) {
+            if (isPath(binary.left(), path) && binary.right() instanceof LiteralOperand literal) {
+                return new LinkedHashSet<>(Collections.singleton(literal.value()));
+            }
+            if (isPath(binary.right(), path) && binary.left() instanceof LiteralOperand literal) {
+                return new LinkedHashSet<>(Collections.singleton(literal.value()));
+            }
+            return null;
+        }
+        if (spec instanceof InComparisonSpec in && isPath(in.left(), path)
+                && in.right().stream().allMatch(LiteralOperand.class::isInstance)) {
+            final var values = new LinkedHashSet<Object>();
+            in.right().forEach(operand -> values.add(((LiteralOperand) operand).value()));
+            return values;
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether an operand is the given path.
+     *
+     * @param operand the operand
+     * @param path    the dotted path
+     * @return {@code true} for a path operand with that path
+     */
+    private static boolean isPath(final Operand operand,
+                                  final String path) {
+        return operand instanceof PathOperand pathOperand && path.equals(pathOperand.path());
+    }
+
+    /**
+     * Visitor adding every path operand it meets to a set.
+     */
+    private static final class PathCollector implements SpecificationVisitor<Void> {
+        private final Set<String> paths = new LinkedHashSet<>();
+        private final Set<AggregateOperand> aggregates = new LinkedHashSet<>();
+
+        @Override
+        public Void visitQuerySpec(final QuerySpec querySpec) {
+            visit(querySpec.whereSpec());
+            visit(querySpec.havingSpec());
+            if (Objects.nonNull(querySpec.groupBy()) && Objects.nonNull(querySpec.groupBy().items())) {
+                querySpec.groupBy().items().forEach(this::add);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitLogicalOrSpec(final LogicalOrSpec orSpec) {
+            orSpec.children().forEach(this::visit);
+            return null;
+        }
+
+        @Override
+        public Void visitLogicalAndSpec(final LogicalAndSpec andSpec) {
+            andSpec.children().forEach(this::visit);
+            return null;
+        }
+
+        @Override
+        public Void visitBinaryComparisonSpec(final BinaryComparisonSpec binaryComparisonSpec) {
+            add(binaryComparisonSpec.left());
+            add(binaryComparisonSpec.right());
+            return null;
+        }
+
+        @Override
+        public Void visitInComparisonSpec(final InComparisonSpec inComparisonSpec) {
+            add(inComparisonSpec.left());
+            return null;
+        }
+
+        @Override
+        public Void visitBetweenComparisonSpec(final BetweenComparisonSpec betweenComparisonSpec) {
+            add(betweenComparisonSpec.left());
+            return null;
+        }
+
+        @Override
+        public Void visitUnaryComparisonSpec(final UnaryComparisonSpec unaryComparisonSpec) {
+            add(unaryComparisonSpec.left());
+            return null;
+        }
+
+        private void visit(final ASTSpec spec) {
+            if (Objects.nonNull(spec)) {
+                spec.accept(this);
+            }
+        }
+
+        private void add(final Operand operand) {
+            if (operand instanceof PathOperand path) {
+                paths.add(path.path());
+            } else if (operand instanceof AggregateOperand aggregate && Objects.nonNull(aggregate.path())) {
+                paths.add(aggregate.path().path());
+                aggregates.add(aggregate);
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package io.github.khezyapp.grammar.support;
+
+import io.github.khezyapp.grammar.ast.ASTSpec;
+import io.github.khezyapp.grammar.ast.BetweenComparisonSpec;
+import io.github.khezyapp.grammar.ast.BinaryComparisonSpec;
+import io.github.khezyapp.grammar.ast.InComparisonSpec;
+import io.github.khezyapp.grammar.ast.LogicalAndSpec;
+import io.github.khezyapp.grammar.ast.LogicalOrSpec;
+import io.github.khezyapp.grammar.ast.QuerySpec;
+import io.github.khezyapp.grammar.ast.SpecificationVisitor;
+import io.github.khezyapp.grammar.ast.UnaryComparisonSpec;
+import io.github.khezyapp.grammar.ast.operand.AggregateOperand;
+import io.github.khezyapp.grammar.ast.operand.LiteralOperand;
+import io.github.khezyapp.grammar.ast.operand.Operand;
+import io.github.khezyapp.grammar.ast.operand.PathOperand;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The shape of a query specification: its structure with every literal replaced by a placeholder,
+ * and the literal values taken out in order.
+ * <p>
+ * Two filters differing only in literal values share a shape, so SQL rendered for one can be reused for
+ * the other by binding the new literals. The placeholder records the Java type of the literal (or that
+ * it is {@code null}) because backends may render types differently. Literals are listed in visiting
+ * order: WHERE before HAVING, left to right within each comparison, IN values and BETWEEN bounds in order.
+ * </p>
+ *
+ * @param key      the canonical text of the structure, usable as a cache key
+ * @param literals the literal values in visiting order, may contain {@code null}
+ */
+public record SpecShape(
+        String key,
+        List<Object> literals
+) {
+
+    /**
+     * Extracts the shape of a query specification.
+     *
+     * @param querySpec the specification, may be {@code null} for "no filter"
+     * @return the shape
+     */
+    public static SpecShape of(final QuerySpec querySpec) {
+        if (Objects.isNull(querySpec)) {
+            return new SpecShape("", List.of());
+        }
+        final var walker = new ShapeWalker();
+        querySpec.accept(walker);
+        return new SpecShape(walker.key.toString(), Collections.unmodifiableList(walker.literals));
+    }
+
+    /**
+     * Computes a fixed-length fingerprint of the shape key.
+     * @return the hex-encoded fingerprint
+     */
+    public String fingerprint() {
+        return SpecFingerprints.of(key);
+    }
+
+    /**
+     * Visitor writing the structure key and collecting literals.
+     */
+    private static final class ShapeWalker implements SpecificationVisitor<Void> {
+        private final StringBuilder key = new StringBuilder();
+        private final List<Object> literals = new ArrayList<>();
+
+        @Override
+        public Void visitQuerySpec(final QuerySpec querySpec) {
+            key.append("where(");
+            visit(querySpec.whereSpec());
+            key.append(")having(");
+            visit(querySpec.havingSpec());
+            key.append(")groupBy(");
+            if (Objects.nonNull(querySpec.groupBy()) && Objects.nonNull(querySpec.groupBy().items())) {
+                querySpec.groupBy().items().forEach(this::operand);
+            }
+            key.append(')');
+            return null;
+        }
+
+        @Override
+        public Void visitLogicalOrSpec(final LogicalOrSpec orSpec) {
+            key.append("or(");
+            orSpec.children().forEach(this::visit);
+            key.append(')');
+            return null;
+        }
+
+        @Override
+        public Void visitLogicalAndSpec(final LogicalAndSpec andSpec) {
+            key.append("and(");
+            andSpec.children().forEach(this::visit);
+            key.append(')');
+            return null;
+        }
+
+        @Override
+        public Void visitBinaryComparisonSpec(final BinaryComparisonSpec binaryComparisonSpec) {
+            key.append(binaryComparisonSpec.operator()).append('(');
+            operand(binaryComparisonSpec.left());
+            operand(binaryComparisonSpec.right());
+            key.append(binaryComparisonSpec.joinType()).append(')');
+            return null;
+        }
+
+        @Override
+        public Void visitInComparisonSpec(final InComparisonSpec inComparisonSpec) {
+            key.append("IN(");
+            operand(inComparisonSpec.left());
+            inComparisonSpec.right().forEach(this::operand);
+            key.append(inComparisonSpec.joinType()).append(')');
+            return null;
+        }
+
+        @Override
+        public Void visitBetweenComparisonSpec(final BetweenComparisonSpec betweenComparisonSpec) {
+            key.append("BETWEEN(");
+            operand(betweenComparisonSpec.left());
+            operand(betweenComparisonSpec.from());
+            operand(betweenComparisonSpec.to());
+            key.append(betweenComparisonSpec.joinType()).append(')');
+            return null;
+        }
+
+        @Override
+        public Void visitUnaryComparisonSpec(final UnaryComparisonSpec unaryComparisonSpec) {
+            key.append(unaryComparisonSpec.operator()).append('(');
+            operand(unaryComparisonSpec.left());
+            key.append(unaryComparisonSpec.joinType()).append(')');
+            return null;
+        }
+
+        private void visit(final ASTSpec spec) {
+            if (Objects.nonNull(spec)) {
+                spec.accept(this);
+            }
+        }
+
+        private void operand(final Operand operand) {
+            if (operand instanceof LiteralOperand literal) {
+                final var value = literal.value();
+                key.append("?:").append(Objects.isNull(value) ? "null" : value.getClass().getName());
+                literals.add(value);
+            } else if (operand instanceof PathOperand path) {
+                key.append(path.path());
+            } else if (operand instanceof AggregateOperand aggregate) {
+                key.append(aggregate.function()).append('(');
+                operand(aggregate.path());
+                key.append(')');
+            }
+            key.append(',');
+        }
+    }
+}
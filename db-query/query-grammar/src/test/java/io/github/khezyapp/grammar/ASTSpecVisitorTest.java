@@ -58,6 +58,19 @@ class ASTSpecVisitorTest {
         assertEquals("*", left.path().path());
     }
 
+    @Test
+    void testApproximateDistinctCount() {
+        final var ast = parse("status = 'PAID' GROUP BY country HAVING count_distinct_approx(customer.id) > 100");
+
+        final var having = (LogicalOrSpec) ast.havingSpec();
+        final var havingAnd = (LogicalAndSpec) having.children().get(0);
+        final var comparison = (BinaryComparisonSpec) havingAnd.children().get(0);
+
+        final var left = (AggregateOperand) comparison.left();
+        assertEquals(AggregateFunction.COUNT_DISTINCT_APPROX, left.function());
+        assertEquals("customer.id", left.path().path());
+    }
+
     @Test
     void testJoinTypesInComparison() {
         // Testing explicit JOIN types in the grammar
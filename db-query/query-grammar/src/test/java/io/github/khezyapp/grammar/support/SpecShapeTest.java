@@ -0,0 +1,64 @@
+package io.github.khezyapp.grammar.support;
+
+import io.github.khezyapp.grammar.ast.BinaryComparisonSpec;
+import io.github.khezyapp.grammar.ast.ComparisonOperator;
+import io.github.khezyapp.grammar.ast.InComparisonSpec;
+import io.github.khezyapp.grammar.ast.JoinType;
+import io.github.khezyapp.grammar.ast.LogicalAndSpec;
+import io.github.khezyapp.grammar.ast.QuerySpec;
+import io.github.khezyapp.grammar.ast.operand.LiteralOperand;
+import io.github.khezyapp.grammar.ast.operand.Operand;
+import io.github.khezyapp.grammar.ast.operand.PathOperand;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpecShapeTest {
+
+    private static QuerySpec filter(final Object title,
+                                    final List<Operand> ids) {
+        return new QuerySpec(
+                new LogicalAndSpec(List.of(
+                        new BinaryComparisonSpec(new PathOperand(List.of("book", "title"), "book.title"),
+                                ComparisonOperator.EQ, new LiteralOperand(title), JoinType.INNER),
+                        new InComparisonSpec(new PathOperand(List.of("book", "id"), "book.id"), ids, JoinType.INNER)
+                )),
+                null,
+                null
+        );
+    }
+
+    @Test
+    @DisplayName("Filters differing only in literals share a shape")
+    void testSameShape() {
+        final var first = SpecShape.of(filter("Dune", List.of(new LiteralOperand(1L), new LiteralOperand(2L))));
+        final var second = SpecShape.of(filter("Emma", List.of(new LiteralOperand(7L), new LiteralOperand(9L))));
+
+        assertEquals(first.key(), second.key());
+        assertEquals(first.fingerprint(), second.fingerprint());
+        assertEquals(List.of("Emma", 7L, 9L), second.literals());
+    }
+
+    @Test
+    @DisplayName("Literal count and type change the shape")
+    void testDifferentShape() {
+        final var base = SpecShape.of(filter("Dune", List.of(new LiteralOperand(1L))));
+
+        assertNotEquals(base.key(), SpecShape.of(filter("Dune", List.of(new LiteralOperand(1L),
+                new LiteralOperand(2L)))).key());
+        assertNotEquals(base.key(), SpecShape.of(filter(42L, List.of(new LiteralOperand(1L)))).key());
+        assertNotEquals(base.key(), SpecShape.of(filter(null, List.of(new LiteralOperand(1L)))).key());
+    }
+
+    @Test
+    @DisplayName("Missing filter has an empty shape")
+    void testNoFilter() {
+        final var shape = SpecShape.of(null);
+
+        assertEquals("", shape.key());
+        assertTrue(shape.literals().isEmpty());
+    }
+}
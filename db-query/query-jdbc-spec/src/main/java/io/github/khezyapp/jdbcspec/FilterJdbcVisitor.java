@@ -0,0 +1,304 @@
+package io.github.khezyapp.jdbcspec;
+
+import io.github.khezyapp.grammar.ast.ASTSpec;
+import io.github.khezyapp.grammar.ast.AggregateFunction;
+import io.github.khezyapp.grammar.ast.BetweenComparisonSpec;
+import io.github.khezyapp.grammar.ast.BinaryComparisonSpec;
+import io.github.khezyapp.grammar.ast.ComparisonOperator;
+import io.github.khezyapp.grammar.ast.InComparisonSpec;
+import io.github.khezyapp.grammar.ast.LogicalAndSpec;
+import io.github.khezyapp.grammar.ast.LogicalOrSpec;
+import io.github.khezyapp.grammar.ast.QuerySpec;
+import io.github.khezyapp.grammar.ast.SpecificationVisitor;
+import io.github.khezyapp.grammar.ast.UnaryComparisonSpec;
+import io.github.khezyapp.grammar.ast.operand.AggregateOperand;
+import io.github.khezyapp.grammar.ast.operand.LiteralOperand;
+import io.github.khezyapp.grammar.ast.operand.Operand;
+import io.github.khezyapp.grammar.ast.operand.PathOperand;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Visitor rendering an {@link ASTSpec} tree to SQL with {@code ?} placeholders.
+ * <p>
+ * Every node appends to one {@link StringBuilder}, so a translation allocates little beyond the resulting
+ * strings. Each literal becomes exactly one placeholder, in the order the tree is walked, which is the literal
+ * order of {@link io.github.khezyapp.grammar.support.SpecShape}; SQL rendered for one shape can therefore be
+ * reused with the literals of another query of the same shape. Join types are ignored: joins belong to the base
+ * query.
+ * </p>
+ * <p>
+ * A visitor keeps state and must be used for a single specification.
+ * </p>
+ */
+public class FilterJdbcVisitor implements SpecificationVisitor<Void> {
+    private static final String ALL_COLUMNS = "*";
+
+    private final JdbcColumnRegistry registry;
+    private final JdbcDialect dialect;
+    private final List<Object> parameters = new ArrayList<>();
+    private StringBuilder sql = new StringBuilder(64);
+    private JdbcSpecification specification = JdbcSpecification.empty();
+
+    /**
+     * Constructs a visitor resolving paths through a column registry.
+     *
+     * @param registry the column registry
+     * @param dialect  the SQL dialect
+     */
+    public FilterJdbcVisitor(final JdbcColumnRegistry registry,
+                             final JdbcDialect dialect) {
+        this.registry = Objects.requireNonNull(registry, "registry must not be null");
+        this.dialect = Objects.requireNonNull(dialect, "dialect must not be null");
+    }
+
+    /**
+     * Gets the rendered specification, available after visiting a {@link QuerySpec}.
+     * @return the specification
+     */
+    public JdbcSpecification specification() {
+        return specification;
+    }
+
+    /**
+     * Renders the WHERE, GROUP BY and HAVING fragments of the query.
+     *
+     * @param querySpec the query specification to visit
+     * @return {@code null}; see {@link #specification()}
+     */
+    @Override
+    public Void visitQuerySpec(final QuerySpec querySpec) {
+        final var where = clause(querySpec.whereSpec());
+        final var having = clause(querySpec.havingSpec());
+        sql.setLength(0);
+        if (Objects.nonNull(querySpec.groupBy()) && Objects.nonNull(querySpec.groupBy().items())) {
+            for (final var item : querySpec.groupBy().items()) {
+                if (!sql.isEmpty()) {
+                    sql.append(", ");
+                }
+                appendOperand(item);
+            }
+        }
+        specification = new JdbcSpecification(where, sql.toString(), having, parameters);
+        return null;
+    }
+
+    /**
+     * Renders an OR node; AND children need no parentheses since AND binds tighter.
+     *
+     * @param orSpec the OR specification
+     * @return {@code null}
+     */
+    @Override
+    public Void visitLogicalOrSpec(final LogicalOrSpec orSpec) {
+        appendJunction(orSpec.children(), " OR ", false);
+        return null;
+    }
+
+    /**
+     * Renders an AND node, parenthesizing OR children.
+     *
+     * @param andSpec the AND specification
+     * @return {@code null}
+     */
+    @Override
+    public Void visitLogicalAndSpec(final LogicalAndSpec andSpec) {
+        appendJunction(andSpec.children(), " AND ", true);
+        return null;
+    }
+
+    /**
+     * Renders a binary comparison, delegating {@code ILIKE} to the dialect.
+     *
+     * @param binaryComparisonSpec the binary comparison details
+     * @return {@code null}
+     */
+    @Override
+    public Void visitBinaryComparisonSpec(final BinaryComparisonSpec binaryComparisonSpec) {
+        final var operator = binaryComparisonSpec.operator();
+        if (operator == ComparisonOperator.ILIKE) {
+            // Render both sides apart, then let the dialect place them
+            final var start = sql.length();
+            appendOperand(binaryComparisonSpec.left());
+            final var value = sql.substring(start);
+            sql.setLength(start);
+            appendOperand(binaryComparisonSpec.right());
+            final var pattern = sql.substring(start);
+            sql.setLength(start);
+            dialect.appendIlike(sql, value, pattern);
+            return null;
+        }
+        appendOperand(binaryComparisonSpec.left());
+        sql.append(' ').append(binaryOperator(operator)).append(' ');
+        appendOperand(binaryComparisonSpec.right());
+        return null;
+    }
+
+    /**
+     * Renders an IN comparison; an empty value list matches nothing.
+     *
+     * @param inComparisonSpec the IN comparison details
+     * @return {@code null}
+     */
+    @Override
+    public Void visitInComparisonSpec(final InComparisonSpec inComparisonSpec) {
+        final var values = inComparisonSpec.right();
+        if (Objects.isNull(values) || values.isEmpty()) {
+            sql.append("1 = 0");
+            return null;
+        }
+        appendOperand(inComparisonSpec.left());
+        sql.append(" IN (");
+        for (var i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            appendOperand(values.get(i));
+        }
+        sql.append(')');
+        return null;
+    }
+
+    /**
+     * Renders a BETWEEN comparison.
+     *
+     * @param betweenComparisonSpec the BETWEEN comparison details
+     * @return {@code null}
+     */
+    @Override
+    public Void visitBetweenComparisonSpec(final BetweenComparisonSpec betweenComparisonSpec) {
+        appendOperand(betweenComparisonSpec.left());
+        sql.append(" BETWEEN ");
+        appendOperand(betweenComparisonSpec.from());
+        sql.append(" AND ");
+        appendOperand(betweenComparisonSpec.to());
+        return null;
+    }
+
+    /**
+     * Renders a NULL check.
+     *
+     * @param unaryComparisonSpec the unary comparison details
+     * @return {@code null}
+     */
+    @Override
+    public Void visitUnaryComparisonSpec(final UnaryComparisonSpec unaryComparisonSpec) {
+        final var operator = unaryComparisonSpec.operator();
+        if (operator != ComparisonOperator.IS_NULL && operator != ComparisonOperator.IS_NOT_NULL) {
+            throw new IllegalArgumentException("Unknown unary comparison operator: " + operator);
+        }
+        appendOperand(unaryComparisonSpec.left());
+        sql.append(' ').append(operator.getValue());
+        return null;
+    }
+
+    /**
+     * Renders one condition tree into a fresh buffer.
+     *
+     * @param spec the condition, may be {@code null}
+     * @return the rendered condition, empty when absent
+     */
+    private String clause(final ASTSpec spec) {
+        if (Objects.isNull(spec)) {
+            return "";
+        }
+        sql = new StringBuilder(64);
+        spec.accept(this);
+        return sql.toString();
+    }
+
+    /**
+     * Renders the children of a logical node joined by a keyword.
+     *
+     * @param children      the child nodes
+     * @param keyword       the joining keyword with surrounding spaces
+     * @param parenthesizeOr whether OR children need parentheses
+     */
+    private void appendJunction(final List<ASTSpec> children,
+                                final String keyword,
+                                final boolean parenthesizeOr) {
+        if (Objects.isNull(children) || children.isEmpty()) {
+            sql.append("1 = 1");
+            return;
+        }
+        for (var i = 0; i < children.size(); i++) {
+            if (i > 0) {
+                sql.append(keyword);
+            }
+            final var child = children.get(i);
+            final var parenthesize = parenthesizeOr && child instanceof LogicalOrSpec && children.size() > 1;
+            if (parenthesize) {
+                sql.append('(');
+            }
+            child.accept(this);
+            if (parenthesize) {
+                sql.append(')');
+            }
+        }
+    }
+
+    /**
+     * Maps a binary operator to its SQL form.
+     *
+     * @param operator the comparison operator
+     * @return the SQL operator
+     * @throws IllegalArgumentException if the operator is not binary
+     */
+    private static String binaryOperator(final ComparisonOperator operator) {
+        return switch (operator) {
+            case EQ -> "=";
+            case NE -> "<>";
+            case LT -> "<";
+            case LTE -> "<=";
+            case GT -> ">";
+            case GTE -> ">=";
+            case LIKE -> "LIKE";
+            default -> throw new IllegalArgumentException("Unknown binary comparison operator: " + operator);
+        };
+    }
+
+    /**
+     * Renders an operand: a quoted column, an aggregate, or a placeholder bound to a literal.
+     *
+     * @param operand the operand
+     */
+    private void appendOperand(final Operand operand) {
+        if (operand instanceof LiteralOperand literal) {
+            sql.append('?');
+            parameters.add(literal.value());
+        } else if (operand instanceof PathOperand path) {
+            appendColumn(path);
+        } else if (operand instanceof AggregateOperand aggregate) {
+            if (aggregate.function() == AggregateFunction.COUNT_DISTINCT_APPROX) {
+                // Approximation is an in-process concern; the database counts exactly
+                sql.append("COUNT(DISTINCT ");
+            } else {
+                sql.append(aggregate.function().getValue()).append('(');
+            }
+            if (ALL_COLUMNS.equals(aggregate.path().path())) {
+                sql.append(ALL_COLUMNS);
+            } else {
+                appendColumn(aggregate.path());
+            }
+            sql.append(')');
+        }
+    }
+
+    /**
+     * Renders the quoted, qualified column of a path.
+     *
+     * @param path the path operand
+     * @throws IllegalArgumentException if the path is unknown and the registry is strict
+     */
+    private void appendColumn(final PathOperand path) {
+        final var identifiers = registry.resolve(path.path(), path.identifiers());
+        for (var i = 0; i < identifiers.size(); i++) {
+            if (i > 0) {
+                sql.append('.');
+            }
+            dialect.appendIdentifier(sql, identifiers.get(i));
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package io.github.khezyapp.jdbcspec;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Maps filter paths (e.g., "book.price") to database columns (e.g., {@code "b"."price"}).
+ * <p>
+ * Columns are kept as raw identifier segments and quoted by the {@link JdbcDialect} when SQL is rendered, so a
+ * path can never inject SQL. Unregistered paths are either rejected, which is the safe choice for public APIs,
+ * or used as is when the registry is lenient.
+ * </p>
+ */
+public final class JdbcColumnRegistry {
+    private static final JdbcColumnRegistry LENIENT = new JdbcColumnRegistry(Map.of(), false);
+
+    private final Map<String, List<String>> columns;
+    private final boolean strict;
+
+    private JdbcColumnRegistry(final Map<String, List<String>> columns,
+                               final boolean strict) {
+        this.columns = Map.copyOf(columns);
+        this.strict = strict;
+    }
+
+    /**
+     * Gets the empty, lenient registry using every path segment as an identifier.
+     * @return the lenient registry
+     */
+    public static JdbcColumnRegistry lenient() {
+        return LENIENT;
+    }
+
+    /**
+     * Creates a builder for a new registry, strict by default.
+     * @return a new {@link Builder}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Looks up the column registered for a path.
+     *
+     * @param path the dotted filter path
+     * @return the identifier segments, or empty when the path is unknown
+     */
+    public Optional<List<String>> find(final String path) {
+        return Optional.ofNullable(columns.get(path));
+    }
+
+    /**
+     * Resolves a filter path into identifier segments.
+     *
+     * @param path        the dotted filter path
+     * @param identifiers the path segments, used when the registry is lenient
+     * @return the registered column, or the path segments when the registry is lenient
+     * @throws IllegalArgumentException if the path is unknown and the registry is strict
+     */
+    public List<String> resolve(final String path,
+                                final List<String> identifiers) {
+        final var column = columns.get(path);
+        if (Objects.nonNull(column)) {
+            return column;
+        }
+        if (strict) {
+            throw new IllegalArgumentException("Unknown filter path: " + path);
+        }
+        return identifiers;
+    }
+
+    /**
+     * Checks whether unknown paths are rejected.
+     * @return {@code true} if the registry is strict
+     */
+    public boolean isStrict() {
+        return strict;
+    }
+
+    /**
+     * Fluent builder for constructing {@link JdbcColumnRegistry} instances.
+     */
+    public static class Builder {
+        private final Map<String, List<String>> columns = new LinkedHashMap<>();
+        private boolean strict = true;
+
+        /**
+         * Registers a column under a filter path.
+         *
+         * @param path        the dotted filter path
+         * @param identifiers the column identifier segments (e.g., "b", "price")
+         * @return the builder instance
+         */
+        public Builder column(final String path,
+                              final String... identifiers) {
+            Objects.requireNonNull(path, "path must not be null");
+            if (Objects.isNull(identifiers) || identifiers.length == 0) {
+                throw new IllegalArgumentException("Column of path '%s' must have an identifier".formatted(path));
+            }
+            columns.put(path, List.of(identifiers));
+            return this;
+        }
+
+        /**
+         * Registers columns of one table under {@code <prefix>.<column>}, qualified by the table alias used in
+         * the base query; an empty prefix registers bare column names.
+         *
+         * @param prefix  the path prefix used in filters
+         * @param alias   the table alias or name in the base query
+         * @param columns the column names
+         * @return the builder instance
+         */
+        public Builder table(final String prefix,
+                             final String alias,
+                             final String... columns) {
+            Objects.requireNonNull(alias, "alias must not be null");
+            Arrays.stream(columns)
+                    .forEach(column -> column(prefix.isEmpty() ? column : prefix + "." + column, alias, column));
+            return this;
+        }
+
+        /**
+         * Enables or disables rejection of unregistered paths.
+         *
+         * @param strict {@code true} to reject unknown paths (default)
+         * @return the builder instance
+         */
+        public Builder strict(final boolean strict) {
+            this.strict = strict;
+            return this;
+        }
+
+        /**
+         * Builds a new {@link JdbcColumnRegistry}.
+         * @return the registry
+         */
+        public JdbcColumnRegistry build() {
+            return new JdbcColumnRegistry(columns, strict);
+        }
+    }
+}
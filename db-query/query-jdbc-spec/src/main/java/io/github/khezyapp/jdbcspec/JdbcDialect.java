@@ -0,0 +1,78 @@
+package io.github.khezyapp.jdbcspec;
+
+import java.util.List;
+
+/**
+ * SQL dialect hooks used when rendering a filter to plain SQL.
+ * <p>
+ * The defaults follow the SQL standard: double-quoted identifiers, {@code OFFSET ? ROWS FETCH NEXT ? ROWS ONLY}
+ * and {@code LOWER(x) LIKE LOWER(y)} for case-insensitive matching. {@link StandardJdbcDialect} covers common
+ * databases; other databases implement only the hooks that differ.
+ * </p>
+ */
+public interface JdbcDialect {
+
+    /**
+     * Gets the character quoting identifiers.
+     * @return the quote character
+     */
+    default char quoteChar() {
+        return '"';
+    }
+
+    /**
+     * Appends a quoted identifier, doubling any quote character it contains.
+     *
+     * @param sql        the SQL being rendered
+     * @param identifier the raw identifier (e.g., a column or alias name)
+     */
+    default void appendIdentifier(final StringBuilder sql,
+                                  final String identifier) {
+        final var quote = quoteChar();
+        sql.append(quote);
+        for (var i = 0; i < identifier.length(); i++) {
+            final var c = identifier.charAt(i);
+            if (c == quote) {
+                sql.append(quote);
+            }
+            sql.append(c);
+        }
+        sql.append(quote);
+    }
+
+    /**
+     * Appends a case-insensitive pattern match.
+     * <p>
+     * Both expressions may hold placeholders bound value first, so they must be written in that order.
+     * </p>
+     *
+     * @param sql     the SQL being rendered
+     * @param value   the rendered value expression
+     * @param pattern the rendered pattern expression, usually {@code ?}
+     */
+    default void appendIlike(final StringBuilder sql,
+                             final CharSequence value,
+                             final CharSequence pattern) {
+        sql.append("LOWER(").append(value).append(") LIKE LOWER(").append(pattern).append(')');
+    }
+
+    /**
+     * Appends the paging clause and its bind values.
+     * <p>
+     * Offset and limit are bound rather than inlined so every page of a query shares the same SQL.
+     * </p>
+     *
+     * @param sql        the SQL being rendered
+     * @param parameters the bind values, in placeholder order
+     * @param offset     the number of rows to skip
+     * @param limit      the maximum number of rows to return
+     */
+    default void appendLimit(final StringBuilder sql,
+                             final List<Object> parameters,
+                             final long offset,
+                             final int limit) {
+        sql.append(" OFFSET ? ROWS FETCH NEXT ? ROWS ONLY");
+        parameters.add(offset);
+        parameters.add(limit);
+    }
+}
@@ -0,0 +1,134 @@
+package io.github.khezyapp.jdbcspec;
+
+import io.github.khezyapp.grammar.ast.QuerySpec;
+import io.github.khezyapp.querysupport.TotalCount;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Executes filtered queries over plain JDBC, with SQL from a {@link JdbcQueryRenderer}.
+ * <p>
+ * Each call borrows one connection from the data source and closes it before returning, so the executor takes
+ * part in the caller's transaction only when the data source is transaction-aware (e.g., Spring's
+ * {@code TransactionAwareDataSourceProxy}). To run the SQL through {@code JdbcTemplate} instead, use the
+ * renderer directly.
+ * </p>
+ */
+public class JdbcFilterExecutor {
+    private final DataSource dataSource;
+    private final JdbcQueryRenderer renderer;
+
+    /**
+     * Constructs an executor.
+     *
+     * @param dataSource the data source
+     * @param renderer   renders and caches the SQL
+     */
+    public JdbcFilterExecutor(final DataSource dataSource,
+                              final JdbcQueryRenderer renderer) {
+        this.dataSource = Objects.requireNonNull(dataSource, "dataSource must not be null");
+        this.renderer = Objects.requireNonNull(renderer, "renderer must not be null");
+    }
+
+    /**
+     * Fetches every matching row.
+     *
+     * @param baseSql   the base {@code SELECT ... FROM ...} statement
+     * @param querySpec the parsed query, may be {@code null}
+     * @param sort      the row order
+     * @param rowMapper maps each row
+     * @param <T>       the mapped type
+     * @return the mapped rows
+     */
+    public <T> List<T> list(final String baseSql,
+                            final QuerySpec querySpec,
+                            final JdbcSort sort,
+                            final JdbcRowMapper<T> rowMapper) {
+        return query(renderer.select(baseSql, querySpec, sort), rowMapper);
+    }
+
+    /**
+     * Fetches one page of rows.
+     * <p>
+     * One extra row is fetched to detect the next page; the count query runs only when a next page exists or
+     * the page is empty past the first one, since otherwise the total follows from the rows fetched.
+     * </p>
+     *
+     * @param baseSql     the base {@code SELECT ... FROM ...} statement
+     * @param querySpec   the parsed query, may be {@code null}
+     * @param pageRequest the page and sort
+     * @param rowMapper   maps each row
+     * @param <T>         the mapped type
+     * @return the page
+     */
+    public <T> JdbcPage<T> fetchPage(final String baseSql,
+                                     final QuerySpec querySpec,
+                                     final JdbcPageRequest pageRequest,
+                                     final JdbcRowMapper<T> rowMapper) {
+        final var pageSize = pageRequest.pageSize();
+        final var offset = pageRequest.offset();
+        final var rows = query(renderer.page(baseSql, querySpec, pageRequest.sort(), offset, pageSize + 1),
+                rowMapper);
+        final var hasNext = rows.size() > pageSize;
+        final var content = hasNext ? rows.subList(0, pageSize) : rows;
+        final long total;
+        if (hasNext || (content.isEmpty() && offset > 0)) {
+            total = count(baseSql, querySpec);
+        } else {
+            total = offset + content.size();
+        }
+        return new JdbcPage<>(content, pageRequest.pageNumber(), pageSize, TotalCount.exact(total), hasNext);
+    }
+
+    /**
+     * Counts the matching rows, or the groups for grouped specifications.
+     *
+     * @param baseSql   the base {@code SELECT ... FROM ...} statement
+     * @param querySpec the parsed query, may be {@code null}
+     * @return the count
+     */
+    public long count(final String baseSql,
+                      final QuerySpec querySpec) {
+        final var counts = query(renderer.count(baseSql, querySpec), (rs, rowNum) -> rs.getLong(1));
+        return counts.isEmpty() ? 0L : counts.get(0);
+    }
+
+    /**
+     * Runs a rendered query and maps every row.
+     *
+     * @param query     the SQL and bind values
+     * @param rowMapper maps each row
+     * @param <T>       the mapped type
+     * @return the mapped rows
+     * @throws IllegalStateException if the query fails
+     */
+    public <T> List<T> query(final JdbcQuery query,
+                             final JdbcRowMapper<T> rowMapper) {
+        Objects.requireNonNull(rowMapper, "rowMapper must not be null");
+        try (var connection = dataSource.getConnection();
+             var statement = connection.prepareStatement(query.sql())) {
+            query.bind(statement);
+            try (var rs = statement.executeQuery()) {
+                final var rows = new ArrayList<T>();
+                while (rs.next()) {
+                    rows.add(rowMapper.mapRow(rs, rows.size()));
+                }
+                return rows;
+            }
+        } catch (final SQLException e) {
+            throw new IllegalStateException("Failed to execute query: " + query.sql(), e);
+        }
+    }
+
+    /**
+     * Gets the renderer producing the SQL.
+     * @return the renderer
+     */
+    public JdbcQueryRenderer getRenderer() {
+        return renderer;
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.khezyapp.jdbcspec;
+
+import java.util.Objects;
+
+/**
+ * A single sort criterion on a filter path, resolved through the {@link JdbcColumnRegistry} like filter paths.
+ *
+ * @param path      the dotted filter path to sort by
+ * @param direction the sort direction
+ */
+public record JdbcOrder(
+        String path,
+        Direction direction
+) {
+
+    /**
+     * Compact constructor validating the path and defaulting the direction to ASC.
+     */
+    public JdbcOrder {
+        Objects.requireNonNull(path, "path must not be null");
+        direction = Objects.requireNonNullElse(direction, Direction.ASC);
+    }
+
+    /**
+     * Creates an ascending order.
+     *
+     * @param path the dotted filter path
+     * @return the order
+     */
+    public static JdbcOrder asc(final String path) {
+        return new JdbcOrder(path, Direction.ASC);
+    }
+
+    /**
+     * Creates a descending order.
+     *
+     * @param path the dotted filter path
+     * @return the order
+     */
+    public static JdbcOrder desc(final String path) {
+        return new JdbcOrder(path, Direction.DESC);
+    }
+
+    /**
+     * Supported sort directions.
+     */
+    public enum Direction {
+        /** Ascending sort order. */
+        ASC,
+        /** Descending sort order. */
+        DESC;
+
+        /**
+         * Resolves a {@link Direction} from a string value, ignoring case.
+         *
+         * @param direction the string representation (e.g., "asc", "DESC")
+         * @return the matching Direction
+         * @throws IllegalArgumentException if the direction is not recognized
+         */
+        public static Direction of(final String direction) {
+            for (final var d : Direction.values()) {
+                if (d.name().equalsIgnoreCase(direction)) {
+                    return d;
+                }
+            }
+            throw new IllegalArgumentException("Unknown direction: " + direction);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package io.github.khezyapp.jdbcspec;
+
+import io.github.khezyapp.querysupport.TotalCount;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A page of rows returned by {@link JdbcFilterExecutor}.
+ *
+ * @param content    the rows of the page
+ * @param pageNumber the zero-based page index
+ * @param pageSize   the requested page size
+ * @param totalCount the total number of matching rows
+ * @param hasNext    whether a next page exists
+ * @param <T>        the type of the page content
+ */
+public record JdbcPage<T>(
+        List<T> content,
+        int pageNumber,
+        int pageSize,
+        TotalCount totalCount,
+        boolean hasNext
+) {
+
+    /**
+     * Compact constructor making the content unmodifiable.
+     */
+    public JdbcPage {
+        content = Collections.unmodifiableList(content);
+    }
+
+    /**
+     * Calculates the number of pages, based on the total count.
+     * @return the number of pages
+     */
+    public long totalPages() {
+        return (totalCount.value() + pageSize - 1) / pageSize;
+    }
+
+    /**
+     * Maps the content of this page, keeping the paging metadata.
+     *
+     * @param mapper the row mapper
+     * @param <U>    the mapped type
+     * @return a new page holding the mapped rows
+     */
+    public <U> JdbcPage<U> map(final Function<? super T, ? extends U> mapper) {
+        final var mapped = content.stream()
+                .<U>map(mapper)
+                .toList();
+        return new JdbcPage<>(mapped, pageNumber, pageSize, totalCount, hasNext);
+    }
+}
@@ -0,0 +1,54 @@
+package io.github.khezyapp.jdbcspec;
+
+import java.util.Objects;
+
+/**
+ * A pagination request for plain JDBC queries.
+ *
+ * @param pageNumber the zero-based page index
+ * @param pageSize   the number of rows per page
+ * @param sort       the sorting configuration
+ */
+public record JdbcPageRequest(
+        int pageNumber,
+        int pageSize,
+        JdbcSort sort
+) {
+
+    /**
+     * Compact constructor to validate pagination boundaries.
+     * @throws IllegalArgumentException if pageNumber is negative or pageSize is less than one
+     */
+    public JdbcPageRequest {
+        if (pageNumber < 0) {
+            throw new IllegalArgumentException("Page index must not be less than zero");
+        }
+
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must not be less than one");
+        }
+        sort = Objects.requireNonNullElse(sort, JdbcSort.unsorted());
+    }
+
+    /**
+     * Creates a page request.
+     *
+     * @param pageNumber the zero-based page index
+     * @param pageSize   the number of rows per page
+     * @param orders     the sort criteria, in priority order
+     * @return the page request
+     */
+    public static JdbcPageRequest of(final int pageNumber,
+                                     final int pageSize,
+                                     final JdbcOrder... orders) {
+        return new JdbcPageRequest(pageNumber, pageSize, JdbcSort.by(orders));
+    }
+
+    /**
+     * Calculates the number of rows to skip.
+     * @return the offset
+     */
+    public long offset() {
+        return (long) pageNumber * pageSize;
+    }
+}
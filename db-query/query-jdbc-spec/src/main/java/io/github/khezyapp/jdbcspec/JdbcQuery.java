@@ -0,0 +1,48 @@
+package io.github.khezyapp.jdbcspec;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Ready-to-run SQL with its bind values in placeholder order.
+ * <p>
+ * With Spring's {@code JdbcTemplate}: {@code jdbcTemplate.query(query.sql(), rowMapper, query.parameterArray())}.
+ * </p>
+ *
+ * @param sql        the SQL with {@code ?} placeholders
+ * @param parameters the bind values; {@code null} values are allowed
+ */
+public record JdbcQuery(
+        String sql,
+        List<Object> parameters
+) {
+
+    /**
+     * Compact constructor making the parameters unmodifiable.
+     */
+    public JdbcQuery {
+        parameters = Collections.unmodifiableList(parameters);
+    }
+
+    /**
+     * Gets the bind values as an array, e.g., for {@code JdbcTemplate} varargs.
+     * @return a new array of bind values
+     */
+    public Object[] parameterArray() {
+        return parameters.toArray();
+    }
+
+    /**
+     * Binds every value to the statement with {@link PreparedStatement#setObject(int, Object)}.
+     *
+     * @param statement a statement prepared from {@link #sql()}
+     * @throws SQLException if binding fails
+     */
+    public void bind(final PreparedStatement statement) throws SQLException {
+        for (var i = 0; i < parameters.size(); i++) {
+            statement.setObject(i + 1, parameters.get(i));
+        }
+    }
+}
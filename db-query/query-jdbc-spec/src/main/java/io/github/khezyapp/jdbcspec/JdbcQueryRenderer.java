@@ -0,0 +1,222 @@
+package io.github.khezyapp.jdbcspec;
+
+import io.github.khezyapp.grammar.ast.QuerySpec;
+import io.github.khezyapp.grammar.support.SpecShape;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Renders filtered, sorted and paged SQL around a base {@code SELECT ... FROM ...} statement.
+ * <p>
+ * Rendered SQL is cached by query shape: the base SQL, the sort and the {@link SpecShape} key, which keeps
+ * operators, paths and literal types but not literal values. A repeated shape skips the visitor and binds the
+ * new literals to the cached SQL, and since the SQL text is identical, drivers and connection pools that cache
+ * prepared statements reuse the same statement. The cache is cleared when it reaches its maximum size.
+ * </p>
+ * <p>
+ * The base SQL must not contain WHERE, GROUP BY, ORDER BY or paging clauses; joins belong in it.
+ * </p>
+ */
+public final class JdbcQueryRenderer {
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    private final JdbcColumnRegistry registry;
+    private final JdbcDialect dialect;
+    private final int maxEntries;
+    private final Map<String, String> cache = new ConcurrentHashMap<>();
+
+    private JdbcQueryRenderer(final Builder builder) {
+        this.registry = builder.registry;
+        this.dialect = builder.dialect;
+        this.maxEntries = builder.maxEntries;
+    }
+
+    /**
+     * Creates a builder for a renderer.
+     * @return a new {@link Builder}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Renders the specification fragments without caching.
+     *
+     * @param querySpec the parsed query, may be {@code null}
+     * @return the rendered specification
+     * @throws IllegalArgumentException if a path is unknown and the registry is strict
+     */
+    public JdbcSpecification specification(final QuerySpec querySpec) {
+        if (Objects.isNull(querySpec)) {
+            return JdbcSpecification.empty();
+        }
+        final var visitor = new FilterJdbcVisitor(registry, dialect);
+        querySpec.accept(visitor);
+        return visitor.specification();
+    }
+
+    /**
+     * Renders the filtered and sorted query, without paging.
+     *
+     * @param baseSql   the base {@code SELECT ... FROM ...} statement
+     * @param querySpec the parsed query, may be {@code null}
+     * @param sort      the row order
+     * @return the query
+     */
+    public JdbcQuery select(final String baseSql,
+                            final QuerySpec querySpec,
+                            final JdbcSort sort) {
+        return render("select", baseSql, querySpec, sort, null, 0L, 0);
+    }
+
+    /**
+     * Renders one page of the filtered and sorted query; the offset and limit are bound last.
+     *
+     * @param baseSql   the base {@code SELECT ... FROM ...} statement
+     * @param querySpec the parsed query, may be {@code null}
+     * @param sort      the row order, which should be total for stable pages
+     * @param offset    the number of rows to skip
+     * @param limit     the maximum number of rows
+     * @return the query
+     */
+    public JdbcQuery page(final String baseSql,
+                          final QuerySpec querySpec,
+                          final JdbcSort sort,
+                          final long offset,
+                          final int limit) {
+        return render("page", baseSql, querySpec, sort, new StringBuilder(32), offset, limit);
+    }
+
+    /**
+     * Renders a count of the filtered rows, or of the groups for grouped specifications.
+     *
+     * @param baseSql   the base {@code SELECT ... FROM ...} statement
+     * @param querySpec the parsed query, may be {@code null}
+     * @return the query
+     */
+    public JdbcQuery count(final String baseSql,
+                           final QuerySpec querySpec) {
+        return render("count", baseSql, querySpec, JdbcSort.unsorted(), null, 0L, 0);
+    }
+
+    /**
+     * Gets the number of cached SQL statements.
+     * @return the cache size
+     */
+    public int cachedStatements() {
+        return cache.size();
+    }
+
+    /**
+     * Renders or reuses the SQL of a query shape and collects its bind values.
+     *
+     * @param kind      the statement kind, part of the cache key
+     * @param baseSql   the base statement
+     * @param querySpec the parsed query, may be {@code null}
+     * @param sort      the row order
+     * @param paging    scratch buffer for the paging clause, {@code null} for unpaged statements
+     * @param offset    the number of rows to skip
+     * @param limit     the maximum number of rows
+     * @return the query
+     */
+    private JdbcQuery render(final String kind,
+                             final String baseSql,
+                             final QuerySpec querySpec,
+                             final JdbcSort sort,
+                             final StringBuilder paging,
+                             final long offset,
+                             final int limit) {
+        Objects.requireNonNull(baseSql, "baseSql must not be null");
+        final var useSort = Objects.requireNonNullElse(sort, JdbcSort.unsorted());
+        final var shape = SpecShape.of(querySpec);
+        final var key = kind + KEY_SEPARATOR + baseSql + KEY_SEPARATOR + useSort.key() + KEY_SEPARATOR + shape.key();
+        final var cached = cache.get(key);
+        if (Objects.nonNull(cached)) {
+            final var parameters = new ArrayList<>(shape.literals());
+            if (Objects.nonNull(paging)) {
+                dialect.appendLimit(paging, parameters, offset, limit);
+            }
+            return new JdbcQuery(cached, parameters);
+        }
+
+        final var specification = specification(querySpec);
+        final var parameters = new ArrayList<>(specification.parameters());
+        final var sql = new StringBuilder(baseSql.length() + 128);
+        if ("count".equals(kind)) {
+            sql.append("SELECT COUNT(*) FROM (").append(baseSql);
+            specification.appendTo(sql).append(") filter_count");
+        } else {
+            sql.append(baseSql);
+            specification.appendTo(sql);
+            useSort.appendTo(sql, registry, dialect);
+            if (Objects.nonNull(paging)) {
+                dialect.appendLimit(sql, parameters, offset, limit);
+            }
+        }
+        final var rendered = sql.toString();
+        // Only shapes whose placeholders line up with the shape literals can be replayed
+        if (maxEntries > 0 && specification.parameters().equals(shape.literals())) {
+            if (cache.size() >= maxEntries) {
+                cache.clear();
+            }
+            cache.put(key, rendered);
+        }
+        return new JdbcQuery(rendered, parameters);
+    }
+
+    /**
+     * Fluent builder for constructing {@link JdbcQueryRenderer} instances.
+     */
+    public static class Builder {
+        private JdbcColumnRegistry registry = JdbcColumnRegistry.lenient();
+        private JdbcDialect dialect = StandardJdbcDialect.ANSI;
+        private int maxEntries = 1000;
+
+        /**
+         * Sets the column registry resolving filter and sort paths.
+         *
+         * @param registry the registry (default: lenient)
+         * @return the builder instance
+         */
+        public Builder registry(final JdbcColumnRegistry registry) {
+            this.registry = Objects.requireNonNull(registry, "registry must not be null");
+            return this;
+        }
+
+        /**
+         * Sets the SQL dialect.
+         *
+         * @param dialect the dialect (default: {@link StandardJdbcDialect#ANSI})
+         * @return the builder instance
+         */
+        public Builder dialect(final JdbcDialect dialect) {
+            this.dialect = Objects.requireNonNull(dialect, "dialect must not be null");
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of cached statements.
+         *
+         * @param maxEntries the cache size, zero to disable caching (default: 1000)
+         * @return the builder instance
+         */
+        public Builder maxEntries(final int maxEntries) {
+            if (maxEntries < 0) {
+                throw new IllegalArgumentException("maxEntries must not be negative");
+            }
+            this.maxEntries = maxEntries;
+            return this;
+        }
+
+        /**
+         * Builds a new {@link JdbcQueryRenderer}.
+         * @return the renderer
+         */
+        public JdbcQueryRenderer build() {
+            return new JdbcQueryRenderer(this);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package io.github.khezyapp.jdbcspec;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps the current row of a {@link ResultSet}.
+ * <p>
+ * The signature matches Spring's {@code RowMapper}, so the same lambdas work for both, and an existing
+ * {@code RowMapper} is passed as {@code rowMapper::mapRow}. The mapper must not move the cursor.
+ * </p>
+ *
+ * @param <T> the mapped type
+ */
+@FunctionalInterface
+public interface JdbcRowMapper<T> {
+
+    /**
+     * Maps the current row.
+     *
+     * @param rs     the result set, positioned on the row
+     * @param rowNum the zero-based row number
+     * @return the mapped row
+     * @throws SQLException if reading a column fails
+     */
+    T mapRow(ResultSet rs, int rowNum) throws SQLException;
+}
@@ -0,0 +1,74 @@
+package io.github.khezyapp.jdbcspec;
+
+import java.util.List;
+
+/**
+ * A list of {@link JdbcOrder}s defining the ORDER BY clause.
+ *
+ * @param orders the sort criteria, in priority order
+ */
+public record JdbcSort(List<JdbcOrder> orders) {
+    private static final JdbcSort UNSORTED = new JdbcSort(List.of());
+
+    /**
+     * Compact constructor making the orders unmodifiable.
+     */
+    public JdbcSort {
+        orders = List.copyOf(orders);
+    }
+
+    /**
+     * Gets the sort leaving rows in database order.
+     * @return the empty sort
+     */
+    public static JdbcSort unsorted() {
+        return UNSORTED;
+    }
+
+    /**
+     * Creates a sort from criteria.
+     *
+     * @param orders the sort criteria, in priority order
+     * @return the sort
+     */
+    public static JdbcSort by(final JdbcOrder... orders) {
+        return new JdbcSort(List.of(orders));
+    }
+
+    /**
+     * Appends the ORDER BY clause, preceded by a space, when any order is present.
+     *
+     * @param sql      the SQL being built
+     * @param registry resolves sort paths to columns
+     * @param dialect  quotes the columns
+     * @throws IllegalArgumentException if a path is unknown and the registry is strict
+     */
+    public void appendTo(final StringBuilder sql,
+                         final JdbcColumnRegistry registry,
+                         final JdbcDialect dialect) {
+        for (var i = 0; i < orders.size(); i++) {
+            sql.append(i == 0 ? " ORDER BY " : ", ");
+            final var order = orders.get(i);
+            final var identifiers = registry.resolve(order.path(), List.of(order.path().split("\\.")));
+            for (var j = 0; j < identifiers.size(); j++) {
+                if (j > 0) {
+                    sql.append('.');
+                }
+                dialect.appendIdentifier(sql, identifiers.get(j));
+            }
+            sql.append(' ').append(order.direction().name());
+        }
+    }
+
+    /**
+     * Builds a key identifying the ORDER BY clause, for SQL caching.
+     * @return the sort key
+     */
+    String key() {
+        final var key = new StringBuilder();
+        for (final var order : orders) {
+            key.append(order.path()).append(' ').append(order.direction().name()).append(',');
+        }
+        return key.toString();
+    }
+}
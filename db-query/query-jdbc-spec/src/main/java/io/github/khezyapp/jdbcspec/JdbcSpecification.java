@@ -0,0 +1,67 @@
+package io.github.khezyapp.jdbcspec;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A filter rendered to SQL fragments with {@code ?} placeholders.
+ * <p>
+ * Fragments hold no keyword; {@link #appendTo(StringBuilder)} adds {@code WHERE}, {@code GROUP BY} and
+ * {@code HAVING} for the non-empty ones. Parameters are listed in placeholder order, WHERE before HAVING.
+ * </p>
+ *
+ * @param where      the WHERE condition, empty when unfiltered
+ * @param groupBy    the comma-separated GROUP BY columns, empty when not grouped
+ * @param having     the HAVING condition, empty when absent
+ * @param parameters the bind values of the placeholders
+ */
+public record JdbcSpecification(
+        String where,
+        String groupBy,
+        String having,
+        List<Object> parameters
+) {
+    private static final JdbcSpecification EMPTY = new JdbcSpecification("", "", "", List.of());
+
+    /**
+     * Compact constructor making the parameters unmodifiable; {@code null} parameters are allowed.
+     */
+    public JdbcSpecification {
+        parameters = Collections.unmodifiableList(parameters);
+    }
+
+    /**
+     * Gets the specification matching every row.
+     * @return the empty specification
+     */
+    public static JdbcSpecification empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Appends the WHERE, GROUP BY and HAVING clauses, each preceded by a space.
+     *
+     * @param sql the SQL being built, typically a base {@code SELECT ... FROM ...}
+     * @return the same builder
+     */
+    public StringBuilder appendTo(final StringBuilder sql) {
+        if (!where.isEmpty()) {
+            sql.append(" WHERE ").append(where);
+        }
+        if (!groupBy.isEmpty()) {
+            sql.append(" GROUP BY ").append(groupBy);
+        }
+        if (!having.isEmpty()) {
+            sql.append(" HAVING ").append(having);
+        }
+        return sql;
+    }
+
+    /**
+     * Checks whether the specification groups rows.
+     * @return {@code true} if a GROUP BY clause is present
+     */
+    public boolean isGrouped() {
+        return !groupBy.isEmpty();
+    }
+}
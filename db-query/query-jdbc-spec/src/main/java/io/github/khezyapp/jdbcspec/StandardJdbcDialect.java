@@ -0,0 +1,60 @@
+package io.github.khezyapp.jdbcspec;
+
+import java.util.List;
+
+/**
+ * Built-in {@link JdbcDialect}s.
+ */
+public enum StandardJdbcDialect implements JdbcDialect {
+    /** SQL standard syntax, e.g., for Oracle 12c+, SQL Server 2012+ and DB2. */
+    ANSI,
+    /** PostgreSQL, also suitable for H2: native {@code ILIKE} and {@code LIMIT ? OFFSET ?}. */
+    POSTGRES {
+        @Override
+        public void appendIlike(final StringBuilder sql,
+                                final CharSequence value,
+                                final CharSequence pattern) {
+            sql.append(value).append(" ILIKE ").append(pattern);
+        }
+
+        @Override
+        public void appendLimit(final StringBuilder sql,
+                                final List<Object> parameters,
+                                final long offset,
+                                final int limit) {
+            appendLimitOffset(sql, parameters, offset, limit);
+        }
+    },
+    /** MySQL and MariaDB: back-quoted identifiers and {@code LIMIT ? OFFSET ?}. */
+    MYSQL {
+        @Override
+        public char quoteChar() {
+            return '`';
+        }
+
+        @Override
+        public void appendLimit(final StringBuilder sql,
+                                final List<Object> parameters,
+                                final long offset,
+                                final int limit) {
+            appendLimitOffset(sql, parameters, offset, limit);
+        }
+    };
+
+    /**
+     * Appends {@code LIMIT ? OFFSET ?} and binds the limit before the offset.
+     *
+     * @param sql        the SQL being rendered
+     * @param parameters the bind values
+     * @param offset     the number of rows to skip
+     * @param limit      the maximum number of rows to return
+     */
+    private static void appendLimitOffset(final StringBuilder sql,
+                                          final List<Object> parameters,
+                                          final long offset,
+                                          final int limit) {
+        sql.append(" LIMIT ? OFFSET ?");
+        parameters.add(limit);
+        parameters.add(offset);
+    }
+}
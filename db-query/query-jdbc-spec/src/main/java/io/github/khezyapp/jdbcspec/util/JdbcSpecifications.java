@@ -0,0 +1,54 @@
+package io.github.khezyapp.jdbcspec.util;
+
+import io.github.khezyapp.grammar.ASTSpecs;
+import io.github.khezyapp.grammar.ast.QuerySpec;
+import io.github.khezyapp.jdbcspec.FilterJdbcVisitor;
+import io.github.khezyapp.jdbcspec.JdbcColumnRegistry;
+import io.github.khezyapp.jdbcspec.JdbcDialect;
+import io.github.khezyapp.jdbcspec.JdbcSpecification;
+
+import java.util.Objects;
+
+/**
+ * Utility class for rendering {@link JdbcSpecification} instances from raw query strings.
+ */
+public final class JdbcSpecifications {
+
+    private JdbcSpecifications() {
+    }
+
+    /**
+     * Parses a raw filter query string and renders it to SQL fragments.
+     *
+     * @param rawQuery the query string to parse (e.g., "status = 'ACTIVE' AND age > 18")
+     * @param registry the column registry
+     * @param dialect  the SQL dialect
+     * @return the rendered specification, empty for a blank query
+     * @throws IllegalArgumentException if a path is unknown and the registry is strict
+     */
+    public static JdbcSpecification of(final String rawQuery,
+                                       final JdbcColumnRegistry registry,
+                                       final JdbcDialect dialect) {
+        return of(ASTSpecs.fromQuery(rawQuery), registry, dialect);
+    }
+
+    /**
+     * Renders a parsed query to SQL fragments.
+     *
+     * @param querySpec the parsed query, may be {@code null}
+     * @param registry  the column registry
+     * @param dialect   the SQL dialect
+     * @return the rendered specification
+     * @throws IllegalArgumentException if a path is unknown and the registry is strict
+     */
+    public static JdbcSpecification of(final QuerySpec querySpec,
+                                       final JdbcColumnRegistry registry,
+                                       final JdbcDialect dialect) {
+        if (Objects.isNull(querySpec)) {
+            return JdbcSpecification.empty();
+        }
+        final var visitor = new FilterJdbcVisitor(registry, dialect);
+        querySpec.accept(visitor);
+        return visitor.specification();
+    }
+}
@@ -0,0 +1,96 @@
+package io.github.khezyapp.jdbcspec;
+
+import io.github.khezyapp.grammar.ASTSpecs;
+import io.github.khezyapp.jdbcspec.util.JdbcSpecifications;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FilterJdbcVisitorTest {
+
+    private static final JdbcColumnRegistry REGISTRY = JdbcColumnRegistry.builder()
+            .table("", "b", "title", "price", "genre")
+            .column("author.name", "a", "name")
+            .build();
+
+    @Test
+    @DisplayName("Test literals become placeholders in walk order and columns are quoted")
+    void testWhere() {
+        final var spec = JdbcSpecifications.of("title = 'Emma' AND price BETWEEN 5 AND 20 AND genre IN ('A', 'B')",
+                REGISTRY, StandardJdbcDialect.ANSI);
+
+        assertEquals("\"b\".\"title\" = ? AND \"b\".\"price\" BETWEEN ? AND ? AND \"b\".\"genre\" IN (?, ?)",
+                spec.where());
+        assertEquals(5, spec.parameters().size());
+        assertEquals("Emma", spec.parameters().get(0));
+        assertEquals("B", spec.parameters().get(4));
+    }
+
+    @Test
+    @DisplayName("Test OR inside AND is parenthesized")
+    void testPrecedence() {
+        final var spec = JdbcSpecifications.of("(title = 'Emma' OR title = 'Persuasion') AND price IS NOT NULL",
+                REGISTRY, StandardJdbcDialect.ANSI);
+
+        assertEquals("(\"b\".\"title\" = ? OR \"b\".\"title\" = ?) AND \"b\".\"price\" IS NOT NULL", spec.where());
+    }
+
+    @Test
+    @DisplayName("Test ILIKE is rendered by the dialect")
+    void testIlike() {
+        final var ansi = JdbcSpecifications.of("author.name ILIKE 'jane%'", REGISTRY, StandardJdbcDialect.ANSI);
+        final var postgres = JdbcSpecifications.of("author.name ILIKE 'jane%'", REGISTRY,
+                StandardJdbcDialect.POSTGRES);
+
+        assertEquals("LOWER(\"a\".\"name\") LIKE LOWER(?)", ansi.where());
+        assertEquals("\"a\".\"name\" ILIKE ?", postgres.where());
+        assertEquals(List.of("jane%"), postgres.parameters());
+    }
+
+    @Test
+    @DisplayName("Test GROUP BY and HAVING are rendered with aggregate columns")
+    void testGroupByHaving() {
+        final var spec = JdbcSpecifications.of("price > 0 GROUP BY genre HAVING COUNT(*) > 2 AND MAX(price) < 50",
+                REGISTRY, StandardJdbcDialect.MYSQL);
+
+        assertEquals("`b`.`price` > ?", spec.where());
+        assertEquals("`b`.`genre`", spec.groupBy());
+        assertEquals("COUNT(*) > ? AND MAX(`b`.`price`) < ?", spec.having());
+        assertEquals(3, spec.parameters().size());
+        assertEquals(" WHERE `b`.`price` > ? GROUP BY `b`.`genre` HAVING COUNT(*) > ? AND MAX(`b`.`price`) < ?",
+                spec.appendTo(new StringBuilder()).toString());
+    }
+
+    @Test
+    @DisplayName("Test COUNT_DISTINCT_APPROX falls back to an exact distinct count")
+    void testApproximateDistinctCount() {
+        final var spec = JdbcSpecifications.of("price > 0 GROUP BY genre HAVING COUNT_DISTINCT_APPROX(title) > 2",
+                REGISTRY, StandardJdbcDialect.MYSQL);
+
+        assertEquals("COUNT(DISTINCT `b`.`title`) > ?", spec.having());
+    }
+
+    @Test
+    @DisplayName("Test unknown paths are rejected by a strict registry and quoted by a lenient one")
+    void testRegistry() {
+        final var querySpec = ASTSpecs.fromQuery("secret = 'x'");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> JdbcSpecifications.of(querySpec, REGISTRY, StandardJdbcDialect.ANSI));
+        assertEquals("\"secret\" = ?",
+                JdbcSpecifications.of(querySpec, JdbcColumnRegistry.lenient(), StandardJdbcDialect.ANSI).where());
+    }
+
+    @Test
+    @DisplayName("Test quote characters inside identifiers are doubled")
+    void testQuoting() {
+        final var sql = new StringBuilder();
+
+        StandardJdbcDialect.ANSI.appendIdentifier(sql, "a\"b");
+
+        assertEquals("\"a\"\"b\"", sql.toString());
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.khezyapp.jdbcspec;
+
+import io.github.khezyapp.grammar.ASTSpecs;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JdbcFilterExecutorTest {
+
+    private static final String BASE_SQL = "SELECT b.\"id\", b.\"title\", b.\"price\" FROM \"book\" b";
+    private static final JdbcRowMapper<String> TITLE = (rs, rowNum) -> rs.getString("title");
+
+    private static JdbcDataSource dataSource;
+
+    @BeforeAll
+    static void createBooks() throws SQLException {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:jdbc-spec;DB_CLOSE_DELAY=-1");
+        try (var connection = dataSource.getConnection();
+             var statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE \"book\" (\"id\" BIGINT PRIMARY KEY, \"title\" VARCHAR(100), "
+                    + "\"price\" DECIMAL(10, 2))");
+            for (var i = 1; i <= 25; i++) {
+                statement.execute("INSERT INTO \"book\" VALUES (%d, 'Book %02d', %d)".formatted(i, i, i));
+            }
+        }
+    }
+
+    private static JdbcFilterExecutor executor(final JdbcDialect dialect) {
+        final var registry = JdbcColumnRegistry.builder()
+                .table("", "b", "id", "title", "price")
+                .build();
+        return new JdbcFilterExecutor(dataSource, JdbcQueryRenderer.builder()
+                .registry(registry)
+                .dialect(dialect)
+                .build());
+    }
+
+    @Test
+    @DisplayName("Test pages are filtered, sorted and counted")
+    void testFetchPage() {
+        final var executor = executor(StandardJdbcDialect.POSTGRES);
+        final var querySpec = ASTSpecs.fromQuery("price > 10 AND title ILIKE 'book%'");
+
+        final var first = executor.fetchPage(BASE_SQL, querySpec,
+                JdbcPageRequest.of(0, 10, JdbcOrder.desc("price")), TITLE);
+        final var last = executor.fetchPage(BASE_SQL, querySpec,
+                JdbcPageRequest.of(1, 10, JdbcOrder.desc("price")), TITLE);
+
+        assertEquals("Book 25", first.content().get(0));
+        assertTrue(first.hasNext());
+        assertEquals(15L, first.totalCount().value());
+        assertEquals(List.of("Book 15", "Book 14", "Book 13", "Book 12", "Book 11"), last.content());
+        assertFalse(last.hasNext());
+        assertEquals(15L, last.totalCount().value());
+    }
+
+    @Test
+    @DisplayName("Test the standard paging clause runs on H2")
+    void testAnsiPaging() {
+        final var page = executor(StandardJdbcDialect.ANSI).fetchPage(BASE_SQL, ASTSpecs.fromQuery("id <= 3"),
+                JdbcPageRequest.of(0, 2, JdbcOrder.asc("id")), TITLE);
+
+        assertEquals(List.of("Book 01", "Book 02"), page.content());
+        assertEquals(3L, page.totalCount().value());
+    }
+
+    @Test
+    @DisplayName("Test queries of the same shape reuse the cached SQL with new literals")
+    void testShapeCache() {
+        final var executor = executor(StandardJdbcDialect.POSTGRES);
+        final var sort = JdbcSort.by(JdbcOrder.asc("id"));
+
+        final var low = executor.list(BASE_SQL, ASTSpecs.fromQuery("price < 3"), sort, TITLE);
+        final var high = executor.list(BASE_SQL, ASTSpecs.fromQuery("price < 5"), sort, TITLE);
+
+        assertEquals(List.of("Book 01", "Book 02"), low);
+        assertEquals(4, high.size());
+        assertEquals(1, executor.getRenderer().cachedStatements());
+        assertEquals(20L, executor.count(BASE_SQL, ASTSpecs.fromQuery("price > 5")));
+    }
+}
@@ -0,0 +1,185 @@
+package io.github.khezyapp.jooqspec.reactive;
+
+import io.github.khezyapp.jooqspec.JooqPage;
+import io.github.khezyapp.jooqspec.JooqPaginationQuery;
+import io.github.khezyapp.jooqspec.JooqSort;
+import io.github.khezyapp.jooqspec.JooqSpecification;
+import io.github.khezyapp.querysupport.CountStrategy;
+import io.github.khezyapp.querysupport.TotalCount;
+import io.r2dbc.spi.ConnectionFactory;
+import org.jooq.DSLContext;
+import org.jooq.Record;
+import org.jooq.Select;
+import org.jooq.SelectQuery;
+import org.jooq.impl.DSL;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Executes jOOQ filter specifications through R2DBC, without blocking.
+ * <p>
+ * The reactive counterpart of {@link io.github.khezyapp.jooqspec.JooqFilterExecutor}: the caller supplies the
+ * base query (SELECT list, FROM and joins) and the executor applies the specification, sorting and paging.
+ * Every query is attached to this executor's {@link DSLContext} before execution, so base queries may be built
+ * with any context. Rows are emitted as the driver reads them and follow downstream demand.
+ * </p>
+ * <p>
+ * For pages, the row query and the count query are subscribed together; each acquires its own connection from
+ * the {@link ConnectionFactory}, so with a connection pool they run concurrently. The count follows the
+ * query's {@link CountStrategy}: {@code SLICE} skips it, {@code CAPPED} counts at most {@code cap + 1} rows,
+ * and the other modes run an exact count, since planner estimates and the count cache are blocking sources.
+ * </p>
+ */
+public class ReactiveJooqFilterExecutor {
+    private final DSLContext dsl;
+
+    /**
+     * Constructs an executor running queries on the given R2DBC connection factory, typically a pool.
+     * @param connectionFactory the R2DBC connection factory
+     */
+    public ReactiveJooqFilterExecutor(final ConnectionFactory connectionFactory) {
+        this(DSL.using(Objects.requireNonNull(connectionFactory, "connectionFactory must not be null")));
+    }
+
+    /**
+     * Constructs an executor running queries on a DSL context configured with an R2DBC connection factory.
+     * @param dsl the jOOQ DSL context
+     */
+    public ReactiveJooqFilterExecutor(final DSLContext dsl) {
+        this.dsl = Objects.requireNonNull(dsl, "dsl must not be null");
+    }
+
+    /**
+     * Streams every row matching the specification.
+     * <p>
+     * The query is built when the returned {@link Flux} is subscribed, and rows are requested from the
+     * driver as downstream demand allows.
+     * </p>
+     *
+     * @param baseQuery     supplies a fresh select with the SELECT list, FROM and joins
+     * @param specification the filter specification
+     * @param sort          the sort, may be {@code null}
+     * @param <R>           the record type
+     * @return the matching rows
+     */
+    public <R extends Record> Flux<R> stream(final Supplier<? extends SelectQuery<R>> baseQuery,
+                                             final JooqSpecification specification,
+                                             final JooqSort sort) {
+        return Flux.defer(() -> {
+            final var select = attached(specification.applyTo(baseQuery.get()));
+            if (Objects.nonNull(sort)) {
+                select.addOrderBy(sort.sortFields());
+            }
+            return Flux.from(select);
+        });
+    }
+
+    /**
+     * Fetches one page of rows and its total, running the row and count queries concurrently.
+     * <p>
+     * {@code baseQuery} must return a new query on every call. Strategies that probe the next page fetch one
+     * extra row to compute {@code hasNext}.
+     * </p>
+     *
+     * @param baseQuery supplies a fresh select with the SELECT list, FROM and joins
+     * @param query     the specification, paging and count strategy
+     * @param <R>       the record type
+     * @return the page
+     */
+    public <R extends Record> Mono<JooqPage<R>> fetchPage(final Supplier<? extends SelectQuery<R>> baseQuery,
+                                                          final JooqPaginationQuery query) {
+        final var strategy = query.countStrategy();
+        final var pageSize = query.getPageSize();
+        final Mono<List<R>> rows = Flux.defer(() -> {
+            final var select = attached(query.specification().applyTo(baseQuery.get()));
+            select.addOrderBy(query.getSort().sortFields());
+            select.addLimit(query.getOffset(), strategy.probesNextPage() ? pageSize + 1 : pageSize);
+            return Flux.from(select);
+        }).collectList();
+        final Mono<TotalCount> total = Mono.defer(() -> countFor(strategy,
+                query.specification().applyTo(baseQuery.get())));
+
+        return Mono.zip(rows, total).map(result -> {
+            final var fetched = result.getT1();
+            if (!strategy.probesNextPage()) {
+                final var count = result.getT2();
+                return new JooqPage<>(fetched, query.getPageNumber(), pageSize, count,
+                        query.getOffset() + fetched.size() < count.value());
+            }
+            final var hasNext = fetched.size() > pageSize;
+            final var content = hasNext ? fetched.subList(0, pageSize) : fetched;
+            // Without a next page the rows seen so far are the exact total, unless the page is past the end
+            final var count = hasNext || (content.isEmpty() && query.getOffset() > 0)
+                    ? result.getT2()
+                    : TotalCount.exact(query.getOffset() + (long) content.size());
+            return new JooqPage<>(content, query.getPageNumber(), pageSize, count, hasNext);
+        });
+    }
+
+    /**
+     * Counts all rows of the select, wrapping it as a derived table so grouped queries count groups.
+     *
+     * @param select the filtered select
+     * @return the number of rows
+     */
+    public Mono<Long> count(final Select<?> select) {
+        return Mono.from(dsl.selectCount().from(select.asTable("filtered")))
+                .map(r -> r.value1().longValue());
+    }
+
+    /**
+     * Counts the rows of the select, stopping after {@code limit} rows.
+     *
+     * @param select the filtered select
+     * @param limit  the maximum number of rows to count
+     * @return the number of rows counted, never greater than {@code limit}
+     */
+    public Mono<Long> countUpTo(final Select<?> select,
+                                final long limit) {
+        return Mono.from(
+                dsl.selectCount()
+                        .from(dsl.selectOne().from(select.asTable("filtered")).limit(limit).asTable("capped"))
+        ).map(r -> r.value1().longValue());
+    }
+
+    /**
+     * Gets the DSL context backing this executor.
+     * @return the DSL context
+     */
+    protected DSLContext getDsl() {
+        return dsl;
+    }
+
+    /**
+     * Runs the count required by the strategy.
+     *
+     * @param strategy the count strategy
+     * @param filtered the filtered select, without sorting or paging
+     * @return the total
+     */
+    private Mono<TotalCount> countFor(final CountStrategy strategy,
+                                      final Select<?> filtered) {
+        return switch (strategy.mode()) {
+            case SLICE -> Mono.just(TotalCount.unknown());
+            case CAPPED -> countUpTo(filtered, strategy.cap() + 1)
+                    .map(c -> c > strategy.cap() ? TotalCount.atLeast(strategy.cap()) : TotalCount.exact(c));
+            default -> count(filtered).map(TotalCount::exact);
+        };
+    }
+
+    /**
+     * Attaches a query to this executor's configuration.
+     *
+     * @param select the query
+     * @param <S>    the query type
+     * @return the same query
+     */
+    private <S extends SelectQuery<?>> S attached(final S select) {
+        select.attach(dsl.configuration());
+        return select;
+    }
+}
@@ -0,0 +1,111 @@
+package io.github.khezyapp.jooqspec.reactive;
+
+import io.github.khezyapp.jooqspec.JooqFilterExecutor;
+import io.github.khezyapp.jooqspec.JooqOrder;
+import io.github.khezyapp.jooqspec.JooqPageRequest;
+import io.github.khezyapp.jooqspec.JooqPaginationQuery;
+import io.github.khezyapp.jooqspec.JooqSort;
+import io.github.khezyapp.jooqspec.util.JooqSpecifications;
+import io.github.khezyapp.querysupport.CountStrategy;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+
+/**
+ * Compares page throughput of the blocking JDBC path and the R2DBC path as concurrent requests grow.
+ * <p>
+ * Both paths share one in-memory H2 database and a pool of {@value #CONNECTIONS} connections; the blocking
+ * path serves requests from a fixed pool of {@value #WORKER_THREADS} threads, as a servlet container would.
+ * Run with {@code ./gradlew test -Dbenchmark=true} and read the results from the test output.
+ * </p>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ConcurrencyScalingBenchmarkTest {
+    private static final int CONNECTIONS = 16;
+    private static final int WORKER_THREADS = 32;
+    private static final int ROWS = 50_000;
+    private static final int ROUNDS = 5;
+
+    private static JooqPaginationQuery query(final int request) {
+        final var pageable = new JooqPageRequest(request % 50, 20,
+                new JooqSort(List.of(new JooqOrder("book.id", JooqOrder.Direction.ASC))));
+        return new JooqPaginationQuery(JooqSpecifications.of("book.price > 100"), pageable, CountStrategy.exact());
+    }
+
+    @Test
+    @DisplayName("Blocking and reactive page throughput by concurrency")
+    void benchmark() throws Exception {
+        final var r2dbcPool = new ConnectionPool(ConnectionPoolConfiguration
+                .builder(ConnectionFactories.get("r2dbc:h2:mem:///bench;DB_CLOSE_DELAY=-1"))
+                .maxSize(CONNECTIONS)
+                .build());
+        final var jdbcPool = JdbcConnectionPool.create("jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcPool.setMaxConnections(CONNECTIONS);
+        final var reactiveDsl = DSL.using(r2dbcPool);
+        ReactiveJooqFilterExecutorTest.createBooks(reactiveDsl, ROWS);
+        final var reactive = new ReactiveJooqFilterExecutor(reactiveDsl);
+        final var blockingDsl = DSL.using(jdbcPool, SQLDialect.H2);
+        final var blocking = new JooqFilterExecutor(blockingDsl);
+        final var workers = Executors.newFixedThreadPool(WORKER_THREADS);
+        try {
+            System.out.printf("%12s %16s %16s%n", "concurrency", "blocking req/s", "reactive req/s");
+            for (final var concurrency : List.of(1, 8, 64, 256, 1024)) {
+                final var blockingRate = measure(concurrency, () -> {
+                    final var tasks = new ArrayList<Callable<Object>>(concurrency);
+                    for (var i = 0; i < concurrency; i++) {
+                        final var request = i;
+                        // The blocking executor runs the base query on the context it was built with
+                        tasks.add(() -> blocking.fetchPage(
+                                () -> blockingDsl.select(ReactiveJooqFilterExecutorTest.BOOK_ID,
+                                                ReactiveJooqFilterExecutorTest.BOOK_TITLE,
+                                                ReactiveJooqFilterExecutorTest.BOOK_PRICE)
+                                        .from(ReactiveJooqFilterExecutorTest.BOOK)
+                                        .getQuery(),
+                                query(request)));
+                    }
+                    for (final var future : workers.invokeAll(tasks)) {
+                        future.get();
+                    }
+                });
+                final var reactiveRate = measure(concurrency, () -> Flux.range(0, concurrency)
+                        .flatMap(i -> reactive.fetchPage(ReactiveJooqFilterExecutorTest::baseQuery, query(i)),
+                                concurrency)
+                        .blockLast());
+                System.out.printf("%12d %16.0f %16.0f%n", concurrency, blockingRate, reactiveRate);
+            }
+        } finally {
+            workers.shutdownNow();
+            r2dbcPool.dispose();
+            jdbcPool.dispose();
+        }
+    }
+
+    private static double measure(final int concurrency,
+                                  final Round round) throws Exception {
+        // First round warms up the JIT and the pools
+        round.run();
+        final var start = System.nanoTime();
+        for (var i = 0; i < ROUNDS; i++) {
+            round.run();
+        }
+        final var seconds = (System.nanoTime() - start) / 1e9;
+        return concurrency * ROUNDS / seconds;
+    }
+
+    @FunctionalInterface
+    private interface Round {
+        void run() throws Exception;
+    }
+}
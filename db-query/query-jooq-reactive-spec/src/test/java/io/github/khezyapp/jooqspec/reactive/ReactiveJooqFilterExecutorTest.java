@@ -0,0 +1,144 @@
+package io.github.khezyapp.jooqspec.reactive;
+
+import io.github.khezyapp.jooqspec.JooqOrder;
+import io.github.khezyapp.jooqspec.JooqPageRequest;
+import io.github.khezyapp.jooqspec.JooqPaginationQuery;
+import io.github.khezyapp.jooqspec.JooqSort;
+import io.github.khezyapp.jooqspec.util.JooqSpecifications;
+import io.github.khezyapp.querysupport.CountStrategy;
+import io.github.khezyapp.querysupport.TotalCount;
+import io.r2dbc.spi.ConnectionFactories;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.SelectQuery;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReactiveJooqFilterExecutorTest {
+    static final Table<Record> BOOK = DSL.table(DSL.name("book"));
+    static final Field<Long> BOOK_ID = DSL.field(DSL.name("book", "id"), SQLDataType.BIGINT);
+    static final Field<String> BOOK_TITLE = DSL.field(DSL.name("book", "title"), SQLDataType.VARCHAR);
+    static final Field<Double> BOOK_PRICE = DSL.field(DSL.name("book", "price"), SQLDataType.DOUBLE);
+
+    private static DSLContext dsl;
+    private static ReactiveJooqFilterExecutor executor;
+
+    @BeforeAll
+    static void setUp() {
+        dsl = DSL.using(ConnectionFactories.get("r2dbc:h2:mem:///reactive_books;DB_CLOSE_DELAY=-1"));
+        executor = new ReactiveJooqFilterExecutor(dsl);
+        createBooks(dsl, 25);
+    }
+
+    // Book i has title "Book i" and price i
+    static void createBooks(final DSLContext dsl,
+                            final int rows) {
+        Mono.from(dsl.createTableIfNotExists(BOOK)
+                .column(DSL.field(DSL.name("id"), SQLDataType.BIGINT))
+                .column(DSL.field(DSL.name("title"), SQLDataType.VARCHAR(100)))
+                .column(DSL.field(DSL.name("price"), SQLDataType.DOUBLE))
+                .primaryKey(DSL.field(DSL.name("id")))).block();
+        Mono.from(dsl.deleteFrom(BOOK)).block();
+        Flux.range(1, rows)
+                .concatMap(i -> Mono.from(dsl.insertInto(BOOK)
+                        .columns(DSL.field(DSL.name("id")), DSL.field(DSL.name("title")), DSL.field(DSL.name("price")))
+                        .values((long) i, "Book " + i, (double) i)))
+                .blockLast();
+    }
+
+    static SelectQuery<Record> baseQuery() {
+        return DSL.select(BOOK_ID, BOOK_TITLE, BOOK_PRICE).from(BOOK).getQuery();
+    }
+
+    private static JooqPaginationQuery page(final String filter,
+                                            final int pageNumber,
+                                            final CountStrategy strategy) {
+        final var pageable = new JooqPageRequest(pageNumber, 10,
+                new JooqSort(List.of(new JooqOrder("book.id", JooqOrder.Direction.ASC))));
+        return new JooqPaginationQuery(JooqSpecifications.of(filter), pageable, strategy);
+    }
+
+    @Test
+    @DisplayName("Stream emits every matching row in order")
+    void testStream() {
+        final var spec = JooqSpecifications.of("book.price > 20");
+        final var sort = new JooqSort(List.of(new JooqOrder("book.id", JooqOrder.Direction.DESC)));
+
+        StepVerifier.create(executor.stream(ReactiveJooqFilterExecutorTest::baseQuery, spec, sort)
+                        .map(r -> r.get(BOOK_ID)), 2)
+                .expectNext(25L, 24L)
+                .thenRequest(10)
+                .expectNext(23L, 22L, 21L)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Exact page carries the total and next-page flag")
+    void testExactPage() {
+        final var result = executor.fetchPage(ReactiveJooqFilterExecutorTest::baseQuery,
+                page("book.price <= 15", 0, CountStrategy.exact())).block();
+
+        assertNotNull(result);
+        assertEquals(10, result.content().size());
+        assertEquals(TotalCount.exact(15), result.totalCount());
+        assertTrue(result.hasNext());
+        assertEquals(2, result.totalPages());
+    }
+
+    @Test
+    @DisplayName("Slice page probes one extra row and computes the total on the last page")
+    void testSlicePage() {
+        final var first = executor.fetchPage(ReactiveJooqFilterExecutorTest::baseQuery,
+                page("book.price <= 15", 0, CountStrategy.slice())).block();
+        final var last = executor.fetchPage(ReactiveJooqFilterExecutorTest::baseQuery,
+                page("book.price <= 15", 1, CountStrategy.slice())).block();
+
+        assertNotNull(first);
+        assertNotNull(last);
+        assertEquals(10, first.content().size());
+        assertTrue(first.hasNext());
+        assertFalse(first.totalCount().isExact());
+        assertEquals(5, last.content().size());
+        assertFalse(last.hasNext());
+        assertEquals(TotalCount.exact(15), last.totalCount());
+    }
+
+    @Test
+    @DisplayName("Capped page reports at least the cap when more rows match")
+    void testCappedPage() {
+        final var result = executor.fetchPage(ReactiveJooqFilterExecutorTest::baseQuery,
+                page("book.price > 0", 0, CountStrategy.capped(20))).block();
+
+        assertNotNull(result);
+        assertEquals(TotalCount.atLeast(20), result.totalCount());
+        assertTrue(result.hasNext());
+    }
+
+    @Test
+    @DisplayName("Page past the end reports the counted total instead of its offset")
+    void testPastTheEnd() {
+        final var capped = executor.fetchPage(ReactiveJooqFilterExecutorTest::baseQuery,
+                page("book.price <= 15", 5, CountStrategy.capped(100))).block();
+        final var slice = executor.fetchPage(ReactiveJooqFilterExecutorTest::baseQuery,
+                page("book.price <= 15", 5, CountStrategy.slice())).block();
+
+        assertNotNull(capped);
+        assertNotNull(slice);
+        assertTrue(capped.content().isEmpty());
+        assertFalse(capped.hasNext());
+        assertEquals(TotalCount.exact(15), capped.totalCount());
+        assertEquals(TotalCount.unknown(), slice.totalCount());
+    }
+}
@@ -5,15 +5,21 @@ import io.github.khezyapp.grammar.ast.operand.AggregateOperand;
 import io.github.khezyapp.grammar.ast.operand.LiteralOperand;
 import io.github.khezyapp.grammar.ast.operand.Operand;
 import io.github.khezyapp.grammar.ast.operand.PathOperand;
+import io.github.khezyapp.grammar.support.SpecPaths;
+import io.github.khezyapp.jooqspec.util.JooqFields;
 import org.jooq.Condition;
+import org.jooq.DataType;
 import org.jooq.Field;
 import org.jooq.impl.DSL;
 import org.jooq.impl.SQLDataType;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * Visitor implementation that translates an {@link ASTSpec} tree into jOOQ {@link Condition} and query components.
@@ -23,6 +29,54 @@ import java.util.Objects;
  * </p>
  */
 public class FilterJooqVisitor implements SpecificationVisitor<JooqCondition> {
+    /**
+     * Name prefix of the bind parameters created by a {@link #parameterized(JooqFieldRegistry)} visitor;
+     * the suffix is the literal index in {@link io.github.khezyapp.grammar.support.SpecShape} order.
+     */
+    public static final String LITERAL_PARAM_PREFIX = "__filter_literal_";
+
+    private final JooqFieldRegistry registry;
+    private final boolean parameterized;
+    private int literalIndex;
+
+    /**
+     * Constructs a visitor resolving paths to untyped fields.
+     */
+    public FilterJooqVisitor() {
+        this(JooqFieldRegistry.untyped());
+    }
+
+    /**
+     * Constructs a visitor resolving paths through a field registry.
+     * <p>
+     * Literals compared with a registered field are bound with that field's data type.
+     * </p>
+     *
+     * @param registry the field registry
+     */
+    public FilterJooqVisitor(final JooqFieldRegistry registry) {
+        this(registry, false);
+    }
+
+    private FilterJooqVisitor(final JooqFieldRegistry registry,
+                              final boolean parameterized) {
+        this.registry = Objects.requireNonNull(registry, "registry must not be null");
+        this.parameterized = parameterized;
+    }
+
+    /**
+     * Creates a visitor binding every literal as a named parameter ({@link #LITERAL_PARAM_PREFIX} + index),
+     * so the rendered SQL can be reused with other literal values of the same shape.
+     * <p>
+     * The visitor numbers literals as it meets them and must be used for a single specification.
+     * </p>
+     *
+     * @param registry the field registry
+     * @return a new parameterized visitor
+     */
+    public static FilterJooqVisitor parameterized(final JooqFieldRegistry registry) {
+        return new FilterJooqVisitor(registry, true);
+    }
 
     /**
      * Visits the root query specification to build a {@code JooqSpecification} containing conditions and
@@ -40,9 +94,31 @@ public class FilterJooqVisitor implements SpecificationVisitor<JooqCondition> {
                 .where(where.condition())
                 .groupBy(groupBy)
                 .having(Objects.isNull(having) ? DSL.noCondition() : having.condition())
+                .qualifiers(resolveQualifiers(querySpec))
                 .build();
     }
 
+    /**
+     * Collects the table qualifiers of every path referenced in WHERE, HAVING and GROUP BY.
+     * <p>
+     * The qualifier is everything before the last segment ("author" for "author.name"); unqualified
+     * paths refer to the root table and contribute nothing.
+     * </p>
+     *
+     * @param querySpec the query specification
+     * @return the referenced qualifiers
+     */
+    private Set<String> resolveQualifiers(final QuerySpec querySpec) {
+        final var qualifiers = new LinkedHashSet<String>();
+        for (final var path : SpecPaths.collect(querySpec)) {
+            final var lastDot = path.lastIndexOf('.');
+            if (lastDot > 0) {
+                qualifiers.add(path.substring(0, lastDot));
+            }
+        }
+        return qualifiers;
+    }
+
     /**
      * Translates a logical OR node into a combined jOOQ OR condition.
      *
@@ -114,7 +190,11 @@ public class FilterJooqVisitor implements SpecificationVisitor<JooqCondition> {
     @Override
     public JooqCondition visitBinaryComparisonSpec(final BinaryComparisonSpec binaryComparisonSpec) {
         final Field<?> leftOperand = resolveOperand(binaryComparisonSpec.left());
-        final Field<?> rightOperand = resolveValue(binaryComparisonSpec.right());
+        final var operator = binaryComparisonSpec.operator();
+        // Patterns are always strings, whatever the column type
+        final Field<?> rightOperand = operator == ComparisonOperator.LIKE || operator == ComparisonOperator.ILIKE
+                ? resolveValue(binaryComparisonSpec.right(), SQLDataType.VARCHAR)
+                : resolveValue(binaryComparisonSpec.right(), leftOperand.getDataType());
         return newCondition(compare(leftOperand, binaryComparisonSpec.operator(), rightOperand));
     }
 
@@ -152,11 +232,11 @@ public class FilterJooqVisitor implements SpecificationVisitor<JooqCondition> {
      */
     @Override
     public JooqCondition visitInComparisonSpec(final InComparisonSpec inComparisonSpec) {
+        final var leftOperand = resolveOperand(inComparisonSpec.left());
         final var values = inComparisonSpec.right()
                 .stream()
-                .map(this::resolveValue)
+                .map(v -> resolveValue(v, leftOperand.getDataType()))
                 .toList();
-        final var leftOperand = resolveOperand(inComparisonSpec.left());
         return newCondition(
                 leftOperand.in(values)
         );
@@ -172,8 +252,8 @@ public class FilterJooqVisitor implements SpecificationVisitor<JooqCondition> {
     @Override
     public JooqCondition visitBetweenComparisonSpec(final BetweenComparisonSpec betweenComparisonSpec) {
         final var leftOperand = resolveOperand(betweenComparisonSpec.left());
-        final var from = resolveValue(betweenComparisonSpec.from());
-        final var to = resolveValue(betweenComparisonSpec.to());
+        final var from = resolveValue(betweenComparisonSpec.from(), leftOperand.getDataType());
+        final var to = resolveValue(betweenComparisonSpec.to(), leftOperand.getDataType());
         return newCondition(leftOperand.between((Field) from, (Field) to));
     }
 
@@ -240,27 +320,63 @@ public class FilterJooqVisitor implements SpecificationVisitor<JooqCondition> {
 
     /**
      * Resolves an {@link Operand} into a value-based jOOQ field (handles literals).
+     * <p>
+     * Literals are bound with the data type of the field they are compared with, so a registered
+     * {@code DATE} column binds "2024-01-31" as a date. Against an untyped field, or when the conversion
+     * would lose precision (e.g., {@code 10.5} against an {@code INTEGER} column), the literal keeps the
+     * type inferred from its Java value and the database compares the wider value.
+     * </p>
      *
      * @param operand the operand representing a value
+     * @param target  the data type of the compared field
      * @return a jOOQ field representing a value or a column reference
      */
-    private Field<?> resolveValue(final Operand operand) {
+    private Field<?> resolveValue(final Operand operand,
+                                  final DataType<?> target) {
         if (operand instanceof LiteralOperand literalOperand) {
-            // Wrap the raw value (String, Long, etc.) into a jOOQ Field
-            return DSL.val(literalOperand.value());
+            final var value = literalOperand.value();
+            final var untyped = Objects.isNull(value) || target.getType() == Object.class
+                    || !convertsExactly(value, target);
+            if (parameterized) {
+                return DSL.param(LITERAL_PARAM_PREFIX + literalIndex++, untyped ? value : target.convert(value));
+            }
+            if (untyped) {
+                // Wrap the raw value (String, Long, etc.) into a jOOQ Field
+                return DSL.val(value);
+            }
+            return DSL.val(value, target);
         }
         // If it's not a literal, it's a Path or Aggregate, so resolve it as a Field
         return resolveOperand(operand);
     }
 
     /**
-     * Resolves a {@link PathOperand} into a qualified jOOQ field name.
+     * Checks whether a literal survives conversion to the compared field's type; jOOQ truncates decimals
+     * converted to integer types.
+     *
+     * @param value  the literal value
+     * @param target the data type of the compared field
+     * @return {@code false} if a numeric literal would change its value
+     */
+    static boolean convertsExactly(final Object value,
+                                   final DataType<?> target) {
+        if (!(value instanceof Number number)) {
+            return true;
+        }
+        final var converted = target.convert(value);
+        return !(converted instanceof Number result)
+                || new BigDecimal(number.toString()).compareTo(new BigDecimal(result.toString())) == 0;
+    }
+
+    /**
+     * Resolves a {@link PathOperand} through the field registry.
      *
      * @param pathOperand the path operand
-     * @return the jOOQ field
+     * @return the registered typed field, or an untyped qualified field
+     * @throws IllegalArgumentException if the path is not registered and the registry is strict
      */
     private Field<?> resolvePathOperand(final PathOperand pathOperand) {
-        return DSL.field(DSL.name(pathOperand.identifiers()));
+        return registry.resolve(pathOperand.identifiers());
     }
 
     /**
@@ -272,10 +388,11 @@ public class FilterJooqVisitor implements SpecificationVisitor<JooqCondition> {
     private Field<?> resolveAggregateOperand(final AggregateOperand aggregateOperand) {
         return switch (aggregateOperand.function()) {
             case COUNT -> DSL.count(resolveOperand(aggregateOperand.path()));
-            case SUM -> DSL.sum(resolveOperand(aggregateOperand.path()).cast(SQLDataType.NUMERIC));
-            case AVG -> DSL.avg(resolveOperand(aggregateOperand.path()).cast(SQLDataType.NUMERIC));
+            case SUM -> DSL.sum(JooqFields.numeric(resolveOperand(aggregateOperand.path())));
+            case AVG -> DSL.avg(JooqFields.numeric(resolveOperand(aggregateOperand.path())));
             case MIN -> DSL.min(resolveOperand(aggregateOperand.path()));
             case MAX -> DSL.max(resolveOperand(aggregateOperand.path()));
+            case COUNT_DISTINCT_APPROX -> DSL.countDistinct(resolveOperand(aggregateOperand.path()));
         };
     }
 
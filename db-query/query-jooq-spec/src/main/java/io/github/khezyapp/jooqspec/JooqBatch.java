@@ -0,0 +1,93 @@
+package io.github.khezyapp.jooqspec;
+
+import org.jooq.SelectQuery;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * A set of tagged filter queries executed together by {@link JooqBatchExecutor}, such as the widgets of a
+ * dashboard.
+ *
+ * @param entries the tagged queries, in declaration order
+ */
+public record JooqBatch(List<Entry> entries) {
+
+    /**
+     * Compact constructor making the entries unmodifiable.
+     */
+    public JooqBatch {
+        entries = List.copyOf(entries);
+    }
+
+    /**
+     * Creates a builder for a new batch.
+     * @return a new {@link Builder}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * One tagged query of a batch.
+     *
+     * @param tag           the unique tag identifying the result
+     * @param baseQuery     supplies a fresh select with the SELECT list, FROM and joins
+     * @param specification the filter specification applied to the select
+     */
+    public record Entry(
+            String tag,
+            Supplier<? extends SelectQuery<?>> baseQuery,
+            JooqSpecification specification
+    ) {
+
+        /**
+         * Builds the filtered select of this entry.
+         * @return a new select with the specification applied
+         */
+        public SelectQuery<?> filtered() {
+            return specification.applyTo(baseQuery.get());
+        }
+    }
+
+    /**
+     * Fluent builder for constructing {@link JooqBatch} instances.
+     */
+    public static class Builder {
+        private final List<Entry> entries = new ArrayList<>();
+        private final LinkedHashSet<String> tags = new LinkedHashSet<>();
+
+        /**
+         * Adds a tagged query.
+         *
+         * @param tag           the unique tag identifying the result
+         * @param baseQuery     supplies a fresh select with the SELECT list, FROM and joins
+         * @param specification the filter specification applied to the select
+         * @return the builder instance
+         * @throws IllegalArgumentException if the tag is already used
+         */
+        public Builder add(final String tag,
+                           final Supplier<? extends SelectQuery<?>> baseQuery,
+                           final JooqSpecification specification) {
+            Objects.requireNonNull(tag, "tag must not be null");
+            if (!tags.add(tag)) {
+                throw new IllegalArgumentException("Batch tag already used: " + tag);
+            }
+            entries.add(new Entry(tag,
+                    Objects.requireNonNull(baseQuery, "baseQuery must not be null"),
+                    Objects.requireNonNull(specification, "specification must not be null")));
+            return this;
+        }
+
+        /**
+         * Builds a new {@link JooqBatch}.
+         * @return the batch
+         */
+        public JooqBatch build() {
+            return new JooqBatch(entries);
+        }
+    }
+}
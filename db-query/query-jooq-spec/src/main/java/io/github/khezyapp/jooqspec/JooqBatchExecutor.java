@@ -0,0 +1,306 @@
+package io.github.khezyapp.jooqspec;
+
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.Result;
+import org.jooq.Select;
+import org.jooq.SelectQuery;
+import org.jooq.impl.DSL;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Executes a {@link JooqBatch} in as few round trips as its queries allow.
+ * <p>
+ * When every query selects the same number of columns with the same Java types, the batch runs as one
+ * {@code UNION ALL} query carrying a tag column, and the rows are split back per tag. Otherwise, with a
+ * parallelism of one, the queries run one after another on a single connection, saving a pool checkout per
+ * query; with a higher parallelism they run concurrently, at most {@code parallelism} at a time, so a batch
+ * cannot exhaust the connection pool. Untyped columns ({@code Object}) are never considered compatible, since
+ * their SQL types are unknown.
+ * </p>
+ */
+public class JooqBatchExecutor {
+    /**
+     * Name of the tag column added to every branch of a {@code UNION ALL} batch.
+     */
+    public static final String TAG_COLUMN = "__batch_tag";
+
+    private final DSLContext dsl;
+    private final int parallelism;
+    private final boolean union;
+    private final ExecutorService executor;
+
+    private JooqBatchExecutor(final Builder builder) {
+        this.dsl = builder.dsl;
+        this.parallelism = builder.parallelism;
+        this.union = builder.union;
+        this.executor = builder.executor;
+    }
+
+    /**
+     * Creates a builder for an executor running on the given context.
+     *
+     * @param dsl the jOOQ DSL context
+     * @return a new {@link Builder}
+     */
+    public static Builder builder(final DSLContext dsl) {
+        return new Builder(Objects.requireNonNull(dsl, "dsl must not be null"));
+    }
+
+    /**
+     * Executes every query of the batch.
+     *
+     * @param batch the tagged queries
+     * @return the rows and timing of each query, by tag
+     * @throws IllegalStateException if a concurrent query fails
+     */
+    public JooqBatchResult execute(final JooqBatch batch) {
+        final var queries = new LinkedHashMap<String, SelectQuery<?>>();
+        for (final var entry : batch.entries()) {
+            queries.put(entry.tag(), entry.filtered());
+        }
+        if (queries.size() > 1 && union && compatible(queries.values())) {
+            return executeUnion(queries);
+        }
+        if (parallelism <= 1 || queries.size() <= 1) {
+            return executePipeline(queries);
+        }
+        return executeConcurrent(queries);
+    }
+
+    /**
+     * Runs all queries as one {@code UNION ALL} and splits the rows by tag.
+     *
+     * @param queries the filtered selects, by tag
+     * @return the batch result
+     */
+    @SuppressWarnings("unchecked")
+    private JooqBatchResult executeUnion(final Map<String, SelectQuery<?>> queries) {
+        final var fieldsByTag = new LinkedHashMap<String, Field<?>[]>();
+        final var results = new LinkedHashMap<String, Result<Record>>();
+        Select<Record> combined = null;
+        for (final var query : queries.entrySet()) {
+            final var select = query.getValue();
+            final var fields = select.getSelect().toArray(new Field<?>[0]);
+            fieldsByTag.put(query.getKey(), fields);
+            results.put(query.getKey(), dsl.newResult(fields));
+            select.addSelect(DSL.inline(query.getKey()).as(TAG_COLUMN));
+            combined = Objects.isNull(combined) ? (Select<Record>) select : combined.unionAll((Select<Record>) select);
+        }
+
+        final var start = System.nanoTime();
+        final var rows = dsl.fetch(combined);
+        final var elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        for (final var row : rows) {
+            final var values = row.intoArray();
+            final var tag = (String) values[values.length - 1];
+            final var record = dsl.newRecord(fieldsByTag.get(tag));
+            record.fromArray(Arrays.copyOf(values, values.length - 1));
+            record.changed(false);
+            results.get(tag).add(record);
+        }
+        final var timings = new LinkedHashMap<String, Duration>();
+        queries.keySet().forEach(tag -> timings.put(tag, elapsed));
+        return new JooqBatchResult(JooqBatchResult.Mode.UNION, results, timings);
+    }
+
+    /**
+     * Runs the queries one after another on a single connection.
+     *
+     * @param queries the filtered selects, by tag
+     * @return the batch result
+     */
+    private JooqBatchResult executePipeline(final Map<String, SelectQuery<?>> queries) {
+        return dsl.connectionResult(connection -> {
+            final var local = DSL.using(connection, dsl.dialect(), dsl.settings());
+            final var results = new LinkedHashMap<String, Result<Record>>();
+            final var timings = new LinkedHashMap<String, Duration>();
+            for (final var query : queries.entrySet()) {
+                final var start = System.nanoTime();
+                results.put(query.getKey(), local.fetch(query.getValue()).into(query.getValue().getSelect()
+                        .toArray(new Field<?>[0])));
+                timings.put(query.getKey(), Duration.ofNanos(System.nanoTime() - start));
+            }
+            return new JooqBatchResult(JooqBatchResult.Mode.PIPELINE, results, timings);
+        });
+    }
+
+    /**
+     * Runs the queries concurrently, at most {@code parallelism} at a time.
+     *
+     * @param queries the filtered selects, by tag
+     * @return the batch result
+     * @throws IllegalStateException if any query fails, with the other failures suppressed
+     */
+    private JooqBatchResult executeConcurrent(final Map<String, SelectQuery<?>> queries) {
+        final var ownExecutor = Objects.isNull(executor);
+        final var useExecutor = ownExecutor ? Executors.newFixedThreadPool(parallelism) : executor;
+        final var permits = new Semaphore(parallelism);
+        try {
+            final var futures = new LinkedHashMap<String, Future<Timed>>();
+            for (final var query : queries.entrySet()) {
+                futures.put(query.getKey(), useExecutor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        final var start = System.nanoTime();
+                        final var rows = dsl.fetch(query.getValue()).into(query.getValue().getSelect()
+                                .toArray(new Field<?>[0]));
+                        return new Timed(rows, Duration.ofNanos(System.nanoTime() - start));
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            return await(futures);
+        } finally {
+            if (ownExecutor) {
+                useExecutor.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Waits for every concurrent query and collects the results.
+     * <p>
+     * The first failure, or an interrupt of the waiting thread, cancels the queries still queued or running,
+     * so a failed batch does not keep holding connections.
+     * </p>
+     *
+     * @param futures the running queries, by tag
+     * @return the batch result
+     * @throws IllegalStateException if any query failed
+     */
+    private static JooqBatchResult await(final Map<String, Future<Timed>> futures) {
+        final var results = new LinkedHashMap<String, Result<Record>>();
+        final var timings = new LinkedHashMap<String, Duration>();
+        final var failures = new ArrayList<Throwable>();
+        for (final var future : futures.entrySet()) {
+            try {
+                final var timed = future.getValue().get();
+                results.put(future.getKey(), timed.rows());
+                timings.put(future.getKey(), timed.elapsed());
+            } catch (final ExecutionException e) {
+                failures.add(e.getCause());
+                futures.values().forEach(f -> f.cancel(true));
+            } catch (final CancellationException e) {
+                // cancelled after an earlier failure
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failures.add(e);
+                futures.values().forEach(f -> f.cancel(true));
+                break;
+            }
+        }
+        if (!failures.isEmpty()) {
+            final var error = new IllegalStateException("%d of %d batch queries failed"
+                    .formatted(failures.size(), futures.size()));
+            failures.forEach(error::addSuppressed);
+            throw error;
+        }
+        return new JooqBatchResult(JooqBatchResult.Mode.CONCURRENT, results, timings);
+    }
+
+    /**
+     * Checks whether the selects can be combined with {@code UNION ALL}.
+     *
+     * @param selects the filtered selects
+     * @return {@code true} if all selects have the same column count and Java types, none untyped
+     */
+    private static boolean compatible(final Iterable<SelectQuery<?>> selects) {
+        List<Class<?>> shape = null;
+        for (final var select : selects) {
+            final var types = select.getSelect().stream()
+                    .<Class<?>>map(f -> f.getDataType().getType())
+                    .toList();
+            if (types.isEmpty() || types.contains(Object.class) || (Objects.nonNull(shape) && !shape.equals(types))) {
+                return false;
+            }
+            shape = types;
+        }
+        return true;
+    }
+
+    /**
+     * Rows of one query with its execution time.
+     *
+     * @param rows    the rows
+     * @param elapsed the execution time
+     */
+    private record Timed(Result<Record> rows, Duration elapsed) {
+    }
+
+    /**
+     * Fluent builder for constructing {@link JooqBatchExecutor} instances.
+     */
+    public static class Builder {
+        private final DSLContext dsl;
+        private int parallelism = 4;
+        private boolean union = true;
+        private ExecutorService executor;
+
+        private Builder(final DSLContext dsl) {
+            this.dsl = dsl;
+        }
+
+        /**
+         * Sets the maximum number of queries running at a time when they cannot be combined; one runs them
+         * one after another on a single connection. Defaults to four.
+         *
+         * @param parallelism the maximum number of concurrent queries
+         * @return the builder instance
+         */
+        public Builder parallelism(final int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Enables or disables combining compatible queries with {@code UNION ALL}. Enabled by default.
+         *
+         * @param union {@code true} to combine compatible queries
+         * @return the builder instance
+         */
+        public Builder union(final boolean union) {
+            this.union = union;
+            return this;
+        }
+
+        /**
+         * Sets the executor running concurrent queries; a fixed pool is created per batch when absent.
+         *
+         * @param executor the executor, not shut down by the batch
+         * @return the builder instance
+         */
+        public Builder executor(final ExecutorService executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Builds a new {@link JooqBatchExecutor}.
+         * @return the executor
+         * @throws IllegalArgumentException if parallelism is less than one
+         */
+        public JooqBatchExecutor build() {
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("Batch parallelism must not be less than one");
+            }
+            return new JooqBatchExecutor(this);
+        }
+    }
+}
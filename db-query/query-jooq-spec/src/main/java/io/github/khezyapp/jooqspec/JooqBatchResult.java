@@ -0,0 +1,60 @@
+package io.github.khezyapp.jooqspec;
+
+import org.jooq.Record;
+import org.jooq.Result;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The demultiplexed results of a {@link JooqBatch}.
+ *
+ * @param mode    how the batch was executed
+ * @param results the rows of each query, by tag in batch order
+ * @param timings the execution time of each query, by tag in batch order; in {@link Mode#UNION} mode every
+ *                tag reports the time of the single combined query
+ */
+public record JooqBatchResult(
+        Mode mode,
+        Map<String, Result<Record>> results,
+        Map<String, Duration> timings
+) {
+
+    /**
+     * Compact constructor making the maps unmodifiable, keeping their iteration order.
+     */
+    public JooqBatchResult {
+        results = Collections.unmodifiableMap(new LinkedHashMap<>(results));
+        timings = Collections.unmodifiableMap(new LinkedHashMap<>(timings));
+    }
+
+    /**
+     * Gets the rows of one query.
+     *
+     * @param tag the query tag
+     * @return the rows
+     * @throws IllegalArgumentException if the tag is not part of the batch
+     */
+    public Result<Record> get(final String tag) {
+        final var result = results.get(tag);
+        if (Objects.isNull(result)) {
+            throw new IllegalArgumentException("Unknown batch tag: " + tag);
+        }
+        return result;
+    }
+
+    /**
+     * How a batch was executed.
+     */
+    public enum Mode {
+        /** One {@code UNION ALL} query with a tag column. */
+        UNION,
+        /** One query after another on a single connection. */
+        PIPELINE,
+        /** Queries in parallel, each on its own pooled connection. */
+        CONCURRENT
+    }
+}
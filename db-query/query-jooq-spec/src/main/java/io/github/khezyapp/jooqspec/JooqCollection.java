@@ -0,0 +1,162 @@
+package io.github.khezyapp.jooqspec;
+
+import org.jooq.Condition;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.Result;
+import org.jooq.SelectField;
+import org.jooq.SortField;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Declares a child collection fetched for every parent row as a jOOQ {@code MULTISET} subquery.
+ * <p>
+ * The collection is named after its table, so an aliased table ({@code BOOK.as("books")}) gives filter paths
+ * such as "books.price" that {@link JooqNestedQuery} pushes down into the subquery. jOOQ renders the multiset
+ * natively or emulates it with JSON or XML aggregation, depending on the dialect.
+ * </p>
+ *
+ * @param table         the child table, aliased with the collection name
+ * @param correlation   the condition linking child rows to the parent row
+ * @param fields        the child columns to select
+ * @param orderBy       the order of the child rows, may be empty
+ * @param filterParents whether a child filter also drops parents without a matching child
+ */
+public record JooqCollection(
+        Table<?> table,
+        Condition correlation,
+        List<SelectField<?>> fields,
+        List<SortField<?>> orderBy,
+        boolean filterParents
+) {
+
+    /**
+     * Compact constructor validating the declaration.
+     * @throws IllegalArgumentException if no field is selected
+     */
+    public JooqCollection {
+        Objects.requireNonNull(table, "table must not be null");
+        Objects.requireNonNull(correlation, "correlation must not be null");
+        if (Objects.isNull(fields) || fields.isEmpty()) {
+            throw new IllegalArgumentException("Collection '%s' must select at least one field"
+                    .formatted(table.getName()));
+        }
+        fields = List.copyOf(fields);
+        orderBy = Objects.isNull(orderBy) ? List.of() : List.copyOf(orderBy);
+    }
+
+    /**
+     * Gets the collection name used as filter path qualifier and as the column alias.
+     * @return the table name or alias
+     */
+    public String name() {
+        return table.getName();
+    }
+
+    /**
+     * Builds the {@code MULTISET} column selecting the child rows of each parent.
+     *
+     * @param filter the pushed-down child filter, {@link DSL#noCondition()} for all children
+     * @return the nested collection column, aliased with the collection name
+     */
+    public Field<Result<Record>> multiset(final Condition filter) {
+        return DSL.multiset(
+                DSL.select(fields)
+                        .from(table)
+                        .where(correlation)
+                        .and(filter)
+                        .orderBy(orderBy)
+        ).as(name());
+    }
+
+    /**
+     * Builds the condition keeping parents with at least one child matching the filter.
+     *
+     * @param filter the pushed-down child filter
+     * @return the EXISTS condition
+     */
+    public Condition exists(final Condition filter) {
+        return DSL.exists(
+                DSL.selectOne()
+                        .from(table)
+                        .where(correlation)
+                        .and(filter)
+        );
+    }
+
+    /**
+     * Starts a collection declaration.
+     *
+     * @param table       the child table, aliased with the collection name
+     * @param correlation the condition linking child rows to the parent row
+     * @return a new {@link Builder}
+     */
+    public static Builder of(final Table<?> table,
+                             final Condition correlation) {
+        return new Builder(table, correlation);
+    }
+
+    /**
+     * Fluent builder for constructing {@link JooqCollection} instances.
+     */
+    public static class Builder {
+        private final Table<?> table;
+        private final Condition correlation;
+        private final List<SelectField<?>> fields = new ArrayList<>();
+        private final List<SortField<?>> orderBy = new ArrayList<>();
+        private boolean filterParents;
+
+        private Builder(final Table<?> table,
+                        final Condition correlation) {
+            this.table = table;
+            this.correlation = correlation;
+        }
+
+        /**
+         * Adds child columns to select.
+         *
+         * @param fields the child columns
+         * @return the builder instance
+         */
+        public Builder select(final SelectField<?>... fields) {
+            this.fields.addAll(Arrays.asList(fields));
+            return this;
+        }
+
+        /**
+         * Adds child sort fields.
+         *
+         * @param orderBy the sort fields
+         * @return the builder instance
+         */
+        public Builder orderBy(final SortField<?>... orderBy) {
+            this.orderBy.addAll(Arrays.asList(orderBy));
+            return this;
+        }
+
+        /**
+         * Sets whether a child filter also drops parents without a matching child.
+         *
+         * @param filterParents {@code true} to keep only parents with a matching child
+         * @return the builder instance
+         */
+        public Builder filterParents(final boolean filterParents) {
+            this.filterParents = filterParents;
+            return this;
+        }
+
+        /**
+         * Builds a new {@link JooqCollection}.
+         * @return the collection declaration
+         */
+        public JooqCollection build() {
+            return new JooqCollection(table, correlation, fields, orderBy, filterParents);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package io.github.khezyapp.jooqspec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Utility class encoding the sort-key values of a boundary row into an opaque, URL-safe cursor.
+ * <p>
+ * Every value is written with a type tag so it can be bound back with its original Java type.
+ * Supported types are strings, numbers, booleans, UUIDs and {@code java.time} values; JDBC
+ * {@code Timestamp} and {@code Date} are converted to {@code LocalDateTime} and {@code LocalDate}.
+ * </p>
+ */
+public final class JooqCursor {
+    private static final int VERSION = 1;
+
+    private JooqCursor() {
+    }
+
+    /**
+     * Encodes sort-key values into a cursor.
+     *
+     * @param values the values of the boundary row, in sort order
+     * @return the URL-safe cursor
+     * @throws IllegalArgumentException if a value type is not supported
+     */
+    public static String encode(final List<?> values) {
+        final var bytes = new ByteArrayOutputStream();
+        try (var out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeShort(values.size());
+            for (final var value : values) {
+                writeValue(out, value);
+            }
+        } catch (final IOException e) {
+            throw new IllegalStateException("Failed to encode cursor", e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    /**
+     * Decodes a cursor into its sort-key values.
+     *
+     * @param cursor the cursor produced by {@link #encode(List)}
+     * @return the values in sort order, may contain {@code null}
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static List<Object> decode(final String cursor) {
+        Objects.requireNonNull(cursor, "cursor must not be null");
+        try (var in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)))) {
+            if (in.readByte() != VERSION) {
+                throw new IllegalArgumentException("Unsupported cursor version");
+            }
+            final var size = in.readShort();
+            final var values = new ArrayList<>(size);
+            for (var i = 0; i < size; i++) {
+                values.add(readValue(in));
+            }
+            return values;
+        } catch (final IOException | RuntimeException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+
+    /**
+     * Writes one tagged value.
+     *
+     * @param out   the output
+     * @param value the value
+     * @throws IOException if writing fails
+     */
+    private static void writeValue(final DataOutputStream out,
+                                   final Object value) throws IOException {
+        final char tag;
+        final String text;
+        if (Objects.isNull(value)) {
+            out.writeChar('n');
+            return;
+        } else if (value instanceof String s) {
+            tag = 's';
+            text = s;
+        } else if (value instanceof Long l) {
+            tag = 'l';
+            text = l.toString();
+        } else if (value instanceof Integer i) {
+            tag = 'i';
+            text = i.toString();
+        } else if (value instanceof Short s) {
+            tag = 'h';
+            text = s.toString();
+        } else if (value instanceof Byte b) {
+            tag = 'b';
+            text = b.toString();
+        } else if (value instanceof BigDecimal d) {
+            tag = 'd';
+            text = d.toString();
+        } else if (value instanceof BigInteger g) {
+            tag = 'g';
+            text = g.toString();
+        } else if (value instanceof Double d) {
+            tag = 'f';
+            text = d.toString();
+        } else if (value instanceof Float f) {
+            tag = 'e';
+            text = f.toString();
+        } else if (value instanceof Boolean z) {
+            tag = 'z';
+            text = z.toString();
+        } else if (value instanceof UUID u) {
+            tag = 'u';
+            text = u.toString();
+        } else if (value instanceof LocalDate d) {
+            tag = 'D';
+            text = d.toString();
+        } else if (value instanceof LocalDateTime t) {
+            tag = 'T';
+            text = t.toString();
+        } else if (value instanceof LocalTime t) {
+            tag = 't';
+            text = t.toString();
+        } else if (value instanceof OffsetDateTime o) {
+            tag = 'O';
+            text = o.toString();
+        } else if (value instanceof Instant i) {
+            tag = 'I';
+            text = i.toString();
+        } else if (value instanceof java.sql.Timestamp t) {
+            tag = 'T';
+            text = t.toLocalDateTime().toString();
+        } else if (value instanceof java.sql.Date d) {
+            tag = 'D';
+            text = d.toLocalDate().toString();
+        } else {
+            throw new IllegalArgumentException("Unsupported cursor value type: " + value.getClass().getName());
+        }
+        out.writeChar(tag);
+        out.writeUTF(text);
+    }
+
+    /**
+     * Reads one tagged value.
+     *
+     * @param in the input
+     * @return the value
+     * @throws IOException if reading fails
+     */
+    private static Object readValue(final DataInputStream in) throws IOException {
+        final var tag = in.readChar();
+        if (tag == 'n') {
+            return null;
+        }
+        final var text = in.readUTF();
+        return switch (tag) {
+            case 's' -> text;
+            case 'l' -> Long.valueOf(text);
+            case 'i' -> Integer.valueOf(text);
+            case 'h' -> Short.valueOf(text);
+            case 'b' -> Byte.valueOf(text);
+            case 'd' -> new BigDecimal(text);
+            case 'g' -> new BigInteger(text);
+            case 'f' -> Double.valueOf(text);
+            case 'e' -> Float.valueOf(text);
+            case 'z' -> Boolean.valueOf(text);
+            case 'u' -> UUID.fromString(text);
+            case 'D' -> LocalDate.parse(text);
+            case 'T' -> LocalDateTime.parse(text);
+            case 't' -> LocalTime.parse(text);
+            case 'O' -> OffsetDateTime.parse(text);
+            case 'I' -> Instant.parse(text);
+            default -> throw new IllegalArgumentException("Unknown cursor value tag: " + tag);
+        };
+    }
+}
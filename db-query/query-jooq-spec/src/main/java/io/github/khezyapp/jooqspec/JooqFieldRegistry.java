@@ -0,0 +1,161 @@
+package io.github.khezyapp.jooqspec;
+
+import org.jooq.Field;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Maps filter paths (e.g., "book.price") to typed jOOQ {@link Field}s.
+ * <p>
+ * {@link FilterJooqVisitor} resolves every path through the registry, so comparisons and literal binds
+ * carry the column's {@link org.jooq.DataType} instead of an untyped {@code Object} field. Fields are
+ * registered one by one or for a whole table, typically a jOOQ-generated one. Unregistered paths fall back
+ * to an untyped field, or are rejected when the registry is strict.
+ * </p>
+ */
+public final class JooqFieldRegistry {
+    private static final JooqFieldRegistry UNTYPED = new JooqFieldRegistry(Map.of(), false);
+
+    private final Map<String, Field<?>> fields;
+    private final boolean strict;
+
+    private JooqFieldRegistry(final Map<String, Field<?>> fields,
+                              final boolean strict) {
+        this.fields = Map.copyOf(fields);
+        this.strict = strict;
+    }
+
+    /**
+     * Gets the empty, lenient registry resolving every path to an untyped field.
+     * @return the untyped registry
+     */
+    public static JooqFieldRegistry untyped() {
+        return UNTYPED;
+    }
+
+    /**
+     * Creates a builder for a new registry.
+     * @return a new {@link Builder}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Looks up the field registered for a path.
+     *
+     * @param path the dotted filter path
+     * @return the registered field, or empty when the path is unknown
+     */
+    public Optional<Field<?>> find(final String path) {
+        return Optional.ofNullable(fields.get(path));
+    }
+
+    /**
+     * Resolves path segments into a field.
+     *
+     * @param identifiers the path segments (e.g., ["book", "price"])
+     * @return the registered field, or an untyped field named after the segments when the registry is lenient
+     * @throws IllegalArgumentException if the path is unknown and the registry is strict
+     */
+    public Field<?> resolve(final List<String> identifiers) {
+        final var path = String.join(".", identifiers);
+        final var field = fields.get(path);
+        if (Objects.nonNull(field)) {
+            return field;
+        }
+        if (strict) {
+            throw new IllegalArgumentException("Unknown filter path: " + path);
+        }
+        return DSL.field(DSL.name(identifiers));
+    }
+
+    /**
+     * Checks whether unknown paths are rejected.
+     * @return {@code true} if the registry is strict
+     */
+    public boolean isStrict() {
+        return strict;
+    }
+
+    /**
+     * Gets the registered paths and fields.
+     * @return an unmodifiable map of path to field
+     */
+    public Map<String, Field<?>> fields() {
+        return fields;
+    }
+
+    /**
+     * Fluent builder for constructing {@link JooqFieldRegistry} instances.
+     */
+    public static class Builder {
+        private final Map<String, Field<?>> fields = new LinkedHashMap<>();
+        private boolean strict;
+
+        /**
+         * Registers a field under a filter path.
+         *
+         * @param path  the dotted filter path
+         * @param field the typed field
+         * @return the builder instance
+         */
+        public Builder field(final String path,
+                             final Field<?> field) {
+            fields.put(Objects.requireNonNull(path, "path must not be null"),
+                    Objects.requireNonNull(field, "field must not be null"));
+            return this;
+        }
+
+        /**
+         * Registers every field of a table under {@code <table name>.<field name>}.
+         *
+         * @param table the table, e.g., a jOOQ-generated table
+         * @return the builder instance
+         */
+        public Builder table(final Table<?> table) {
+            return table(table.getName(), table);
+        }
+
+        /**
+         * Registers every field of a table under {@code <prefix>.<field name>}; an empty prefix registers
+         * bare field names.
+         *
+         * @param prefix the path prefix, e.g., the table alias used in filters
+         * @param table  the table, e.g., a jOOQ-generated table
+         * @return the builder instance
+         */
+        public Builder table(final String prefix,
+                             final Table<?> table) {
+            for (final var field : table.fields()) {
+                field(prefix.isEmpty() ? field.getName() : prefix + "." + field.getName(), field);
+            }
+            return this;
+        }
+
+        /**
+         * Enables or disables rejection of unregistered paths.
+         *
+         * @param strict {@code true} to reject unknown paths
+         * @return the builder instance
+         */
+        public Builder strict(final boolean strict) {
+            this.strict = strict;
+            return this;
+        }
+
+        /**
+         * Builds a new {@link JooqFieldRegistry}.
+         * @return the registry
+         */
+        public JooqFieldRegistry build() {
+            return new JooqFieldRegistry(fields, strict);
+        }
+    }
+}
@@ -0,0 +1,431 @@
+package io.github.khezyapp.jooqspec;
+
+import io.github.khezyapp.grammar.support.SpecFingerprints;
+import io.github.khezyapp.querysupport.CountSource;
+import io.github.khezyapp.querysupport.CountStrategy;
+import io.github.khezyapp.querysupport.ReadRouting;
+import io.github.khezyapp.querysupport.SingleFlight;
+import io.github.khezyapp.querysupport.TotalCount;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.Select;
+import org.jooq.SelectQuery;
+import org.jooq.exception.DataAccessException;
+import org.jooq.impl.DSL;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Executes paginated jOOQ queries built from a {@link JooqPaginationQuery}.
+ * <p>
+ * The caller supplies the base query (SELECT list, FROM and joins); the executor applies the
+ * specification, sorting and paging, and computes the total with the query's
+ * {@link io.github.khezyapp.querysupport.CountStrategy}.
+ * </p>
+ */
+public class JooqFilterExecutor {
+    /**
+     * Name of the window-count column added by {@link #fetchPageWithTotal(Supplier, JooqPaginationQuery)}.
+     */
+    public static final String TOTAL_COLUMN = "__filter_total";
+    private static final Set<String> NO_WINDOW_FUNCTIONS = Set.of("DERBY", "HSQLDB");
+
+    private final DSLContext dsl;
+    private final SingleFlight<String, JooqPage<?>> singleFlight;
+    private final ReadRouting readRouting;
+
+    /**
+     * Constructs an executor running queries on the given context.
+     * @param dsl the jOOQ DSL context
+     */
+    public JooqFilterExecutor(final DSLContext dsl) {
+        this(dsl, null, null);
+    }
+
+    /**
+     * Constructs an executor coalescing identical concurrent page queries.
+     * <p>
+     * {@link #fetchPage(Supplier, JooqPaginationQuery)} and {@link #fetchPageWithTotal(Supplier, JooqPaginationQuery)}
+     * are keyed on a fingerprint of the rendered page SQL with inlined values, which covers the specification,
+     * sort and page, plus the count strategy. While one call runs for a key, others wait for its page. jOOQ
+     * records are mutable, so callers that modify them should set a copier on the group.
+     * </p>
+     *
+     * @param dsl          the jOOQ DSL context
+     * @param singleFlight the group shared by concurrent callers
+     */
+    public JooqFilterExecutor(final DSLContext dsl,
+                              final SingleFlight<String, JooqPage<?>> singleFlight) {
+        this(dsl, Objects.requireNonNull(singleFlight, "singleFlight must not be null"), null);
+    }
+
+    private JooqFilterExecutor(final DSLContext dsl,
+                               final SingleFlight<String, JooqPage<?>> singleFlight,
+                               final ReadRouting readRouting) {
+        this.dsl = Objects.requireNonNull(dsl, "dsl must not be null");
+        this.singleFlight = singleFlight;
+        this.readRouting = readRouting;
+    }
+
+    /**
+     * Returns a copy of this executor that sends read-only page and count queries to read replicas.
+     * <p>
+     * The DSL context must run on the routing's
+     * {@link io.github.khezyapp.querysupport.ReplicaRoutingDataSource}, directly or through a
+     * lazily connecting proxy. Page fetches run under the page freshness bound; {@link #count(Select)},
+     * {@link #countUpTo(Select, long)} and {@link #estimate(Select)} run under the count bound. A context
+     * bound to one JDBC connection, such as inside a jOOQ transaction, keeps using that connection.
+     * </p>
+     *
+     * @param readRouting the freshness bounds of this endpoint
+     * @return a new executor sharing this executor's settings
+     */
+    public JooqFilterExecutor withReadRouting(final ReadRouting readRouting) {
+        return new JooqFilterExecutor(dsl, singleFlight,
+                Objects.requireNonNull(readRouting, "readRouting must not be null"));
+    }
+
+    /**
+     * Fetches one page of rows.
+     * <p>
+     * {@code baseQuery} must return a new query on every call: the page query and the count query are
+     * built from separate instances because {@link SelectQuery} is mutable. For every strategy except
+     * exact counting, one extra row is fetched to detect the next page, and no count runs on the last page.
+     * </p>
+     *
+     * @param baseQuery supplies a fresh select with the SELECT list, FROM and joins
+     * @param query     the specification, paging and count strategy
+     * @param <R>       the record type
+     * @return the page
+     */
+    public <R extends Record> JooqPage<R> fetchPage(final Supplier<? extends SelectQuery<R>> baseQuery,
+                                                    final JooqPaginationQuery query) {
+        final var strategy = query.countStrategy();
+        final var pageSize = query.getPageSize();
+        final var select = query.specification().applyTo(baseQuery.get());
+        select.addOrderBy(query.getSort().sortFields());
+        select.addLimit(query.getOffset(), strategy.probesNextPage() ? pageSize + 1 : pageSize);
+        return coalesce(select, strategy, () -> pageOf(select, baseQuery, query));
+    }
+
+    /**
+     * Runs a prepared page query and computes its total.
+     *
+     * @param select    the filtered, sorted and limited select
+     * @param baseQuery supplies a fresh select for counting
+     * @param query     the specification, paging and count strategy
+     * @param <R>       the record type
+     * @return the page
+     */
+    private <R extends Record> JooqPage<R> pageOf(final SelectQuery<R> select,
+                                                  final Supplier<? extends SelectQuery<R>> baseQuery,
+                                                  final JooqPaginationQuery query) {
+        final var strategy = query.countStrategy();
+        final var pageSize = query.getPageSize();
+        final var rows = routePage(select::fetch);
+
+        if (!strategy.probesNextPage()) {
+            final var total = exactTotal(rows.size(), query, () -> count(filtered(baseQuery, query)));
+            return new JooqPage<>(rows, query.getPageNumber(), pageSize, TotalCount.exact(total),
+                    query.getOffset() + rows.size() < total);
+        }
+
+        final var hasNext = rows.size() > pageSize;
+        final var content = hasNext ? rows.subList(0, pageSize) : rows;
+        // Without a next page the rows seen so far are the exact total, unless the page is past the end
+        final TotalCount total;
+        if (hasNext || (content.isEmpty() && query.getOffset() > 0)) {
+            final var filtered = filtered(baseQuery, query);
+            total = strategy.count(SpecFingerprints.of(dsl.renderInlined(filtered)), countSource(filtered));
+        } else {
+            total = TotalCount.exact(query.getOffset() + (long) content.size());
+        }
+        return new JooqPage<>(content, query.getPageNumber(), pageSize, total, hasNext);
+    }
+
+    /**
+     * Fetches one page of rows and the exact total in a single round trip.
+     * <p>
+     * The page query carries {@code COUNT(*) OVER()} as an extra column, which the database evaluates
+     * after WHERE, GROUP BY and HAVING but before LIMIT/OFFSET, so it counts all matching rows, or all
+     * groups for grouped specifications. The column is removed from the returned records.
+     * </p>
+     * <p>
+     * A page past the end returns no row to read the total from; a separate count runs only in that case.
+     * Dialects without window functions fall back to {@link #fetchPage(Supplier, JooqPaginationQuery)}
+     * with an exact count. The count strategy of the query is ignored.
+     * </p>
+     *
+     * @param baseQuery supplies a fresh select with an explicit SELECT list, FROM and joins
+     * @param query     the specification and paging
+     * @param <R>       the record type of the base query
+     * @return the page with an exact total
+     */
+    public <R extends Record> JooqPage<Record> fetchPageWithTotal(final Supplier<? extends SelectQuery<R>> baseQuery,
+                                                                  final JooqPaginationQuery query) {
+        if (!supportsWindowCount()) {
+            final var page = fetchPage(baseQuery, query.withCountStrategy(CountStrategy.exact()));
+            return page.map(Record.class::cast);
+        }
+        final var pageSize = query.getPageSize();
+        final var select = query.specification().applyTo(baseQuery.get());
+        final var fields = select.getSelect().toArray(new Field<?>[0]);
+        final var total = DSL.count().over().as(TOTAL_COLUMN);
+        select.addSelect(total);
+        select.addOrderBy(query.getSort().sortFields());
+        select.addLimit(query.getOffset(), pageSize);
+        return coalesce(select, CountStrategy.exact(), () -> pageWithTotalOf(select, fields, total, baseQuery, query));
+    }
+
+    /**
+     * Runs a prepared page query carrying the window count.
+     *
+     * @param select    the filtered, sorted and limited select with the total column
+     * @param fields    the fields of the base query, kept in the returned records
+     * @param total     the window count column
+     * @param baseQuery supplies a fresh select for counting past the end
+     * @param query     the specification and paging
+     * @param <R>       the record type of the base query
+     * @return the page with an exact total
+     */
+    private <R extends Record> JooqPage<Record> pageWithTotalOf(final SelectQuery<R> select,
+                                                                final Field<?>[] fields,
+                                                                final Field<Integer> total,
+                                                                final Supplier<? extends SelectQuery<R>> baseQuery,
+                                                                final JooqPaginationQuery query) {
+        final var pageSize = query.getPageSize();
+        final var rows = routePage(select::fetch);
+
+        final long totalCount;
+        if (rows.isNotEmpty()) {
+            totalCount = rows.get(0).get(total);
+        } else {
+            // Empty page: zero on the first page, otherwise the offset may simply be past the end
+            totalCount = query.getOffset() == 0 ? 0L : count(filtered(baseQuery, query));
+        }
+        final var content = rows.stream()
+                .map(r -> r.into(fields))
+                .toList();
+        return new JooqPage<>(content, query.getPageNumber(), pageSize, TotalCount.exact(totalCount),
+                query.getOffset() + (long) content.size() < totalCount);
+    }
+
+    /**
+     * Fetches one page of rows with keyset pagination.
+     * <p>
+     * The seek predicate is added to WHERE, or to HAVING when the specification groups, so the sort keys
+     * of grouped queries must be grouping columns. One extra row is fetched to detect whether the page
+     * continues past its last row. Pages read {@link JooqKeysetPageRequest.Direction#BEFORE} the cursor
+     * are fetched in reverse and flipped back, so content is always in sort order.
+     * </p>
+     *
+     * @param baseQuery     supplies a fresh select with the SELECT list, FROM and joins; it must select
+     *                      every sort key and the tiebreaker
+     * @param specification the filter specification
+     * @param request       the page size, sort and cursor
+     * @param <R>           the record type
+     * @return the page with its next and previous cursors
+     */
+    public <R extends Record> JooqKeysetPage<R> fetchKeyset(final Supplier<? extends SelectQuery<R>> baseQuery,
+                                                            final JooqSpecification specification,
+                                                            final JooqKeysetPageRequest request) {
+        final var pageSize = request.pageSize();
+        final var select = specification.applyTo(baseQuery.get());
+        final var grouped = Objects.nonNull(specification.groupBy()) && !specification.groupBy().isEmpty();
+        if (grouped) {
+            select.addHaving(request.seekCondition());
+        } else {
+            select.addConditions(request.seekCondition());
+        }
+        select.addOrderBy(request.sortFields());
+        select.addLimit(pageSize + 1);
+        final var rows = routePage(select::fetch);
+
+        final var more = rows.size() > pageSize;
+        final var content = new ArrayList<R>(more ? rows.subList(0, pageSize) : rows);
+        final var hasCursor = Objects.nonNull(request.cursor());
+        final boolean hasNext;
+        final boolean hasPrevious;
+        if (request.direction() == JooqKeysetPageRequest.Direction.BEFORE) {
+            Collections.reverse(content);
+            hasNext = hasCursor;
+            hasPrevious = more;
+        } else {
+            hasNext = more;
+            hasPrevious = hasCursor;
+        }
+        if (content.isEmpty()) {
+            // No row to anchor a cursor on
+            return new JooqKeysetPage<>(content, null, null);
+        }
+        return new JooqKeysetPage<>(content,
+                hasNext ? request.cursorOf(content.get(content.size() - 1)) : null,
+                hasPrevious ? request.cursorOf(content.get(0)) : null);
+    }
+
+    /**
+     * Counts all rows of the select, wrapping it as a derived table so grouped queries count groups.
+     *
+     * @param select the filtered select
+     * @return the number of rows
+     */
+    public long count(final Select<?> select) {
+        return routeCount(() -> dsl.fetchCount(select));
+    }
+
+    /**
+     * Counts the rows of the select, stopping after {@code limit} rows.
+     *
+     * @param select the filtered select
+     * @param limit  the maximum number of rows to count
+     * @return the number of rows counted, never greater than {@code limit}
+     */
+    public long countUpTo(final Select<?> select,
+                          final long limit) {
+        return routeCount(() -> dsl.fetchCount(
+                dsl.selectOne()
+                        .from(select.asTable("filtered"))
+                        .limit(limit)
+        ));
+    }
+
+    /**
+     * Reads the planner row estimate of the select using {@code EXPLAIN}.
+     *
+     * @param select the filtered select
+     * @return the estimate, or empty when the dialect does not report one
+     */
+    public OptionalLong estimate(final Select<?> select) {
+        try {
+            final var rows = routeCount(() -> dsl.explain(select)).rows();
+            return Double.isNaN(rows) || rows < 0 ? OptionalLong.empty() : OptionalLong.of(Math.round(rows));
+        } catch (final DataAccessException e) {
+            return OptionalLong.empty();
+        }
+    }
+
+    /**
+     * Checks whether the dialect of the DSL context supports {@code COUNT(*) OVER()}.
+     * <p>
+     * Override to force the two-query fallback, for example on database versions older than the dialect.
+     * </p>
+     *
+     * @return {@code true} if window functions are available
+     */
+    protected boolean supportsWindowCount() {
+        return !NO_WINDOW_FUNCTIONS.contains(dsl.dialect().family().name());
+    }
+
+    /**
+     * Gets the DSL context backing this executor.
+     * @return the DSL context
+     */
+    protected DSLContext getDsl() {
+        return dsl;
+    }
+
+    /**
+     * Runs a page query under the read routing, when one is configured.
+     *
+     * @param query the page query
+     * @param <T>   the result type
+     * @return the result
+     */
+    private <T> T routePage(final Supplier<T> query) {
+        return Objects.isNull(readRouting) ? query.get() : readRouting.page(query);
+    }
+
+    /**
+     * Runs a count query under the read routing, when one is configured.
+     *
+     * @param query the count query
+     * @param <T>   the result type
+     * @return the result
+     */
+    private <T> T routeCount(final Supplier<T> query) {
+        return Objects.isNull(readRouting) ? query.get() : readRouting.count(query);
+    }
+
+    /**
+     * Runs a page query through the single-flight group, when one is configured.
+     *
+     * @param select   the page select, rendered for the key
+     * @param strategy the count strategy, part of the key
+     * @param loader   runs the page query
+     * @param <T>      the row type
+     * @return the page
+     */
+    @SuppressWarnings("unchecked")
+    private <T> JooqPage<T> coalesce(final Select<?> select,
+                                     final CountStrategy strategy,
+                                     final Supplier<JooqPage<T>> loader) {
+        if (Objects.isNull(singleFlight)) {
+            return loader.get();
+        }
+        final var key = strategy.mode().name() + ":" + SpecFingerprints.of(dsl.renderInlined(select));
+        return (JooqPage<T>) singleFlight.execute(key, loader);
+    }
+
+    /**
+     * Builds a fresh base query with the specification applied, without sorting or paging.
+     *
+     * @param baseQuery supplies a fresh select
+     * @param query     the pagination query
+     * @return the filtered select
+     */
+    private static Select<?> filtered(final Supplier<? extends SelectQuery<?>> baseQuery,
+                                      final JooqPaginationQuery query) {
+        return query.specification().applyTo(baseQuery.get());
+    }
+
+    /**
+     * Derives the exact total from the page when possible, otherwise runs the count.
+     *
+     * @param fetched the number of rows fetched for the page
+     * @param query   the pagination query
+     * @param counter runs the exact count
+     * @return the exact total
+     */
+    private static long exactTotal(final int fetched,
+                                   final JooqPaginationQuery query,
+                                   final Supplier<Long> counter) {
+        if (fetched > 0 && fetched < query.getPageSize()) {
+            return query.getOffset() + (long) fetched;
+        }
+        if (query.getOffset() == 0 && fetched == 0) {
+            return 0L;
+        }
+        return counter.get();
+    }
+
+    /**
+     * Adapts this executor's count queries to the strategy contract.
+     *
+     * @param select the filtered select
+     * @return the count source
+     */
+    private CountSource countSource(final Select<?> select) {
+        return new CountSource() {
+            @Override
+            public long exact() {
+                return count(select);
+            }
+
+            @Override
+            public long upTo(final long limit) {
+                return countUpTo(select, limit);
+            }
+
+            @Override
+            public OptionalLong estimate() {
+                return JooqFilterExecutor.this.estimate(select);
+            }
+        };
+    }
+}
@@ -0,0 +1,230 @@
+package io.github.khezyapp.jooqspec;
+
+import org.jooq.Condition;
+import org.jooq.JoinType;
+import org.jooq.Table;
+import org.jooq.TableLike;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Declares the joins a service may need around a root table and attaches only the ones a query uses.
+ * <p>
+ * Each join is registered under the qualifier filters use for its columns (e.g., "author" for
+ * "author.name"). Optional joins are LEFT joins to at most one row, so they never change the number of
+ * root rows: they are attached when the specification references them or the projection needs them,
+ * and never for counts unless referenced. Required joins can filter or multiply rows and are always
+ * attached. Attaching a join also attaches the joins it depends on, in declaration order.
+ * </p>
+ */
+public final class JooqJoinPlan {
+    private final Table<?> root;
+    private final Map<String, Join> joins;
+
+    private JooqJoinPlan(final Table<?> root,
+                         final Map<String, Join> joins) {
+        this.root = root;
+        this.joins = joins;
+    }
+
+    /**
+     * Starts a join plan from the root table.
+     *
+     * @param root the root table of every query
+     * @return a new {@link Builder}
+     */
+    public static Builder from(final Table<?> root) {
+        return new Builder(Objects.requireNonNull(root, "root must not be null"));
+    }
+
+    /**
+     * Builds the FROM clause of a page query: required joins, joins referenced by the specification
+     * and joins needed by the projection.
+     *
+     * @param specification the filter specification
+     * @param projected     the qualifiers whose columns are selected
+     * @return the joined table
+     * @throws IllegalArgumentException if a projected qualifier is not declared
+     */
+    public Table<?> forPage(final JooqSpecification specification,
+                            final Collection<String> projected) {
+        for (final var qualifier : projected) {
+            if (!joins.containsKey(qualifier)) {
+                throw new IllegalArgumentException("Unknown join qualifier: " + qualifier);
+            }
+        }
+        final var needed = new LinkedHashSet<>(specification.qualifiers());
+        needed.addAll(projected);
+        return attach(needed);
+    }
+
+    /**
+     * Builds the FROM clause of a count query: required joins and joins referenced by the specification.
+     * Optional joins needed only for projection cannot change the count and are dropped.
+     *
+     * @param specification the filter specification
+     * @return the joined table
+     */
+    public Table<?> forCount(final JooqSpecification specification) {
+        return attach(specification.qualifiers());
+    }
+
+    /**
+     * Gets the qualifiers of the joins a query would attach.
+     *
+     * @param needed the referenced qualifiers; undeclared ones (e.g., the root table) are ignored
+     * @return the attached qualifiers in declaration order
+     */
+    public List<String> plan(final Collection<String> needed) {
+        final var attached = new LinkedHashSet<String>();
+        for (final var join : joins.values()) {
+            if (join.required() || needed.contains(join.qualifier())) {
+                addWithDependencies(join, attached);
+            }
+        }
+        // Dependencies may have been added after their dependents, restore declaration order
+        final var ordered = new ArrayList<String>(attached.size());
+        for (final var qualifier : joins.keySet()) {
+            if (attached.contains(qualifier)) {
+                ordered.add(qualifier);
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * Attaches the planned joins to the root table.
+     *
+     * @param needed the referenced qualifiers
+     * @return the joined table
+     */
+    private Table<?> attach(final Collection<String> needed) {
+        Table<?> table = root;
+        for (final var qualifier : plan(needed)) {
+            final var join = joins.get(qualifier);
+            table = table.join(join.table(), join.type()).on(join.on());
+        }
+        return table;
+    }
+
+    /**
+     * Adds a join and, recursively, the joins it depends on.
+     *
+     * @param join     the join
+     * @param attached the qualifiers collected so far
+     */
+    private void addWithDependencies(final Join join,
+                                     final Set<String> attached) {
+        if (!attached.add(join.qualifier())) {
+            return;
+        }
+        for (final var dependency : join.dependsOn()) {
+            addWithDependencies(joins.get(dependency), attached);
+        }
+    }
+
+    /**
+     * A declared join.
+     *
+     * @param qualifier the qualifier used by filter paths
+     * @param table     the joined table
+     * @param on        the join condition
+     * @param type      the SQL join type
+     * @param required  whether the join is always attached
+     * @param dependsOn qualifiers of the joins the ON condition refers to
+     */
+    private record Join(
+            String qualifier,
+            TableLike<?> table,
+            Condition on,
+            JoinType type,
+            boolean required,
+            List<String> dependsOn
+    ) {
+    }
+
+    /**
+     * Fluent builder for constructing {@link JooqJoinPlan} instances.
+     */
+    public static class Builder {
+        private final Table<?> root;
+        private final Map<String, Join> joins = new LinkedHashMap<>();
+
+        private Builder(final Table<?> root) {
+            this.root = root;
+        }
+
+        /**
+         * Declares an optional LEFT join to at most one row per root row (e.g., a book's author).
+         *
+         * @param qualifier the qualifier used by filter paths
+         * @param table     the joined table
+         * @param on        the join condition
+         * @param dependsOn qualifiers of earlier joins the ON condition refers to
+         * @return the builder instance
+         */
+        public Builder optional(final String qualifier,
+                                final TableLike<?> table,
+                                final Condition on,
+                                final String... dependsOn) {
+            return add(new Join(qualifier, table, on, JoinType.LEFT_OUTER_JOIN, false, List.of(dependsOn)));
+        }
+
+        /**
+         * Declares a join that is always attached because it may filter or multiply root rows.
+         *
+         * @param qualifier the qualifier used by filter paths
+         * @param table     the joined table
+         * @param on        the join condition
+         * @param type      the SQL join type
+         * @param dependsOn qualifiers of earlier joins the ON condition refers to
+         * @return the builder instance
+         */
+        public Builder required(final String qualifier,
+                                final TableLike<?> table,
+                                final Condition on,
+                                final JoinType type,
+                                final String... dependsOn) {
+            return add(new Join(qualifier, table, on, type, true, List.of(dependsOn)));
+        }
+
+        /**
+         * Builds a new {@link JooqJoinPlan}.
+         * @return the join plan
+         */
+        public JooqJoinPlan build() {
+            return new JooqJoinPlan(root, new LinkedHashMap<>(joins));
+        }
+
+        /**
+         * Registers a join after checking its qualifier and dependencies.
+         *
+         * @param join the join
+         * @return the builder instance
+         * @throws IllegalArgumentException if the qualifier is taken or a dependency is not declared yet
+         */
+        private Builder add(final Join join) {
+            Objects.requireNonNull(join.qualifier(), "qualifier must not be null");
+            Objects.requireNonNull(join.table(), "table must not be null");
+            Objects.requireNonNull(join.on(), "on must not be null");
+            if (joins.containsKey(join.qualifier())) {
+                throw new IllegalArgumentException("Join already declared: " + join.qualifier());
+            }
+            for (final var dependency : join.dependsOn()) {
+                if (!joins.containsKey(dependency)) {
+                    throw new IllegalArgumentException("Join '%s' depends on undeclared join '%s'"
+                            .formatted(join.qualifier(), dependency));
+                }
+            }
+            joins.put(join.qualifier(), join);
+            return this;
+        }
+    }
+}
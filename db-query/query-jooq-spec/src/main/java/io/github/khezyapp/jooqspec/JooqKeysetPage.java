@@ -0,0 +1,56 @@
+package io.github.khezyapp.jooqspec;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * A page of rows returned by keyset pagination.
+ *
+ * @param content        the rows of the page, in sort order
+ * @param nextCursor     the cursor for the following page, or {@code null} when this is the last page
+ * @param previousCursor the cursor for the preceding page, or {@code null} when this is the first page
+ * @param <T>            the type of the page content
+ */
+public record JooqKeysetPage<T>(
+        List<T> content,
+        String nextCursor,
+        String previousCursor
+) {
+
+    /**
+     * Compact constructor making the content unmodifiable.
+     */
+    public JooqKeysetPage {
+        content = Collections.unmodifiableList(new ArrayList<>(content));
+    }
+
+    /**
+     * Checks whether a following page exists.
+     * @return {@code true} if {@link #nextCursor()} is set
+     */
+    public boolean hasNext() {
+        return Objects.nonNull(nextCursor);
+    }
+
+    /**
+     * Checks whether a preceding page exists.
+     * @return {@code true} if {@link #previousCursor()} is set
+     */
+    public boolean hasPrevious() {
+        return Objects.nonNull(previousCursor);
+    }
+
+    /**
+     * Converts the content of this page, keeping the cursors.
+     *
+     * @param mapper the row mapper
+     * @param <U>    the target type
+     * @return the mapped page
+     */
+    public <U> JooqKeysetPage<U> map(final Function<? super T, ? extends U> mapper) {
+        return new JooqKeysetPage<>(content.stream().<U>map(mapper).toList(), nextCursor, previousCursor);
+    }
+}
@@ -0,0 +1,335 @@
+package io.github.khezyapp.jooqspec;
+
+import org.jooq.Condition;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.SortField;
+import org.jooq.SortOrder;
+import org.jooq.impl.DSL;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A keyset (seek) pagination request for jOOQ queries.
+ * <p>
+ * Instead of skipping {@code pageNumber * pageSize} rows, the page starts right after (or right before)
+ * the row encoded in {@link #cursor()}. The sort is always completed with a unique, non-null
+ * {@link #tiebreaker()} column so every row has a distinct position, and NULL placement is made explicit
+ * in the ORDER BY so it agrees with the seek predicate.
+ * </p>
+ *
+ * @param pageSize   the number of records per page
+ * @param sort       the sorting configuration, without the tiebreaker
+ * @param tiebreaker the unique, non-null column closing the sort (e.g., "book.id")
+ * @param cursor     the cursor of the boundary row, or {@code null} for the first page
+ * @param direction  whether to read the rows after or before the cursor
+ */
+public record JooqKeysetPageRequest(
+        int pageSize,
+        JooqSort sort,
+        String tiebreaker,
+        String cursor,
+        Direction direction
+) {
+
+    /**
+     * Compact constructor to validate the request.
+     * @throws IllegalArgumentException if pageSize is less than one or no tiebreaker is given
+     */
+    public JooqKeysetPageRequest {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must not be less than one");
+        }
+        if (Objects.isNull(tiebreaker) || tiebreaker.isBlank()) {
+            throw new IllegalArgumentException("Keyset pagination requires a unique tiebreaker column");
+        }
+        sort = Objects.isNull(sort) ? new JooqSort(List.of()) : sort;
+        direction = Objects.isNull(direction) ? Direction.AFTER : direction;
+    }
+
+    /**
+     * Gets the sort keys in page order: the requested orders followed by the tiebreaker, ascending.
+     * <p>
+     * When the sort already contains the tiebreaker, it is kept with its direction and any later
+     * orders are dropped, since a unique key leaves nothing for them to decide.
+     * </p>
+     * @return the effective sort keys
+     */
+    public List<JooqOrder> keys() {
+        final var keys = new ArrayList<JooqOrder>();
+        for (final var order : sort.orders()) {
+            keys.add(order);
+            if (order.field().equals(tiebreaker)) {
+                return keys;
+            }
+        }
+        keys.add(new JooqOrder(tiebreaker, JooqOrder.Direction.ASC));
+        return keys;
+    }
+
+    /**
+     * Gets the sort keys the query actually runs with: reversed when reading {@link Direction#BEFORE}
+     * the cursor, so the rows closest to the cursor are fetched first.
+     * @return the sort keys used by the query
+     */
+    public List<JooqOrder> queryKeys() {
+        final var keys = keys();
+        return direction == Direction.BEFORE
+                ? keys.stream().map(JooqOrder::reverse).toList()
+                : keys;
+    }
+
+    /**
+     * Renders the query sort keys into ORDER BY fields with explicit NULL placement.
+     * @return the sort fields
+     */
+    public List<SortField<Object>> sortFields() {
+        return queryKeys().stream()
+                .map(o -> {
+                    final var sortField = fieldOf(o.field()).sort(SortOrder.valueOf(o.direction().name()));
+                    return o.effectiveNulls() == JooqOrder.Nulls.FIRST ? sortField.nullsFirst() : sortField.nullsLast();
+                })
+                .toList();
+    }
+
+    /**
+     * Builds the predicate selecting the rows past the cursor in query order.
+     * <p>
+     * The predicate is expanded as {@code (k1 > v1) OR (k1 = v1 AND k2 > v2) OR ...} rather than a row-value
+     * comparison, so mixed directions and NULL placement are honored on every dialect. A NULL cursor value
+     * compares with {@code IS NULL}; NULLs sorting last are "after" every value.
+     * </p>
+     *
+     * @return the seek condition, {@link DSL#noCondition()} on the first page
+     * @throws IllegalArgumentException if the cursor does not match the sort keys
+     */
+    public Condition seekCondition() {
+        if (Objects.isNull(cursor)) {
+            return DSL.noCondition();
+        }
+        final var keys = queryKeys();
+        final var values = JooqCursor.decode(cursor);
+        if (values.size() != keys.size()) {
+            throw new IllegalArgumentException("Cursor has %d values but the sort has %d keys"
+                    .formatted(values.size(), keys.size()));
+        }
+        Condition seek = DSL.falseCondition();
+        Condition equalPrefix = DSL.trueCondition();
+        for (var i = 0; i < keys.size(); i++) {
+            final var key = keys.get(i);
+            final var field = fieldOf(key.field());
+            final var value = values.get(i);
+            seek = seek.or(equalPrefix.and(after(key, field, value)));
+            equalPrefix = equalPrefix.and(Objects.isNull(value) ? field.isNull() : field.eq(value));
+        }
+        return seek;
+    }
+
+    /**
+     * Encodes the sort-key values of a fetched row into a cursor.
+     *
+     * @param row a row selecting every sort key
+     * @return the cursor pointing at the row
+     * @throws IllegalArgumentException if a sort key is not part of the row
+     */
+    public String cursorOf(final Record row) {
+        final var values = new ArrayList<>();
+        for (final var key : keys()) {
+            values.add(valueOf(row, key.field()));
+        }
+        return JooqCursor.encode(values);
+    }
+
+    /**
+     * Creates a request for the rows after the given cursor, keeping the page size and sort.
+     *
+     * @param nextCursor the cursor of the last row of the current page
+     * @return the request for the next page
+     */
+    public JooqKeysetPageRequest next(final String nextCursor) {
+        return new JooqKeysetPageRequest(pageSize, sort, tiebreaker, nextCursor, Direction.AFTER);
+    }
+
+    /**
+     * Creates a request for the rows before the given cursor, keeping the page size and sort.
+     *
+     * @param previousCursor the cursor of the first row of the current page
+     * @return the request for the previous page
+     */
+    public JooqKeysetPageRequest previous(final String previousCursor) {
+        return new JooqKeysetPageRequest(pageSize, sort, tiebreaker, previousCursor, Direction.BEFORE);
+    }
+
+    /**
+     * Builds the "strictly after" condition of one key in query order.
+     *
+     * @param key   the sort key
+     * @param field the key field
+     * @param value the cursor value
+     * @return the condition
+     */
+    private static Condition after(final JooqOrder key,
+                                   final Field<Object> field,
+                                   final Object value) {
+        final var nullsLast = key.effectiveNulls() == JooqOrder.Nulls.LAST;
+        if (Objects.isNull(value)) {
+            return nullsLast ? DSL.falseCondition() : field.isNotNull();
+        }
+        final var past = key.direction() == JooqOrder.Direction.ASC ? field.gt(value) : field.lt(value);
+        return nullsLast ? past.or(field.isNull()) : past;
+    }
+
+    /**
+     * Creates a field reference from a dotted, optionally qualified, column name.
+     *
+     * @param name the column name (e.g., "book.title")
+     * @return the field
+     */
+    private static Field<Object> fieldOf(final String name) {
+        return DSL.field(DSL.name(name.split("\\.")));
+    }
+
+    /**
+     * Reads a sort-key value from a row, falling back to the unqualified column name when the row
+     * does not carry the qualifier.
+     *
+     * @param row  the row
+     * @param name the column name
+     * @return the value
+     */
+    private static Object valueOf(final Record row,
+                                  final String name) {
+        final var parts = name.split("\\.");
+        final var qualified = row.field(DSL.name(parts));
+        if (Objects.nonNull(qualified)) {
+            return row.get(qualified);
+        }
+        final var unqualified = row.field(parts[parts.length - 1]);
+        if (Objects.isNull(unqualified)) {
+            throw new IllegalArgumentException("Sort key '%s' is not selected by the query".formatted(name));
+        }
+        return row.get(unqualified);
+    }
+
+    /**
+     * Side of the cursor a page is read from.
+     */
+    public enum Direction {
+        /** Rows following the cursor, used for the next page. */
+        AFTER,
+        /** Rows preceding the cursor, used for the previous page. */
+        BEFORE
+    }
+
+    /**
+     * Fluent builder for constructing {@link JooqKeysetPageRequest} instances.
+     */
+    public static class Builder {
+        private int pageSize;
+        private List<String> sortFields = List.of();
+        private List<String> sortDirections = List.of();
+        private List<String> sortNulls = List.of();
+        private String tiebreaker;
+        private String cursor;
+        private Direction direction = Direction.AFTER;
+
+        /**
+         * Sets the number of items per page.
+         *
+         * @param pageSize the page size
+         * @return the builder instance
+         */
+        public Builder pageSize(final int pageSize) {
+            this.pageSize = pageSize;
+            return this;
+        }
+
+        /**
+         * Sets the field names to sort by.
+         *
+         * @param sortFields a list of field identifiers
+         * @return the builder instance
+         */
+        public Builder sortFields(final List<String> sortFields) {
+            this.sortFields = sortFields;
+            return this;
+        }
+
+        /**
+         * Sets the directions corresponding to the sort fields.
+         *
+         * @param sortDirections a list of direction strings (e.g., "ASC", "DESC")
+         * @return the builder instance
+         */
+        public Builder sortDirections(final List<String> sortDirections) {
+            this.sortDirections = sortDirections;
+            return this;
+        }
+
+        /**
+         * Sets the NULL placement corresponding to the sort fields.
+         *
+         * @param sortNulls a list of placement strings (e.g., "FIRST", "LAST")
+         * @return the builder instance
+         */
+        public Builder sortNulls(final List<String> sortNulls) {
+            this.sortNulls = sortNulls;
+            return this;
+        }
+
+        /**
+         * Sets the unique, non-null column closing the sort.
+         *
+         * @param tiebreaker the column name (e.g., "book.id")
+         * @return the builder instance
+         */
+        public Builder tiebreaker(final String tiebreaker) {
+            this.tiebreaker = tiebreaker;
+            return this;
+        }
+
+        /**
+         * Sets the cursor of the boundary row.
+         *
+         * @param cursor the cursor, or {@code null} for the first page
+         * @return the builder instance
+         */
+        public Builder cursor(final String cursor) {
+            this.cursor = cursor;
+            return this;
+        }
+
+        /**
+         * Sets the side of the cursor to read.
+         *
+         * @param direction the direction
+         * @return the builder instance
+         */
+        public Builder direction(final Direction direction) {
+            this.direction = direction;
+            return this;
+        }
+
+        /**
+         * Builds a new {@link JooqKeysetPageRequest}, defaulting missing directions to ASC and missing
+         * NULL placements to the database default.
+         *
+         * @return the constructed request
+         */
+        public JooqKeysetPageRequest build() {
+            final var orders = new ArrayList<JooqOrder>(sortFields.size());
+            for (var i = 0; i < sortFields.size(); i++) {
+                orders.add(
+                        new JooqOrder(
+                                sortFields.get(i),
+                                JooqOrder.Direction.of(i < sortDirections.size() ? sortDirections.get(i) : "ASC"),
+                                JooqOrder.Nulls.of(i < sortNulls.size() ? sortNulls.get(i) : null)
+                        )
+                );
+            }
+            return new JooqKeysetPageRequest(pageSize, new JooqSort(orders), tiebreaker, cursor, direction);
+        }
+    }
+}
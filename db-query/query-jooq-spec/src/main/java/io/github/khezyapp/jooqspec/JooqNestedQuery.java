@@ -0,0 +1,260 @@
+package io.github.khezyapp.jooqspec;
+
+import io.github.khezyapp.grammar.ast.ASTSpec;
+import io.github.khezyapp.grammar.ast.LogicalAndSpec;
+import io.github.khezyapp.grammar.ast.QuerySpec;
+import io.github.khezyapp.grammar.support.SpecPaths;
+import org.jooq.Condition;
+import org.jooq.Record;
+import org.jooq.SelectQuery;
+import org.jooq.impl.DSL;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Loads parent rows together with their child collections in one query, using {@code MULTISET} columns.
+ * <p>
+ * The filter is split along its top-level AND: a term whose paths all use one collection's qualifier (e.g.,
+ * "books.price &gt; 10") is pushed down into that collection's subquery, every other term filters the parents.
+ * Terms mixing a collection with anything else, or collection paths in HAVING and GROUP BY, cannot be pushed
+ * down and are rejected. Sorting and paging apply to the parent rows only, since each parent carries its
+ * children in a single column.
+ * </p>
+ */
+public final class JooqNestedQuery {
+    private final JooqFieldRegistry registry;
+    private final Map<String, JooqCollection> collections;
+
+    private JooqNestedQuery(final JooqFieldRegistry registry,
+                            final Map<String, JooqCollection> collections) {
+        this.registry = registry;
+        this.collections = collections;
+    }
+
+    /**
+     * Creates a builder for a nested query.
+     * @return a new {@link Builder}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Applies the parent filter, the collection columns, sorting and paging to a parent query.
+     *
+     * @param parentQuery the parent select with its own columns, FROM and joins
+     * @param querySpec   the parsed filter, may be {@code null}
+     * @param pageable    the paging and sort of the parent rows, may be {@code null} for all parents
+     * @param <R>         the record type
+     * @return the same parent query, for chaining
+     * @throws IllegalArgumentException if a filter term cannot be pushed down
+     */
+    public <R extends Record> SelectQuery<R> apply(final SelectQuery<R> parentQuery,
+                                                   final QuerySpec querySpec,
+                                                   final JooqPageRequest pageable) {
+        final var split = split(querySpec);
+        for (final var collection : collections.values()) {
+            parentQuery.addSelect(collection.multiset(split.childConditions().get(collection.name())));
+        }
+        split.parentSpecification().applyTo(parentQuery);
+        if (Objects.nonNull(pageable)) {
+            parentQuery.addOrderBy(pageable.sort().sortFields());
+            parentQuery.addLimit(pageable.pageNumber() * pageable.pageSize(), pageable.pageSize());
+        }
+        return parentQuery;
+    }
+
+    /**
+     * Splits a filter into the parent specification and the pushed-down child conditions.
+     * <p>
+     * The parent specification includes the EXISTS conditions of collections declared with
+     * {@code filterParents}, so it can also be used to count parents.
+     * </p>
+     *
+     * @param querySpec the parsed filter, may be {@code null}
+     * @return the split filter, with a condition for every declared collection
+     * @throws IllegalArgumentException if a filter term cannot be pushed down
+     */
+    public Split split(final QuerySpec querySpec) {
+        final var parentTerms = new ArrayList<ASTSpec>();
+        final var childTerms = new LinkedHashMap<String, List<ASTSpec>>();
+        if (Objects.nonNull(querySpec)) {
+            checkNotNested(querySpec.havingSpec(), "HAVING");
+            if (Objects.nonNull(querySpec.groupBy())) {
+                checkNotNested(new QuerySpec(null, null, querySpec.groupBy()), "GROUP BY");
+            }
+            for (final var term : conjuncts(querySpec.whereSpec())) {
+                final var target = targetOf(term);
+                if (Objects.isNull(target)) {
+                    parentTerms.add(term);
+                } else {
+                    childTerms.computeIfAbsent(target, k -> new ArrayList<>()).add(term);
+                }
+            }
+        }
+
+        final var childConditions = new LinkedHashMap<String, Condition>();
+        final var parentExists = new ArrayList<Condition>();
+        for (final var collection : collections.values()) {
+            final var terms = childTerms.getOrDefault(collection.name(), List.of());
+            final var condition = terms.isEmpty() ? DSL.noCondition() : toCondition(terms);
+            childConditions.put(collection.name(), condition);
+            if (collection.filterParents() && !terms.isEmpty()) {
+                parentExists.add(collection.exists(condition));
+            }
+        }
+
+        final var parentSpec = new QuerySpec(
+                new LogicalAndSpec(parentTerms),
+                Objects.isNull(querySpec) ? null : querySpec.havingSpec(),
+                Objects.isNull(querySpec) ? null : querySpec.groupBy()
+        );
+        final var parent = (JooqSpecification) parentSpec.accept(new FilterJooqVisitor(registry));
+        final var parentSpecification = parent.mutate()
+                .where(DSL.and(parent.where(), DSL.and(parentExists)))
+                .build();
+        return new Split(parentSpecification, childConditions);
+    }
+
+    /**
+     * Finds the collection a filter term belongs to.
+     *
+     * @param term the filter term
+     * @return the collection name, or {@code null} for a parent term
+     * @throws IllegalArgumentException if the term mixes a collection with other qualifiers
+     */
+    private String targetOf(final ASTSpec term) {
+        final var qualifiers = qualifiersOf(new QuerySpec(term, null, null));
+        final var nested = new LinkedHashSet<>(qualifiers);
+        nested.retainAll(collections.keySet());
+        if (nested.isEmpty()) {
+            return null;
+        }
+        if (nested.size() > 1 || qualifiers.size() > 1) {
+            throw new IllegalArgumentException("Filter term mixes collection '%s' with %s and cannot be pushed down"
+                    .formatted(nested.iterator().next(), qualifiers));
+        }
+        return nested.iterator().next();
+    }
+
+    /**
+     * Rejects collection paths in a clause that cannot be pushed down.
+     *
+     * @param spec   the clause
+     * @param clause the clause name, for the error message
+     */
+    private void checkNotNested(final ASTSpec spec,
+                                final String clause) {
+        if (Objects.isNull(spec)) {
+            return;
+        }
+        final var querySpec = spec instanceof QuerySpec q ? q : new QuerySpec(spec, null, null);
+        for (final var qualifier : qualifiersOf(querySpec)) {
+            if (collections.containsKey(qualifier)) {
+                throw new IllegalArgumentException("Collection '%s' cannot be referenced in %s"
+                        .formatted(qualifier, clause));
+            }
+        }
+    }
+
+    /**
+     * Translates pushed-down terms into a condition on the child table.
+     *
+     * @param terms the child filter terms
+     * @return the AND of the terms
+     */
+    private Condition toCondition(final List<ASTSpec> terms) {
+        final var spec = new QuerySpec(new LogicalAndSpec(terms), null, null);
+        return ((JooqSpecification) spec.accept(new FilterJooqVisitor(registry))).where();
+    }
+
+    /**
+     * Gets the top-level AND terms of a filter.
+     *
+     * @param where the WHERE node
+     * @return the terms
+     */
+    private static List<ASTSpec> conjuncts(final ASTSpec where) {
+        if (Objects.isNull(where)) {
+            return List.of();
+        }
+        if (where instanceof LogicalAndSpec and) {
+            return and.children();
+        }
+        return List.of(where);
+    }
+
+    /**
+     * Gets the qualifiers of the paths in a filter.
+     *
+     * @param querySpec the filter
+     * @return the qualifiers; unqualified paths, which belong to the parent, give an empty qualifier
+     */
+    private static Set<String> qualifiersOf(final QuerySpec querySpec) {
+        final var qualifiers = new LinkedHashSet<String>();
+        for (final var path : SpecPaths.collect(querySpec)) {
+            final var lastDot = path.lastIndexOf('.');
+            qualifiers.add(lastDot > 0 ? path.substring(0, lastDot) : "");
+        }
+        return qualifiers;
+    }
+
+    /**
+     * A filter split between parents and collections.
+     *
+     * @param parentSpecification the parent filter, including EXISTS conditions of filtering collections
+     * @param childConditions     the pushed-down condition of each collection, by collection name
+     */
+    public record Split(
+            JooqSpecification parentSpecification,
+            Map<String, Condition> childConditions
+    ) {
+    }
+
+    /**
+     * Fluent builder for constructing {@link JooqNestedQuery} instances.
+     */
+    public static class Builder {
+        private final Map<String, JooqCollection> collections = new LinkedHashMap<>();
+        private JooqFieldRegistry registry = JooqFieldRegistry.untyped();
+
+        /**
+         * Sets the field registry used to translate parent and child filters.
+         *
+         * @param registry the field registry
+         * @return the builder instance
+         */
+        public Builder registry(final JooqFieldRegistry registry) {
+            this.registry = Objects.requireNonNull(registry, "registry must not be null");
+            return this;
+        }
+
+        /**
+         * Adds a child collection.
+         *
+         * @param collection the collection declaration
+         * @return the builder instance
+         * @throws IllegalArgumentException if a collection with the same name exists
+         */
+        public Builder collection(final JooqCollection collection) {
+            if (Objects.nonNull(collections.putIfAbsent(collection.name(), collection))) {
+                throw new IllegalArgumentException("Collection already declared: " + collection.name());
+            }
+            return this;
+        }
+
+        /**
+         * Builds a new {@link JooqNestedQuery}.
+         * @return the nested query
+         */
+        public JooqNestedQuery build() {
+            return new JooqNestedQuery(registry, new LinkedHashMap<>(collections));
+        }
+    }
+}
@@ -4,23 +4,109 @@ import org.jooq.SortField;
 import org.jooq.SortOrder;
 import org.jooq.impl.DSL;
 
+import java.util.Objects;
+
 /**
  * Represents a sorting definition for a jOOQ query, mapping a field name and direction to a jOOQ SortField.
  *
  * @param field the name of the field to sort by
  * @param direction the direction of the sort (ASC or DESC)
+ * @param nulls where NULL values are placed, {@link Nulls#DEFAULT} leaves it to the database
  */
 public record JooqOrder(
         String field,
-        Direction direction
+        Direction direction,
+        Nulls nulls
 ) {
 
+    /**
+     * Compact constructor defaulting a missing null ordering to {@link Nulls#DEFAULT}.
+     */
+    public JooqOrder {
+        nulls = Objects.isNull(nulls) ? Nulls.DEFAULT : nulls;
+    }
+
+    /**
+     * Creates an order leaving NULL placement to the database.
+     *
+     * @param field the name of the field to sort by
+     * @param direction the direction of the sort (ASC or DESC)
+     */
+    public JooqOrder(final String field,
+                     final Direction direction) {
+        this(field, direction, Nulls.DEFAULT);
+    }
+
     /**
      * Converts this order definition into a jOOQ {@link SortField}.
      * @return a sort field expression compatible with jOOQ select clauses
      */
     public SortField<Object> getSortField() {
-        return DSL.field(field).sort(SortOrder.valueOf(direction.name()));
+        final var sortField = DSL.field(field).sort(SortOrder.valueOf(direction.name()));
+        return switch (nulls) {
+            case FIRST -> sortField.nullsFirst();
+            case LAST -> sortField.nullsLast();
+            default -> sortField;
+        };
+    }
+
+    /**
+     * Resolves {@link Nulls#DEFAULT} to the placement used by PostgreSQL and Oracle, where NULL sorts
+     * as the largest value: last when ascending, first when descending.
+     * <p>
+     * Keyset pagination needs an explicit placement so the seek predicate agrees with the ORDER BY.
+     * </p>
+     *
+     * @return {@link Nulls#FIRST} or {@link Nulls#LAST}
+     */
+    public Nulls effectiveNulls() {
+        if (nulls != Nulls.DEFAULT) {
+            return nulls;
+        }
+        return direction == Direction.ASC ? Nulls.LAST : Nulls.FIRST;
+    }
+
+    /**
+     * Creates the order walking the same rows backwards: direction and NULL placement are both flipped.
+     * @return the reversed order with an explicit NULL placement
+     */
+    public JooqOrder reverse() {
+        return new JooqOrder(
+                field,
+                direction == Direction.ASC ? Direction.DESC : Direction.ASC,
+                effectiveNulls() == Nulls.FIRST ? Nulls.LAST : Nulls.FIRST
+        );
+    }
+
+    /**
+     * Placement of NULL values within a sort.
+     */
+    public enum Nulls {
+        /** Database default placement. */
+        DEFAULT,
+        /** NULL values sort before all other values. */
+        FIRST,
+        /** NULL values sort after all other values. */
+        LAST;
+
+        /**
+         * Resolves a {@link Nulls} from a string value, ignoring case; {@code null} maps to DEFAULT.
+         *
+         * @param nulls the string representation (e.g., "first", "LAST")
+         * @return the matching Nulls
+         * @throws IllegalArgumentException if the value is not recognized
+         */
+        public static Nulls of(final String nulls) {
+            if (Objects.isNull(nulls)) {
+                return DEFAULT;
+            }
+            for (Nulls n : Nulls.values()) {
+                if (n.name().equalsIgnoreCase(nulls)) {
+                    return n;
+                }
+            }
+            throw new IllegalArgumentException("Unknown nulls ordering: " + nulls);
+        }
     }
 
     /**
@@ -0,0 +1,63 @@
+package io.github.khezyapp.jooqspec;
+
+import io.github.khezyapp.querysupport.TotalCount;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A page of rows returned by {@link JooqFilterExecutor}.
+ *
+ * @param content    the rows of the page
+ * @param pageNumber the zero-based page index
+ * @param pageSize   the requested page size
+ * @param totalCount the total number of matching rows and its precision
+ * @param hasNext    whether a next page exists
+ * @param <T>        the type of the page content
+ */
+public record JooqPage<T>(
+        List<T> content,
+        int pageNumber,
+        int pageSize,
+        TotalCount totalCount,
+        boolean hasNext
+) {
+
+    /**
+     * Compact constructor making the content unmodifiable.
+     */
+    public JooqPage {
+        content = Collections.unmodifiableList(new ArrayList<>(content));
+    }
+
+    /**
+     * Calculates the number of pages, based on the total count.
+     * <p>
+     * The value is only as precise as {@link #totalCount()}; it is {@code -1} when no total was computed.
+     * </p>
+     *
+     * @return the number of pages
+     */
+    public long totalPages() {
+        if (totalCount.precision() == TotalCount.Precision.UNKNOWN) {
+            return -1L;
+        }
+        return (totalCount.value() + pageSize - 1) / pageSize;
+    }
+
+    /**
+     * Maps the content of this page, keeping the paging metadata.
+     *
+     * @param mapper the row mapper
+     * @param <U>    the mapped type
+     * @return a new page holding the mapped rows
+     */
+    public <U> JooqPage<U> map(final Function<? super T, ? extends U> mapper) {
+        final var mapped = content.stream()
+                .<U>map(mapper)
+                .toList();
+        return new JooqPage<>(mapped, pageNumber, pageSize, totalCount, hasNext);
+    }
+}
@@ -1,5 +1,10 @@
 package io.github.khezyapp.jooqspec;
 
+import io.github.khezyapp.grammar.support.SpecFingerprints;
+import io.github.khezyapp.querysupport.CountStrategy;
+
+import java.util.Objects;
+
 /**
  * Container record that aggregates a jOOQ specification and pagination details into a single query object.
  * <p>
@@ -9,12 +14,63 @@ package io.github.khezyapp.jooqspec;
  *
  * @param specification the filtering, grouping, and having logic
  * @param pageable      the pagination and sorting parameters
+ * @param countStrategy how the total number of rows is obtained, defaults to an exact count
  */
 public record JooqPaginationQuery(
         JooqSpecification specification,
-        JooqPageRequest pageable
+        JooqPageRequest pageable,
+        CountStrategy countStrategy
 ) {
 
+    /**
+     * Compact constructor defaulting the count strategy to an exact count.
+     */
+    public JooqPaginationQuery {
+        countStrategy = Objects.requireNonNullElse(countStrategy, CountStrategy.exact());
+    }
+
+    /**
+     * Constructs a pagination query using an exact count.
+     *
+     * @param specification the filtering, grouping, and having logic
+     * @param pageable      the pagination and sorting parameters
+     */
+    public JooqPaginationQuery(final JooqSpecification specification,
+                               final JooqPageRequest pageable) {
+        this(specification, pageable, CountStrategy.exact());
+    }
+
+    /**
+     * Returns a copy of this query using another total-count strategy.
+     *
+     * @param countStrategy how the total number of rows is obtained
+     * @return a new pagination query sharing the same specification and paging
+     */
+    public JooqPaginationQuery withCountStrategy(final CountStrategy countStrategy) {
+        return new JooqPaginationQuery(specification, pageable, countStrategy);
+    }
+
+    /**
+     * Returns a copy of this query for another page with the same filter, size and sort.
+     *
+     * @param pageNumber the zero-based page index
+     * @return a new pagination query for the given page
+     */
+    public JooqPaginationQuery withPage(final int pageNumber) {
+        return new JooqPaginationQuery(specification,
+                new JooqPageRequest(pageNumber, pageable.pageSize(), pageable.sort()), countStrategy);
+    }
+
+    /**
+     * Gets a key identifying the filter, page size and sort but not the page number, so all pages of one
+     * listing share it (e.g., for {@link io.github.khezyapp.querysupport.PagePrefetcher}).
+     *
+     * @return the query key
+     */
+    public String getQueryKey() {
+        return SpecFingerprints.of(specification + "|" + getPageSize() + "|" + getSort());
+    }
+
     /**
      * Gets the zero-based page index from the underlying page request.
      * @return the page number
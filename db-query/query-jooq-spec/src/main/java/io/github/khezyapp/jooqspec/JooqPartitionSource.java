@@ -0,0 +1,101 @@
+package io.github.khezyapp.jooqspec;
+
+import io.github.khezyapp.querysupport.KeyRange;
+import io.github.khezyapp.querysupport.PartitionSource;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.SelectFieldOrAsterisk;
+import org.jooq.TableLike;
+import org.jooq.impl.DSL;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Reads a {@link JooqSpecification} one key range at a time for a
+ * {@link io.github.khezyapp.querysupport.PartitionedScan}.
+ * <p>
+ * Each partition query is the specification's WHERE clause plus {@code key >= from AND key < to},
+ * ordered by key and fetched lazily with the configured fetch size. The returned stream keeps its
+ * own connection until it is closed. Drivers such as PostgreSQL only use a server-side cursor inside
+ * a transaction, so run the scan with auto-commit disabled on those databases.
+ * </p>
+ */
+public class JooqPartitionSource implements PartitionSource<Record> {
+    private final DSLContext dsl;
+    private final JooqSpecification spec;
+    private final TableLike<?> from;
+    private final List<SelectFieldOrAsterisk> select;
+    private final Field<Long> key;
+    private final int fetchSize;
+
+    /**
+     * Constructs a partition source.
+     *
+     * @param dsl       the DSL context
+     * @param spec      the filter to scan, must not group
+     * @param from      the FROM clause, including joins
+     * @param select    the selected fields, which must include the key
+     * @param key       a unique numeric key
+     * @param fetchSize the number of rows fetched per round trip
+     */
+    public JooqPartitionSource(final DSLContext dsl,
+                               final JooqSpecification spec,
+                               final TableLike<?> from,
+                               final Collection<? extends SelectFieldOrAsterisk> select,
+                               final Field<? extends Number> key,
+                               final int fetchSize) {
+        this.dsl = Objects.requireNonNull(dsl, "dsl must not be null");
+        this.spec = Objects.requireNonNull(spec, "spec must not be null");
+        this.from = Objects.requireNonNull(from, "from must not be null");
+        this.select = List.copyOf(select);
+        this.key = Objects.requireNonNull(key, "key must not be null").coerce(Long.class);
+        this.fetchSize = fetchSize;
+        if (Objects.nonNull(spec.groupBy()) && !spec.groupBy().isEmpty()) {
+            throw new IllegalArgumentException("Grouped specifications cannot be partitioned by key");
+        }
+    }
+
+    /**
+     * Reads {@code MIN(key)} and {@code MAX(key)} of the filtered rows.
+     * @return the key range, or empty when no row matches
+     */
+    @Override
+    public Optional<KeyRange> bounds() {
+        final var bounds = dsl.select(DSL.min(key), DSL.max(key))
+                .from(from)
+                .where(spec.where())
+                .fetchOne();
+        if (Objects.isNull(bounds) || Objects.isNull(bounds.value1()) || Objects.isNull(bounds.value2())) {
+            return Optional.empty();
+        }
+        return Optional.of(new KeyRange(bounds.value1(), Math.addExact(bounds.value2(), 1L)));
+    }
+
+    /**
+     * Streams the filtered rows of the range, ordered by key.
+     *
+     * @param range the key range to read
+     * @return the ordered rows, holding a connection until closed
+     */
+    @Override
+    public Stream<Record> open(final KeyRange range) {
+        return dsl.select(select)
+                .from(from)
+                .where(spec.where())
+                .and(key.ge(range.from()))
+                .and(key.lt(range.to()))
+                .orderBy(key.asc())
+                .fetchSize(fetchSize)
+                .fetchStream();
+    }
+
+    @Override
+    public long keyOf(final Record row) {
+        return row.get(key);
+    }
+}
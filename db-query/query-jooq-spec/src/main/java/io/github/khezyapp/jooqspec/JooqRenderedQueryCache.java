@@ -0,0 +1,239 @@
+package io.github.khezyapp.jooqspec;
+
+import io.github.khezyapp.grammar.ast.QuerySpec;
+import io.github.khezyapp.grammar.support.SpecShape;
+import org.jooq.DSLContext;
+import org.jooq.DataType;
+import org.jooq.Record;
+import org.jooq.Result;
+import org.jooq.ResultQuery;
+import org.jooq.impl.DSL;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Caches the SQL rendered for a query per specification shape, and binds new literal values to it directly.
+ * <p>
+ * Filters differing only in literal values share a {@link SpecShape}. The first execution of a shape builds
+ * the specification with a {@link FilterJooqVisitor#parameterized(JooqFieldRegistry) parameterized} visitor,
+ * renders the query once and records where every bind value comes from: a filter literal, a named parameter
+ * supplied per call (e.g., {@code limit} and {@code offset}), or a constant of the base query. Later
+ * executions skip building the condition tree and rendering, and pass the SQL text with the new bind values
+ * to {@link DSLContext#resultQuery(String, Object...)}. Because the SQL text is identical, the driver or pool
+ * statement cache can also reuse the prepared statement.
+ * </p>
+ * <p>
+ * A query is executed uncached when its rendering cannot be replayed: when a literal or named parameter was
+ * inlined by the dialect, or when one parameter is bound more than once. Cached results come from plain SQL,
+ * so read columns by name or map them with {@code into(Class)}. Use one cache per {@link DSLContext}
+ * configuration, since dialect and settings change the rendered SQL.
+ * </p>
+ */
+public class JooqRenderedQueryCache {
+    private static final int DEFAULT_MAX_ENTRIES = 1_000;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final JooqFieldRegistry registry;
+    private final int maxEntries;
+
+    /**
+     * Constructs a cache holding up to 1,000 rendered queries.
+     * @param registry the field registry used to build specifications
+     */
+    public JooqRenderedQueryCache(final JooqFieldRegistry registry) {
+        this(registry, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Constructs a cache with a custom size.
+     *
+     * @param registry   the field registry used to build specifications
+     * @param maxEntries the maximum number of rendered queries kept
+     * @throws IllegalArgumentException if maxEntries is less than one
+     */
+    public JooqRenderedQueryCache(final JooqFieldRegistry registry,
+                                  final int maxEntries) {
+        this.registry = Objects.requireNonNull(registry, "registry must not be null");
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Rendered query cache size must not be less than one");
+        }
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Fetches the rows of a query built around a filter, reusing the SQL rendered for the same shape.
+     * <p>
+     * {@code queryKey} must identify everything the builder varies besides the filter literals and the named
+     * parameters, such as the base query or the sort. Values that change between calls must be passed as
+     * named parameters, with the builder referencing them through {@code DSL.param(name, value)}.
+     * </p>
+     *
+     * @param dsl       the DSL context executing the query
+     * @param queryKey  identifies the query built by {@code builder}
+     * @param querySpec the parsed filter, may be {@code null}
+     * @param params    the named parameters referenced by the builder, e.g., {@code limit} and {@code offset}
+     * @param builder   builds the query from the specification
+     * @return the fetched rows
+     */
+    public Result<Record> fetch(final DSLContext dsl,
+                                final String queryKey,
+                                final QuerySpec querySpec,
+                                final Map<String, ?> params,
+                                final Function<JooqSpecification, ? extends ResultQuery<?>> builder) {
+        final var shape = SpecShape.of(querySpec);
+        final var key = dsl.dialect().name() + '\u0000' + queryKey + '\u0000' + shape.key();
+        var entry = entries.get(key);
+        if (Objects.isNull(entry)) {
+            final var query = builder.apply(specificationOf(querySpec));
+            final var sql = dsl.render(query);
+            final var slots = slotsOf(query, shape, params);
+            if (Objects.isNull(slots)) {
+                return dsl.resultQuery(sql, query.getBindValues().toArray()).fetch();
+            }
+            if (entries.size() >= maxEntries) {
+                entries.clear();
+            }
+            entry = new Entry(sql, slots);
+            entries.put(key, entry);
+        }
+        return dsl.resultQuery(entry.sql(), entry.bind(shape.literals(), params)).fetch();
+    }
+
+    /**
+     * Removes every rendered query.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Gets the number of rendered queries.
+     * @return the cache size
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Builds a parameterized specification, or an empty one when there is no filter.
+     *
+     * @param querySpec the parsed filter
+     * @return the specification
+     */
+    private JooqSpecification specificationOf(final QuerySpec querySpec) {
+        if (Objects.isNull(querySpec)) {
+            return new JooqSpecification(DSL.noCondition(), DSL.noCondition(), Collections.emptyList());
+        }
+        return (JooqSpecification) querySpec.accept(FilterJooqVisitor.parameterized(registry));
+    }
+
+    /**
+     * Maps every bind value of the rendered query to its source.
+     *
+     * @param query  the built query
+     * @param shape  the filter shape
+     * @param params the named parameters
+     * @return the bind sources in bind order, or {@code null} when the rendering cannot be replayed
+     */
+    private static List<Slot> slotsOf(final ResultQuery<?> query,
+                                    final SpecShape shape,
+                                    final Map<String, ?> params) {
+        final var rendered = query.getParams();
+        if (rendered.size() != query.getBindValues().size()) {
+            return null;
+        }
+        final var slots = new ArrayList<Slot>(rendered.size());
+        var literals = 0;
+        var named = 0;
+        for (final var param : rendered.entrySet()) {
+            final var name = param.getKey();
+            final var dataType = param.getValue().getDataType();
+            if (name.startsWith(FilterJooqVisitor.LITERAL_PARAM_PREFIX)) {
+                final var index = Integer.parseInt(name.substring(FilterJooqVisitor.LITERAL_PARAM_PREFIX.length()));
+                slots.add(new Slot(SlotSource.LITERAL, index, null, dataType, null));
+                literals++;
+            } else if (params.containsKey(name)) {
+                slots.add(new Slot(SlotSource.NAMED, -1, name, dataType, null));
+                named++;
+            } else {
+                slots.add(new Slot(SlotSource.CONSTANT, -1, name, dataType, param.getValue().getValue()));
+            }
+        }
+        return literals == shape.literals().size() && named == params.size() ? slots : null;
+    }
+
+    /**
+     * A rendered query and the source of each of its bind values.
+     *
+     * @param sql   the rendered SQL
+     * @param slots the bind sources in bind order
+     */
+    private record Entry(String sql, List<Slot> slots) {
+
+        /**
+         * Collects the bind values for one execution.
+         *
+         * @param literals the filter literals
+         * @param params   the named parameters
+         * @return the bind values in bind order
+         */
+        Object[] bind(final List<Object> literals,
+                      final Map<String, ?> params) {
+            final var binds = new Object[slots.size()];
+            for (var i = 0; i < binds.length; i++) {
+                final var slot = slots.get(i);
+                binds[i] = switch (slot.source()) {
+                    case LITERAL -> literal(slot.dataType(), literals.get(slot.index()));
+                    case NAMED -> convert(slot.dataType(), params.get(slot.name()));
+                    case CONSTANT -> slot.constant();
+                };
+            }
+            return binds;
+        }
+
+        private static Object convert(final DataType<?> dataType,
+                                      final Object value) {
+            return Objects.isNull(value) ? null : dataType.convert(value);
+        }
+
+        /**
+         * Converts a filter literal to the slot's type, unless that would change its value, e.g., 10.5 bound
+         * where the first rendering of the shape bound 10.0 to an integer column.
+         *
+         * @param dataType the data type of the slot
+         * @param value    the literal value
+         * @return the bind value
+         */
+        private static Object literal(final DataType<?> dataType,
+                                      final Object value) {
+            if (Objects.nonNull(value) && !FilterJooqVisitor.convertsExactly(value, dataType)) {
+                return value;
+            }
+            return convert(dataType, value);
+        }
+    }
+
+    /**
+     * The source of one bind value.
+     *
+     * @param source   where the value comes from
+     * @param index    the literal index for {@link SlotSource#LITERAL}
+     * @param name     the parameter name
+     * @param dataType the data type the value is converted to
+     * @param constant the value for {@link SlotSource#CONSTANT}
+     */
+    private record Slot(SlotSource source, int index, String name, DataType<?> dataType, Object constant) {
+    }
+
+    private enum SlotSource {
+        LITERAL,
+        NAMED,
+        CONSTANT
+    }
+}
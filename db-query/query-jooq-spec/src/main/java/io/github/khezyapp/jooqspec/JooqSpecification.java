@@ -2,8 +2,11 @@ package io.github.khezyapp.jooqspec;
 
 import org.jooq.Condition;
 import org.jooq.Field;
+import org.jooq.SelectQuery;
 
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * A specification record that aggregates jOOQ query components including WHERE, HAVING, and GROUP BY clauses.
@@ -15,13 +18,35 @@ import java.util.List;
  * @param where the primary filter condition for the WHERE clause
  * @param having the aggregate filter condition for the HAVING clause
  * @param groupBy the list of fields used for result grouping
+ * @param qualifiers the table qualifiers referenced by the filter paths (e.g., "author" for "author.name")
  */
 public record JooqSpecification(
         Condition where,
         Condition having,
-        List<Field<?>> groupBy
+        List<Field<?>> groupBy,
+        Set<String> qualifiers
 ) implements JooqCondition {
 
+    /**
+     * Compact constructor defaulting missing qualifiers to an empty set.
+     */
+    public JooqSpecification {
+        qualifiers = Objects.isNull(qualifiers) ? Set.of() : Set.copyOf(qualifiers);
+    }
+
+    /**
+     * Constructs a specification that references no qualified table.
+     *
+     * @param where the primary filter condition for the WHERE clause
+     * @param having the aggregate filter condition for the HAVING clause
+     * @param groupBy the list of fields used for result grouping
+     */
+    public JooqSpecification(final Condition where,
+                             final Condition having,
+                             final List<Field<?>> groupBy) {
+        this(where, having, groupBy, Set.of());
+    }
+
     /**
      * Creates a builder initialized with the current values of this specification.
      * @return a new {@link Builder} instance for mutation
@@ -30,7 +55,37 @@ public record JooqSpecification(
         return new Builder()
                 .where(where)
                 .groupBy(groupBy)
-                .having(having);
+                .having(having)
+                .qualifiers(qualifiers);
+    }
+
+    /**
+     * Applies the WHERE, GROUP BY and HAVING parts of this specification to a select query.
+     * <p>
+     * HAVING is only added when the specification groups, mirroring how it is produced by the visitor.
+     * </p>
+     *
+     * @param select the query to modify
+     * @param <S>    the select query type
+     * @return the same select query, for chaining
+     */
+    public <S extends SelectQuery<?>> S applyTo(final S select) {
+        select.addConditions(where);
+        if (Objects.nonNull(groupBy) && !groupBy.isEmpty()) {
+            select.addGroupBy(groupBy);
+            select.addHaving(having);
+        }
+        return select;
+    }
+
+    /**
+     * Checks whether the filter references a table qualifier.
+     *
+     * @param qualifier the qualifier (e.g., "author")
+     * @return {@code true} if a filter path starts with the qualifier
+     */
+    public boolean references(final String qualifier) {
+        return qualifiers.contains(qualifier);
     }
 
     /**
@@ -48,6 +103,7 @@ public record JooqSpecification(
         private Condition where;
         private Condition having;
         private List<Field<?>> groupBy;
+        private Set<String> qualifiers;
 
         /**
          * Sets the WHERE clause condition.
@@ -79,12 +135,22 @@ public record JooqSpecification(
             return this;
         }
 
+        /**
+         * Sets the table qualifiers referenced by the filter paths.
+         * @param qualifiers the referenced qualifiers
+         * @return the builder instance
+         */
+        public Builder qualifiers(final Set<String> qualifiers) {
+            this.qualifiers = qualifiers;
+            return this;
+        }
+
         /**
          * Builds a new {@link JooqSpecification} instance.
          * @return the constructed specification
          */
         public JooqSpecification build() {
-            return new JooqSpecification(where, having, groupBy);
+            return new JooqSpecification(where, having, groupBy, qualifiers);
         }
     }
 }
@@ -0,0 +1,437 @@
+package io.github.khezyapp.jooqspec.approx;
+
+import io.github.khezyapp.grammar.ast.AggregateFunction;
+import io.github.khezyapp.grammar.ast.QuerySpec;
+import io.github.khezyapp.grammar.ast.operand.AggregateOperand;
+import io.github.khezyapp.grammar.support.SpecPaths;
+import io.github.khezyapp.jooqspec.FilterJooqVisitor;
+import io.github.khezyapp.jooqspec.JooqFieldRegistry;
+import io.github.khezyapp.jooqspec.JooqSpecification;
+import io.github.khezyapp.jooqspec.util.JooqFields;
+import io.github.khezyapp.querysupport.Estimate;
+import io.github.khezyapp.querysupport.HyperLogLog;
+import io.github.khezyapp.querysupport.SpecMatcher;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Runs GROUP BY/HAVING specifications approximately, trading exactness for speed on very large tables.
+ * <p>
+ * {@code COUNT}, {@code SUM} and {@code AVG} are computed by the database over a random sample of the filtered
+ * rows and scaled up in Java, each with a confidence interval (see {@link Estimate}). The sample query pushes
+ * down {@code COUNT(x)}, {@code SUM(x)} and {@code SUM(x * x)} per group, so only one row per group crosses
+ * the wire. A 1% sample of ten million rows gives roughly +/-1% on the total count at 95% confidence; small
+ * groups get wider intervals.
+ * </p>
+ * <p>
+ * {@code COUNT_DISTINCT_APPROX(x)} cannot be scaled up from a sample. It is estimated with one
+ * {@link HyperLogLog} sketch per group over a lazy cursor on all filtered rows, which reads the table once but
+ * keeps only a few KiB per group in memory. PostgreSQL honors the fetch size only inside a transaction.
+ * </p>
+ * <p>
+ * HAVING is evaluated in Java on the point estimates, since the database only sees the sample. Groups that
+ * the sample missed have no sampled estimates and fail HAVING conditions on them. {@code MIN} and
+ * {@code MAX} cannot be estimated from a sample and are rejected.
+ * </p>
+ * <p>
+ * The intervals assume row-level sampling, as {@link JooqSampling#BERNOULLI} and {@link JooqSampling#RANDOM}
+ * draw it. {@link JooqSampling#SYSTEM} keeps whole pages, whose rows are often alike, so its variance is larger
+ * by a design effect that depends on the table's physical order. Its standard errors are multiplied by the
+ * square root of the {@linkplain Builder#designEffect(double) design effect} when one is given; otherwise its
+ * intervals are unbounded and only the point estimates are meaningful.
+ * </p>
+ */
+public class JooqApproximateAggregator {
+    private final DSLContext dsl;
+    private final JooqFieldRegistry registry;
+    private final JooqSampling sampling;
+    private final double fraction;
+    private final double confidence;
+    private final double designEffect;
+    private final int precision;
+    private final int fetchSize;
+
+    private JooqApproximateAggregator(final Builder builder) {
+        this.dsl = builder.dsl;
+        this.registry = builder.registry;
+        this.sampling = builder.sampling;
+        this.fraction = builder.fraction;
+        this.confidence = builder.confidence;
+        this.designEffect = builder.designEffect;
+        this.precision = builder.precision;
+        this.fetchSize = builder.fetchSize;
+    }
+
+    /**
+     * Creates a builder for an aggregator resolving paths through the given registry.
+     *
+     * @param dsl      the jOOQ DSL context
+     * @param registry the field registry
+     * @return a new {@link Builder}
+     */
+    public static Builder builder(final DSLContext dsl,
+                                  final JooqFieldRegistry registry) {
+        return new Builder(Objects.requireNonNull(dsl, "dsl must not be null"),
+                Objects.requireNonNull(registry, "registry must not be null"));
+    }
+
+    /**
+     * Estimates the aggregates of every group matching the specification.
+     * <p>
+     * Aggregates referenced by HAVING are always estimated, so a HAVING-only specification needs no extra
+     * aggregate argument.
+     * </p>
+     *
+     * @param table      the table to sample; {@code TABLESAMPLE} needs a base table, joined trees need
+     *                   {@link JooqSampling#RANDOM}
+     * @param querySpec  the specification with WHERE, GROUP BY and HAVING
+     * @param aggregates the aggregates to estimate, besides those of HAVING
+     * @return the groups passing HAVING, in database order
+     * @throws IllegalArgumentException if no aggregate is requested or one cannot be estimated
+     */
+    public List<JooqApproximateGroup> aggregate(final Table<?> table,
+                                                final QuerySpec querySpec,
+                                                final AggregateOperand... aggregates) {
+        Objects.requireNonNull(table, "table must not be null");
+        Objects.requireNonNull(querySpec, "querySpec must not be null");
+        final var wanted = new LinkedHashSet<>(Arrays.asList(aggregates));
+        wanted.addAll(SpecPaths.aggregates(querySpec));
+        if (wanted.isEmpty()) {
+            throw new IllegalArgumentException("Approximate aggregation requires at least one aggregate");
+        }
+        final var spec = (JooqSpecification) querySpec.accept(new FilterJooqVisitor(registry));
+        final List<Field<?>> groupBy = Objects.isNull(spec.groupBy()) ? List.of() : spec.groupBy();
+        final var sampled = wanted.stream()
+                .filter(a -> a.function() != AggregateFunction.COUNT_DISTINCT_APPROX)
+                .toList();
+        final var distinct = wanted.stream()
+                .filter(a -> a.function() == AggregateFunction.COUNT_DISTINCT_APPROX)
+                .toList();
+
+        final var groups = new LinkedHashMap<List<Object>, Map<String, Estimate>>();
+        if (!sampled.isEmpty()) {
+            sample(table, spec, groupBy, sampled, groups);
+        }
+        if (!distinct.isEmpty()) {
+            sketch(table, spec, groupBy, distinct, groups);
+        }
+
+        final var having = SpecMatcher.having(querySpec);
+        return groups.entrySet().stream()
+                .map(e -> new JooqApproximateGroup(e.getKey(), Collections.unmodifiableMap(e.getValue())))
+                .filter(g -> having.test(g.values()))
+                .toList();
+    }
+
+    /**
+     * Runs the grouped query over the sample and scales its sums and counts up.
+     *
+     * @param table   the table
+     * @param spec    the compiled specification
+     * @param groupBy the grouping fields
+     * @param sampled the aggregates estimated from the sample
+     * @param groups  the estimates per group key, filled in
+     */
+    private void sample(final Table<?> table,
+                        final JooqSpecification spec,
+                        final List<Field<?>> groupBy,
+                        final List<AggregateOperand> sampled,
+                        final Map<List<Object>, Map<String, Estimate>> groups) {
+        final var select = new ArrayList<Field<?>>(groupBy);
+        select.add(DSL.count());
+        for (final var aggregate : sampled) {
+            select.addAll(sampleFields(aggregate));
+        }
+        final var query = dsl.selectQuery();
+        query.addSelect(select);
+        query.addFrom(sampling.sample(table, fraction));
+        query.addConditions(spec.where(), sampling.condition(fraction));
+        if (!groupBy.isEmpty()) {
+            query.addGroupBy(groupBy);
+        }
+
+        for (final var record : query.fetch()) {
+            final var estimates = groups.computeIfAbsent(key(record, groupBy.size()), k -> new LinkedHashMap<>());
+            final var rows = (long) number(record, groupBy.size());
+            var column = groupBy.size() + 1;
+            for (final var aggregate : sampled) {
+                final var label = SpecMatcher.label(aggregate);
+                switch (aggregate.function()) {
+                    case COUNT -> {
+                        final var count = isAllColumns(aggregate) ? rows : (long) number(record, column++);
+                        estimates.put(label, widen(Estimate.ofCount(count, fraction, confidence), true));
+                    }
+                    case SUM -> estimates.put(label, widen(Estimate.ofSum(number(record, column++),
+                            number(record, column++), fraction, confidence), false));
+                    case AVG -> {
+                        final var count = (long) number(record, column++);
+                        final var sum = number(record, column++);
+                        final var sumOfSquares = number(record, column++);
+                        if (count > 0) {
+                            estimates.put(label, widen(Estimate.ofAverage(count, sum, sumOfSquares, fraction,
+                                    confidence), false));
+                        }
+                    }
+                    default -> throw new IllegalStateException("Unexpected sampled aggregate " + label);
+                }
+            }
+        }
+    }
+
+    /**
+     * Widens the interval of a page-level sample by the design effect, leaving row-level samples as they are.
+     *
+     * @param estimate    the estimate under row-level sampling
+     * @param nonNegative whether the estimated quantity cannot be negative, as a count
+     * @return the estimate, unbounded for page-level sampling without a design effect
+     */
+    private Estimate widen(final Estimate estimate,
+                           final boolean nonNegative) {
+        if (sampling != JooqSampling.SYSTEM || fraction >= 1) {
+            return estimate;
+        }
+        final var value = estimate.value();
+        if (Double.isNaN(designEffect)) {
+            return new Estimate(value, nonNegative ? 0 : Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY,
+                    confidence);
+        }
+        // the upper margin is never clamped, so it gives the row-level standard error
+        final var margin = (estimate.upper() - value) * Math.sqrt(designEffect);
+        final var lower = value - margin;
+        return new Estimate(value, nonNegative ? Math.max(0, lower) : lower, value + margin, confidence);
+    }
+
+    /**
+     * Streams the filtered rows into one HyperLogLog sketch per group and aggregate.
+     *
+     * @param table    the table
+     * @param spec     the compiled specification
+     * @param groupBy  the grouping fields
+     * @param distinct the distinct-count aggregates
+     * @param groups   the estimates per group key, filled in
+     */
+    private void sketch(final Table<?> table,
+                        final JooqSpecification spec,
+                        final List<Field<?>> groupBy,
+                        final List<AggregateOperand> distinct,
+                        final Map<List<Object>, Map<String, Estimate>> groups) {
+        final var select = new ArrayList<Field<?>>(groupBy);
+        for (final var aggregate : distinct) {
+            select.add(field(aggregate));
+        }
+        final var query = dsl.selectQuery();
+        query.addSelect(select);
+        query.addFrom(table);
+        query.addConditions(spec.where());
+
+        final var sketches = new LinkedHashMap<List<Object>, HyperLogLog[]>();
+        try (var cursor = query.fetchSize(fetchSize).fetchLazy()) {
+            for (final var record : cursor) {
+                final var perGroup = sketches.computeIfAbsent(key(record, groupBy.size()), k -> {
+                    final var created = new HyperLogLog[distinct.size()];
+                    for (var i = 0; i < created.length; i++) {
+                        created[i] = new HyperLogLog(precision);
+                    }
+                    return created;
+                });
+                for (var i = 0; i < perGroup.length; i++) {
+                    perGroup[i].add(record.get(groupBy.size() + i));
+                }
+            }
+        }
+        sketches.forEach((key, perGroup) -> {
+            final var estimates = groups.computeIfAbsent(key, k -> new LinkedHashMap<>());
+            for (var i = 0; i < perGroup.length; i++) {
+                estimates.put(SpecMatcher.label(distinct.get(i)), perGroup[i].estimate(confidence));
+            }
+        });
+    }
+
+    /**
+     * Gets the fields the sample query selects for an aggregate, in the order {@link #sample} reads them.
+     *
+     * @param aggregate the aggregate
+     * @return the fields, empty for {@code COUNT(*)}, which reuses the row count
+     * @throws IllegalArgumentException if the aggregate cannot be estimated from a sample
+     */
+    private List<Field<?>> sampleFields(final AggregateOperand aggregate) {
+        return switch (aggregate.function()) {
+            case COUNT -> isAllColumns(aggregate) ? List.of() : List.of(DSL.count(field(aggregate)));
+            case SUM -> {
+                final var value = JooqFields.numeric(field(aggregate));
+                yield List.of(DSL.sum(value), DSL.sum(value.mul(value)));
+            }
+            case AVG -> {
+                final var value = JooqFields.numeric(field(aggregate));
+                yield List.of(DSL.count(value), DSL.sum(value), DSL.sum(value.mul(value)));
+            }
+            default -> throw new IllegalArgumentException("%s cannot be estimated from a sample"
+                    .formatted(SpecMatcher.label(aggregate)));
+        };
+    }
+
+    /**
+     * Resolves the field an aggregate applies to.
+     *
+     * @param aggregate the aggregate
+     * @return the field
+     * @throws IllegalArgumentException if the aggregate applies to {@code *}
+     */
+    private Field<?> field(final AggregateOperand aggregate) {
+        if (isAllColumns(aggregate)) {
+            throw new IllegalArgumentException("%s requires a path".formatted(SpecMatcher.label(aggregate)));
+        }
+        return registry.resolve(aggregate.path().identifiers());
+    }
+
+    /**
+     * Checks whether an aggregate applies to {@code *}.
+     *
+     * @param aggregate the aggregate
+     * @return {@code true} for e.g. {@code COUNT(*)}
+     */
+    private static boolean isAllColumns(final AggregateOperand aggregate) {
+        return "*".equals(aggregate.path().path());
+    }
+
+    /**
+     * Extracts the group key, the leading GROUP BY values of a record.
+     *
+     * @param record the record
+     * @param size   the number of grouping fields
+     * @return an unmodifiable key that may contain {@code null}
+     */
+    private static List<Object> key(final Record record,
+                                    final int size) {
+        return Collections.unmodifiableList(Arrays.asList(Arrays.copyOf(record.intoArray(), size)));
+    }
+
+    /**
+     * Reads a numeric column, treating SQL {@code NULL} as zero.
+     *
+     * @param record the record
+     * @param index  the column index
+     * @return the value
+     */
+    private static double number(final Record record,
+                                 final int index) {
+        final var value = record.get(index);
+        return value instanceof Number number ? number.doubleValue() : 0;
+    }
+
+    /**
+     * Builder for {@link JooqApproximateAggregator}.
+     */
+    public static class Builder {
+        private final DSLContext dsl;
+        private final JooqFieldRegistry registry;
+        private JooqSampling sampling = JooqSampling.BERNOULLI;
+        private double fraction = 0.01;
+        private double confidence = 0.95;
+        private double designEffect = Double.NaN;
+        private int precision = HyperLogLog.DEFAULT_PRECISION;
+        private int fetchSize = 1000;
+
+        private Builder(final DSLContext dsl,
+                        final JooqFieldRegistry registry) {
+            this.dsl = dsl;
+            this.registry = registry;
+        }
+
+        /**
+         * Sets how the sample is drawn and how large it is.
+         *
+         * @param sampling the sampling method (default: {@link JooqSampling#BERNOULLI})
+         * @param fraction the share of rows kept, in (0, 1] (default: 0.01); one disables sampling
+         * @return this builder
+         */
+        public Builder sampling(final JooqSampling sampling,
+                                final double fraction) {
+            if (!(fraction > 0 && fraction <= 1)) {
+                throw new IllegalArgumentException("Sampling fraction must be in (0, 1], got " + fraction);
+            }
+            this.sampling = Objects.requireNonNull(sampling, "sampling must not be null");
+            this.fraction = fraction;
+            return this;
+        }
+
+        /**
+         * Sets the confidence level of the returned intervals.
+         *
+         * @param confidence the level, in (0, 1) (default: 0.95)
+         * @return this builder
+         */
+        public Builder confidence(final double confidence) {
+            if (!(confidence > 0 && confidence < 1)) {
+                throw new IllegalArgumentException("Confidence must be between zero and one, got " + confidence);
+            }
+            this.confidence = confidence;
+            return this;
+        }
+
+        /**
+         * Sets the design effect of {@link JooqSampling#SYSTEM} samples, the ratio of their variance to that of a
+         * row-level sample of the same size.
+         * <p>
+         * It is best measured once per table by comparing both samplings; values of 2 to 10 are common for tables
+         * stored in insertion order. Without it, page-level samples get unbounded intervals. Row-level samples
+         * ignore it.
+         * </p>
+         *
+         * @param designEffect the variance ratio, at least one
+         * @return this builder
+         */
+        public Builder designEffect(final double designEffect) {
+            if (!(designEffect >= 1) || Double.isInfinite(designEffect)) {
+                throw new IllegalArgumentException("Design effect must be at least one, got " + designEffect);
+            }
+            this.designEffect = designEffect;
+            return this;
+        }
+
+        /**
+         * Sets the precision of the HyperLogLog sketches behind {@code COUNT_DISTINCT_APPROX}.
+         *
+         * @param precision the number of index bits, between 4 and 18 (default: 14, about +/-0.8%)
+         * @return this builder
+         */
+        public Builder precision(final int precision) {
+            if (precision < 4 || precision > 18) {
+                throw new IllegalArgumentException("HyperLogLog precision must be between 4 and 18, got " + precision);
+            }
+            this.precision = precision;
+            return this;
+        }
+
+        /**
+         * Sets the JDBC fetch size of the cursor feeding the sketches.
+         *
+         * @param fetchSize the fetch size, {@link Integer#MIN_VALUE} for MySQL row streaming (default: 1000)
+         * @return this builder
+         */
+        public Builder fetchSize(final int fetchSize) {
+            this.fetchSize = fetchSize;
+            return this;
+        }
+
+        /**
+         * Builds the aggregator.
+         * @return the aggregator
+         */
+        public JooqApproximateAggregator build() {
+            return new JooqApproximateAggregator(this);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.khezyapp.jooqspec.approx;
+
+import io.github.khezyapp.grammar.ast.operand.AggregateOperand;
+import io.github.khezyapp.querysupport.Estimate;
+import io.github.khezyapp.querysupport.SpecMatcher;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One group of an approximate aggregation.
+ *
+ * @param key       the GROUP BY values, in GROUP BY order, empty without GROUP BY
+ * @param estimates the estimates keyed by aggregate label (e.g., "SUM(amount)")
+ */
+public record JooqApproximateGroup(
+        List<Object> key,
+        Map<String, Estimate> estimates
+) {
+
+    /**
+     * Gets the estimate of an aggregate.
+     *
+     * @param aggregate the aggregate
+     * @return the estimate, or {@code null} if the sample holds no value for it in this group
+     */
+    public Estimate get(final AggregateOperand aggregate) {
+        return estimates.get(SpecMatcher.label(aggregate));
+    }
+
+    /**
+     * Gets the point estimates keyed by aggregate label, the shape {@link SpecMatcher#having} reads.
+     * @return a map of label to value
+     */
+    public Map<String, Object> values() {
+        final var values = new LinkedHashMap<String, Object>();
+        estimates.forEach((label, estimate) -> values.put(label, estimate.value()));
+        return values;
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.khezyapp.jooqspec.approx;
+
+import org.jooq.Condition;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+
+/**
+ * How {@link JooqApproximateAggregator} draws its row sample.
+ * <p>
+ * The estimators assume every row was kept independently with the sampling fraction. {@link #BERNOULLI} and
+ * {@link #RANDOM} do exactly that; {@link #SYSTEM} keeps whole storage pages, which is much faster but has a
+ * larger variance when similar rows are stored together. Its intervals are unbounded unless a design effect
+ * is configured with {@link JooqApproximateAggregator.Builder#designEffect(double)}.
+ * </p>
+ * <p>
+ * The {@code TABLESAMPLE} methods render the SQL-standard clause, which PostgreSQL and DB2 accept. SQL Server
+ * only has {@code TABLESAMPLE SYSTEM (pct PERCENT)} and Oracle uses {@code SAMPLE (pct)}; use {@link #RANDOM}
+ * there and on any other database.
+ * </p>
+ */
+public enum JooqSampling {
+    /** {@code TABLESAMPLE BERNOULLI (pct)}: row-level sampling (PostgreSQL, DB2). */
+    BERNOULLI,
+    /** {@code TABLESAMPLE SYSTEM (pct)}: page-level sampling, reading only the sampled pages (PostgreSQL, DB2). */
+    SYSTEM,
+    /** {@code WHERE RAND() < fraction}: portable row-level sampling that still reads every row. */
+    RANDOM;
+
+    /**
+     * Applies the sampling clause to the sampled table.
+     * <p>
+     * {@code TABLESAMPLE} only applies to a base table, so use {@link #RANDOM} when the FROM clause joins.
+     * </p>
+     *
+     * @param table    the table
+     * @param fraction the sampling fraction, in (0, 1]
+     * @return the sampled table, or the table itself for {@link #RANDOM} and a fraction of one
+     */
+    Table<?> sample(final Table<?> table,
+                    final double fraction) {
+        if (this == RANDOM || fraction >= 1) {
+            return table;
+        }
+        return DSL.table("{0} tablesample " + name().toLowerCase() + " ({1})", table, DSL.inline(fraction * 100));
+    }
+
+    /**
+     * Gets the extra WHERE condition of the sampling.
+     *
+     * @param fraction the sampling fraction, in (0, 1]
+     * @return {@code RAND() < fraction} for {@link #RANDOM}, no condition otherwise
+     */
+    Condition condition(final double fraction) {
+        if (this != RANDOM || fraction >= 1) {
+            return DSL.noCondition();
+        }
+        return DSL.rand().lt(DSL.inline(fraction));
+    }
+}
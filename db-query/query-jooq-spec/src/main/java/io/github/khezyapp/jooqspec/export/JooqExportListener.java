@@ -0,0 +1,51 @@
+package io.github.khezyapp.jooqspec.export;
+
+import java.time.Duration;
+
+/**
+ * Receives progress of a {@link JooqExporter} run, e.g., to publish metrics.
+ * <p>
+ * Callbacks run on the exporting thread and should return quickly.
+ * </p>
+ */
+public interface JooqExportListener {
+
+    /**
+     * Listener ignoring every event.
+     * @return a no-op listener
+     */
+    static JooqExportListener none() {
+        return new JooqExportListener() {
+        };
+    }
+
+    /**
+     * Called every progress interval.
+     *
+     * @param rows    the rows written so far
+     * @param elapsed the time since the query started
+     */
+    default void onProgress(final long rows,
+                            final Duration elapsed) {
+    }
+
+    /**
+     * Called once every row has been written and flushed.
+     *
+     * @param rows    the total rows written
+     * @param elapsed the total export time
+     */
+    default void onComplete(final long rows,
+                            final Duration elapsed) {
+    }
+
+    /**
+     * Called when the export fails, including when the client disconnects.
+     *
+     * @param rows  the rows written before the failure
+     * @param error the failure
+     */
+    default void onFailure(final long rows,
+                           final Throwable error) {
+    }
+}
@@ -0,0 +1,227 @@
+package io.github.khezyapp.jooqspec.export;
+
+import io.github.khezyapp.jooqspec.JooqSort;
+import io.github.khezyapp.jooqspec.JooqSpecification;
+import io.github.khezyapp.querysupport.RowFormat;
+import org.jooq.DSLContext;
+import org.jooq.Record;
+import org.jooq.SelectQuery;
+import org.jooq.impl.DSL;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Streams every row matching a specification to an {@link OutputStream}, e.g., for CSV or NDJSON downloads.
+ * <p>
+ * Rows are read through a lazy cursor with a JDBC fetch size, so the driver holds one fetch batch at a time and
+ * each record is written and dropped before the next one is read. Some drivers only stream inside a transaction:
+ * PostgreSQL ignores the fetch size with auto-commit on and loads the whole result, so by default the cursor is
+ * opened inside a read transaction. MySQL Connector/J streams only with a fetch size of {@link Integer#MIN_VALUE}
+ * or with {@code useCursorFetch=true}.
+ * </p>
+ * <p>
+ * Output goes through one {@link BufferedWriter} per export. The stream is flushed but not closed, since the
+ * caller owns it.
+ * </p>
+ */
+public class JooqExporter {
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final DSLContext dsl;
+    private final int fetchSize;
+    private final boolean transactional;
+    private final long progressInterval;
+    private final JooqExportListener listener;
+
+    private JooqExporter(final Builder builder) {
+        this.dsl = builder.dsl;
+        this.fetchSize = builder.fetchSize;
+        this.transactional = builder.transactional;
+        this.progressInterval = builder.progressInterval;
+        this.listener = builder.listener;
+    }
+
+    /**
+     * Creates a builder for an exporter running on the given context.
+     *
+     * @param dsl the jOOQ DSL context
+     * @return a new {@link Builder}
+     */
+    public static Builder builder(final DSLContext dsl) {
+        return new Builder(Objects.requireNonNull(dsl, "dsl must not be null"));
+    }
+
+    /**
+     * Writes every row of the filtered, sorted query in the given format.
+     *
+     * @param baseQuery     supplies a fresh select with the SELECT list, FROM and joins
+     * @param specification the filter to apply
+     * @param sort          the row order, may be {@code null} for database order
+     * @param format        the output format
+     * @param out           the target stream, flushed but not closed
+     * @param <R>           the record type
+     * @return the number of rows written
+     * @throws UncheckedIOException if writing fails, e.g., when the client disconnects
+     */
+    public <R extends Record> long export(final Supplier<? extends SelectQuery<R>> baseQuery,
+                                          final JooqSpecification specification,
+                                          final JooqSort sort,
+                                          final RowFormat<? super R> format,
+                                          final OutputStream out) {
+        Objects.requireNonNull(baseQuery, "baseQuery must not be null");
+        Objects.requireNonNull(specification, "specification must not be null");
+        Objects.requireNonNull(format, "format must not be null");
+        Objects.requireNonNull(out, "out must not be null");
+        final var progress = new Progress(System.nanoTime());
+        try {
+            if (transactional) {
+                dsl.transaction(configuration ->
+                        write(DSL.using(configuration), baseQuery, specification, sort, format, out, progress));
+            } else {
+                write(dsl, baseQuery, specification, sort, format, out, progress);
+            }
+        } catch (final RuntimeException e) {
+            listener.onFailure(progress.rows, e);
+            throw e;
+        }
+        listener.onComplete(progress.rows, progress.elapsed());
+        return progress.rows;
+    }
+
+    /**
+     * Opens the cursor on the given context and writes the rows.
+     *
+     * @param context       the context to execute on, transactional or not
+     * @param baseQuery     supplies a fresh select
+     * @param specification the filter to apply
+     * @param sort          the row order, may be {@code null}
+     * @param format        the output format
+     * @param out           the target stream
+     * @param progress      the running row count
+     * @param <R>           the record type
+     */
+    private <R extends Record> void write(final DSLContext context,
+                                          final Supplier<? extends SelectQuery<R>> baseQuery,
+                                          final JooqSpecification specification,
+                                          final JooqSort sort,
+                                          final RowFormat<? super R> format,
+                                          final OutputStream out,
+                                          final Progress progress) {
+        final var select = specification.applyTo(baseQuery.get());
+        if (Objects.nonNull(sort)) {
+            select.addOrderBy(sort.sortFields());
+        }
+        final var writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        try (var cursor = context.fetchLazy(select.fetchSize(fetchSize))) {
+            format.writeHeader(writer);
+            for (final R row : cursor) {
+                format.writeRow(writer, row);
+                progress.rows++;
+                if (progress.rows % progressInterval == 0) {
+                    listener.onProgress(progress.rows, progress.elapsed());
+                }
+            }
+            writer.flush();
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Export failed after %d rows".formatted(progress.rows), e);
+        }
+    }
+
+    /**
+     * Mutable row count of one export run.
+     */
+    private static final class Progress {
+        private final long startedNanos;
+        private long rows;
+
+        private Progress(final long startedNanos) {
+            this.startedNanos = startedNanos;
+        }
+
+        /**
+         * Gets the time since the export started.
+         * @return the elapsed time
+         */
+        private Duration elapsed() {
+            return Duration.ofNanos(System.nanoTime() - startedNanos);
+        }
+    }
+
+    /**
+     * Builder for {@link JooqExporter}.
+     */
+    public static class Builder {
+        private final DSLContext dsl;
+        private int fetchSize = 1000;
+        private boolean transactional = true;
+        private long progressInterval = 10_000;
+        private JooqExportListener listener = JooqExportListener.none();
+
+        private Builder(final DSLContext dsl) {
+            this.dsl = dsl;
+        }
+
+        /**
+         * Sets the JDBC fetch size, the number of rows the driver reads per round trip.
+         *
+         * @param fetchSize the fetch size, {@link Integer#MIN_VALUE} for MySQL row streaming (default: 1000)
+         * @return this builder
+         */
+        public Builder fetchSize(final int fetchSize) {
+            this.fetchSize = fetchSize;
+            return this;
+        }
+
+        /**
+         * Sets whether the cursor is opened inside a transaction, required by PostgreSQL for server-side cursors.
+         *
+         * @param transactional {@code false} when the caller manages the transaction (default: {@code true})
+         * @return this builder
+         */
+        public Builder transactional(final boolean transactional) {
+            this.transactional = transactional;
+            return this;
+        }
+
+        /**
+         * Sets the number of rows between two {@link JooqExportListener#onProgress(long, Duration)} calls.
+         *
+         * @param progressInterval the interval, at least one (default: 10000)
+         * @return this builder
+         */
+        public Builder progressInterval(final long progressInterval) {
+            if (progressInterval < 1) {
+                throw new IllegalArgumentException("progressInterval must be at least 1");
+            }
+            this.progressInterval = progressInterval;
+            return this;
+        }
+
+        /**
+         * Sets the listener notified of progress, completion and failure.
+         *
+         * @param listener the listener
+         * @return this builder
+         */
+        public Builder listener(final JooqExportListener listener) {
+            this.listener = Objects.requireNonNull(listener, "listener must not be null");
+            return this;
+        }
+
+        /**
+         * Builds the exporter.
+         * @return the exporter
+         */
+        public JooqExporter build() {
+            return new JooqExporter(this);
+        }
+    }
+}
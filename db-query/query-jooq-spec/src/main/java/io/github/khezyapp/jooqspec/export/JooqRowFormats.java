@@ -0,0 +1,177 @@
+package io.github.khezyapp.jooqspec.export;
+
+import io.github.khezyapp.querysupport.RowFormat;
+import org.jooq.Field;
+import org.jooq.Record;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Builds {@link RowFormat}s for jOOQ records from a list of named columns, each with an optional formatter.
+ * <p>
+ * Values are read by field, so the export does not depend on column positions, and formatters turn them into
+ * text (e.g., rounding prices or formatting dates). Without a formatter, CSV uses {@code String.valueOf} and
+ * NDJSON writes numbers and booleans as JSON literals and everything else as strings.
+ * </p>
+ */
+public final class JooqRowFormats {
+    private final List<Column> columns = new ArrayList<>();
+
+    private JooqRowFormats() {
+    }
+
+    /**
+     * Starts a column list.
+     * @return a new builder
+     */
+    public static JooqRowFormats columns() {
+        return new JooqRowFormats();
+    }
+
+    /**
+     * Adds a column written as is.
+     *
+     * @param name  the header or JSON property name
+     * @param field the field to read
+     * @return this builder
+     */
+    public JooqRowFormats column(final String name,
+                                 final Field<?> field) {
+        return column(name, field, null);
+    }
+
+    /**
+     * Adds a column with a formatter.
+     *
+     * @param name      the header or JSON property name
+     * @param field     the field to read
+     * @param formatter turns a non-null value into text, written as a JSON string in NDJSON
+     * @param <T>       the field type
+     * @return this builder
+     */
+    @SuppressWarnings("unchecked")
+    public <T> JooqRowFormats column(final String name,
+                                     final Field<T> field,
+                                     final Function<? super T, String> formatter) {
+        columns.add(new Column(Objects.requireNonNull(name, "name must not be null"),
+                Objects.requireNonNull(field, "field must not be null"), (Function<Object, String>) formatter));
+        return this;
+    }
+
+    /**
+     * Builds an RFC 4180 CSV format with a header line of the column names.
+     * @return the CSV format
+     */
+    public RowFormat<Record> csv() {
+        final var useColumns = List.copyOf(columns);
+        return RowFormat.csv(
+                useColumns.stream().map(Column::name).toList(),
+                row -> {
+                    final var values = new ArrayList<String>(useColumns.size());
+                    for (final var column : useColumns) {
+                        final var value = row.get(column.field());
+                        values.add(Objects.isNull(value) ? null : column.text(value));
+                    }
+                    return values;
+                }
+        );
+    }
+
+    /**
+     * Builds a newline-delimited JSON format writing one object per row, properties in column order.
+     * @return the NDJSON format
+     */
+    public RowFormat<Record> ndjson() {
+        final var useColumns = List.copyOf(columns);
+        return new RowFormat<>() {
+            @Override
+            public String contentType() {
+                return "application/x-ndjson";
+            }
+
+            @Override
+            public void writeHeader(final Writer writer) {
+                // NDJSON has no header
+            }
+
+            @Override
+            public void writeRow(final Writer writer,
+                                 final Record row) throws IOException {
+                writer.write('{');
+                for (var i = 0; i < useColumns.size(); i++) {
+                    final var column = useColumns.get(i);
+                    if (i > 0) {
+                        writer.write(',');
+                    }
+                    writeJsonString(writer, column.name());
+                    writer.write(':');
+                    final var value = row.get(column.field());
+                    if (Objects.isNull(value)) {
+                        writer.write("null");
+                    } else if (Objects.isNull(column.formatter())
+                            && (value instanceof Number || value instanceof Boolean)) {
+                        writer.write(String.valueOf(value));
+                    } else {
+                        writeJsonString(writer, column.text(value));
+                    }
+                }
+                writer.write("}\n");
+            }
+        };
+    }
+
+    /**
+     * Writes a JSON string literal, escaping quotes, backslashes and control characters.
+     *
+     * @param writer the target
+     * @param value  the text
+     * @throws IOException if writing fails
+     */
+    private static void writeJsonString(final Writer writer,
+                                        final String value) throws IOException {
+        writer.write('"');
+        for (var i = 0; i < value.length(); i++) {
+            final var c = value.charAt(i);
+            switch (c) {
+                case '"' -> writer.write("\\\"");
+                case '\\' -> writer.write("\\\\");
+                case '\n' -> writer.write("\\n");
+                case '\r' -> writer.write("\\r");
+                case '\t' -> writer.write("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        writer.write("\\u%04x".formatted((int) c));
+                    } else {
+                        writer.write(c);
+                    }
+                }
+            }
+        }
+        writer.write('"');
+    }
+
+    /**
+     * One exported column.
+     *
+     * @param name      the header or property name
+     * @param field     the field to read
+     * @param formatter the value formatter, may be {@code null}
+     */
+    private record Column(String name, Field<?> field, Function<Object, String> formatter) {
+
+        /**
+         * Formats a non-null value.
+         *
+         * @param value the column value
+         * @return the text to write
+         */
+        String text(final Object value) {
+            return Objects.isNull(formatter) ? String.valueOf(value) : formatter.apply(value);
+        }
+    }
+}
@@ -0,0 +1,503 @@
+package io.github.khezyapp.jooqspec.shard;
+
+import io.github.khezyapp.grammar.ast.AggregateFunction;
+import io.github.khezyapp.grammar.ast.QuerySpec;
+import io.github.khezyapp.grammar.ast.operand.AggregateOperand;
+import io.github.khezyapp.grammar.ast.operand.PathOperand;
+import io.github.khezyapp.grammar.support.SpecPaths;
+import io.github.khezyapp.jooqspec.FilterJooqVisitor;
+import io.github.khezyapp.jooqspec.JooqFieldRegistry;
+import io.github.khezyapp.jooqspec.JooqOrder;
+import io.github.khezyapp.jooqspec.JooqPage;
+import io.github.khezyapp.jooqspec.JooqPageRequest;
+import io.github.khezyapp.jooqspec.JooqSort;
+import io.github.khezyapp.jooqspec.JooqSpecification;
+import io.github.khezyapp.jooqspec.util.JooqFields;
+import io.github.khezyapp.querysupport.RollupGroup;
+import io.github.khezyapp.querysupport.ShardRouter;
+import io.github.khezyapp.querysupport.SortedMerge;
+import io.github.khezyapp.querysupport.SpecMatcher;
+import io.github.khezyapp.querysupport.TotalCount;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.SelectQuery;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Runs filter specifications on several database shards at once and merges the results into one answer.
+ * <p>
+ * Pages are scatter-gather: every shard runs the filtered, sorted query limited to
+ * {@code offset + size + 1} rows, and the sorted shard results are merged with a k-way heap merge (see
+ * {@link SortedMerge}) to cut the global page. The extra row tells whether a next page exists; the total is
+ * counted on every shard only when it does. Deep pages read {@code offset + size} rows from each shard, so
+ * prefer narrow filters or small page numbers.
+ * </p>
+ * <p>
+ * Grouped specifications go through {@link #aggregate(Table, QuerySpec, AggregateOperand...)}: each shard
+ * returns partial aggregates per group ({@code AVG} as a sum and a count), which are combined in Java before
+ * HAVING is evaluated. Only decomposable aggregates are accepted.
+ * </p>
+ * <p>
+ * With a routing hook ({@link Builder#routing(String, ShardRouter)}), a query whose WHERE clause pins the
+ * shard key to literal values runs only on the shards holding those values.
+ * </p>
+ */
+public class JooqShardedExecutor {
+    private final Map<String, DSLContext> shards;
+    private final JooqFieldRegistry registry;
+    private final String shardKey;
+    private final ShardRouter router;
+    private final ExecutorService executor;
+
+    private JooqShardedExecutor(final Builder builder) {
+        this.shards = Collections.unmodifiableMap(new LinkedHashMap<>(builder.shards));
+        this.registry = builder.registry;
+        this.shardKey = builder.shardKey;
+        this.router = builder.router;
+        this.executor = builder.executor;
+    }
+
+    /**
+     * Creates a builder for an executor resolving paths through the given registry.
+     *
+     * @param registry the field registry, shared by all shards
+     * @return a new {@link Builder}
+     */
+    public static Builder builder(final JooqFieldRegistry registry) {
+        return new Builder(Objects.requireNonNull(registry, "registry must not be null"));
+    }
+
+    /**
+     * Gets the shards a specification has to run on.
+     *
+     * @param querySpec the specification, may be {@code null}
+     * @return the shard names in registration order, all of them without routing or when the key is not pinned
+     */
+    public Set<String> route(final QuerySpec querySpec) {
+        if (Objects.isNull(router)) {
+            return new LinkedHashSet<>(shards.keySet());
+        }
+        return router.prune(querySpec, shardKey, shards.keySet());
+    }
+
+    /**
+     * Fetches one page of the global sort order across the shards.
+     * <p>
+     * The sort must be total (end with a unique column) for pages to be stable, and the base query must select
+     * every sort field under its name, since the merge reads the sort values from the fetched records. Null
+     * ordering is made explicit on every shard, so the merge and the databases agree; strings are compared
+     * with {@link String#compareTo}, which matches binary collations only.
+     * </p>
+     *
+     * @param baseQuery builds a fresh select with the SELECT list, FROM and joins on a shard's context
+     * @param querySpec the specification, without GROUP BY
+     * @param request   the page number, size and sort
+     * @param <R>       the record type
+     * @return the page, with an exact total
+     * @throws IllegalArgumentException if the specification groups rows
+     * @throws IllegalStateException    if a shard query fails
+     */
+    public <R extends Record> JooqPage<R> fetchPage(
+            final Function<? super DSLContext, ? extends SelectQuery<R>> baseQuery,
+            final QuerySpec querySpec,
+            final JooqPageRequest request) {
+        Objects.requireNonNull(baseQuery, "baseQuery must not be null");
+        Objects.requireNonNull(request, "request must not be null");
+        final var spec = compile(querySpec);
+        if (isGrouped(spec)) {
+            throw new IllegalArgumentException("Grouped specifications must be merged with aggregate()");
+        }
+        final var offset = (long) request.pageNumber() * request.pageSize();
+        final var window = offset + request.pageSize() + 1;
+        final var orders = explicitNulls(request.sort());
+        final var targets = route(querySpec);
+
+        final var runs = fanOut(targets, dsl -> {
+            final var select = spec.applyTo(baseQuery.apply(dsl));
+            select.addOrderBy(orders.stream().map(JooqOrder::getSortField).toList());
+            select.addLimit(window);
+            return select.fetch();
+        });
+        final var content = SortedMerge.merge(new ArrayList<>(runs.values()), comparator(orders), offset,
+                request.pageSize());
+        final var fetched = runs.values().stream().mapToLong(List::size).sum();
+        final var hasNext = fetched > offset + request.pageSize();
+
+        // Without a next page every shard returned all its rows, so they are the exact total
+        final var total = hasNext
+                ? fanOut(targets, dsl -> (long) dsl.fetchCount(spec.applyTo(baseQuery.apply(dsl)))).values()
+                .stream().mapToLong(Long::longValue).sum()
+                : fetched;
+        return new JooqPage<>(content, request.pageNumber(), request.pageSize(), TotalCount.exact(total), hasNext);
+    }
+
+    /**
+     * Computes grouped aggregates across the shards by merging per-shard partial aggregates.
+     * <p>
+     * Aggregates referenced by HAVING are always computed, and {@code COUNT(*)} is always returned. HAVING
+     * is evaluated after merging, since a group spread over several shards only passes or fails as a whole.
+     * </p>
+     *
+     * @param table      the table, or joined tree, to aggregate
+     * @param querySpec  the specification with WHERE, GROUP BY and HAVING
+     * @param aggregates the aggregates to compute, besides those of HAVING
+     * @return the groups passing HAVING, in order of first appearance
+     * @throws IllegalArgumentException if an aggregate cannot be merged across shards
+     * @throws IllegalStateException    if a shard query fails
+     */
+    public List<RollupGroup> aggregate(final Table<?> table,
+                                       final QuerySpec querySpec,
+                                       final AggregateOperand... aggregates) {
+        Objects.requireNonNull(table, "table must not be null");
+        Objects.requireNonNull(querySpec, "querySpec must not be null");
+        final var wanted = new LinkedHashSet<AggregateOperand>();
+        wanted.add(new AggregateOperand(AggregateFunction.COUNT, new PathOperand(List.of("*"), "*")));
+        wanted.addAll(Arrays.asList(aggregates));
+        wanted.addAll(SpecPaths.aggregates(querySpec));
+        final var spec = compile(querySpec);
+        final List<Field<?>> groupBy = isGrouped(spec) ? spec.groupBy() : List.of();
+
+        final var select = new ArrayList<Field<?>>(groupBy);
+        final var partials = new ArrayList<Partial>();
+        for (final var aggregate : wanted) {
+            partials.addAll(partials(aggregate));
+        }
+        partials.forEach(p -> select.add(p.field()));
+
+        final var perShard = fanOut(route(querySpec), dsl -> {
+            final var query = dsl.selectQuery();
+            query.addSelect(select);
+            query.addFrom(table);
+            query.addConditions(spec.where());
+            if (!groupBy.isEmpty()) {
+                query.addGroupBy(groupBy);
+            }
+            return query.fetch();
+        });
+
+        final var merged = new LinkedHashMap<List<Object>, Object[]>();
+        for (final var rows : perShard.values()) {
+            for (final var record : rows) {
+                final var values = record.intoArray();
+                final var key = Collections.unmodifiableList(Arrays.asList(Arrays.copyOf(values, groupBy.size())));
+                final var state = merged.computeIfAbsent(key, k -> new Object[partials.size()]);
+                for (var i = 0; i < partials.size(); i++) {
+                    state[i] = partials.get(i).merge(state[i], values[groupBy.size() + i]);
+                }
+            }
+        }
+
+        final var having = SpecMatcher.having(querySpec);
+        final var groups = new ArrayList<RollupGroup>();
+        merged.forEach((key, state) -> {
+            final var values = new LinkedHashMap<String, Object>();
+            var column = 0;
+            for (final var aggregate : wanted) {
+                final var label = SpecMatcher.label(aggregate);
+                if (aggregate.function() == AggregateFunction.AVG) {
+                    final var sum = (BigDecimal) state[column++];
+                    final var count = (Long) state[column++];
+                    values.put(label, Objects.isNull(sum) || Objects.isNull(count) || count == 0
+                            ? null : sum.divide(BigDecimal.valueOf(count), MathContext.DECIMAL64));
+                } else {
+                    values.put(label, state[column++]);
+                }
+            }
+            if (having.test(values)) {
+                groups.add(new RollupGroup(key, values));
+            }
+        });
+        return groups;
+    }
+
+    /**
+     * Gets the names of the shards, in registration order.
+     * @return the shard names
+     */
+    public Set<String> shardNames() {
+        return shards.keySet();
+    }
+
+    /**
+     * Compiles a specification with the registry.
+     *
+     * @param querySpec the specification, may be {@code null}
+     * @return the jOOQ specification
+     */
+    private JooqSpecification compile(final QuerySpec querySpec) {
+        if (Objects.isNull(querySpec)) {
+            return new JooqSpecification(DSL.noCondition(), DSL.noCondition(), List.of());
+        }
+        return (JooqSpecification) querySpec.accept(new FilterJooqVisitor(registry));
+    }
+
+    /**
+     * Runs a task on each target shard, concurrently when there are several.
+     *
+     * @param targets the shard names
+     * @param task    the task, given the shard's context
+     * @param <T>     the result type
+     * @return the results by shard name, in target order
+     * @throws IllegalStateException if any shard fails, with the failures suppressed
+     */
+    private <T> Map<String, T> fanOut(final Collection<String> targets,
+                                      final Function<DSLContext, T> task) {
+        final var results = new LinkedHashMap<String, T>();
+        if (targets.size() <= 1) {
+            targets.forEach(name -> results.put(name, task.apply(shards.get(name))));
+            return results;
+        }
+        final var ownExecutor = Objects.isNull(executor);
+        final var useExecutor = ownExecutor ? Executors.newFixedThreadPool(targets.size()) : executor;
+        try {
+            final var futures = new LinkedHashMap<String, Future<T>>();
+            for (final var name : targets) {
+                futures.put(name, useExecutor.submit(() -> task.apply(shards.get(name))));
+            }
+            final var failures = new LinkedHashMap<String, Throwable>();
+            for (final var future : futures.entrySet()) {
+                try {
+                    results.put(future.getKey(), future.getValue().get());
+                } catch (final ExecutionException e) {
+                    failures.put(future.getKey(), e.getCause());
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    failures.put(future.getKey(), e);
+                    break;
+                }
+            }
+            if (!failures.isEmpty()) {
+                final var error = new IllegalStateException("Shard queries failed on %s"
+                        .formatted(failures.keySet()));
+                failures.values().forEach(error::addSuppressed);
+                throw error;
+            }
+            return results;
+        } finally {
+            if (ownExecutor) {
+                useExecutor.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Gets the partial aggregates a shard computes for an aggregate, in the order they are merged.
+     *
+     * @param aggregate the aggregate
+     * @return one partial, or a sum and a count for {@code AVG}
+     * @throws IllegalArgumentException if the aggregate cannot be merged across shards
+     */
+    private List<Partial> partials(final AggregateOperand aggregate) {
+        final var allColumns = "*".equals(aggregate.path().path());
+        if (allColumns && aggregate.function() != AggregateFunction.COUNT) {
+            throw new IllegalArgumentException("%s requires a path".formatted(SpecMatcher.label(aggregate)));
+        }
+        return switch (aggregate.function()) {
+            case COUNT -> List.of(new Partial(allColumns ? DSL.count() : DSL.count(field(aggregate)),
+                    Merge.COUNT));
+            case SUM -> List.of(new Partial(DSL.sum(JooqFields.numeric(field(aggregate))), Merge.SUM));
+            case AVG -> List.of(new Partial(DSL.sum(JooqFields.numeric(field(aggregate))), Merge.SUM),
+                    new Partial(DSL.count(field(aggregate)), Merge.COUNT));
+            case MIN -> List.of(new Partial(DSL.min(field(aggregate)), Merge.MIN));
+            case MAX -> List.of(new Partial(DSL.max(field(aggregate)), Merge.MAX));
+            default -> throw new IllegalArgumentException("%s cannot be merged across shards"
+                    .formatted(SpecMatcher.label(aggregate)));
+        };
+    }
+
+    /**
+     * Resolves the field an aggregate applies to.
+     *
+     * @param aggregate the aggregate
+     * @return the field
+     */
+    private Field<?> field(final AggregateOperand aggregate) {
+        return registry.resolve(aggregate.path().identifiers());
+    }
+
+    /**
+     * Checks whether a specification groups rows.
+     *
+     * @param spec the jOOQ specification
+     * @return {@code true} if it has GROUP BY fields
+     */
+    private static boolean isGrouped(final JooqSpecification spec) {
+        return Objects.nonNull(spec.groupBy()) && !spec.groupBy().isEmpty();
+    }
+
+    /**
+     * Pins the null ordering of every order to its effective value, so all shards and the merge agree.
+     *
+     * @param sort the requested sort
+     * @return the orders with explicit null ordering
+     */
+    private static List<JooqOrder> explicitNulls(final JooqSort sort) {
+        if (Objects.isNull(sort) || Objects.isNull(sort.orders())) {
+            return List.of();
+        }
+        return sort.orders().stream()
+                .map(o -> new JooqOrder(o.field(), o.direction(), o.effectiveNulls()))
+                .toList();
+    }
+
+    /**
+     * Builds the Java comparator matching the SQL order of the shards.
+     *
+     * @param orders the orders with explicit null ordering
+     * @return the record comparator
+     */
+    @SuppressWarnings("unchecked")
+    private static Comparator<Record> comparator(final List<JooqOrder> orders) {
+        Comparator<Record> comparator = (a, b) -> 0;
+        for (final var order : orders) {
+            final var name = DSL.name(order.field().split("\\."));
+            Comparator<Object> values = (a, b) -> ((Comparable<Object>) a).compareTo(b);
+            if (order.direction() == JooqOrder.Direction.DESC) {
+                values = values.reversed();
+            }
+            values = order.nulls() == JooqOrder.Nulls.FIRST
+                    ? Comparator.nullsFirst(values)
+                    : Comparator.nullsLast(values);
+            comparator = comparator.thenComparing(r -> r.get(name), values);
+        }
+        return comparator;
+    }
+
+    /**
+     * How partial values of one column combine across shards.
+     */
+    private enum Merge {
+        COUNT,
+        SUM,
+        MIN,
+        MAX
+    }
+
+    /**
+     * One column of partial aggregates.
+     *
+     * @param field the aggregate computed on each shard
+     * @param kind  how shard values combine
+     */
+    private record Partial(Field<?> field, Merge kind) {
+
+        /**
+         * Combines the value merged so far with the value of another shard; SQL {@code NULL}s are skipped.
+         *
+         * @param merged the value merged so far, {@code null} before the first shard
+         * @param value  the shard value
+         * @return the merged value
+         */
+        @SuppressWarnings("unchecked")
+        Object merge(final Object merged,
+                     final Object value) {
+            if (kind == Merge.COUNT) {
+                final var count = value instanceof Number number ? number.longValue() : 0L;
+                return Objects.isNull(merged) ? count : (Long) merged + count;
+            }
+            if (Objects.isNull(value)) {
+                return merged;
+            }
+            if (Objects.isNull(merged)) {
+                return kind == Merge.SUM ? new BigDecimal(value.toString()) : value;
+            }
+            return switch (kind) {
+                case SUM -> ((BigDecimal) merged).add(new BigDecimal(value.toString()));
+                case MIN -> ((Comparable<Object>) value).compareTo(merged) < 0 ? value : merged;
+                case MAX -> ((Comparable<Object>) value).compareTo(merged) > 0 ? value : merged;
+                default -> throw new IllegalStateException("Unexpected merge " + kind);
+            };
+        }
+    }
+
+    /**
+     * Builder for {@link JooqShardedExecutor}.
+     */
+    public static class Builder {
+        private final JooqFieldRegistry registry;
+        private final Map<String, DSLContext> shards = new LinkedHashMap<>();
+        private String shardKey;
+        private ShardRouter router;
+        private ExecutorService executor;
+
+        private Builder(final JooqFieldRegistry registry) {
+            this.registry = registry;
+        }
+
+        /**
+         * Adds a shard. Shards are queried, and equal rows merged, in the order they are added.
+         *
+         * @param name the unique shard name, as returned by the router
+         * @param dsl  the jOOQ DSL context of the shard
+         * @return this builder
+         * @throws IllegalArgumentException if the name is taken
+         */
+        public Builder shard(final String name,
+                             final DSLContext dsl) {
+            Objects.requireNonNull(name, "name must not be null");
+            Objects.requireNonNull(dsl, "dsl must not be null");
+            if (Objects.nonNull(shards.putIfAbsent(name, dsl))) {
+                throw new IllegalArgumentException("Shard '%s' is already registered".formatted(name));
+            }
+            return this;
+        }
+
+        /**
+         * Enables shard pruning for queries pinning the shard key.
+         *
+         * @param shardKey the dotted filter path of the shard key (e.g., "tenantId")
+         * @param router   maps key values to shard names
+         * @return this builder
+         */
+        public Builder routing(final String shardKey,
+                               final ShardRouter router) {
+            this.shardKey = Objects.requireNonNull(shardKey, "shardKey must not be null");
+            this.router = Objects.requireNonNull(router, "router must not be null");
+            return this;
+        }
+
+        /**
+         * Sets the executor running shard queries; a fixed pool is created per call when absent.
+         *
+         * @param executor the executor, not shut down by the executor; it needs a thread per shard
+         * @return this builder
+         */
+        public Builder executor(final ExecutorService executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Builds the executor.
+         * @return the executor
+         * @throws IllegalArgumentException if no shard was added
+         */
+        public JooqShardedExecutor build() {
+            if (shards.isEmpty()) {
+                throw new IllegalArgumentException("Sharded execution requires at least one shard");
+            }
+            return new JooqShardedExecutor(this);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package io.github.khezyapp.jooqspec.util;
+
+import org.jooq.Field;
+import org.jooq.impl.SQLDataType;
+
+import java.math.BigDecimal;
+
+/**
+ * Utility class for adapting jOOQ fields before they are aggregated.
+ */
+public final class JooqFields {
+
+    private JooqFields() {
+    }
+
+    /**
+     * Types a field as NUMERIC for {@code SUM} and {@code AVG}.
+     * <p>
+     * A field already typed as a number is only coerced, so no cast is rendered; any other field, e.g., an
+     * untyped path, is cast to NUMERIC in SQL.
+     * </p>
+     *
+     * @param field the aggregated field
+     * @return a numeric field
+     */
+    public static Field<BigDecimal> numeric(final Field<?> field) {
+        return field.getDataType().isNumeric() ? field.coerce(SQLDataType.NUMERIC) : field.cast(SQLDataType.NUMERIC);
+    }
+}
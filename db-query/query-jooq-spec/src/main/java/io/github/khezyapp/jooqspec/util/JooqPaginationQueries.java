@@ -3,6 +3,7 @@ package io.github.khezyapp.jooqspec.util;
 import io.github.khezyapp.grammar.ast.QuerySpec;
 import io.github.khezyapp.jooqspec.JooqPageRequest;
 import io.github.khezyapp.jooqspec.JooqPaginationQuery;
+import io.github.khezyapp.querysupport.CountStrategy;
 
 /**
  * Utility class for constructing {@link JooqPaginationQuery} instances.
@@ -48,4 +49,32 @@ public final class JooqPaginationQueries {
         final var specification = JooqSpecifications.of(querySpec);
         return new JooqPaginationQuery(specification, pageable);
     }
+
+    /**
+     * Creates a {@link JooqPaginationQuery} from a raw query string with an explicit total-count strategy.
+     *
+     * @param rawQuery      the raw query string representing the filter logic
+     * @param pageable      the pagination and sorting configuration
+     * @param countStrategy how the total number of rows is obtained
+     * @return a unified query object containing the jOOQ specification, paging data and count strategy
+     */
+    public static JooqPaginationQuery of(final String rawQuery,
+                                         final JooqPageRequest pageable,
+                                         final CountStrategy countStrategy) {
+        return of(rawQuery, pageable).withCountStrategy(countStrategy);
+    }
+
+    /**
+     * Creates a {@link JooqPaginationQuery} from a {@link QuerySpec} with an explicit total-count strategy.
+     *
+     * @param querySpec     the specification containing filtering and search criteria
+     * @param pageable      the pagination and sorting parameters
+     * @param countStrategy how the total number of rows is obtained
+     * @return a new instance of {@link JooqPaginationQuery} configured with the derived specification
+     */
+    public static JooqPaginationQuery of(final QuerySpec querySpec,
+                                         final JooqPageRequest pageable,
+                                         final CountStrategy countStrategy) {
+        return of(querySpec, pageable).withCountStrategy(countStrategy);
+    }
 }
@@ -3,6 +3,7 @@ package io.github.khezyapp.jooqspec.util;
 import io.github.khezyapp.grammar.ASTSpecs;
 import io.github.khezyapp.grammar.ast.QuerySpec;
 import io.github.khezyapp.jooqspec.FilterJooqVisitor;
+import io.github.khezyapp.jooqspec.JooqFieldRegistry;
 import io.github.khezyapp.jooqspec.JooqSpecification;
 import org.jooq.impl.DSL;
 
@@ -36,7 +37,34 @@ public final class JooqSpecifications {
         return of(querySpec);
     }
 
+    /**
+     * Parses a raw filter query string and converts it into a {@link JooqSpecification}, resolving paths
+     * through a field registry.
+     *
+     * @param rawQuery the query string to parse
+     * @param registry the typed field registry
+     * @return a fully constructed jOOQ specification
+     * @throws IllegalArgumentException if a path is not registered and the registry is strict
+     */
+    public static JooqSpecification of(final String rawQuery,
+                                       final JooqFieldRegistry registry) {
+        return of(ASTSpecs.fromQuery(rawQuery), registry);
+    }
+
     public static JooqSpecification of(final QuerySpec querySpec) {
+        return of(querySpec, JooqFieldRegistry.untyped());
+    }
+
+    /**
+     * Converts a parsed query into a {@link JooqSpecification}, resolving paths through a field registry.
+     *
+     * @param querySpec the parsed query, may be {@code null}
+     * @param registry  the typed field registry
+     * @return a fully constructed jOOQ specification
+     * @throws IllegalArgumentException if a path is not registered and the registry is strict
+     */
+    public static JooqSpecification of(final QuerySpec querySpec,
+                                       final JooqFieldRegistry registry) {
         if (Objects.isNull(querySpec)) {
             return new JooqSpecification.Builder()
                     .where(DSL.noCondition())
@@ -45,6 +73,6 @@ public final class JooqSpecifications {
                     .build();
         }
 
-        return (JooqSpecification) querySpec.accept(new FilterJooqVisitor());
+        return (JooqSpecification) querySpec.accept(new FilterJooqVisitor(registry));
     }
 }
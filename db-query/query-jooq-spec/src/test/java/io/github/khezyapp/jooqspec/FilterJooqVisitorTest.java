@@ -5,6 +5,8 @@ import io.github.khezyapp.grammar.ast.operand.AggregateOperand;
 import io.github.khezyapp.grammar.ast.operand.LiteralOperand;
 import io.github.khezyapp.grammar.ast.operand.Operand;
 import io.github.khezyapp.grammar.ast.operand.PathOperand;
+import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -166,4 +168,75 @@ public class FilterJooqVisitorTest {
 
         assertEquals("true", result.condition().toString()); // jOOQ default for noCondition
     }
+
+    @Test
+    @DisplayName("Test registered field binds literal with its data type")
+    void testRegistryTypesLiteral() {
+        final var published = DSL.field(DSL.name("book", "published"), SQLDataType.LOCALDATE);
+        final var typedVisitor = new FilterJooqVisitor(JooqFieldRegistry.builder()
+                .field("book.published", published)
+                .build());
+        final var spec = new BinaryComparisonSpec(
+                new PathOperand(List.of("book", "published"), "book.published"),
+                ComparisonOperator.GTE,
+                new LiteralOperand("2024-01-31"),
+                JoinType.INNER
+        );
+
+        final var condition = spec.accept(typedVisitor).condition();
+
+        assertEquals("\"book\".\"published\" >= date '2024-01-31'", condition.toString());
+    }
+
+    @Test
+    @DisplayName("Test fractional literal against an integer field keeps its decimal value")
+    void testRegistryKeepsWiderLiteral() {
+        final var price = DSL.field(DSL.name("book", "price"), SQLDataType.INTEGER);
+        final var typedVisitor = new FilterJooqVisitor(JooqFieldRegistry.builder()
+                .field("book.price", price)
+                .build());
+        final var path = new PathOperand(List.of("book", "price"), "book.price");
+
+        final var fractional = new BinaryComparisonSpec(path, ComparisonOperator.GTE, new LiteralOperand(10.5),
+                JoinType.INNER).accept(typedVisitor).condition();
+        final var whole = new BinaryComparisonSpec(path, ComparisonOperator.EQ, new LiteralOperand(10.0),
+                JoinType.INNER).accept(typedVisitor).condition();
+
+        assertEquals("\"book\".\"price\" >= 10.5", fractional.toString());
+        assertEquals("\"book\".\"price\" = 10", whole.toString());
+    }
+
+    @Test
+    @DisplayName("Test numeric registered field is aggregated without cast")
+    void testRegistryNumericAggregate() {
+        final var typedVisitor = new FilterJooqVisitor(JooqFieldRegistry.builder()
+                .field("amount", DSL.field(DSL.name("amount"), SQLDataType.NUMERIC))
+                .build());
+        final var spec = new BinaryComparisonSpec(
+                new AggregateOperand(AggregateFunction.SUM, new PathOperand(List.of("amount"), "amount")),
+                ComparisonOperator.GT,
+                new LiteralOperand(1000L),
+                JoinType.INNER
+        );
+
+        final var condition = spec.accept(typedVisitor).condition();
+
+        assertEquals("sum(\"amount\") > 1000", condition.toString());
+    }
+
+    @Test
+    @DisplayName("Test strict registry rejects unknown paths")
+    void testStrictRegistryRejectsUnknownPath() {
+        final var strictVisitor = new FilterJooqVisitor(JooqFieldRegistry.builder()
+                .field("book.title", DSL.field(DSL.name("book", "title"), SQLDataType.VARCHAR))
+                .strict(true)
+                .build());
+        final var spec = new UnaryComparisonSpec(
+                new PathOperand(List.of("book", "secret"), "book.secret"),
+                ComparisonOperator.IS_NULL,
+                JoinType.INNER
+        );
+
+        assertThrows(IllegalArgumentException.class, () -> spec.accept(strictVisitor));
+    }
 }
@@ -0,0 +1,139 @@
+package io.github.khezyapp.jooqspec;
+
+import io.github.khezyapp.jooqspec.util.JooqSpecifications;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.Result;
+import org.jooq.SelectQuery;
+import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static io.github.khezyapp.jooqspec.JooqTestDatabase.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JooqBatchExecutorTest {
+    private static DSLContext dsl;
+
+    @BeforeAll
+    static void createDatabase() {
+        dsl = JooqTestDatabase.create("batch_executor");
+    }
+
+    private static Supplier<SelectQuery<Record>> select(final Field<?>... fields) {
+        return () -> {
+            final var query = dsl.selectQuery(BOOK);
+            query.addSelect(fields);
+            return query;
+        };
+    }
+
+    private static List<Long> ids(final Result<Record> rows) {
+        return rows.stream().map(r -> r.get(BOOK_ID)).sorted().toList();
+    }
+
+    @Test
+    @DisplayName("Test compatible queries run as one UNION ALL and are split back by tag in batch order")
+    void testUnion() {
+        final var batch = JooqBatch.builder()
+                .add("fiction", select(BOOK_ID, BOOK_PRICE), JooqSpecifications.of("book.genre = 'fiction'"))
+                .add("cheap", select(BOOK_ID, BOOK_PRICE), JooqSpecifications.of("book.price <= 3"))
+                .add("none", select(BOOK_ID, BOOK_PRICE), JooqSpecifications.of("book.price > 100"))
+                .build();
+
+        final var result = JooqBatchExecutor.builder(dsl).build().execute(batch);
+
+        assertEquals(JooqBatchResult.Mode.UNION, result.mode());
+        assertEquals(List.of("fiction", "cheap", "none"), List.copyOf(result.results().keySet()));
+        assertEquals(List.of("fiction", "cheap", "none"), List.copyOf(result.timings().keySet()));
+        assertEquals(List.of(3L, 6L, 9L, 12L), ids(result.get("fiction")));
+        assertEquals(List.of(1L, 2L, 3L), ids(result.get("cheap")));
+        assertTrue(result.get("none").isEmpty());
+        assertEquals(2, result.get("cheap").fields().length);
+        assertEquals(List.of(1, 2, 3), result.get("cheap").stream().map(r -> r.get(BOOK_PRICE)).sorted().toList());
+        assertThrows(IllegalArgumentException.class, () -> result.get("missing"));
+    }
+
+    @Test
+    @DisplayName("Test incompatible queries run one after another with a parallelism of one")
+    void testPipeline() {
+        final var batch = JooqBatch.builder()
+                .add("titles", select(BOOK_ID, BOOK_TITLE), JooqSpecifications.of("book.price <= 2"))
+                .add("prices", select(BOOK_ID, BOOK_PRICE), JooqSpecifications.of("book.price > 10"))
+                .build();
+
+        final var result = JooqBatchExecutor.builder(dsl).parallelism(1).build().execute(batch);
+
+        assertEquals(JooqBatchResult.Mode.PIPELINE, result.mode());
+        assertEquals(List.of("titles", "prices"), List.copyOf(result.results().keySet()));
+        assertEquals(List.of("Book 1", "Book 2"),
+                result.get("titles").stream().map(r -> r.get(BOOK_TITLE)).sorted().toList());
+        assertEquals(List.of(11L, 12L), ids(result.get("prices")));
+    }
+
+    @Test
+    @DisplayName("Test incompatible queries run concurrently with a higher parallelism")
+    void testConcurrent() {
+        final var batch = JooqBatch.builder()
+                .add("titles", select(BOOK_ID, BOOK_TITLE), JooqSpecifications.of("book.price <= 2"))
+                .add("prices", select(BOOK_ID, BOOK_PRICE), JooqSpecifications.of("book.price > 10"))
+                .add("genres", select(BOOK_ID, BOOK_GENRE), JooqSpecifications.of("book.genre = 'poetry'"))
+                .build();
+
+        final var result = JooqBatchExecutor.builder(dsl).parallelism(2).build().execute(batch);
+
+        assertEquals(JooqBatchResult.Mode.CONCURRENT, result.mode());
+        assertEquals(List.of("titles", "prices", "genres"), List.copyOf(result.results().keySet()));
+        assertEquals(List.of(1L, 2L), ids(result.get("titles")));
+        assertEquals(List.of(11L, 12L), ids(result.get("prices")));
+        assertEquals(List.of(1L, 4L, 7L, 10L), ids(result.get("genres")));
+    }
+
+    @Test
+    @DisplayName("Test a failed concurrent query cancels the queries that have not finished")
+    void testConcurrentFailure() throws InterruptedException {
+        final var tasks = Collections.synchronizedList(new ArrayList<Future<?>>());
+        // One thread, so later queries are still queued when the first one fails
+        final var pool = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>()) {
+            @Override
+            protected <T> RunnableFuture<T> newTaskFor(final Callable<T> callable) {
+                final var task = new FutureTask<>(callable);
+                tasks.add(task);
+                return task;
+            }
+        };
+        final var missing = DSL.field(DSL.name("book", "missing"), SQLDataType.INTEGER);
+        final var builder = JooqBatch.builder()
+                .add("broken", select(BOOK_ID, missing), JooqSpecifications.of("book.price > 0"));
+        for (var i = 0; i < 8; i++) {
+            builder.add("titles" + i, select(BOOK_ID, BOOK_TITLE), JooqSpecifications.of("book.price > " + i));
+        }
+
+        try {
+            final var executor = JooqBatchExecutor.builder(dsl).parallelism(2).executor(pool).build();
+            final var error = assertThrows(IllegalStateException.class, () -> executor.execute(builder.build()));
+
+            assertEquals(1, error.getSuppressed().length);
+            assertEquals(9, tasks.size());
+            assertTrue(tasks.stream().allMatch(Future::isDone));
+        } finally {
+            pool.shutdownNow();
+            assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package io.github.khezyapp.jooqspec;
+
+import io.github.khezyapp.jooqspec.util.JooqPaginationQueries;
+import io.github.khezyapp.querysupport.CountStrategy;
+import io.github.khezyapp.querysupport.TotalCount;
+import org.jooq.DSLContext;
+import org.jooq.Record;
+import org.jooq.SelectQuery;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static io.github.khezyapp.jooqspec.JooqTestDatabase.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JooqFilterExecutorTest {
+    private static DSLContext dsl;
+    private static JooqFilterExecutor executor;
+
+    @BeforeAll
+    static void createDatabase() {
+        dsl = JooqTestDatabase.create("filter_executor");
+        executor = new JooqFilterExecutor(dsl);
+    }
+
+    private static SelectQuery<Record> books() {
+        final var query = dsl.selectQuery(BOOK);
+        query.addSelect(BOOK_ID, BOOK_PRICE);
+        return query;
+    }
+
+    private static SelectQuery<Record> genres() {
+        final var query = dsl.selectQuery(BOOK);
+        query.addSelect(BOOK_GENRE);
+        return query;
+    }
+
+    // Books 3..12 match
+    private static JooqPaginationQuery query(final int pageNumber,
+                                             final CountStrategy countStrategy) {
+        return JooqPaginationQueries.of("book.price > 2", new JooqPageRequest(pageNumber, 4,
+                new JooqSort(List.of(new JooqOrder("book.id", JooqOrder.Direction.ASC)))), countStrategy);
+    }
+
+    private static JooqPaginationQuery query(final String rawQuery,
+                                             final int pageNumber,
+                                             final String sortPath) {
+        return JooqPaginationQueries.of(rawQuery, new JooqPageRequest(pageNumber, 4,
+                new JooqSort(List.of(new JooqOrder(sortPath, JooqOrder.Direction.ASC)))));
+    }
+
+    private static List<Long> ids(final JooqPage<? extends Record> page) {
+        return page.content().stream().map(r -> r.get(BOOK_ID)).toList();
+    }
+
+    @Test
+    @DisplayName("Test probing strategies detect the next page and derive the total on the last page")
+    void testProbeMode() {
+        final var first = executor.fetchPage(JooqFilterExecutorTest::books, query(0, CountStrategy.slice()));
+        assertEquals(List.of(3L, 4L, 5L, 6L), ids(first));
+        assertTrue(first.hasNext());
+        assertEquals(TotalCount.unknown(), first.totalCount());
+
+        final var last = executor.fetchPage(JooqFilterExecutorTest::books, query(2, CountStrategy.slice()));
+        assertEquals(List.of(11L, 12L), ids(last));
+        assertFalse(last.hasNext());
+        assertEquals(TotalCount.exact(10), last.totalCount());
+
+        final var capped = executor.fetchPage(JooqFilterExecutorTest::books, query(0, CountStrategy.capped(5)));
+        assertEquals(TotalCount.atLeast(5), capped.totalCount());
+    }
+
+    @Test
+    @DisplayName("Test a page past the end counts instead of reporting its offset as the total")
+    void testPastTheEnd() {
+        final var capped = executor.fetchPage(JooqFilterExecutorTest::books, query(5, CountStrategy.capped(100)));
+        assertTrue(capped.content().isEmpty());
+        assertFalse(capped.hasNext());
+        assertEquals(TotalCount.exact(10), capped.totalCount());
+
+        final var exact = executor.fetchPage(JooqFilterExecutorTest::books, query(5, CountStrategy.exact()));
+        assertEquals(TotalCount.exact(10), exact.totalCount());
+
+        final var slice = executor.fetchPage(JooqFilterExecutorTest::books, query(5, CountStrategy.slice()));
+        assertEquals(TotalCount.unknown(), slice.totalCount());
+    }
+
+    @Test
+    @DisplayName("Test the window total matches a separate COUNT and is stripped from the records")
+    void testPageWithTotal() {
+        final var filter = "book.price > 2 AND book.genre != 'poetry'";
+        final var expected = executor.count(query(filter, 0, "book.id").specification().applyTo(books()));
+
+        final var first = executor.fetchPageWithTotal(JooqFilterExecutorTest::books, query(filter, 0, "book.id"));
+        assertEquals(List.of(3L, 5L, 6L, 8L), ids(first));
+        assertEquals(TotalCount.exact(expected), first.totalCount());
+        assertEquals(2, first.content().get(0).size());
+        assertTrue(first.hasNext());
+
+        final var last = executor.fetchPageWithTotal(JooqFilterExecutorTest::books, query(filter, 1, "book.id"));
+        assertEquals(List.of(9L, 11L, 12L), ids(last));
+        assertEquals(TotalCount.exact(expected), last.totalCount());
+        assertFalse(last.hasNext());
+
+        final var pastTheEnd = executor.fetchPageWithTotal(JooqFilterExecutorTest::books,
+                query(filter, 4, "book.id"));
+        assertTrue(pastTheEnd.content().isEmpty());
+        assertEquals(TotalCount.exact(expected), pastTheEnd.totalCount());
+    }
+
+    @Test
+    @DisplayName("Test the window total counts groups like a separate COUNT")
+    void testGroupedPageWithTotal() {
+        final var query = query("book.price > 0 GROUP BY book.genre", 0, "book.genre");
+        final var expected = executor.count(query.specification().applyTo(genres()));
+
+        final var page = executor.fetchPageWithTotal(JooqFilterExecutorTest::genres, query);
+        assertEquals(List.of("fiction", "poetry", "science"),
+                page.content().stream().map(r -> r.get(BOOK_GENRE)).toList());
+        assertEquals(3, expected);
+        assertEquals(TotalCount.exact(expected), page.totalCount());
+    }
+}
@@ -0,0 +1,62 @@
+package io.github.khezyapp.jooqspec;
+
+import io.github.khezyapp.jooqspec.util.JooqSpecifications;
+import org.jooq.JoinType;
+import org.jooq.impl.DSL;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JooqJoinPlanTest {
+
+    private static final JooqJoinPlan PLAN = JooqJoinPlan.from(DSL.table(DSL.name("book")))
+            .optional("author", DSL.table(DSL.name("author")),
+                    DSL.field(DSL.name("book", "author_id")).eq(DSL.field(DSL.name("author", "id"))))
+            .optional("publisher", DSL.table(DSL.name("publisher")),
+                    DSL.field(DSL.name("author", "publisher_id")).eq(DSL.field(DSL.name("publisher", "id"))),
+                    "author")
+            .required("stock", DSL.table(DSL.name("stock")),
+                    DSL.field(DSL.name("stock", "book_id")).eq(DSL.field(DSL.name("book", "id"))),
+                    JoinType.JOIN)
+            .build();
+
+    @Test
+    @DisplayName("Test visitor collects qualifiers from where, having and group by")
+    void testQualifiersCollected() {
+        final var spec = JooqSpecifications.of("title = 'Dune' AND author.name = 'Herbert'");
+
+        assertEquals(Set.of("author"), spec.qualifiers());
+        assertTrue(spec.references("author"));
+        assertFalse(spec.references("publisher"));
+    }
+
+    @Test
+    @DisplayName("Test unreferenced optional joins are pruned")
+    void testPruneUnreferenced() {
+        assertEquals(List.of("stock"), PLAN.plan(Set.of()));
+        assertEquals(List.of("author", "stock"), PLAN.plan(Set.of("author")));
+    }
+
+    @Test
+    @DisplayName("Test dependencies are attached in declaration order")
+    void testDependencies() {
+        assertEquals(List.of("author", "publisher", "stock"), PLAN.plan(Set.of("publisher")));
+    }
+
+    @Test
+    @DisplayName("Test count drops joins needed only for projection")
+    void testCountDropsProjectionJoins() {
+        final var spec = JooqSpecifications.of("title = 'Dune'");
+
+        final var page = PLAN.forPage(spec, List.of("author")).toString();
+        final var count = PLAN.forCount(spec).toString();
+
+        assertTrue(page.contains("\"author\""));
+        assertFalse(count.contains("\"author\""));
+        assertTrue(count.contains("\"stock\""));
+    }
+}
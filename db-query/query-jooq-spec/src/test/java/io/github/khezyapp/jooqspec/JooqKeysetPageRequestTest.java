@@ -0,0 +1,87 @@
+package io.github.khezyapp.jooqspec;
+
+import org.jooq.impl.DSL;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JooqKeysetPageRequestTest {
+
+    private static JooqKeysetPageRequest.Builder request() {
+        return new JooqKeysetPageRequest.Builder()
+                .pageSize(20)
+                .sortFields(List.of("book.price", "book.title"))
+                .sortDirections(List.of("DESC", "ASC"))
+                .tiebreaker("book.id");
+    }
+
+    @Test
+    @DisplayName("Test cursor round trip keeps value types and nulls")
+    void testCursorRoundTrip() {
+        final var values = Arrays.asList(12.5d, null, 42L);
+
+        final var decoded = JooqCursor.decode(JooqCursor.encode(values));
+
+        assertEquals(values, decoded);
+        assertThrows(IllegalArgumentException.class, () -> JooqCursor.decode("not-a-cursor"));
+    }
+
+    @Test
+    @DisplayName("Test tiebreaker is appended ascending and closes the sort")
+    void testTiebreakerAppended() {
+        final var keys = request().build().keys();
+
+        assertEquals(3, keys.size());
+        assertEquals(new JooqOrder("book.id", JooqOrder.Direction.ASC), keys.get(2));
+        assertEquals(JooqOrder.Nulls.FIRST, keys.get(0).effectiveNulls());
+        assertEquals(JooqOrder.Nulls.LAST, keys.get(1).effectiveNulls());
+    }
+
+    @Test
+    @DisplayName("Test first page has no seek predicate")
+    void testFirstPage() {
+        final var page = request().build();
+
+        assertEquals(DSL.noCondition(), page.seekCondition());
+        assertEquals("\"book\".\"price\" desc nulls first", page.sortFields().get(0).toString());
+    }
+
+    @Test
+    @DisplayName("Test seek predicate honors mixed directions and null placement")
+    void testSeekAfter() {
+        final var cursor = JooqCursor.encode(Arrays.asList(9.99d, null, 7L));
+
+        final var condition = request().cursor(cursor).build().seekCondition().toString();
+
+        assertTrue(condition.contains("\"book\".\"price\" < 9.99"));
+        assertTrue(condition.contains("\"book\".\"title\" is null"));
+        assertTrue(condition.contains("\"book\".\"id\" > 7"));
+        assertFalse(condition.contains("\"book\".\"title\" >"));
+    }
+
+    @Test
+    @DisplayName("Test reading before the cursor reverses directions and null placement")
+    void testSeekBefore() {
+        final var cursor = JooqCursor.encode(List.of(9.99d, "Dune", 7L));
+
+        final var page = request().cursor(cursor).direction(JooqKeysetPageRequest.Direction.BEFORE).build();
+        final var condition = page.seekCondition().toString();
+
+        assertEquals("\"book\".\"price\" asc nulls last", page.sortFields().get(0).toString());
+        assertTrue(condition.contains("\"book\".\"price\" > 9.99"));
+        assertTrue(condition.contains("\"book\".\"title\" < 'Dune'"));
+        assertTrue(condition.contains("\"book\".\"id\" < 7"));
+    }
+
+    @Test
+    @DisplayName("Test cursor must match the sort keys")
+    void testCursorMismatch() {
+        final var page = request().cursor(JooqCursor.encode(List.of(1L))).build();
+
+        assertThrows(IllegalArgumentException.class, page::seekCondition);
+    }
+}
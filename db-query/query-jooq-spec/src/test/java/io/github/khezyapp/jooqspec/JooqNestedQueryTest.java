@@ -0,0 +1,73 @@
+package io.github.khezyapp.jooqspec;
+
+import io.github.khezyapp.grammar.ASTSpecs;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JooqNestedQueryTest {
+
+    private static final Table<?> BOOKS = DSL.table(DSL.name("book")).as("books");
+
+    private static JooqNestedQuery nested(final boolean filterParents) {
+        return JooqNestedQuery.builder()
+                .collection(JooqCollection.of(BOOKS,
+                                DSL.field(DSL.name("books", "author_id")).eq(DSL.field(DSL.name("author", "id"))))
+                        .select(DSL.field(DSL.name("books", "title")))
+                        .filterParents(filterParents)
+                        .build())
+                .build();
+    }
+
+    @Test
+    @DisplayName("Test collection terms are pushed down and parent terms stay on the parent")
+    void testSplit() {
+        final var split = nested(false).split(ASTSpecs.fromQuery("author.name = 'Austen' AND books.price > 10"));
+
+        assertEquals("\"books\".\"price\" > 10", split.childConditions().get("books").toString());
+        final var parentWhere = split.parentSpecification().where().toString();
+        assertTrue(parentWhere.contains("\"author\".\"name\" = 'Austen'"));
+        assertFalse(parentWhere.contains("books"));
+    }
+
+    @Test
+    @DisplayName("Test filtering collection keeps only parents with a matching child")
+    void testFilterParents() {
+        final var split = nested(true).split(ASTSpecs.fromQuery("books.price > 10"));
+
+        assertTrue(split.parentSpecification().where().toString().contains("exists"));
+    }
+
+    @Test
+    @DisplayName("Test terms mixing a collection with the parent are rejected")
+    void testMixedTermRejected() {
+        final var query = ASTSpecs.fromQuery("books.price > 10 OR author.name = 'Austen'");
+
+        assertThrows(IllegalArgumentException.class, () -> nested(false).split(query));
+    }
+
+    @Test
+    @DisplayName("Test paging applies to the parent query carrying the multiset column")
+    void testApply() {
+        final var page = new JooqPageRequest.Builder()
+                .pageNumber(1)
+                .pageSize(5)
+                .sortFields(List.of("author.name"))
+                .sortDirections(List.of("ASC"))
+                .build();
+
+        final var select = nested(false).apply(
+                DSL.select(DSL.field(DSL.name("author", "name"))).from(DSL.table(DSL.name("author"))).getQuery(),
+                ASTSpecs.fromQuery("books.price > 10"),
+                page).toString();
+
+        assertTrue(select.contains("multiset"));
+        assertTrue(select.contains("\"books\".\"price\" > 10"));
+        assertTrue(select.contains("offset 5"));
+    }
+}
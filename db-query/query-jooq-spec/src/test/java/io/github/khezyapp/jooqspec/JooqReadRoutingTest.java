@@ -0,0 +1,139 @@
+package io.github.khezyapp.jooqspec;
+
+import io.github.khezyapp.jooqspec.util.JooqPaginationQueries;
+import io.github.khezyapp.querysupport.ReadRouting;
+import io.github.khezyapp.querysupport.ReplicaLagProbe;
+import io.github.khezyapp.querysupport.ReplicaRoutingDataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.SQLDialect;
+import org.jooq.SelectQuery;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JooqReadRoutingTest {
+    static final Table<Record> BOOK = DSL.table(DSL.name("book"));
+    static final Field<Long> ID = DSL.field(DSL.name("id"), SQLDataType.BIGINT);
+    static final Field<Integer> LAG = DSL.field(DSL.name("lag_seconds"), SQLDataType.INTEGER);
+
+    private static DSLContext primary;
+    private static DSLContext replica;
+    private static ReplicaRoutingDataSource routing;
+    private static DSLContext dsl;
+
+    // The replica is a stale copy: it holds books 1..6 while the primary holds 1..10
+    @BeforeAll
+    static void createDatabases() {
+        final var primaryDataSource = dataSource("rr_primary");
+        final var replicaDataSource = dataSource("rr_replica");
+        primary = DSL.using(primaryDataSource, SQLDialect.H2);
+        replica = DSL.using(replicaDataSource, SQLDialect.H2);
+        for (final var database : List.of(primary, replica)) {
+            database.createTable(BOOK).column(ID).primaryKey(ID).execute();
+        }
+        for (var id = 1L; id <= 10; id++) {
+            primary.insertInto(BOOK, ID).values(id).execute();
+            if (id <= 6) {
+                replica.insertInto(BOOK, ID).values(id).execute();
+            }
+        }
+        replica.createTable(DSL.table(DSL.name("heartbeat"))).column(LAG).execute();
+        replica.insertInto(DSL.table(DSL.name("heartbeat")), LAG).values(1).execute();
+
+        routing = ReplicaRoutingDataSource.builder(primaryDataSource,
+                        ReplicaLagProbe.seconds("SELECT lag_seconds FROM heartbeat"))
+                .replica("replica", replicaDataSource)
+                .build();
+        dsl = DSL.using(routing, SQLDialect.H2);
+    }
+
+    @BeforeEach
+    void resetLag() {
+        lag(1);
+    }
+
+    private static JdbcDataSource dataSource(final String name) {
+        final var dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:%s;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE".formatted(name));
+        return dataSource;
+    }
+
+    private static void lag(final int seconds) {
+        replica.update(DSL.table(DSL.name("heartbeat"))).set(LAG, seconds).execute();
+        routing.probeAll();
+    }
+
+    private static SelectQuery<Record> base() {
+        final var query = dsl.selectQuery(BOOK);
+        query.addSelect(ID);
+        return query;
+    }
+
+    private static JooqPaginationQuery firstPage() {
+        return JooqPaginationQueries.of("id > 0", new JooqPageRequest(0, 4,
+                new JooqSort(List.of(new JooqOrder("id", JooqOrder.Direction.DESC)))));
+    }
+
+    @Test
+    @DisplayName("Test counts go to a fresh replica while pages stay on the primary")
+    void testCountsOnReplica() {
+        final var executor = new JooqFilterExecutor(dsl)
+                .withReadRouting(ReadRouting.counts(routing, Duration.ofSeconds(5)));
+
+        final var page = executor.fetchPage(JooqReadRoutingTest::base, firstPage());
+        assertEquals(List.of(10L, 9L, 8L, 7L), page.content().stream().map(r -> r.get(ID)).toList());
+        assertEquals(6L, page.totalCount().value());
+
+        final var fallbacks = routing.lagFallbackCount();
+        lag(30);
+        assertEquals(10L, executor.count(dsl.selectFrom(BOOK)));
+        assertEquals(fallbacks + 1, routing.lagFallbackCount());
+    }
+
+    @Test
+    @DisplayName("Test pages follow their own freshness bound")
+    void testPagesOnReplica() {
+        final var executor = new JooqFilterExecutor(dsl)
+                .withReadRouting(ReadRouting.of(routing, Duration.ofSeconds(2), Duration.ofMinutes(1)));
+
+        var page = executor.fetchPage(JooqReadRoutingTest::base, firstPage());
+        assertEquals(List.of(6L, 5L, 4L, 3L), page.content().stream().map(r -> r.get(ID)).toList());
+
+        lag(10);
+        page = executor.fetchPage(JooqReadRoutingTest::base, firstPage());
+        assertEquals(List.of(10L, 9L, 8L, 7L), page.content().stream().map(r -> r.get(ID)).toList());
+        assertEquals(6L, page.totalCount().value());
+    }
+
+    @Test
+    @DisplayName("Test reads stay on the primary while the thread's transaction has written")
+    void testPendingWrite() throws SQLException {
+        final var executor = new JooqFilterExecutor(dsl)
+                .withReadRouting(ReadRouting.counts(routing, Duration.ofSeconds(5)));
+
+        try (var connection = routing.getConnection()) {
+            connection.setAutoCommit(false);
+            DSL.using(connection, SQLDialect.H2).deleteFrom(BOOK).where(ID.eq(1L)).execute();
+            assertTrue(routing.hasPendingWrite());
+            // Another primary connection does not see the uncommitted delete, but it is not behind either
+            assertEquals(10L, executor.count(dsl.selectFrom(BOOK)));
+
+            connection.rollback();
+            assertFalse(routing.hasPendingWrite());
+            assertEquals(6L, executor.count(dsl.selectFrom(BOOK)));
+        }
+    }
+}
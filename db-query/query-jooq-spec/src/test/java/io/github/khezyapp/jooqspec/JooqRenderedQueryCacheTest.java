@@ -0,0 +1,119 @@
+package io.github.khezyapp.jooqspec;
+
+import io.github.khezyapp.grammar.ASTSpecs;
+import org.jooq.DSLContext;
+import org.jooq.Record;
+import org.jooq.ResultQuery;
+import org.jooq.impl.DSL;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static io.github.khezyapp.jooqspec.JooqTestDatabase.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JooqRenderedQueryCacheTest {
+    private static DSLContext dsl;
+    private static JooqFieldRegistry registry;
+    private JooqRenderedQueryCache cache;
+
+    @BeforeAll
+    static void createDatabase() {
+        dsl = JooqTestDatabase.create("rendered_query_cache");
+        registry = JooqFieldRegistry.builder()
+                .field("book.id", BOOK_ID)
+                .field("book.price", BOOK_PRICE)
+                .field("book.genre", BOOK_GENRE)
+                .build();
+    }
+
+    @BeforeEach
+    void createCache() {
+        cache = new JooqRenderedQueryCache(registry);
+    }
+
+    private static Function<JooqSpecification, ResultQuery<?>> page(final int limit,
+                                                                   final int offset) {
+        return spec -> dsl.select(BOOK_ID, BOOK_PRICE)
+                .from(BOOK)
+                .where(spec.where())
+                .orderBy(BOOK_ID)
+                .limit(DSL.param("limit", limit))
+                .offset(DSL.param("offset", offset));
+    }
+
+    private List<Long> cached(final String filter,
+                              final int limit,
+                              final int offset) {
+        return cache.fetch(dsl, "books.page", ASTSpecs.fromQuery(filter),
+                        Map.of("limit", limit, "offset", offset), page(limit, offset))
+                .stream()
+                .map(r -> r.get("id", Long.class))
+                .toList();
+    }
+
+    // Renders and runs the query without the cache
+    private static List<Long> fresh(final String filter,
+                                    final int limit,
+                                    final int offset) {
+        final var spec = (JooqSpecification) ASTSpecs.fromQuery(filter).accept(new FilterJooqVisitor(registry));
+        return page(limit, offset).apply(spec)
+                .fetch()
+                .stream()
+                .map(r -> r.get(BOOK_ID))
+                .toList();
+    }
+
+    @Test
+    @DisplayName("Test replayed SQL with rebound values returns the rows of a fresh rendering")
+    void testReplay() {
+        final var first = "book.price > 3 AND book.genre = 'fiction'";
+        assertEquals(List.of(6L, 9L, 12L), cached(first, 10, 0));
+        assertEquals(fresh(first, 10, 0), cached(first, 10, 0));
+        assertEquals(1, cache.size());
+
+        final var second = "book.price > 7 AND book.genre = 'science'";
+        assertEquals(List.of(8L, 11L), cached(second, 10, 0));
+        assertEquals(fresh(second, 10, 0), cached(second, 10, 0));
+        assertEquals(fresh(second, 1, 1), cached(second, 1, 1));
+        assertEquals(List.of(11L), cached(second, 1, 1));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    @DisplayName("Test a fractional literal replayed on a shape first bound as an integer keeps its value")
+    void testReplayKeepsFractionalLiteral() {
+        assertEquals(List.of(10L, 11L, 12L), cached("book.price >= 10.0", 10, 0));
+        assertEquals(List.of(11L, 12L), cached("book.price >= 10.5", 10, 0));
+        assertEquals(fresh("book.price >= 10.5", 10, 0), cached("book.price >= 10.5", 10, 0));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    @DisplayName("Test IN lists of different sizes do not share a rendered query")
+    void testInListSizes() {
+        assertEquals(List.of(1L, 2L), cached("book.id IN (1, 2)", 10, 0));
+        assertEquals(1, cache.size());
+
+        assertEquals(List.of(3L, 4L, 5L), cached("book.id IN (3, 4, 5)", 10, 0));
+        assertEquals(fresh("book.id IN (3, 4, 5)", 10, 0), cached("book.id IN (3, 4, 5)", 10, 0));
+        assertEquals(2, cache.size());
+
+        assertEquals(List.of(7L, 8L), cached("book.id IN (8, 7)", 10, 0));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    @DisplayName("Test a missing filter is cached like any other shape")
+    void testNoFilter() {
+        final var rows = cache.fetch(dsl, "books.page", null, Map.of("limit", 3, "offset", 0), page(3, 0));
+
+        assertEquals(List.of(1L, 2L, 3L), rows.stream().map(r -> r.get("id", Long.class)).toList());
+        assertEquals(1, cache.size());
+    }
+}
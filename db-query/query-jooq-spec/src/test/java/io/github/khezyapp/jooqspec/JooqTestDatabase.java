@@ -0,0 +1,56 @@
+package io.github.khezyapp.jooqspec;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.SQLDialect;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
+
+import java.util.List;
+
+/**
+ * In-memory H2 database with authors and books, shared by executor tests.
+ * <p>
+ * Book {@code i} (1..12) costs {@code i}, has genre {@code GENRES[i % 3]} and is written by author
+ * {@code 1 + i % 2}, except every fourth book, which has no author.
+ * </p>
+ */
+public final class JooqTestDatabase {
+    public static final Table<Record> AUTHOR = DSL.table(DSL.name("author"));
+    public static final Field<Long> AUTHOR_ID = DSL.field(DSL.name("author", "id"), SQLDataType.BIGINT);
+    public static final Field<String> AUTHOR_NAME = DSL.field(DSL.name("author", "name"), SQLDataType.VARCHAR);
+    public static final Table<Record> BOOK = DSL.table(DSL.name("book"));
+    public static final Field<Long> BOOK_ID = DSL.field(DSL.name("book", "id"), SQLDataType.BIGINT);
+    public static final Field<String> BOOK_TITLE = DSL.field(DSL.name("book", "title"), SQLDataType.VARCHAR);
+    public static final Field<Integer> BOOK_PRICE = DSL.field(DSL.name("book", "price"), SQLDataType.INTEGER);
+    public static final Field<String> BOOK_GENRE = DSL.field(DSL.name("book", "genre"), SQLDataType.VARCHAR);
+    public static final Field<Long> BOOK_AUTHOR_ID = DSL.field(DSL.name("book", "author_id"), SQLDataType.BIGINT);
+    public static final List<String> GENRES = List.of("fiction", "poetry", "science");
+    public static final int BOOKS = 12;
+
+    private JooqTestDatabase() {
+    }
+
+    public static JdbcDataSource dataSource(final String name) {
+        final var dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:%s;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE".formatted(name));
+        return dataSource;
+    }
+
+    public static DSLContext create(final String name) {
+        final var dsl = DSL.using(dataSource(name), SQLDialect.H2);
+        dsl.execute("create table author (id bigint primary key, name varchar(50))");
+        dsl.execute("create table book (id bigint primary key, title varchar(50), price int, genre varchar(20), "
+                + "author_id bigint references author (id))");
+        dsl.insertInto(AUTHOR, AUTHOR_ID, AUTHOR_NAME).values(1L, "Ann").values(2L, "Bob").execute();
+        for (var i = 1L; i <= BOOKS; i++) {
+            dsl.insertInto(BOOK, BOOK_ID, BOOK_TITLE, BOOK_PRICE, BOOK_GENRE, BOOK_AUTHOR_ID)
+                    .values(i, "Book " + i, (int) i, GENRES.get((int) (i % 3)), i % 4 == 0 ? null : 1 + i % 2)
+                    .execute();
+        }
+        return dsl;
+    }
+}
@@ -0,0 +1,123 @@
+package io.github.khezyapp.jooqspec.approx;
+
+import io.github.khezyapp.grammar.ASTSpecs;
+import io.github.khezyapp.jooqspec.JooqFieldRegistry;
+import io.github.khezyapp.jooqspec.JooqTestDatabase;
+import io.github.khezyapp.querysupport.Estimate;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static io.github.khezyapp.grammar.ast.builder.ASTSpecConditions.*;
+import static io.github.khezyapp.jooqspec.JooqTestDatabase.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JooqApproximateAggregatorTest {
+    private static final Table<Record> SALE = DSL.table(DSL.name("sale"));
+    private static final Field<Integer> SALE_AMOUNT = DSL.field(DSL.name("sale", "amount"), SQLDataType.INTEGER);
+    private static final int SALES = 20_000;
+
+    private static DSLContext dsl;
+    private static JooqFieldRegistry registry;
+
+    // Sale x (1..20000) has amount x % 100: the total is 200 * 4950 and the average 49.5
+    @BeforeAll
+    static void createDatabase() {
+        dsl = JooqTestDatabase.create("approximate_aggregator");
+        dsl.execute("create table sale (id bigint primary key, amount int)");
+        dsl.execute("insert into sale select x, mod(x, 100) from system_range(1, " + SALES + ")");
+        registry = JooqFieldRegistry.builder()
+                .field("book.price", BOOK_PRICE)
+                .field("book.genre", BOOK_GENRE)
+                .field("sale.amount", SALE_AMOUNT)
+                .build();
+    }
+
+    private static Map<Object, JooqApproximateGroup> byKey(final List<JooqApproximateGroup> groups) {
+        return groups.stream().collect(Collectors.toMap(g -> g.key().get(0), g -> g));
+    }
+
+    private static void assertExact(final double expected,
+                                    final Estimate estimate) {
+        assertEquals(expected, estimate.value());
+        assertEquals(expected, estimate.lower());
+        assertEquals(expected, estimate.upper());
+    }
+
+    @Test
+    @DisplayName("Test a fraction of one gives exact values per group")
+    void testWithoutSampling() {
+        final var aggregator = JooqApproximateAggregator.builder(dsl, registry)
+                .sampling(JooqSampling.RANDOM, 1)
+                .build();
+
+        final var groups = byKey(aggregator.aggregate(BOOK, ASTSpecs.fromQuery("book.price > 0 GROUP BY book.genre"),
+                count("*"), sum("book.price"), avg("book.price")));
+
+        assertEquals(3, groups.size());
+        assertExact(4, groups.get("fiction").get(count("*")));
+        assertExact(30, groups.get("fiction").get(sum("book.price")));
+        assertExact(22, groups.get("poetry").get(sum("book.price")));
+        assertExact(6.5, groups.get("science").get(avg("book.price")));
+    }
+
+    @Test
+    @DisplayName("Test HAVING is evaluated on the estimates")
+    void testHaving() {
+        final var aggregator = JooqApproximateAggregator.builder(dsl, registry)
+                .sampling(JooqSampling.RANDOM, 1)
+                .build();
+
+        final var groups = aggregator.aggregate(BOOK,
+                ASTSpecs.fromQuery("book.price > 0 GROUP BY book.genre HAVING SUM(book.price) > 25"));
+
+        assertEquals(List.of("fiction", "science"),
+                groups.stream().map(g -> (String) g.key().get(0)).sorted().toList());
+    }
+
+    @Test
+    @DisplayName("Test a RAND() sample scales counts and sums up with intervals covering the true values")
+    void testRandomSample() {
+        // A very high confidence keeps this randomized test from failing by chance
+        final var aggregator = JooqApproximateAggregator.builder(dsl, registry)
+                .sampling(JooqSampling.RANDOM, 0.2)
+                .confidence(0.999999)
+                .build();
+
+        final var groups = aggregator.aggregate(SALE, ASTSpecs.fromQuery("sale.amount >= 0"),
+                count("*"), sum("sale.amount"), avg("sale.amount"));
+
+        assertEquals(1, groups.size());
+        final var count = groups.get(0).get(count("*"));
+        final var sum = groups.get(0).get(sum("sale.amount"));
+        final var average = groups.get(0).get(avg("sale.amount"));
+        assertTrue(count.covers(SALES), count::toString);
+        assertTrue(sum.covers(200 * 4950), sum::toString);
+        assertTrue(average.covers(49.5), average::toString);
+        assertTrue(count.lower() < count.upper());
+        assertTrue(count.relativeError() < 0.1, count::toString);
+        assertTrue(sum.relativeError() < 0.1, sum::toString);
+    }
+
+    @Test
+    @DisplayName("Test aggregates that cannot be estimated and invalid design effects are rejected")
+    void testRejected() {
+        final var aggregator = JooqApproximateAggregator.builder(dsl, registry).build();
+        final var spec = ASTSpecs.fromQuery("book.price > 0 GROUP BY book.genre");
+
+        assertThrows(IllegalArgumentException.class, () -> aggregator.aggregate(BOOK, spec, max("book.price")));
+        assertThrows(IllegalArgumentException.class, () -> aggregator.aggregate(BOOK, spec));
+        assertThrows(IllegalArgumentException.class,
+                () -> JooqApproximateAggregator.builder(dsl, registry).designEffect(0.5));
+    }
+}
@@ -0,0 +1,185 @@
+package io.github.khezyapp.jooqspec.export;
+
+import io.github.khezyapp.jooqspec.JooqOrder;
+import io.github.khezyapp.jooqspec.JooqSort;
+import io.github.khezyapp.jooqspec.JooqTestDatabase;
+import io.github.khezyapp.jooqspec.util.JooqSpecifications;
+import io.github.khezyapp.querysupport.RowFormat;
+import org.jooq.ConnectionProvider;
+import org.jooq.DSLContext;
+import org.jooq.Record;
+import org.jooq.SQLDialect;
+import org.jooq.SelectQuery;
+import org.jooq.impl.DSL;
+import org.jooq.impl.DataSourceConnectionProvider;
+import org.jooq.impl.DefaultConfiguration;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static io.github.khezyapp.jooqspec.JooqTestDatabase.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JooqExporterTest {
+    private static final AtomicInteger OPEN_CONNECTIONS = new AtomicInteger();
+    private static final JooqSort BY_ID = new JooqSort(List.of(new JooqOrder("book.id", JooqOrder.Direction.ASC)));
+
+    private static DSLContext dsl;
+
+    // Counts the connections jOOQ holds, so a cursor left open shows up as a leaked connection
+    @BeforeAll
+    static void createDatabase() {
+        JooqTestDatabase.create("exporter");
+        final var connections = new DataSourceConnectionProvider(JooqTestDatabase.dataSource("exporter"));
+        final ConnectionProvider counting = new ConnectionProvider() {
+            @Override
+            public Connection acquire() {
+                OPEN_CONNECTIONS.incrementAndGet();
+                return connections.acquire();
+            }
+
+            @Override
+            public void release(final Connection connection) {
+                OPEN_CONNECTIONS.decrementAndGet();
+                connections.release(connection);
+            }
+        };
+        dsl = DSL.using(new DefaultConfiguration().set(counting).set(SQLDialect.H2));
+    }
+
+    private static SelectQuery<Record> books() {
+        final var query = dsl.selectQuery(BOOK);
+        query.addSelect(BOOK_ID, BOOK_TITLE, BOOK_PRICE);
+        return query;
+    }
+
+    private static RowFormat<Record> csv() {
+        return JooqRowFormats.columns()
+                .column("id", BOOK_ID)
+                .column("title", BOOK_TITLE)
+                .column("price", BOOK_PRICE)
+                .csv();
+    }
+
+    @Test
+    @DisplayName("Test every matching row is written in order in the requested format")
+    void testExport() {
+        final var progress = new AtomicLong();
+        final var exporter = JooqExporter.builder(dsl)
+                .fetchSize(2)
+                .progressInterval(3)
+                .listener(new JooqExportListener() {
+                    @Override
+                    public void onProgress(final long rows,
+                                           final Duration elapsed) {
+                        progress.set(rows);
+                    }
+                })
+                .build();
+        final var csv = new ByteArrayOutputStream();
+
+        final var rows = exporter.export(JooqExporterTest::books, JooqSpecifications.of("book.price > 9"), BY_ID,
+                csv(), csv);
+
+        assertEquals(3, rows);
+        assertEquals(3, progress.get());
+        assertEquals("id,title,price\r\n10,Book 10,10\r\n11,Book 11,11\r\n12,Book 12,12\r\n",
+                csv.toString(StandardCharsets.UTF_8));
+        assertEquals(0, OPEN_CONNECTIONS.get());
+    }
+
+    @Test
+    @DisplayName("Test NDJSON export without a transaction releases its connection")
+    void testNdjsonWithoutTransaction() {
+        final var format = JooqRowFormats.columns()
+                .column("id", BOOK_ID)
+                .column("price", BOOK_PRICE)
+                .ndjson();
+        final var ndjson = new ByteArrayOutputStream();
+
+        final var rows = JooqExporter.builder(dsl).transactional(false).build()
+                .export(JooqExporterTest::books, JooqSpecifications.of("book.price <= 2"), BY_ID, format, ndjson);
+
+        assertEquals(2, rows);
+        assertEquals("{\"id\":1,\"price\":1}\n{\"id\":2,\"price\":2}\n", ndjson.toString(StandardCharsets.UTF_8));
+        assertEquals(0, OPEN_CONNECTIONS.get());
+    }
+
+    @Test
+    @DisplayName("Test a failing sink closes the cursor and ends the transaction")
+    void testSinkFailure() {
+        final var written = new ByteArrayOutputStream();
+        final var sink = new OutputStream() {
+            @Override
+            public void write(final int b) throws IOException {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(final byte[] b,
+                              final int off,
+                              final int len) throws IOException {
+                if (written.size() + len > 40) {
+                    throw new IOException("Broken pipe");
+                }
+                written.write(b, off, len);
+            }
+        };
+        // Flushes every row, as a streaming response does, so the failure happens mid-cursor
+        final var delegate = csv();
+        final var format = new RowFormat<Record>() {
+            @Override
+            public String contentType() {
+                return delegate.contentType();
+            }
+
+            @Override
+            public void writeHeader(final Writer writer) throws IOException {
+                delegate.writeHeader(writer);
+            }
+
+            @Override
+            public void writeRow(final Writer writer,
+                                 final Record row) throws IOException {
+                delegate.writeRow(writer, row);
+                writer.flush();
+            }
+        };
+        final var failedAt = new AtomicLong(-1);
+        final var listener = new JooqExportListener() {
+            @Override
+            public void onFailure(final long rows,
+                                  final Throwable error) {
+                failedAt.set(rows);
+            }
+        };
+
+        for (final var transactional : List.of(true, false)) {
+            written.reset();
+            final var exporter = JooqExporter.builder(dsl)
+                    .fetchSize(2)
+                    .transactional(transactional)
+                    .listener(listener)
+                    .build();
+
+            final var error = assertThrows(UncheckedIOException.class, () -> exporter.export(
+                    JooqExporterTest::books, JooqSpecifications.of("book.price > 0"), BY_ID, format, sink));
+
+            assertEquals("Broken pipe", error.getCause().getMessage());
+            assertTrue(failedAt.get() > 0 && failedAt.get() < BOOKS);
+            assertEquals(0, OPEN_CONNECTIONS.get());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.khezyapp.jooqspec.export;
+
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JooqRowFormatsTest {
+
+    private static final Field<String> TITLE = DSL.field(DSL.name("title"), SQLDataType.VARCHAR);
+    private static final Field<BigDecimal> PRICE = DSL.field(DSL.name("price"), SQLDataType.NUMERIC);
+
+    private static Record row(final String title,
+                              final BigDecimal price) {
+        return DSL.using(SQLDialect.DEFAULT).newRecord(TITLE, PRICE).values(title, price);
+    }
+
+    @Test
+    @DisplayName("Test CSV writes a header and applies column formatters")
+    void testCsv() throws Exception {
+        final var format = JooqRowFormats.columns()
+                .column("Title", TITLE)
+                .column("Price", PRICE, p -> p.setScale(2).toPlainString())
+                .csv();
+        final var out = new StringWriter();
+
+        format.writeHeader(out);
+        format.writeRow(out, row("Emma, Vol. 1", new BigDecimal("9.5")));
+        format.writeRow(out, row("Persuasion", null));
+
+        assertEquals("text/csv", format.contentType());
+        assertEquals("Title,Price\r\n\"Emma, Vol. 1\",9.50\r\nPersuasion,\r\n", out.toString());
+    }
+
+    @Test
+    @DisplayName("Test NDJSON keeps numbers unquoted and escapes strings")
+    void testNdjson() throws Exception {
+        final var format = JooqRowFormats.columns()
+                .column("title", TITLE)
+                .column("price", PRICE)
+                .ndjson();
+        final var out = new StringWriter();
+
+        format.writeHeader(out);
+        format.writeRow(out, row("Say \"hi\"\n", new BigDecimal("12.00")));
+        format.writeRow(out, row(null, BigDecimal.ONE));
+
+        assertEquals("{\"title\":\"Say \\\"hi\\\"\\n\",\"price\":12.00}\n{\"title\":null,\"price\":1}\n",
+                out.toString());
+    }
+}
@@ -0,0 +1,192 @@
+package io.github.khezyapp.jooqspec.shard;
+
+import io.github.khezyapp.grammar.ASTSpecs;
+import io.github.khezyapp.grammar.ast.AggregateFunction;
+import io.github.khezyapp.grammar.ast.operand.AggregateOperand;
+import io.github.khezyapp.grammar.ast.operand.PathOperand;
+import io.github.khezyapp.jooqspec.JooqFieldRegistry;
+import io.github.khezyapp.jooqspec.JooqOrder;
+import io.github.khezyapp.jooqspec.JooqPageRequest;
+import io.github.khezyapp.jooqspec.JooqSort;
+import io.github.khezyapp.querysupport.RollupGroup;
+import io.github.khezyapp.querysupport.ShardRouter;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.SelectQuery;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JooqShardedExecutorTest {
+    static final Table<Record> SALE = DSL.table(DSL.name("sale"));
+    static final Field<Long> ID = DSL.field(DSL.name("sale", "id"), SQLDataType.BIGINT);
+    static final Field<Long> TENANT = DSL.field(DSL.name("sale", "tenant"), SQLDataType.BIGINT);
+    static final Field<String> REGION = DSL.field(DSL.name("sale", "region"), SQLDataType.VARCHAR);
+    static final Field<BigDecimal> AMOUNT = DSL.field(DSL.name("sale", "amount"), SQLDataType.DECIMAL(10, 2));
+    static final ShardRouter BY_TENANT = key -> "s" + ((Number) key).longValue() % 3;
+    static final List<String> REGIONS = List.of("north", "south", "east");
+
+    private static final List<Sale> SALES = new ArrayList<>();
+    private static JooqShardedExecutor executor;
+
+    // Sale i belongs to tenant i % 6, lives on shard tenant % 3, and amounts repeat to exercise tie-breaking
+    @BeforeAll
+    static void createShards() {
+        final var builder = JooqShardedExecutor.builder(JooqFieldRegistry.builder()
+                        .field("id", ID)
+                        .field("tenant", TENANT)
+                        .field("region", REGION)
+                        .field("amount", AMOUNT)
+                        .build())
+                .routing("tenant", BY_TENANT);
+        final var shards = new ArrayList<DSLContext>();
+        for (var shard = 0; shard < 3; shard++) {
+            final var dsl = DSL.using("jdbc:h2:mem:shard%d;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE".formatted(shard));
+            dsl.createTable(SALE)
+                    .column(DSL.field(DSL.name("id"), SQLDataType.BIGINT))
+                    .column(DSL.field(DSL.name("tenant"), SQLDataType.BIGINT))
+                    .column(DSL.field(DSL.name("region"), SQLDataType.VARCHAR(20)))
+                    .column(DSL.field(DSL.name("amount"), SQLDataType.DECIMAL(10, 2)))
+                    .primaryKey(DSL.field(DSL.name("id")))
+                    .execute();
+            builder.shard("s" + shard, dsl);
+            shards.add(dsl);
+        }
+        for (var i = 1L; i <= 60; i++) {
+            final var sale = new Sale(i, i % 6, REGIONS.get((int) (i % 3)), new BigDecimal((i * 7) % 25 + ".50"));
+            SALES.add(sale);
+            shards.get((int) (sale.tenant() % 3)).insertInto(SALE, ID, TENANT, REGION, AMOUNT)
+                    .values(sale.id(), sale.tenant(), sale.region(), sale.amount())
+                    .execute();
+        }
+        executor = builder.build();
+    }
+
+    private static SelectQuery<Record> base(final DSLContext dsl) {
+        final var query = dsl.selectQuery(SALE);
+        query.addSelect(ID, TENANT, AMOUNT);
+        return query;
+    }
+
+    private static JooqPageRequest page(final int pageNumber) {
+        return new JooqPageRequest(pageNumber, 7, new JooqSort(List.of(
+                new JooqOrder("amount", JooqOrder.Direction.DESC), new JooqOrder("id", JooqOrder.Direction.ASC))));
+    }
+
+    private static List<Long> expected(final Predicate<Sale> filter) {
+        return SALES.stream()
+                .filter(filter)
+                .sorted(Comparator.comparing(Sale::amount).reversed().thenComparing(Sale::id))
+                .map(Sale::id)
+                .toList();
+    }
+
+    private static AggregateOperand aggregate(final AggregateFunction function,
+                                              final String path) {
+        return new AggregateOperand(function, new PathOperand(List.of(path), path));
+    }
+
+    @Test
+    @DisplayName("Test pages merged from all shards follow the global sort order")
+    void testGlobalPages() {
+        final var querySpec = ASTSpecs.fromQuery("amount > 10");
+        final var expected = expected(s -> s.amount().compareTo(BigDecimal.TEN) > 0);
+
+        final var ids = new ArrayList<Long>();
+        var pageNumber = 0;
+        while (true) {
+            final var page = executor.fetchPage(JooqShardedExecutorTest::base, querySpec, page(pageNumber++));
+            page.content().forEach(r -> ids.add(r.get(ID)));
+            assertEquals(expected.size(), page.totalCount().value());
+            if (!page.hasNext()) {
+                break;
+            }
+        }
+
+        assertEquals(expected, ids);
+        assertEquals((expected.size() + 6) / 7, pageNumber);
+    }
+
+    @Test
+    @DisplayName("Test queries pinning the shard key run only on the shards holding it")
+    void testShardPruning() {
+        final var pinned = ASTSpecs.fromQuery("tenant = 4 AND amount > 5");
+
+        assertEquals(Set.of("s1"), executor.route(pinned));
+        assertEquals(List.of("s0", "s2"), List.copyOf(executor.route(ASTSpecs.fromQuery("tenant IN (3, 5, 0)"))));
+        assertEquals(3, executor.route(ASTSpecs.fromQuery("amount > 5")).size());
+
+        final var page = executor.fetchPage(JooqShardedExecutorTest::base, pinned, page(0));
+        assertEquals(expected(s -> s.tenant() == 4 && s.amount().compareTo(BigDecimal.valueOf(5)) > 0),
+                page.content().stream().map(r -> r.get(ID)).toList());
+    }
+
+    @Test
+    @DisplayName("Test partial aggregates of every shard merge into global groups before HAVING")
+    void testMergedAggregates() {
+        final var sum = aggregate(AggregateFunction.SUM, "amount");
+        final var avg = aggregate(AggregateFunction.AVG, "amount");
+        final var min = aggregate(AggregateFunction.MIN, "amount");
+        final var max = aggregate(AggregateFunction.MAX, "amount");
+        final var count = aggregate(AggregateFunction.COUNT, "*");
+
+        final var groups = executor.aggregate(SALE,
+                ASTSpecs.fromQuery("tenant IN (1, 2, 4) GROUP BY region HAVING SUM(amount) > 100"),
+                avg, min, max).stream()
+                .collect(Collectors.toMap(g -> (String) g.key().get(0), g -> g));
+
+        final var byRegion = SALES.stream()
+                .filter(s -> Set.of(1L, 2L, 4L).contains(s.tenant()))
+                .collect(Collectors.groupingBy(Sale::region));
+        final var passing = byRegion.entrySet().stream()
+                .filter(e -> total(e.getValue()).compareTo(BigDecimal.valueOf(100)) > 0)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        assertEquals(passing.keySet(), groups.keySet());
+        passing.forEach((region, sales) -> {
+            final RollupGroup group = groups.get(region);
+            assertEquals((long) sales.size(), group.get(count));
+            assertEquals(0, total(sales).compareTo((BigDecimal) group.get(sum)));
+            assertEquals(0, total(sales).divide(BigDecimal.valueOf(sales.size()), MathContext.DECIMAL64)
+                    .compareTo((BigDecimal) group.get(avg)));
+            assertEquals(sales.stream().map(Sale::amount).min(Comparator.naturalOrder()).orElseThrow(),
+                    group.get(min));
+            assertEquals(sales.stream().map(Sale::amount).max(Comparator.naturalOrder()).orElseThrow(),
+                    group.get(max));
+        });
+    }
+
+    @Test
+    @DisplayName("Test grouped pages and non-decomposable aggregates are rejected")
+    void testValidation() {
+        assertThrows(IllegalArgumentException.class, () -> executor.fetchPage(JooqShardedExecutorTest::base,
+                ASTSpecs.fromQuery("amount > 0 GROUP BY region"), page(0)));
+        assertThrows(IllegalArgumentException.class, () -> executor.aggregate(SALE,
+                ASTSpecs.fromQuery("amount > 0 GROUP BY region"),
+                aggregate(AggregateFunction.COUNT_DISTINCT_APPROX, "tenant")));
+        assertThrows(IllegalArgumentException.class,
+                () -> JooqShardedExecutor.builder(JooqFieldRegistry.untyped()).build());
+    }
+
+    private static BigDecimal total(final List<Sale> sales) {
+        return sales.stream().map(Sale::amount).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    record Sale(long id, long tenant, String region, BigDecimal amount) {
+    }
+}
@@ -0,0 +1,83 @@
+package io.github.khezyapp.jpaspec;
+
+import io.github.khezyapp.querysupport.TotalCount;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A {@link PageImpl} that also reports how its total was obtained.
+ * <p>
+ * With a non-exact {@link io.github.khezyapp.querysupport.CountStrategy}, {@link #getTotalElements()}
+ * is only as precise as {@link #getTotalCount()} states: a lower bound in capped mode, an estimate in
+ * estimated mode, and the number of rows seen so far in slice mode. {@link #hasNext()} is always
+ * accurate because it comes from probing one extra row.
+ * </p>
+ *
+ * @param <T> the type of the page content
+ */
+public class FilterPage<T> extends PageImpl<T> {
+    private final TotalCount totalCount;
+    private final boolean hasNext;
+
+    /**
+     * Constructs a page with an explicit total count and next-page flag.
+     *
+     * @param content    the page content
+     * @param pageable   the pagination information
+     * @param totalCount the total count and its precision
+     * @param hasNext    whether a next page exists
+     */
+    public FilterPage(final List<T> content,
+                      final Pageable pageable,
+                      final TotalCount totalCount,
+                      final boolean hasNext) {
+        super(content, pageable, reportedTotal(content, pageable, totalCount, hasNext));
+        this.totalCount = Objects.requireNonNull(totalCount, "totalCount must not be null");
+        this.hasNext = hasNext;
+    }
+
+    /**
+     * Gets the total count together with its precision.
+     * @return the total count
+     */
+    public TotalCount getTotalCount() {
+        return totalCount;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return hasNext;
+    }
+
+    @Override
+    public boolean isLast() {
+        return !hasNext;
+    }
+
+    /**
+     * Derives the numeric total exposed through {@link PageImpl}.
+     * <p>
+     * When no total was computed, the rows seen so far (plus one if a next page exists) are reported
+     * so page-number based clients still render a "next" link.
+     * </p>
+     *
+     * @param content    the page content
+     * @param pageable   the pagination information
+     * @param totalCount the total count
+     * @param hasNext    whether a next page exists
+     * @return the total passed to {@link PageImpl}
+     */
+    private static long reportedTotal(final List<?> content,
+                                      final Pageable pageable,
+                                      final TotalCount totalCount,
+                                      final boolean hasNext) {
+        if (totalCount.precision() != TotalCount.Precision.UNKNOWN) {
+            return totalCount.value();
+        }
+        final var offset = pageable.isPaged() ? pageable.getOffset() : 0L;
+        return offset + content.size() + (hasNext ? 1 : 0);
+    }
+}
@@ -2,6 +2,7 @@ package io.github.khezyapp.jpaspec;
 
 import io.github.khezyapp.grammar.ASTSpecs;
 import io.github.khezyapp.grammar.ast.QuerySpec;
+import io.github.khezyapp.grammar.support.SpecFingerprints;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Predicate;
@@ -62,4 +63,12 @@ public class FilterSpecification<T> implements Specification<T> {
     public QuerySpec getAstRoot() {
         return astRoot;
     }
+
+    /**
+     * Returns a stable fingerprint of the filter, suitable as a cache key.
+     * @return the hex-encoded fingerprint of the AST root
+     */
+    public String getFingerprint() {
+        return SpecFingerprints.of(astRoot);
+    }
 }
@@ -0,0 +1,741 @@
+package io.github.khezyapp.jpaspec;
+
+import io.github.khezyapp.grammar.ast.JoinType;
+import io.github.khezyapp.grammar.support.SpecPaths;
+import io.github.khezyapp.jpaspec.cache.JpaEntityTags;
+import io.github.khezyapp.jpaspec.cache.JpaQueryCachePolicy;
+import io.github.khezyapp.jpaspec.cache.JpaResultCache;
+import io.github.khezyapp.jpaspec.fetch.JpaFetchPlan;
+import io.github.khezyapp.jpaspec.projection.JpaProjection;
+import io.github.khezyapp.querysupport.CountSource;
+import io.github.khezyapp.querysupport.ReadRouting;
+import io.github.khezyapp.querysupport.SingleFlight;
+import io.github.khezyapp.querysupport.TotalCount;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Fetch;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Executes filter specifications directly against an {@link EntityManager}.
+ * <p>
+ * {@code JpaSpecificationExecutor} always hydrates full managed entities. This executor covers the cases
+ * where the caller needs more control over the generated query, such as selecting only a few columns
+ * into a DTO while reusing the joins created by the filter.
+ * </p>
+ *
+ * @param <T> the type of the root entity
+ */
+public class JpaFilterExecutor<T> {
+    /**
+     * Hibernate hint that loads results without dirty-checking snapshots.
+     */
+    public static final String HINT_READ_ONLY = "org.hibernate.readOnly";
+
+    /**
+     * JPA hint carrying a load graph: listed attributes are fetched, others keep their mapped fetch type.
+     */
+    public static final String HINT_LOAD_GRAPH = "jakarta.persistence.loadgraph";
+
+    /**
+     * Maximum number of identifiers bound into a single {@code IN} list when loading collections.
+     */
+    private static final int IN_BATCH_SIZE = 500;
+
+    private final EntityManager entityManager;
+    private final Class<T> domainClass;
+    private final JpaRowEstimator rowEstimator;
+    private final JpaQueryCachePolicy queryCachePolicy;
+    private final SingleFlight<String, FilterPage<?>> singleFlight;
+    private final JpaResultCache resultCache;
+    private final ReadRouting readRouting;
+
+    /**
+     * Constructs an executor for the given entity type.
+     *
+     * @param entityManager the entity manager used to create and run queries
+     * @param domainClass   the root entity class
+     */
+    public JpaFilterExecutor(final EntityManager entityManager,
+                             final Class<T> domainClass) {
+        this(entityManager, domainClass, JpaRowEstimator.none());
+    }
+
+    /**
+     * Constructs an executor with a row estimator used by the estimated count strategy.
+     *
+     * @param entityManager the entity manager used to create and run queries
+     * @param domainClass   the root entity class
+     * @param rowEstimator  the estimator consulted in estimated count mode
+     */
+    public JpaFilterExecutor(final EntityManager entityManager,
+                             final Class<T> domainClass,
+                             final JpaRowEstimator rowEstimator) {
+        this(entityManager, domainClass, rowEstimator, null, null, null, null);
+    }
+
+    private JpaFilterExecutor(final EntityManager entityManager,
+                              final Class<T> domainClass,
+                              final JpaRowEstimator rowEstimator,
+                              final JpaQueryCachePolicy queryCachePolicy,
+                              final SingleFlight<String, FilterPage<?>> singleFlight,
+                              final JpaResultCache resultCache,
+                              final ReadRouting readRouting) {
+        this.entityManager = Objects.requireNonNull(entityManager, "entityManager must not be null");
+        this.domainClass = Objects.requireNonNull(domainClass, "domainClass must not be null");
+        this.rowEstimator = Objects.requireNonNull(rowEstimator, "rowEstimator must not be null");
+        this.queryCachePolicy = queryCachePolicy;
+        this.singleFlight = singleFlight;
+        this.resultCache = resultCache;
+        this.readRouting = readRouting;
+    }
+
+    /**
+     * Returns a copy of this executor that uses Hibernate's query cache for queries passing the policy.
+     * <p>
+     * Page and count queries of cacheable {@link JpaPaginationQuery} instances get the cacheable hint
+     * and the entity's region; other queries are not affected. The query cache must be enabled with
+     * {@code hibernate.cache.use_query_cache=true}.
+     * </p>
+     *
+     * @param policy the cacheability policy
+     * @return a new executor sharing this executor's settings
+     */
+    public JpaFilterExecutor<T> withQueryCache(final JpaQueryCachePolicy policy) {
+        return new JpaFilterExecutor<>(entityManager, domainClass, rowEstimator,
+                Objects.requireNonNull(policy, "policy must not be null"), singleFlight, resultCache, readRouting);
+    }
+
+    /**
+     * Returns a copy of this executor that coalesces identical concurrent page queries.
+     * <p>
+     * Paginated {@code findAll} calls are keyed on the entity, the filter fingerprint, the page, the sort,
+     * the count strategy, the projection or fetch plan and the enabled Hibernate session filters with their
+     * parameters (see {@link JpaSessionFilters}); while one call runs for a key, others wait for its page.
+     * Calls inside a read-write transaction run on their own, since their pages may hold uncommitted changes.
+     * </p>
+     * <p>
+     * Projection pages are always coalesced. Entity pages are coalesced only when the group has a
+     * {@link SingleFlight.Builder#copier(java.util.function.UnaryOperator) copier}: without one, waiters would
+     * share the leader's instances, which the leader's persistence context still manages, so lazy loads would
+     * run on another thread's session and the leader would flush any change a waiter makes. The copier must
+     * return detached copies, e.g., by mapping the page to DTOs or cloning each entity.
+     * </p>
+     *
+     * @param singleFlight the group shared by the executors of one endpoint
+     * @return a new executor sharing this executor's settings
+     */
+    public JpaFilterExecutor<T> withSingleFlight(final SingleFlight<String, FilterPage<?>> singleFlight) {
+        return new JpaFilterExecutor<>(entityManager, domainClass, rowEstimator, queryCachePolicy,
+                Objects.requireNonNull(singleFlight, "singleFlight must not be null"), resultCache, readRouting);
+    }
+
+    /**
+     * Returns a copy of this executor that caches projection pages until an entity they read changes.
+     * <p>
+     * Pages are keyed like coalesced calls, session filters included, so tenants restricted by
+     * {@code @RowLevelSecurity} never share an entry. They are tagged with the root entity and every entity
+     * reached by the filter, sort and projection paths. Entity pages are never cached, since managed instances
+     * cannot be shared between persistence contexts. Pages read inside a read-write transaction bypass the
+     * cache: they may contain flushed but uncommitted changes, which a rollback would leave cached, since
+     * versions are only bumped after commit.
+     * </p>
+     *
+     * @param resultCache the cache, whose versions are bumped by a
+     *                    {@link io.github.khezyapp.jpaspec.cache.JpaResultCacheInvalidator}
+     * @return a new executor sharing this executor's settings
+     */
+    public JpaFilterExecutor<T> withResultCache(final JpaResultCache resultCache) {
+        return new JpaFilterExecutor<>(entityManager, domainClass, rowEstimator, queryCachePolicy, singleFlight,
+                Objects.requireNonNull(resultCache, "resultCache must not be null"), readRouting);
+    }
+
+    /**
+     * Returns a copy of this executor that sends read-only page and count queries to read replicas.
+     * <p>
+     * Page queries (including collection loads) and count queries run under the routing's freshness bounds,
+     * so a {@link io.github.khezyapp.querysupport.ReplicaRoutingDataSource} behind the persistence unit
+     * hands them a fresh replica, or the primary once the thread has written. Routing happens when a
+     * connection is acquired: the persistence context must not hold one yet, which is the case outside
+     * transactions or when the data source is wrapped in Spring's {@code LazyConnectionDataSourceProxy}.
+     * </p>
+     *
+     * @param readRouting the freshness bounds of this endpoint
+     * @return a new executor sharing this executor's settings
+     */
+    public JpaFilterExecutor<T> withReadRouting(final ReadRouting readRouting) {
+        return new JpaFilterExecutor<>(entityManager, domainClass, rowEstimator, queryCachePolicy, singleFlight,
+                resultCache, Objects.requireNonNull(readRouting, "readRouting must not be null"));
+    }
+
+    /**
+     * Runs a paginated entity query.
+     * <p>
+     * The total is computed according to the query's {@link io.github.khezyapp.querysupport.CountStrategy}.
+     * </p>
+     *
+     * @param query the filter, pagination and count information
+     * @return a page of entities
+     */
+    public FilterPage<T> findAll(final JpaPaginationQuery<T> query) {
+        return findAll(query, JpaFetchPlan.of());
+    }
+
+    /**
+     * Runs a paginated query that selects only the paths of the given projection.
+     * <p>
+     * The total is computed according to the query's {@link io.github.khezyapp.querysupport.CountStrategy};
+     * the count query is skipped when the total can be derived from the page itself.
+     * </p>
+     *
+     * @param query      the filter and pagination information
+     * @param projection the projection to select and map into
+     * @param <R>        the projection result type
+     * @return a page of projected rows
+     */
+    public <R> FilterPage<R> findAll(final JpaPaginationQuery<T> query,
+                                     final JpaProjection<R> projection) {
+        final var select = "projection:" + projection.type().getName();
+        if (Objects.isNull(resultCache) || inReadWriteTransaction()) {
+            return coalesce(query, select, () -> selectPage(query, projection));
+        }
+        return resultCache.get(pageKey(query, select), tags(query, projection.paths()),
+                () -> coalesce(query, select, () -> selectPage(query, projection)));
+    }
+
+    /**
+     * Runs a paginated projection query without coalescing.
+     *
+     * @param query      the filter and pagination information
+     * @param projection the projection to select and map into
+     * @param <R>        the projection result type
+     * @return a page of projected rows
+     */
+    private <R> FilterPage<R> selectPage(final JpaPaginationQuery<T> query,
+                                         final JpaProjection<R> projection) {
+        final var pageable = query.getPageable();
+        final var rows = select(query.getSpecification(), projection, pageable, fetchLimit(query), cacheHints(query));
+        return toPage(rows, query);
+    }
+
+    /**
+     * Runs a paginated entity query and loads the associations declared by the fetch plan.
+     * <p>
+     * To-one paths are added to a load graph on the page query, so {@code book.author} arrives with
+     * the book row. Paths crossing a collection are loaded afterward with one {@code IN} query per path
+     * over the page identifiers; the loaded collections are attached to the same managed instances,
+     * which keeps pagination on root rows and avoids one query per row. To-one paths that the filter
+     * also joins are joined a second time for the load graph (see {@link JpaFetchPlan}).
+     * </p>
+     *
+     * @param query     the filter and pagination information
+     * @param fetchPlan the association paths needed by the caller
+     * @return a page of entities with the declared associations initialized
+     */
+    public FilterPage<T> findAll(final JpaPaginationQuery<T> query,
+                                 final JpaFetchPlan fetchPlan) {
+        if (Objects.isNull(singleFlight) || !singleFlight.copies()) {
+            return fetchPage(query, fetchPlan);
+        }
+        return coalesce(query, "entity:" + fetchPlan.paths(), () -> fetchPage(query, fetchPlan));
+    }
+
+    /**
+     * Runs a paginated entity query without coalescing.
+     *
+     * @param query     the filter and pagination information
+     * @param fetchPlan the association paths needed by the caller
+     * @return a page of entities
+     */
+    private FilterPage<T> fetchPage(final JpaPaginationQuery<T> query,
+                                    final JpaFetchPlan fetchPlan) {
+        final var pageable = query.getPageable();
+        final var spec = query.getSpecification();
+        final var resolved = fetchPlan.resolve(entityManager.getMetamodel(), domainClass);
+
+        final var cb = entityManager.getCriteriaBuilder();
+        final var criteria = cb.createQuery(domainClass);
+        final var root = criteria.from(domainClass);
+        applyWhere(spec, root, criteria, cb);
+        criteria.select(root);
+        if (pageable.getSort().isSorted()) {
+            criteria.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+
+        final var typedQuery = entityManager.createQuery(criteria);
+        applyHints(typedQuery, cacheHints(query));
+        if (!resolved.toOnePaths().isEmpty()) {
+            typedQuery.setHint(HINT_LOAD_GRAPH, resolved.toEntityGraph(entityManager, domainClass));
+        }
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(fetchLimit(query));
+        }
+
+        final var rows = routePage(typedQuery::getResultList);
+        final var page = toPage(rows, query);
+        if (resolved.hasToManyPaths() && page.hasContent()) {
+            routePage(() -> {
+                fetchCollections(page.getContent(), resolved.toManyPaths());
+                return null;
+            });
+        }
+        return page;
+    }
+
+    /**
+     * Runs a read-only tuple query selecting the projection paths.
+     * <p>
+     * The filter predicate is applied before the selection is built, so a projection path such as
+     * {@code author.name} reuses the join the filter already created. Paths that are not joined yet
+     * are joined with LEFT semantics to avoid dropping rows with empty associations.
+     * </p>
+     *
+     * @param spec       the filter specification
+     * @param projection the projection to select and map into
+     * @param pageable   the pagination and sorting information
+     * @param <R>        the projection result type
+     * @return the projected rows
+     */
+    public <R> List<R> findAll(final Specification<T> spec,
+                               final JpaProjection<R> projection,
+                               final Pageable pageable) {
+        return select(spec, projection, pageable, pageable.isPaged() ? pageable.getPageSize() : -1, Map.of());
+    }
+
+    /**
+     * Counts the rows matching the specification.
+     * <p>
+     * For grouped specifications the number of groups is returned.
+     * </p>
+     *
+     * @param spec the filter specification
+     * @return the number of matching rows or groups
+     */
+    public long count(final Specification<T> spec) {
+        return count(spec, Map.of());
+    }
+
+    /**
+     * Counts the rows (or groups) matching the specification, stopping after {@code limit} rows.
+     * <p>
+     * Only identifiers (or grouping keys) are selected, and at most {@code limit} of them are read.
+     * </p>
+     *
+     * @param spec  the filter specification
+     * @param limit the maximum number of rows to count
+     * @return the number of rows counted, never greater than {@code limit}
+     */
+    public long countUpTo(final Specification<T> spec,
+                          final long limit) {
+        return countUpTo(spec, limit, Map.of());
+    }
+
+    /**
+     * Counts the rows matching the specification, with extra query hints.
+     *
+     * @param spec  the filter specification
+     * @param hints the query hints to set
+     * @return the number of matching rows or groups
+     */
+    private long count(final Specification<T> spec,
+                       final Map<String, Object> hints) {
+        final var cb = entityManager.getCriteriaBuilder();
+        final var criteria = cb.createQuery(Long.class);
+        final var root = criteria.from(domainClass);
+        applyWhere(spec, root, criteria, cb);
+        criteria.select(criteria.isDistinct() ? cb.countDistinct(root) : cb.count(root));
+        criteria.orderBy(Collections.emptyList());
+
+        final var countQuery = entityManager.createQuery(criteria)
+                .setHint(HINT_READ_ONLY, true);
+        applyHints(countQuery, hints);
+        final var totals = routeCount(countQuery::getResultList);
+        if (!criteria.getGroupList().isEmpty()) {
+            return totals.size();
+        }
+        var total = 0L;
+        for (final var element : totals) {
+            total += Objects.requireNonNullElse(element, 0L);
+        }
+        return total;
+    }
+
+    /**
+     * Counts the rows matching the specification up to a limit, with extra query hints.
+     *
+     * @param spec  the filter specification
+     * @param limit the maximum number of rows to count
+     * @param hints the query hints to set
+     * @return the number of rows counted, never greater than {@code limit}
+     */
+    private long countUpTo(final Specification<T> spec,
+                           final long limit,
+                           final Map<String, Object> hints) {
+        final var cb = entityManager.getCriteriaBuilder();
+        final var criteria = cb.createTupleQuery();
+        final var root = criteria.from(domainClass);
+        applyWhere(spec, root, criteria, cb);
+        if (criteria.getGroupList().isEmpty()) {
+            criteria.multiselect(root.get(idAttributeName()));
+        } else {
+            criteria.multiselect(new ArrayList<Selection<?>>(criteria.getGroupList()));
+        }
+
+        final var typedQuery = entityManager.createQuery(criteria)
+                .setHint(HINT_READ_ONLY, true)
+                .setMaxResults((int) Math.min(limit, Integer.MAX_VALUE));
+        applyHints(typedQuery, hints);
+        return routeCount(typedQuery::getResultList).size();
+    }
+
+    /**
+     * Builds a page from fetched rows, applying the query's count strategy.
+     * <p>
+     * For probing strategies {@code rows} may hold one row more than the page size; that row only
+     * signals a next page and is dropped from the content.
+     * </p>
+     *
+     * @param rows  the fetched rows
+     * @param query the filter, pagination and count information
+     * @param <R>   the row type
+     * @return the page
+     */
+    protected <R> FilterPage<R> toPage(final List<R> rows,
+                                       final JpaPaginationQuery<T> query) {
+        final var pageable = query.getPageable();
+        final var spec = query.getSpecification();
+        final var strategy = query.getCountStrategy();
+        final var hints = cacheHints(query);
+        if (!strategy.probesNextPage() || pageable.isUnpaged()) {
+            final var page = PageableExecutionUtils.getPage(rows, pageable, () -> count(spec, hints));
+            return new FilterPage<>(rows, pageable, TotalCount.exact(page.getTotalElements()), page.hasNext());
+        }
+
+        final var hasNext = rows.size() > pageable.getPageSize();
+        final var content = hasNext ? rows.subList(0, pageable.getPageSize()) : rows;
+        // Without a next page the rows seen so far are the exact total, unless the page is past the end
+        final var total = hasNext || (content.isEmpty() && pageable.getOffset() > 0) ?
+                strategy.count(countKey(query), countSource(spec, hints)) :
+                TotalCount.exact(pageable.getOffset() + content.size());
+        return new FilterPage<>(content, pageable, total, hasNext);
+    }
+
+    /**
+     * Runs a read-only tuple query selecting the projection paths.
+     *
+     * @param spec       the filter specification
+     * @param projection the projection to select and map into
+     * @param pageable   the pagination and sorting information
+     * @param limit      the maximum number of rows, ignored when unpaged
+     * @param hints      extra query hints to set
+     * @param <R>        the projection result type
+     * @return the projected rows
+     */
+    private <R> List<R> select(final Specification<T> spec,
+                               final JpaProjection<R> projection,
+                               final Pageable pageable,
+                               final int limit,
+                               final Map<String, Object> hints) {
+        final var cb = entityManager.getCriteriaBuilder();
+        final var criteria = cb.createTupleQuery();
+        final var root = criteria.from(domainClass);
+        applyWhere(spec, root, criteria, cb);
+
+        final var selections = new ArrayList<Selection<?>>(projection.paths().size());
+        for (final var path : projection.paths()) {
+            selections.add(JpaPaths.resolve(root, path, JoinType.LEFT));
+        }
+        criteria.multiselect(selections);
+        if (pageable.getSort().isSorted()) {
+            criteria.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+
+        final var typedQuery = entityManager.createQuery(criteria)
+                .setHint(HINT_READ_ONLY, true);
+        applyHints(typedQuery, hints);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(limit);
+        }
+
+        final var tuples = routePage(typedQuery::getResultList);
+        final var results = new ArrayList<R>(tuples.size());
+        for (final var tuple : tuples) {
+            results.add(projection.map(tuple.toArray()));
+        }
+        return results;
+    }
+
+    /**
+     * Loads collection paths for already managed entities using batched {@code IN} queries.
+     *
+     * @param entities the managed entities of the current page
+     * @param paths    the dotted paths crossing a collection
+     */
+    private void fetchCollections(final List<T> entities,
+                                  final List<String> paths) {
+        final var idAttribute = idAttributeName();
+        final var unitUtil = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+        final var ids = entities.stream()
+                .map(unitUtil::getIdentifier)
+                .distinct()
+                .toList();
+        final var cb = entityManager.getCriteriaBuilder();
+        for (final var path : paths) {
+            for (var from = 0; from < ids.size(); from += IN_BATCH_SIZE) {
+                final var batch = ids.subList(from, Math.min(from + IN_BATCH_SIZE, ids.size()));
+                final var criteria = cb.createQuery(domainClass);
+                final var root = criteria.from(domainClass);
+                Fetch<?, ?> fetch = null;
+                for (final var segment : path.split("\\.")) {
+                    fetch = Objects.isNull(fetch) ?
+                            root.fetch(segment, jakarta.persistence.criteria.JoinType.LEFT) :
+                            fetch.fetch(segment, jakarta.persistence.criteria.JoinType.LEFT);
+                }
+                criteria.select(root)
+                        .distinct(true)
+                        .where(root.get(idAttribute).in(batch));
+                // Results are the same managed instances, now with the collection initialized
+                entityManager.createQuery(criteria).getResultList();
+            }
+        }
+    }
+
+    /**
+     * Runs page queries under the read routing, when one is configured.
+     *
+     * @param query the page queries
+     * @param <R>   the result type
+     * @return the result
+     */
+    private <R> R routePage(final Supplier<R> query) {
+        return Objects.isNull(readRouting) ? query.get() : readRouting.page(query);
+    }
+
+    /**
+     * Runs a count query under the read routing, when one is configured.
+     *
+     * @param query the count query
+     * @param <R>   the result type
+     * @return the result
+     */
+    private <R> R routeCount(final Supplier<R> query) {
+        return Objects.isNull(readRouting) ? query.get() : readRouting.count(query);
+    }
+
+    /**
+     * Gets the number of rows to fetch for the page, including the probe row when the strategy needs it.
+     *
+     * @param query the pagination query
+     * @return the row limit
+     */
+    private int fetchLimit(final JpaPaginationQuery<T> query) {
+        final var pageable = query.getPageable();
+        if (pageable.isUnpaged()) {
+            return -1;
+        }
+        return query.getCountStrategy().probesNextPage() ? pageable.getPageSize() + 1 : pageable.getPageSize();
+    }
+
+    /**
+     * Runs a page query through the single-flight group, when one is configured.
+     *
+     * @param query  the filter and pagination information
+     * @param select identifies what the page selects, part of the key
+     * @param loader runs the page query
+     * @param <R>    the row type
+     * @return the page
+     */
+    @SuppressWarnings("unchecked")
+    private <R> FilterPage<R> coalesce(final JpaPaginationQuery<T> query,
+                                       final String select,
+                                       final Supplier<FilterPage<R>> loader) {
+        if (Objects.isNull(singleFlight) || inReadWriteTransaction()) {
+            return loader.get();
+        }
+        return (FilterPage<R>) singleFlight.execute(pageKey(query, select), loader);
+    }
+
+    /**
+     * Checks whether the entity manager takes part in a transaction that may have flushed uncommitted changes.
+     * Spring's read-only transactions are trusted; any other joined transaction counts as read-write.
+     *
+     * @return {@code true} if pages read now must not be shared
+     */
+    private boolean inReadWriteTransaction() {
+        if (!entityManager.isJoinedToTransaction()) {
+            return false;
+        }
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    /**
+     * Builds the key identifying a page: entity, selection, filter fingerprint, page, sort, count mode and the
+     * session filters, which restrict rows (e.g., per tenant) without changing the fingerprint.
+     *
+     * @param query  the filter and pagination information
+     * @param select identifies what the page selects
+     * @return the page key
+     */
+    private String pageKey(final JpaPaginationQuery<T> query,
+                           final String select) {
+        final var pageable = query.getPageable();
+        return String.join("|", domainClass.getName(), select, query.getFingerprint(),
+                pageable.isPaged() ? pageable.getPageNumber() + "x" + pageable.getPageSize() : "unpaged",
+                pageable.getSort().toString(), query.getCountStrategy().mode().name(),
+                JpaSessionFilters.scope(entityManager));
+    }
+
+    /**
+     * Resolves the entities a page reads through its filter, sort and selected paths.
+     *
+     * @param query         the filter and pagination information
+     * @param selectedPaths the selected paths
+     * @return the entity classes to tag the page with
+     */
+    private Set<Class<?>> tags(final JpaPaginationQuery<T> query,
+                               final List<String> selectedPaths) {
+        final var paths = new LinkedHashSet<>(selectedPaths);
+        query.getSort().forEach(order -> paths.add(order.getProperty()));
+        if (query.getSpecification() instanceof FilterSpecification<?> filter) {
+            paths.addAll(SpecPaths.collect(filter.getAstRoot()));
+        }
+        return JpaEntityTags.resolve(entityManager.getMetamodel(), domainClass, paths);
+    }
+
+    /**
+     * Builds the cache key of a query: the entity type, the filter fingerprint and the session filters, so
+     * tenants restricted by {@code @RowLevelSecurity} never share a cached total.
+     *
+     * @param query the pagination query
+     * @return the count cache key
+     */
+    private String countKey(final JpaPaginationQuery<T> query) {
+        return String.join("|", domainClass.getName(), query.getFingerprint(), JpaSessionFilters.scope(entityManager));
+    }
+
+    /**
+     * Adapts this executor's count queries to the strategy contract.
+     *
+     * @param spec  the filter specification
+     * @param hints the query hints to set on count queries
+     * @return the count source
+     */
+    private CountSource countSource(final Specification<T> spec,
+                                    final Map<String, Object> hints) {
+        return new CountSource() {
+            @Override
+            public long exact() {
+                return count(spec, hints);
+            }
+
+            @Override
+            public long upTo(final long limit) {
+                return countUpTo(spec, limit, hints);
+            }
+
+            @Override
+            public OptionalLong estimate() {
+                return rowEstimator.estimate(entityManager, domainClass, spec);
+            }
+        };
+    }
+
+    /**
+     * Resolves the query cache hints of a query according to the cache policy.
+     *
+     * @param query the pagination query
+     * @return the hints, empty when the query is not cacheable
+     */
+    private Map<String, Object> cacheHints(final JpaPaginationQuery<T> query) {
+        if (Objects.isNull(queryCachePolicy) || !queryCachePolicy.isCacheable(query)) {
+            return Map.of();
+        }
+        return queryCachePolicy.hints(domainClass);
+    }
+
+    /**
+     * Sets every hint on the query.
+     *
+     * @param typedQuery the query
+     * @param hints      the hints to set
+     */
+    private static void applyHints(final TypedQuery<?> typedQuery,
+                                   final Map<String, Object> hints) {
+        hints.forEach(typedQuery::setHint);
+    }
+
+    /**
+     * Resolves the name of the identifier attribute of the root entity.
+     *
+     * @return the identifier attribute name
+     */
+    private String idAttributeName() {
+        return entityManager.getMetamodel()
+                .entity(domainClass)
+                .getSingularAttributes()
+                .stream()
+                .filter(SingularAttribute::isId)
+                .map(SingularAttribute::getName)
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No identifier attribute on " + domainClass.getName()));
+    }
+
+    /**
+     * Gets the entity manager backing this executor.
+     * @return the entity manager
+     */
+    protected EntityManager getEntityManager() {
+        return entityManager;
+    }
+
+    /**
+     * Gets the root entity class.
+     * @return the domain class
+     */
+    protected Class<T> getDomainClass() {
+        return domainClass;
+    }
+
+    /**
+     * Applies the specification predicate to the criteria query, if any.
+     *
+     * @param spec     the filter specification
+     * @param root     the query root
+     * @param criteria the criteria query
+     * @param cb       the criteria builder
+     */
+    protected void applyWhere(final Specification<T> spec,
+                              final Root<T> root,
+                              final CriteriaQuery<?> criteria,
+                              final CriteriaBuilder cb) {
+        if (Objects.isNull(spec)) {
+            return;
+        }
+        final var predicate = spec.toPredicate(root, criteria, cb);
+        if (Objects.nonNull(predicate)) {
+            criteria.where(predicate);
+        }
+    }
+}
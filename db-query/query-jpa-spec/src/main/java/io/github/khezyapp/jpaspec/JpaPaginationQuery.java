@@ -1,10 +1,14 @@
 package io.github.khezyapp.jpaspec;
 
 import io.github.khezyapp.grammar.ast.QuerySpec;
+import io.github.khezyapp.querysupport.CountStrategy;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.util.Objects;
+
 /**
  * Data transfer object that encapsulates JPA pagination, sorting, and filtering logic.
  * <p>
@@ -17,6 +21,7 @@ import org.springframework.data.jpa.domain.Specification;
 public class JpaPaginationQuery<T> {
     private final FilterSpecification<T> spec;
     private final Pageable pageable;
+    private final CountStrategy countStrategy;
 
     /**
      * Constructs a pagination query with a filter and paging configuration.
@@ -26,14 +31,66 @@ public class JpaPaginationQuery<T> {
      */
     public JpaPaginationQuery(final String filterQuery,
                               final Pageable pageable) {
-        this.spec = new FilterSpecification<>(filterQuery);
-        this.pageable = pageable;
+        this(filterQuery, pageable, CountStrategy.exact());
     }
 
     public JpaPaginationQuery(final QuerySpec querySpec,
                               final Pageable pageable) {
-        this.spec = new FilterSpecification<>(querySpec);
+        this(querySpec, pageable, CountStrategy.exact());
+    }
+
+    /**
+     * Constructs a pagination query with a filter, paging configuration and total-count strategy.
+     *
+     * @param filterQuery   the raw string-based filter query
+     * @param pageable      the pagination and sorting information
+     * @param countStrategy how the total number of rows is obtained
+     */
+    public JpaPaginationQuery(final String filterQuery,
+                              final Pageable pageable,
+                              final CountStrategy countStrategy) {
+        this(new FilterSpecification<>(filterQuery), pageable, countStrategy);
+    }
+
+    /**
+     * Constructs a pagination query from an AST with a total-count strategy.
+     *
+     * @param querySpec     the query specification
+     * @param pageable      the pagination and sorting information
+     * @param countStrategy how the total number of rows is obtained
+     */
+    public JpaPaginationQuery(final QuerySpec querySpec,
+                              final Pageable pageable,
+                              final CountStrategy countStrategy) {
+        this(new FilterSpecification<>(querySpec), pageable, countStrategy);
+    }
+
+    private JpaPaginationQuery(final FilterSpecification<T> spec,
+                               final Pageable pageable,
+                               final CountStrategy countStrategy) {
+        this.spec = spec;
         this.pageable = pageable;
+        this.countStrategy = Objects.requireNonNull(countStrategy, "countStrategy must not be null");
+    }
+
+    /**
+     * Returns a copy of this query using another total-count strategy.
+     *
+     * @param countStrategy how the total number of rows is obtained
+     * @return a new pagination query sharing the same filter and paging
+     */
+    public JpaPaginationQuery<T> withCountStrategy(final CountStrategy countStrategy) {
+        return new JpaPaginationQuery<>(spec, pageable, countStrategy);
+    }
+
+    /**
+     * Returns a copy of this query for another page with the same filter, size and sort.
+     *
+     * @param pageNumber the zero-based page index
+     * @return a new pagination query for the given page
+     */
+    public JpaPaginationQuery<T> withPage(final int pageNumber) {
+        return new JpaPaginationQuery<>(spec, PageRequest.of(pageNumber, getPageSize(), getSort()), countStrategy);
     }
 
     /**
@@ -44,6 +101,32 @@ public class JpaPaginationQuery<T> {
         return spec;
     }
 
+    /**
+     * Gets the strategy used to compute the total number of rows.
+     * @return the count strategy
+     */
+    public CountStrategy getCountStrategy() {
+        return countStrategy;
+    }
+
+    /**
+     * Gets the fingerprint of the filter, used to key cached counts.
+     * @return the filter fingerprint
+     */
+    public String getFingerprint() {
+        return spec.getFingerprint();
+    }
+
+    /**
+     * Gets a key identifying the filter, page size and sort but not the page number, so all pages of one
+     * listing share it (e.g., for {@link io.github.khezyapp.querysupport.PagePrefetcher}).
+     *
+     * @return the query key
+     */
+    public String getQueryKey() {
+        return getFingerprint() + "|" + (pageable.isPaged() ? pageable.getPageSize() : "unpaged") + "|" + getSort();
+    }
+
     /**
      * Gets the pagination information.
      * @return the pageable instance
@@ -0,0 +1,91 @@
+package io.github.khezyapp.jpaspec;
+
+import io.github.khezyapp.grammar.ast.JoinType;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Path;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Utility class for resolving dotted attribute paths against a JPA {@link From} node.
+ * <p>
+ * Every segment except the last one is treated as an association. Existing joins on the
+ * current node are reused before a new join is created, so filters, projections and fetch
+ * plans that share a path also share the same SQL join.
+ * </p>
+ */
+public final class JpaPaths {
+
+    private JpaPaths() {
+    }
+
+    /**
+     * Resolves a dot-separated path (e.g., "author.name") into a JPA {@link Path}.
+     *
+     * @param from     the node from which the path originates
+     * @param path     the dot-separated attribute path
+     * @param joinType the join type to apply when a new join is required
+     * @return the JPA path of the last segment
+     */
+    public static Path<?> resolve(final From<?, ?> from,
+                                  final String path,
+                                  final JoinType joinType) {
+        return resolve(from, Arrays.asList(path.split("\\.")), joinType);
+    }
+
+    /**
+     * Resolves path segments into a JPA {@link Path}, creating or reusing joins for nested segments.
+     *
+     * @param from     the node from which the path originates
+     * @param parts    the individual path segments
+     * @param joinType the join type to apply when a new join is required
+     * @return the JPA path of the last segment
+     */
+    public static Path<?> resolve(final From<?, ?> from,
+                                  final List<String> parts,
+                                  final JoinType joinType) {
+        final var owner = join(from, parts.subList(0, parts.size() - 1), joinType);
+        // The final segment is the attribute (column) name
+        return owner.get(parts.get(parts.size() - 1));
+    }
+
+    /**
+     * Walks the association segments, reusing an existing join for each segment when present.
+     *
+     * @param from     the node from which the walk starts
+     * @param parts    the association segments to join
+     * @param joinType the join type to apply when a new join is required
+     * @return the node reached after the last segment
+     */
+    public static From<?, ?> join(final From<?, ?> from,
+                                  final List<String> parts,
+                                  final JoinType joinType) {
+        From<?, ?> currentFrom = from;
+        for (final var part : parts) {
+            // Reuse existing join if already present for this segment
+            final var elseFrom = currentFrom;
+            currentFrom = currentFrom.getJoins()
+                    .stream()
+                    .filter(j -> j.getAttribute().getName().equals(part))
+                    .findFirst()
+                    .map(j -> (From<?, ?>) j)
+                    .orElseGet(() -> elseFrom.join(part, jpaJoin(joinType)));
+        }
+        return currentFrom;
+    }
+
+    /**
+     * Maps the custom {@link JoinType} to the JPA Criteria {@link jakarta.persistence.criteria.JoinType}.
+     *
+     * @param joinType the custom join type
+     * @return the JPA join type
+     */
+    public static jakarta.persistence.criteria.JoinType jpaJoin(final JoinType joinType) {
+        return switch (joinType) {
+            case LEFT -> jakarta.persistence.criteria.JoinType.LEFT;
+            case RIGHT -> jakarta.persistence.criteria.JoinType.RIGHT;
+            default -> jakarta.persistence.criteria.JoinType.INNER;
+        };
+    }
+}
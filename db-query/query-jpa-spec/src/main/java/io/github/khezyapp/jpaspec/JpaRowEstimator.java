@@ -0,0 +1,37 @@
+package io.github.khezyapp.jpaspec;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.OptionalLong;
+
+/**
+ * Supplies a planner row estimate for {@link io.github.khezyapp.querysupport.CountStrategy#estimated()}.
+ * <p>
+ * The JPA Criteria API does not expose the SQL it generates, so the estimate cannot be read portably
+ * (e.g., through {@code EXPLAIN}). Applications plug in a provider-specific implementation instead, for
+ * example one reading {@code pg_class.reltuples} for unfiltered lists. When the estimator returns
+ * empty, an exact count is used.
+ * </p>
+ */
+@FunctionalInterface
+public interface JpaRowEstimator {
+
+    /**
+     * Estimates the number of rows matching the specification.
+     *
+     * @param entityManager the entity manager of the executor
+     * @param domainClass   the root entity class
+     * @param spec          the filter specification
+     * @return the estimate, or empty when none is available
+     */
+    OptionalLong estimate(EntityManager entityManager, Class<?> domainClass, Specification<?> spec);
+
+    /**
+     * Returns an estimator that never provides an estimate.
+     * @return the no-op estimator
+     */
+    static JpaRowEstimator none() {
+        return (entityManager, domainClass, spec) -> OptionalLong.empty();
+    }
+}
@@ -0,0 +1,158 @@
+package io.github.khezyapp.jpaspec;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.SharedSessionContract;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Describes the Hibernate session filters enabled on an entity manager.
+ * <p>
+ * Session filters, such as the {@code tenantFilter} enabled by {@code @RowLevelSecurity}, change the rows a
+ * query returns without changing its text or its filter fingerprint. Keys of coalesced or cached pages include
+ * this scope so that callers with different filters never share a page. Without Hibernate on the classpath, or
+ * with another JPA provider, the scope is empty.
+ * </p>
+ * <p>
+ * Queries run on a session other than the caller's, such as the stateless session of an export, see none of the
+ * caller's filters. {@link #enabled(EntityManager)} captures them and {@link #enable(SharedSessionContract, Map)}
+ * enables them again on the other session.
+ * </p>
+ */
+public final class JpaSessionFilters {
+    private static final boolean HIBERNATE_PRESENT = isPresent(
+            "org.hibernate.engine.spi.SharedSessionContractImplementor");
+
+    private JpaSessionFilters() {
+    }
+
+    /**
+     * Describes the enabled filters and their parameter values, in a stable order.
+     *
+     * @param entityManager the entity manager the query runs on
+     * @return e.g., {@code tenantFilter(tenantId=1)}, or an empty string when no filter is enabled
+     */
+    public static String scope(final EntityManager entityManager) {
+        final var filters = enabled(entityManager);
+        final var scope = new ArrayList<String>(filters.size());
+        for (final var filter : filters.entrySet()) {
+            final var values = new ArrayList<String>();
+            for (final var parameter : filter.getValue().entrySet()) {
+                values.add(parameter.getKey() + "=" + format(parameter.getValue()));
+            }
+            scope.add(filter.getKey() + "(" + String.join(",", values) + ")");
+        }
+        return String.join(";", scope);
+    }
+
+    /**
+     * Captures the enabled filters and their parameter values, both sorted by name.
+     *
+     * @param entityManager the entity manager whose filters are captured
+     * @return filter name to parameter values, empty when no filter is enabled
+     */
+    public static Map<String, Map<String, Object>> enabled(final EntityManager entityManager) {
+        Objects.requireNonNull(entityManager, "entityManager must not be null");
+        if (!HIBERNATE_PRESENT) {
+            return Map.of();
+        }
+        return HibernateScope.of(entityManager);
+    }
+
+    /**
+     * Enables filters captured by {@link #enabled(EntityManager)} on another Hibernate session.
+     *
+     * @param session the session the query runs on, e.g., a {@code StatelessSession}
+     * @param filters filter name to parameter values
+     */
+    public static void enable(final SharedSessionContract session,
+                              final Map<String, Map<String, Object>> filters) {
+        Objects.requireNonNull(session, "session must not be null");
+        Objects.requireNonNull(filters, "filters must not be null");
+        for (final var filter : filters.entrySet()) {
+            final var enabled = session.enableFilter(filter.getKey());
+            for (final var parameter : filter.getValue().entrySet()) {
+                final var value = parameter.getValue();
+                if (value instanceof Collection<?> values) {
+                    enabled.setParameterList(parameter.getKey(), values);
+                } else if (value instanceof Object[] values) {
+                    enabled.setParameterList(parameter.getKey(), values);
+                } else {
+                    enabled.setParameter(parameter.getKey(), value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Formats a parameter value, including the elements of array values.
+     *
+     * @param value the value
+     * @return the text
+     */
+    private static String format(final Object value) {
+        if (value instanceof Object[] array) {
+            return Arrays.deepToString(array);
+        }
+        return String.valueOf(value);
+    }
+
+    /**
+     * Checks whether a class can be loaded.
+     *
+     * @param className the class name
+     * @return {@code true} if it is on the classpath
+     */
+    private static boolean isPresent(final String className) {
+        try {
+            Class.forName(className, false, JpaSessionFilters.class.getClassLoader());
+            return true;
+        } catch (final ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reads the filters from the Hibernate session; a separate class so Hibernate types load only when present.
+     */
+    private static final class HibernateScope {
+
+        private HibernateScope() {
+        }
+
+        /**
+         * Reads the filters enabled on the session behind an entity manager.
+         *
+         * @param entityManager the entity manager
+         * @return the filters, empty for other providers or without enabled filters
+         */
+        static Map<String, Map<String, Object>> of(final EntityManager entityManager) {
+            final SharedSessionContractImplementor session;
+            try {
+                session = entityManager.unwrap(SharedSessionContractImplementor.class);
+            } catch (final PersistenceException e) {
+                return Map.of();
+            }
+            final var influencers = session.getLoadQueryInfluencers();
+            final var filters = new LinkedHashMap<String, Map<String, Object>>();
+            for (final var filter : new TreeMap<>(influencers.getEnabledFilters()).entrySet()) {
+                final var values = new LinkedHashMap<String, Object>();
+                for (final var parameter : new TreeSet<>(filter.getValue().getFilterDefinition().getParameterNames())) {
+                    values.put(parameter, influencers.getFilterParameterValue(filter.getKey() + "." + parameter));
+                }
+                filters.put(filter.getKey(), Collections.unmodifiableMap(values));
+            }
+            return Collections.unmodifiableMap(filters);
+        }
+    }
+}
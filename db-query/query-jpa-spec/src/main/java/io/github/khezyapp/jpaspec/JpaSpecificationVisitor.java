@@ -220,23 +220,8 @@ public class JpaSpecificationVisitor<T> implements SpecificationVisitor<Predicat
      */
     private Path<?> getPath(final PathOperand path,
                             final JoinType joinType) {
-        final var parts = path.identifiers();
-        From<?, ?> currentFrom = root; // 'root' is the starting point
-
-        for (var i = 0; i < parts.size() - 1; i++) {
-            String part = parts.get(i);
-            // Reuse existing join if already present for this segment
-            final var elseFrom = currentFrom;
-            currentFrom = currentFrom.getJoins()
-                    .stream()
-                    .filter(j -> j.getAttribute().getName().equals(part))
-                    .findFirst()
-                    .map(j -> (From<?, ?>) j)
-                    .orElseGet(() -> elseFrom.join(part, jpaJoin(joinType)));
-        }
-
-        // The final segment is the attribute (column) name
-        return currentFrom.get(parts.get(parts.size() - 1));
+        // 'root' is the starting point, joins are reused per segment
+        return JpaPaths.resolve(root, path.identifiers(), joinType);
     }
 
     /**
@@ -254,6 +239,7 @@ public class JpaSpecificationVisitor<T> implements SpecificationVisitor<Predicat
             case AVG -> cb.avg((Expression<? extends Number>) getPath(agg.path(), joinType));
             case MIN -> cb.min((Expression<? extends Number>) getPath(agg.path(), joinType));
             case MAX -> cb.max((Expression<? extends Number>) getPath(agg.path(), joinType));
+            case COUNT_DISTINCT_APPROX -> cb.countDistinct(getPath(agg.path(), joinType));
         };
     }
 
@@ -272,18 +258,4 @@ public class JpaSpecificationVisitor<T> implements SpecificationVisitor<Predicat
             return getOperand(operand, joinType);
         }
     }
-
-    /**
-     * Maps the custom {@link JoinType} to the JPA Criteria {@link jakarta.persistence.criteria.JoinType}.
-     *
-     * @param joinType the custom join type
-     * @return the JPA join type
-     */
-    private jakarta.persistence.criteria.JoinType jpaJoin(final JoinType joinType) {
-        return switch (joinType) {
-            case LEFT -> jakarta.persistence.criteria.JoinType.LEFT;
-            case RIGHT -> jakarta.persistence.criteria.JoinType.RIGHT;
-            default -> jakarta.persistence.criteria.JoinType.INNER;
-        };
-    }
 }
@@ -0,0 +1,42 @@
+package io.github.khezyapp.jpaspec.cache;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-entity version counters used to invalidate cached results without scanning the cache.
+ * <p>
+ * A cached result is stored under a key that embeds the current version of every entity it depends on.
+ * Bumping a version makes all such keys unreachable at once; the stale entries are dropped later when
+ * they expire or the cache fills up. Bumping an entity also bumps its superclasses, so a query on a
+ * base entity sees changes to its subclasses.
+ * </p>
+ */
+public final class EntityVersions {
+    private final Map<Class<?>, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the current version of an entity.
+     *
+     * @param entityClass the entity class
+     * @return the version, zero until the entity is first changed
+     */
+    public long current(final Class<?> entityClass) {
+        final var version = versions.get(Objects.requireNonNull(entityClass, "entityClass must not be null"));
+        return Objects.isNull(version) ? 0L : version.get();
+    }
+
+    /**
+     * Marks an entity, and its superclasses, as changed.
+     *
+     * @param entityClass the changed entity class
+     */
+    public void bump(final Class<?> entityClass) {
+        Objects.requireNonNull(entityClass, "entityClass must not be null");
+        for (Class<?> type = entityClass; Objects.nonNull(type) && type != Object.class; type = type.getSuperclass()) {
+            versions.computeIfAbsent(type, t -> new AtomicLong()).incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.khezyapp.jpaspec.cache;
+
+import org.hibernate.event.spi.AbstractCollectionEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Helpers for the collection events of Hibernate, which fire during flush rather than after commit.
+ * <p>
+ * Hibernate has no post-commit collection events. A change to a collection alone, such as adding a row to a
+ * join table, fires a {@code POST_COLLECTION_*} event while the transaction is still open, so the reaction is
+ * deferred to an after-completion process of the session's action queue and runs only if the transaction
+ * commits.
+ * </p>
+ */
+final class JpaCollectionEvents {
+
+    private JpaCollectionEvents() {
+    }
+
+    /**
+     * Runs an action once the transaction of the event commits; nothing runs after a rollback.
+     *
+     * @param event  the collection event
+     * @param action the action to run after commit
+     */
+    static void afterCommit(final AbstractCollectionEvent event,
+                            final Runnable action) {
+        event.getSession().getActionQueue().registerProcess((success, session) -> {
+            if (success) {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Gets the entity class owning the changed collection.
+     *
+     * @param event the collection event
+     * @return the owner class, or {@code null} when Hibernate does not know the owner
+     */
+    static Class<?> ownerClass(final AbstractCollectionEvent event) {
+        final var ownerName = event.getAffectedOwnerEntityName();
+        if (Objects.isNull(ownerName)) {
+            return null;
+        }
+        return event.getSession().getFactory().getMappingMetamodel().getEntityDescriptor(ownerName).getMappedClass();
+    }
+
+    /**
+     * Gets the tables written by the changed collection, such as its join table or the child table.
+     *
+     * @param event the collection event
+     * @return the table names
+     */
+    static List<String> tables(final AbstractCollectionEvent event) {
+        final var role = event.getCollection().getRole();
+        final var tables = new ArrayList<String>();
+        for (final Object space : event.getSession().getFactory().getMappingMetamodel()
+                .getCollectionDescriptor(role).getCollectionSpaces()) {
+            tables.add(String.valueOf(space));
+        }
+        return tables;
+    }
+}
@@ -0,0 +1,100 @@
+package io.github.khezyapp.jpaspec.cache;
+
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.PluralAttribute;
+import jakarta.persistence.metamodel.SingularAttribute;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Utility class resolving the entities a query reads, used to tag cached results.
+ * <p>
+ * The root entity is always included. Each dotted path is walked against the metamodel and every entity
+ * reached through an association (e.g., {@code Author} for {@code author.name}) is added; embeddables are
+ * walked through but not tagged. Unknown segments end the walk, so a path the metamodel cannot resolve
+ * never fails a query.
+ * </p>
+ */
+public final class JpaEntityTags {
+
+    private JpaEntityTags() {
+    }
+
+    /**
+     * Resolves the entities read through the given paths.
+     *
+     * @param metamodel   the JPA metamodel
+     * @param domainClass the root entity class
+     * @param paths       the dotted paths used by filter, sort and selection
+     * @return an unmodifiable set of entity classes, root first
+     */
+    public static Set<Class<?>> resolve(final Metamodel metamodel,
+                                        final Class<?> domainClass,
+                                        final Collection<String> paths) {
+        final var tags = new LinkedHashSet<Class<?>>();
+        tags.add(domainClass);
+        for (final var path : paths) {
+            ManagedType<?> current = metamodel.managedType(domainClass);
+            for (final var segment : path.split("\\.")) {
+                final var attribute = findAttribute(current, segment);
+                if (Objects.isNull(attribute)) {
+                    break;
+                }
+                final var target = targetType(attribute);
+                if (Objects.isNull(target)) {
+                    break;
+                }
+                final ManagedType<?> next;
+                try {
+                    next = metamodel.managedType(target);
+                } catch (final IllegalArgumentException e) {
+                    break;
+                }
+                if (next instanceof EntityType<?>) {
+                    tags.add(target);
+                }
+                current = next;
+            }
+        }
+        return Set.copyOf(tags);
+    }
+
+    /**
+     * Looks up an attribute without failing on unknown names.
+     *
+     * @param type the managed type
+     * @param name the attribute name
+     * @return the attribute, or {@code null} if absent
+     */
+    private static Attribute<?, ?> findAttribute(final ManagedType<?> type,
+                                                 final String name) {
+        try {
+            return type.getAttribute(name);
+        } catch (final IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Gets the class an association or embedded attribute leads to.
+     *
+     * @param attribute the attribute
+     * @return the target class, or {@code null} for basic attributes
+     */
+    private static Class<?> targetType(final Attribute<?, ?> attribute) {
+        if (attribute instanceof PluralAttribute<?, ?, ?> plural) {
+            return plural.getElementType().getJavaType();
+        }
+        if (attribute.isAssociation()
+                || attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.EMBEDDED) {
+            return ((SingularAttribute<?, ?>) attribute).getType().getJavaType();
+        }
+        return null;
+    }
+}
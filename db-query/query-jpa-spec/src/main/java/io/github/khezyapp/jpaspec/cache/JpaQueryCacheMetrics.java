@@ -0,0 +1,80 @@
+package io.github.khezyapp.jpaspec.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.ToLongFunction;
+
+/**
+ * Exports hit, miss and put counts of the per-entity query cache regions to Micrometer.
+ * <p>
+ * Counts are read from Hibernate statistics, which must be enabled with
+ * {@code hibernate.generate_statistics=true}. Regions that have not been created yet report zero.
+ * </p>
+ */
+public class JpaQueryCacheMetrics implements MeterBinder {
+    /**
+     * Name of the exported counter.
+     */
+    public static final String METRIC_NAME = "filter.query.cache";
+
+    private final Statistics statistics;
+    private final JpaQueryCachePolicy policy;
+    private final List<Class<?>> domainClasses;
+
+    /**
+     * Constructs a binder for the regions of the given entities.
+     *
+     * @param entityManagerFactory the factory backed by Hibernate
+     * @param policy               the policy naming the regions
+     * @param domainClasses        the entities whose regions are exported
+     */
+    public JpaQueryCacheMetrics(final EntityManagerFactory entityManagerFactory,
+                                final JpaQueryCachePolicy policy,
+                                final List<Class<?>> domainClasses) {
+        Objects.requireNonNull(entityManagerFactory, "entityManagerFactory must not be null");
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.policy = Objects.requireNonNull(policy, "policy must not be null");
+        this.domainClasses = List.copyOf(domainClasses);
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        for (final var domainClass : domainClasses) {
+            final var region = policy.regionFor(domainClass);
+            final var tags = Tags.of("region", region, "entity", domainClass.getSimpleName());
+            register(registry, region, tags.and("result", "hit"), CacheRegionStatistics::getHitCount);
+            register(registry, region, tags.and("result", "miss"), CacheRegionStatistics::getMissCount);
+            register(registry, region, tags.and("result", "put"), CacheRegionStatistics::getPutCount);
+        }
+    }
+
+    /**
+     * Registers one counter reading a region statistic.
+     *
+     * @param registry the meter registry
+     * @param region   the region name
+     * @param tags     the counter tags
+     * @param reader   reads the statistic from the region
+     */
+    private void register(final MeterRegistry registry,
+                          final String region,
+                          final Tags tags,
+                          final ToLongFunction<CacheRegionStatistics> reader) {
+        FunctionCounter.builder(METRIC_NAME, statistics, s -> {
+                    final var regionStatistics = s.getQueryRegionStatistics(region);
+                    return Objects.isNull(regionStatistics) ? 0 : reader.applyAsLong(regionStatistics);
+                })
+                .tags(tags)
+                .description("Query cache requests of filter queries")
+                .register(registry);
+    }
+}
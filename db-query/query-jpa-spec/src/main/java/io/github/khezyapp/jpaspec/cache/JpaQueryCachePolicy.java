@@ -0,0 +1,182 @@
+package io.github.khezyapp.jpaspec.cache;
+
+import io.github.khezyapp.grammar.support.SpecFingerprints;
+import io.github.khezyapp.grammar.support.SpecPaths;
+import io.github.khezyapp.jpaspec.FilterSpecification;
+import io.github.khezyapp.jpaspec.JpaPaginationQuery;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Decides which filter queries may use Hibernate's second-level query cache, and in which region.
+ * <p>
+ * A query is cacheable when its page size is bounded and neither its filter nor its sort references a
+ * volatile path (a column that changes often, such as a stock level or a "last seen" timestamp). Each
+ * entity gets its own region, {@code <regionPrefix><entity class name>}, so regions can be sized and
+ * monitored separately.
+ * </p>
+ * <p>
+ * Hibernate keys query cache entries by the generated SQL and its bind values, which are derived
+ * deterministically from the filter AST and the page; {@link #cacheKey(JpaPaginationQuery)} exposes the
+ * same identity as a compact fingerprint for logging and diagnostics. Entries are invalidated by
+ * Hibernate when any table of the query is written. Entity results are cached as identifiers, so
+ * the entity itself should be {@code @Cacheable}; projections are cached as values.
+ * </p>
+ */
+public final class JpaQueryCachePolicy {
+    /**
+     * Hibernate hint enabling the query cache for a query.
+     */
+    public static final String HINT_CACHEABLE = "org.hibernate.cacheable";
+
+    /**
+     * Hibernate hint selecting the query cache region.
+     */
+    public static final String HINT_CACHE_REGION = "org.hibernate.cacheRegion";
+
+    private final Set<String> volatilePaths;
+    private final int maxPageSize;
+    private final String regionPrefix;
+
+    private JpaQueryCachePolicy(final Builder builder) {
+        this.volatilePaths = Set.copyOf(builder.volatilePaths);
+        this.maxPageSize = builder.maxPageSize;
+        this.regionPrefix = Objects.requireNonNull(builder.regionPrefix, "regionPrefix must not be null");
+        if (maxPageSize < 1) {
+            throw new IllegalArgumentException("Maximum cacheable page size must not be less than one");
+        }
+    }
+
+    /**
+     * Creates a builder with default settings (page size up to 100, region prefix "filter.").
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Checks whether the query passes the policy.
+     *
+     * @param query the pagination query
+     * @return {@code true} if the query may be cached
+     */
+    public boolean isCacheable(final JpaPaginationQuery<?> query) {
+        final var pageable = query.getPageable();
+        if (pageable.isUnpaged() || pageable.getPageSize() > maxPageSize) {
+            return false;
+        }
+        for (final var order : pageable.getSort()) {
+            if (isVolatile(order.getProperty())) {
+                return false;
+            }
+        }
+        final var spec = query.getSpecification();
+        if (spec instanceof FilterSpecification<?> filter) {
+            return SpecPaths.collect(filter.getAstRoot())
+                    .stream()
+                    .noneMatch(this::isVolatile);
+        }
+        return false;
+    }
+
+    /**
+     * Gets the query cache region used for an entity.
+     *
+     * @param domainClass the root entity class
+     * @return the region name
+     */
+    public String regionFor(final Class<?> domainClass) {
+        return regionPrefix + domainClass.getName();
+    }
+
+    /**
+     * Builds the query hints enabling the cache in the entity's region.
+     *
+     * @param domainClass the root entity class
+     * @return the hints to set on the query
+     */
+    public Map<String, Object> hints(final Class<?> domainClass) {
+        return Map.of(
+                HINT_CACHEABLE, true,
+                HINT_CACHE_REGION, regionFor(domainClass)
+        );
+    }
+
+    /**
+     * Computes a stable fingerprint of the filter and the page it requests.
+     *
+     * @param query the pagination query
+     * @return the hex-encoded fingerprint
+     */
+    public String cacheKey(final JpaPaginationQuery<?> query) {
+        final var pageable = query.getPageable();
+        final var page = pageable.isPaged() ?
+                pageable.getPageNumber() + "/" + pageable.getPageSize() : "unpaged";
+        return SpecFingerprints.of(query.getFingerprint() + "|" + page + "|" + pageable.getSort());
+    }
+
+    /**
+     * Checks whether a path is, or lies under, a volatile path.
+     *
+     * @param path the dotted path
+     * @return {@code true} if volatile
+     */
+    private boolean isVolatile(final String path) {
+        for (final var volatilePath : volatilePaths) {
+            if (path.equals(volatilePath) || path.startsWith(volatilePath + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Fluent builder for {@link JpaQueryCachePolicy}.
+     */
+    public static final class Builder {
+        private Set<String> volatilePaths = Set.of();
+        private int maxPageSize = 100;
+        private String regionPrefix = "filter.";
+
+        /**
+         * Sets the paths whose presence in a filter or sort disables caching.
+         * @param volatilePaths dotted paths; a path also covers its nested paths
+         * @return the builder instance
+         */
+        public Builder volatilePaths(final Set<String> volatilePaths) {
+            this.volatilePaths = volatilePaths;
+            return this;
+        }
+
+        /**
+         * Sets the largest page size that may be cached.
+         * @param maxPageSize the maximum page size
+         * @return the builder instance
+         */
+        public Builder maxPageSize(final int maxPageSize) {
+            this.maxPageSize = maxPageSize;
+            return this;
+        }
+
+        /**
+         * Sets the prefix of the per-entity query cache regions.
+         * @param regionPrefix the region prefix
+         * @return the builder instance
+         */
+        public Builder regionPrefix(final String regionPrefix) {
+            this.regionPrefix = regionPrefix;
+            return this;
+        }
+
+        /**
+         * Builds the policy.
+         * @return the configured policy
+         */
+        public JpaQueryCachePolicy build() {
+            return new JpaQueryCachePolicy(this);
+        }
+    }
+}
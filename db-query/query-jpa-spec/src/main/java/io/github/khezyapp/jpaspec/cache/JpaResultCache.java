@@ -0,0 +1,228 @@
+package io.github.khezyapp.jpaspec.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * In-memory cache of filter query results, invalidated when an entity they read is changed.
+ * <p>
+ * Each result is tagged with the entities it depends on and stored together with a version stamp made of
+ * their current {@link EntityVersions}. A lookup whose stamp no longer matches is a miss and replaces the
+ * entry, so invalidating an entity is a single counter increment however many results it affects. The stamp
+ * is taken before the loader runs: a result loaded while a change commits is stored under the old stamp and
+ * never served afterward.
+ * </p>
+ * <p>
+ * Versions are bumped by {@link JpaResultCacheInvalidator} after commit. Changes it cannot see, such as bulk
+ * JPQL updates, native SQL or writes from other instances, are bounded only by the time-to-live unless
+ * {@link #invalidate(Class)} is called.
+ * </p>
+ */
+public final class JpaResultCache {
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final EntityVersions versions;
+    private final Duration ttl;
+    private final int maxEntries;
+    private final Clock clock;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private JpaResultCache(final Builder builder) {
+        this.versions = Objects.requireNonNull(builder.versions, "versions must not be null");
+        this.ttl = Objects.requireNonNull(builder.ttl, "ttl must not be null");
+        this.clock = Objects.requireNonNull(builder.clock, "clock must not be null");
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Result cache TTL must be positive");
+        }
+        if (builder.maxEntries < 1) {
+            throw new IllegalArgumentException("Result cache size must not be less than one");
+        }
+        this.maxEntries = builder.maxEntries;
+    }
+
+    /**
+     * Creates a builder with default settings (new version counters, 5 minute TTL, 10000 entries).
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the cached result for the key, loading and storing it when absent, expired or invalidated.
+     *
+     * @param key    identifies the query and page
+     * @param tags   the entities the result depends on
+     * @param loader runs the query on a miss
+     * @param <V>    the result type
+     * @return the result
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V get(final String key,
+                     final Collection<Class<?>> tags,
+                     final Supplier<? extends V> loader) {
+        Objects.requireNonNull(key, "key must not be null");
+        final var stamp = stamp(tags);
+        final var now = clock.millis();
+        final var cached = entries.get(key);
+        if (Objects.nonNull(cached) && cached.expiresAt() > now && cached.stamp().equals(stamp)) {
+            hits.increment();
+            return (V) cached.value();
+        }
+
+        misses.increment();
+        final V value = loader.get();
+        if (entries.size() >= maxEntries) {
+            purge(now);
+        }
+        entries.put(key, new Entry(value, stamp, now + ttl.toMillis()));
+        return value;
+    }
+
+    /**
+     * Invalidates every result tagged with the entity or one of its subclasses.
+     * @param entityClass the changed entity class
+     */
+    public void invalidate(final Class<?> entityClass) {
+        versions.bump(entityClass);
+    }
+
+    /**
+     * Gets the version counters this cache stamps its entries with.
+     * @return the version counters
+     */
+    public EntityVersions versions() {
+        return versions;
+    }
+
+    /**
+     * Removes all cached results.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Gets the number of cached results, including stale ones not yet replaced or purged.
+     * @return the number of entries
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the number of lookups served from the cache.
+     * @return the hit count
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of lookups that ran the query.
+     * @return the miss count
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Builds the version stamp of a set of tags, in a stable order.
+     *
+     * @param tags the entity classes
+     * @return the stamp
+     */
+    private String stamp(final Collection<Class<?>> tags) {
+        final var sb = new StringBuilder();
+        tags.stream()
+                .sorted(Comparator.comparing(Class::getName))
+                .forEach(tag -> sb.append(tag.getName()).append('@').append(versions.current(tag)).append(';'));
+        return sb.toString();
+    }
+
+    /**
+     * Drops expired entries, or everything if the cache is still full afterwards.
+     * @param now the current time in milliseconds
+     */
+    private void purge(final long now) {
+        entries.values().removeIf(e -> e.expiresAt() <= now);
+        if (entries.size() >= maxEntries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Cached result with its version stamp and expiry time.
+     *
+     * @param value     the result
+     * @param stamp     the tag versions the result was loaded at
+     * @param expiresAt the expiry time in epoch milliseconds
+     */
+    private record Entry(Object value, String stamp, long expiresAt) {
+    }
+
+    /**
+     * Fluent builder for {@link JpaResultCache}.
+     */
+    public static final class Builder {
+        private EntityVersions versions = new EntityVersions();
+        private Duration ttl = Duration.ofMinutes(5);
+        private int maxEntries = 10_000;
+        private Clock clock = Clock.systemUTC();
+
+        /**
+         * Sets the version counters, shared with the {@link JpaResultCacheInvalidator}.
+         * @param versions the version counters
+         * @return the builder instance
+         */
+        public Builder versions(final EntityVersions versions) {
+            this.versions = versions;
+            return this;
+        }
+
+        /**
+         * Sets how long a result stays valid when no change invalidates it.
+         * @param ttl the time-to-live
+         * @return the builder instance
+         */
+        public Builder ttl(final Duration ttl) {
+            this.ttl = ttl;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of cached results.
+         * @param maxEntries the size limit
+         * @return the builder instance
+         */
+        public Builder maxEntries(final int maxEntries) {
+            this.maxEntries = maxEntries;
+            return this;
+        }
+
+        /**
+         * Sets the clock used to expire results.
+         * @param clock the clock
+         * @return the builder instance
+         */
+        public Builder clock(final Clock clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        /**
+         * Builds the cache.
+         * @return the configured cache
+         */
+        public JpaResultCache build() {
+            return new JpaResultCache(this);
+        }
+    }
+}
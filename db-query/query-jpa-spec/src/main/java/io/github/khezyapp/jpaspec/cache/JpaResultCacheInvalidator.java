@@ -0,0 +1,138 @@
+package io.github.khezyapp.jpaspec.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.util.Objects;
+
+/**
+ * Hibernate listener that bumps {@link EntityVersions} for the entities a transaction changed.
+ * <p>
+ * Inserted, updated and removed entities, and owners of changed collections, have their versions bumped only
+ * once the transaction has committed, so a rolled-back change invalidates nothing and no reader can cache
+ * pre-commit data under the new version. Listeners are appended to the session factory's event registry, so
+ * they work next to any registered interceptor, such as the one of entity auditing. Bulk JPQL and native SQL
+ * statements fire no events and must be followed by {@link EntityVersions#bump(Class)}.
+ * </p>
+ */
+public class JpaResultCacheInvalidator implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener, PostCollectionRecreateEventListener, PostCollectionUpdateEventListener,
+        PostCollectionRemoveEventListener {
+    private final EntityVersions versions;
+
+    /**
+     * Constructs an invalidator bumping the given counters.
+     * @param versions the version counters shared with the result caches
+     */
+    public JpaResultCacheInvalidator(final EntityVersions versions) {
+        this.versions = Objects.requireNonNull(versions, "versions must not be null");
+    }
+
+    /**
+     * Creates an invalidator and appends it to the entity post-commit and collection events of a Hibernate
+     * session factory.
+     *
+     * @param entityManagerFactory the factory backed by Hibernate
+     * @param versions             the version counters shared with the result caches
+     * @return the registered invalidator
+     */
+    public static JpaResultCacheInvalidator register(final EntityManagerFactory entityManagerFactory,
+                                                     final EntityVersions versions) {
+        final var listener = new JpaResultCacheInvalidator(versions);
+        final var registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+        registry.appendListeners(EventType.POST_COLLECTION_RECREATE, listener);
+        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COLLECTION_REMOVE, listener);
+        return listener;
+    }
+
+    @Override
+    public void onPostInsert(final PostInsertEvent event) {
+        bump(event.getPersister());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(final PostInsertEvent event) {
+        // nothing was committed
+    }
+
+    @Override
+    public void onPostUpdate(final PostUpdateEvent event) {
+        bump(event.getPersister());
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(final PostUpdateEvent event) {
+        // nothing was committed
+    }
+
+    @Override
+    public void onPostDelete(final PostDeleteEvent event) {
+        bump(event.getPersister());
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(final PostDeleteEvent event) {
+        // nothing was committed
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(final EntityPersister persister) {
+        return true;
+    }
+
+    @Override
+    public void onPostRecreateCollection(final PostCollectionRecreateEvent event) {
+        bumpOwner(event);
+    }
+
+    @Override
+    public void onPostUpdateCollection(final PostCollectionUpdateEvent event) {
+        bumpOwner(event);
+    }
+
+    @Override
+    public void onPostRemoveCollection(final PostCollectionRemoveEvent event) {
+        bumpOwner(event);
+    }
+
+    /**
+     * Bumps the version of a written entity's class.
+     * @param persister the entity persister
+     */
+    private void bump(final EntityPersister persister) {
+        versions.bump(persister.getMappedClass());
+    }
+
+    /**
+     * Bumps the version of the owner of a changed collection once the transaction commits.
+     * @param event the collection event
+     */
+    private void bumpOwner(final AbstractCollectionEvent event) {
+        final var owner = JpaCollectionEvents.ownerClass(event);
+        if (Objects.nonNull(owner)) {
+            JpaCollectionEvents.afterCommit(event, () -> versions.bump(owner));
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package io.github.khezyapp.jpaspec.cache;
+
+import io.github.khezyapp.querysupport.TableVersions;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Hibernate listener that bumps {@link TableVersions} for the tables of every written entity and collection.
+ * <p>
+ * Listeners are appended to the session factory's event registry, so they work next to any registered
+ * interceptor. Versions are bumped only after the transaction commits. A change to a collection alone, such as
+ * a row added to a join table, bumps the collection's tables and the tables of its owner, so a query keyed by
+ * {@link #tablesOf(EntityManagerFactory, Class[])} of the owner sees it. Bulk JPQL and native SQL statements
+ * fire no events; report them with {@link TableVersions#bump(String)}.
+ * </p>
+ */
+public class JpaTableVersionListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener, PostCollectionRecreateEventListener, PostCollectionUpdateEventListener,
+        PostCollectionRemoveEventListener {
+    private final TableVersions versions;
+
+    /**
+     * Constructs a listener bumping the given counters.
+     * @param versions the table counters
+     */
+    public JpaTableVersionListener(final TableVersions versions) {
+        this.versions = Objects.requireNonNull(versions, "versions must not be null");
+    }
+
+    /**
+     * Creates a listener and appends it to the entity post-commit and collection events of a Hibernate session
+     * factory.
+     *
+     * @param entityManagerFactory the factory backed by Hibernate
+     * @param versions             the table counters
+     * @return the registered listener
+     */
+    public static JpaTableVersionListener register(final EntityManagerFactory entityManagerFactory,
+                                                   final TableVersions versions) {
+        final var listener = new JpaTableVersionListener(versions);
+        final var registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+        registry.appendListeners(EventType.POST_COLLECTION_RECREATE, listener);
+        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COLLECTION_REMOVE, listener);
+        return listener;
+    }
+
+    /**
+     * Gets the tables an entity is stored in, including inherited and secondary tables.
+     *
+     * @param entityManagerFactory the factory backed by Hibernate
+     * @param entityClasses        the entity classes a query reads
+     * @return the table names, as bumped by this listener
+     */
+    public static List<String> tablesOf(final EntityManagerFactory entityManagerFactory,
+                                        final Class<?>... entityClasses) {
+        final var metamodel = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getMappingMetamodel();
+        final var tables = new ArrayList<String>();
+        for (final var entityClass : entityClasses) {
+            for (final Object space : metamodel.getEntityDescriptor(entityClass).getPropertySpaces()) {
+                tables.add(String.valueOf(space));
+            }
+        }
+        return List.copyOf(tables);
+    }
+
+    @Override
+    public void onPostInsert(final PostInsertEvent event) {
+        bump(event.getPersister());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(final PostInsertEvent event) {
+        // nothing was committed
+    }
+
+    @Override
+    public void onPostUpdate(final PostUpdateEvent event) {
+        bump(event.getPersister());
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(final PostUpdateEvent event) {
+        // nothing was committed
+    }
+
+    @Override
+    public void onPostDelete(final PostDeleteEvent event) {
+        bump(event.getPersister());
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(final PostDeleteEvent event) {
+        // nothing was committed
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(final EntityPersister persister) {
+        return true;
+    }
+
+    @Override
+    public void onPostRecreateCollection(final PostCollectionRecreateEvent event) {
+        bumpCollection(event);
+    }
+
+    @Override
+    public void onPostUpdateCollection(final PostCollectionUpdateEvent event) {
+        bumpCollection(event);
+    }
+
+    @Override
+    public void onPostRemoveCollection(final PostCollectionRemoveEvent event) {
+        bumpCollection(event);
+    }
+
+    /**
+     * Bumps every table of the written entity.
+     * @param persister the entity persister
+     */
+    private void bump(final EntityPersister persister) {
+        for (final Object space : persister.getPropertySpaces()) {
+            versions.bump(String.valueOf(space));
+        }
+    }
+
+    /**
+     * Bumps the tables of a changed collection and of its owner once the transaction commits.
+     * @param event the collection event
+     */
+    private void bumpCollection(final AbstractCollectionEvent event) {
+        final var tables = new LinkedHashSet<>(JpaCollectionEvents.tables(event));
+        final var owner = event.getAffectedOwnerEntityName();
+        if (Objects.nonNull(owner)) {
+            for (final Object space : event.getSession().getFactory().getMappingMetamodel()
+                    .getEntityDescriptor(owner).getPropertySpaces()) {
+                tables.add(String.valueOf(space));
+            }
+        }
+        JpaCollectionEvents.afterCommit(event, () -> tables.forEach(versions::bump));
+    }
+}
@@ -0,0 +1,176 @@
+package io.github.khezyapp.jpaspec.fetch;
+
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Subgraph;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.PluralAttribute;
+import jakarta.persistence.metamodel.SingularAttribute;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Declares the association paths a page needs, using the same dotted syntax as the filter language.
+ * <p>
+ * Paths are split into two groups against the JPA metamodel: to-one paths are fetched together with
+ * the page query through a dynamic load graph, while any path that crosses a collection is loaded
+ * afterward with a batched {@code IN} query. Keeping collections out of the page query means
+ * {@code LIMIT}/{@code OFFSET} still apply to root rows.
+ * </p>
+ * <p>
+ * The load graph does not reuse the joins created by the filter: JPA criteria joins cannot be turned into
+ * fetches, so a page filtered on {@code author.name} that also fetches {@code author} joins the author table
+ * twice. When that matters, select the needed columns with a
+ * {@link io.github.khezyapp.jpaspec.projection.JpaProjection}, whose paths do reuse the filter's joins.
+ * </p>
+ */
+public final class JpaFetchPlan {
+    private final List<String> paths;
+
+    private JpaFetchPlan(final List<String> paths) {
+        this.paths = List.copyOf(paths);
+    }
+
+    /**
+     * Creates a fetch plan from dotted association paths (e.g., "author", "author.books").
+     *
+     * @param paths the association paths to fetch
+     * @return the fetch plan
+     */
+    public static JpaFetchPlan of(final String... paths) {
+        Objects.requireNonNull(paths, "paths must not be null");
+        final var usePaths = Arrays.stream(paths)
+                .filter(Objects::nonNull)
+                .filter(p -> !p.isBlank())
+                .toList();
+        return new JpaFetchPlan(usePaths);
+    }
+
+    /**
+     * Gets the declared association paths.
+     * @return an unmodifiable list of paths
+     */
+    public List<String> paths() {
+        return paths;
+    }
+
+    /**
+     * Splits the declared paths into to-one and to-many groups for the given root entity.
+     * <p>
+     * The to-one prefix of a to-many path is also fetched with the page (e.g., "author" for "author.books").
+     * </p>
+     *
+     * @param metamodel  the JPA metamodel
+     * @param domainClass the root entity class
+     * @return the resolved groups
+     * @throws IllegalArgumentException if a path does not point to an association or element collection, or
+     *                                  continues past a collection of basic values
+     */
+    public Resolved resolve(final Metamodel metamodel,
+                            final Class<?> domainClass) {
+        final var toOne = new LinkedHashSet<String>();
+        final var toMany = new LinkedHashSet<String>();
+        for (final var path : paths) {
+            final var segments = path.split("\\.");
+            ManagedType<?> current = metamodel.managedType(domainClass);
+            var pluralAt = -1;
+            for (var i = 0; i < segments.length; i++) {
+                final var attribute = current.getAttribute(segments[i]);
+                if (!attribute.isAssociation() && !attribute.isCollection()) {
+                    throw new IllegalArgumentException("Fetch path '%s' segment '%s' is not an association"
+                            .formatted(path, segments[i]));
+                }
+                if (attribute instanceof PluralAttribute<?, ?, ?> && pluralAt < 0) {
+                    pluralAt = i;
+                }
+                if (i == segments.length - 1) {
+                    // The last segment may be an element collection of basic values, e.g., "tags"
+                    break;
+                }
+                if (attribute instanceof PluralAttribute<?, ?, ?> plural) {
+                    current = managedTypeOf(metamodel, plural.getElementType().getJavaType(), path);
+                } else {
+                    current = managedTypeOf(metamodel,
+                            ((SingularAttribute<?, ?>) attribute).getType().getJavaType(), path);
+                }
+            }
+            if (pluralAt < 0) {
+                toOne.add(path);
+            } else {
+                if (pluralAt > 0) {
+                    toOne.add(String.join(".", Arrays.copyOfRange(segments, 0, pluralAt)));
+                }
+                toMany.add(path);
+            }
+        }
+        return new Resolved(List.copyOf(toOne), List.copyOf(toMany));
+    }
+
+    /**
+     * Resolves the managed type of an association target.
+     *
+     * @param metamodel the JPA metamodel
+     * @param javaType  the association target class
+     * @param path      the path being resolved, used for error reporting
+     * @return the managed type
+     */
+    private static ManagedType<?> managedTypeOf(final Metamodel metamodel,
+                                                final Class<?> javaType,
+                                                final String path) {
+        try {
+            return metamodel.managedType(javaType);
+        } catch (final IllegalArgumentException e) {
+            throw new IllegalArgumentException("Fetch path '%s' does not point to a managed type".formatted(path), e);
+        }
+    }
+
+    /**
+     * Result of resolving a {@link JpaFetchPlan} against the metamodel.
+     *
+     * @param toOnePaths  paths made only of singular associations, fetched with the page query
+     * @param toManyPaths paths crossing a collection, fetched with a secondary query
+     */
+    public record Resolved(
+            List<String> toOnePaths,
+            List<String> toManyPaths
+    ) {
+
+        /**
+         * Builds a dynamic load graph covering all to-one paths.
+         *
+         * @param entityManager the entity manager used to create the graph
+         * @param domainClass   the root entity class
+         * @param <T>           the root entity type
+         * @return the entity graph
+         */
+        public <T> EntityGraph<T> toEntityGraph(final EntityManager entityManager,
+                                                final Class<T> domainClass) {
+            final var graph = entityManager.createEntityGraph(domainClass);
+            for (final var path : toOnePaths) {
+                final var segments = path.split("\\.");
+                if (segments.length == 1) {
+                    graph.addAttributeNodes(segments[0]);
+                    continue;
+                }
+                Subgraph<?> subgraph = graph.addSubgraph(segments[0]);
+                for (var i = 1; i < segments.length - 1; i++) {
+                    subgraph = subgraph.addSubgraph(segments[i]);
+                }
+                subgraph.addAttributeNodes(segments[segments.length - 1]);
+            }
+            return graph;
+        }
+
+        /**
+         * Checks whether a secondary query is required.
+         * @return {@code true} if any path crosses a collection
+         */
+        public boolean hasToManyPaths() {
+            return !toManyPaths.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package io.github.khezyapp.jpaspec.live;
+
+import io.github.khezyapp.querysupport.LiveQueryHub;
+import io.github.khezyapp.querysupport.RollupRegistry;
+import io.github.khezyapp.querysupport.RowChangeListener;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Hibernate post-commit listener publishing committed entity changes to {@link LiveQueryHub}s and
+ * {@link RollupRegistry}s, or any other {@link RowChangeListener}.
+ * <p>
+ * Each entity is routed to the listeners of its class or nearest superclass. For updates, the previous state is
+ * passed as a map of property names to old values, so filters on the entity's own columns are classified
+ * exactly; paths through associations read the associated entities as they are now. When Hibernate has no
+ * previous state (e.g., a detached entity merged without a select), the change is published as an update with
+ * unknown previous state. Filters crossing lazy associations may load them on the committing thread.
+ * </p>
+ */
+public class JpaLiveQueryListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+    private final Map<Class<?>, List<RowChangeListener>> listeners = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a listener and appends it to the post-commit events of a Hibernate session factory.
+     *
+     * @param entityManagerFactory the factory backed by Hibernate
+     * @return the registered listener, to which hubs and rollup registries are added
+     */
+    public static JpaLiveQueryListener register(final EntityManagerFactory entityManagerFactory) {
+        final var listener = new JpaLiveQueryListener();
+        final var registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+        return listener;
+    }
+
+    /**
+     * Routes changes of the listener's entity class, and its subclasses, to the listener.
+     *
+     * @param listener the hub, rollup registry or other change listener
+     * @return this listener
+     */
+    public JpaLiveQueryListener add(final RowChangeListener listener) {
+        Objects.requireNonNull(listener, "listener must not be null");
+        listeners.computeIfAbsent(listener.domainClass(), k -> new CopyOnWriteArrayList<>()).add(listener);
+        return this;
+    }
+
+    @Override
+    public void onPostInsert(final PostInsertEvent event) {
+        listenersFor(event.getEntity().getClass()).forEach(l -> l.inserted(event.getId(), event.getEntity()));
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(final PostInsertEvent event) {
+        // nothing was committed
+    }
+
+    @Override
+    public void onPostUpdate(final PostUpdateEvent event) {
+        final var targets = listenersFor(event.getEntity().getClass());
+        if (!targets.isEmpty()) {
+            final var before = previousState(event);
+            targets.forEach(l -> l.updated(event.getId(), before, event.getEntity()));
+        }
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(final PostUpdateEvent event) {
+        // nothing was committed
+    }
+
+    @Override
+    public void onPostDelete(final PostDeleteEvent event) {
+        listenersFor(event.getEntity().getClass()).forEach(l -> l.deleted(event.getId(), event.getEntity()));
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(final PostDeleteEvent event) {
+        // nothing was committed
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(final EntityPersister persister) {
+        return !listenersFor(persister.getMappedClass()).isEmpty();
+    }
+
+    /**
+     * Finds the listeners of an entity class or its nearest superclass.
+     *
+     * @param entityClass the entity class
+     * @return the listeners, empty if none is registered
+     */
+    private List<RowChangeListener> listenersFor(final Class<?> entityClass) {
+        for (Class<?> type = entityClass; Objects.nonNull(type) && type != Object.class; type = type.getSuperclass()) {
+            final var found = listeners.get(type);
+            if (Objects.nonNull(found)) {
+                return found;
+            }
+        }
+        return List.of();
+    }
+
+    /**
+     * Builds the previous state of an updated entity as a property map.
+     *
+     * @param event the update event
+     * @return the old values by property name, or {@code null} if Hibernate has none
+     */
+    private static Map<String, Object> previousState(final PostUpdateEvent event) {
+        final var oldState = event.getOldState();
+        if (Objects.isNull(oldState)) {
+            return null;
+        }
+        final var persister = event.getPersister();
+        final var names = persister.getPropertyNames();
+        final var state = new HashMap<String, Object>();
+        for (var i = 0; i < names.length && i < oldState.length; i++) {
+            state.put(names[i], oldState[i]);
+        }
+        if (Objects.nonNull(persister.getIdentifierPropertyName())) {
+            state.put(persister.getIdentifierPropertyName(), event.getId());
+        }
+        return state;
+    }
+}
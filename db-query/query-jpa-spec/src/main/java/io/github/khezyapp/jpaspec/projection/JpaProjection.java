@@ -0,0 +1,166 @@
+package io.github.khezyapp.jpaspec.projection;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Describes a DTO projection: the entity paths to select and the type the selected values are mapped to.
+ * <p>
+ * A projection is usually derived from a record, where each component name (or its {@link ProjectionPath})
+ * is selected in declaration order and passed to the canonical constructor. The constructor is resolved
+ * once per type and kept as a spreading {@link MethodHandle}, so mapping a row costs a single invocation.
+ * </p>
+ *
+ * @param <R> the projection result type
+ */
+public final class JpaProjection<R> {
+    private static final Map<ConstructorKey, MethodHandle> CONSTRUCTORS = new ConcurrentHashMap<>();
+
+    private final Class<R> type;
+    private final List<String> paths;
+    private final MethodHandle constructor;
+
+    private JpaProjection(final Class<R> type,
+                          final List<String> paths) {
+        this.type = type;
+        this.paths = List.copyOf(paths);
+        this.constructor = CONSTRUCTORS.computeIfAbsent(new ConstructorKey(type, paths.size()),
+                JpaProjection::resolveConstructor);
+    }
+
+    /**
+     * Creates a projection from a record type, selecting one path per record component.
+     *
+     * @param recordType the record to project into
+     * @param <R>        the record type
+     * @return the projection definition
+     */
+    public static <R extends Record> JpaProjection<R> of(final Class<R> recordType) {
+        Objects.requireNonNull(recordType, "recordType must not be null");
+        final var paths = Arrays.stream(recordType.getRecordComponents())
+                .map(JpaProjection::componentPath)
+                .toList();
+        return new JpaProjection<>(recordType, paths);
+    }
+
+    /**
+     * Creates a projection from an explicit list of paths.
+     * <p>
+     * The target type must declare exactly one constructor (the canonical one for records) whose
+     * parameter count equals the number of paths; values are passed in path order.
+     * </p>
+     *
+     * @param type  the type to project into
+     * @param paths the dotted entity paths to select
+     * @param <R>   the projection result type
+     * @return the projection definition
+     */
+    public static <R> JpaProjection<R> of(final Class<R> type,
+                                          final String... paths) {
+        Objects.requireNonNull(type, "type must not be null");
+        if (Objects.isNull(paths) || paths.length == 0) {
+            throw new IllegalArgumentException("Projection requires at least one path");
+        }
+        return new JpaProjection<>(type, Arrays.asList(paths));
+    }
+
+    /**
+     * Gets the projection result type.
+     * @return the result type
+     */
+    public Class<R> type() {
+        return type;
+    }
+
+    /**
+     * Gets the dotted entity paths selected by this projection, in constructor order.
+     * @return an unmodifiable list of paths
+     */
+    public List<String> paths() {
+        return paths;
+    }
+
+    /**
+     * Maps one row of selected values to the projection type.
+     *
+     * @param values the selected values in path order
+     * @return the projected instance
+     * @throws IllegalStateException if the constructor rejects the values
+     */
+    @SuppressWarnings("unchecked")
+    public R map(final Object[] values) {
+        try {
+            final Object instance = constructor.invokeExact(values);
+            return (R) instance;
+        } catch (final Throwable e) {
+            throw new IllegalStateException("Failed to map projection row to " + type.getName(), e);
+        }
+    }
+
+    /**
+     * Resolves the path of a record component, honoring {@link ProjectionPath}.
+     *
+     * @param component the record component
+     * @return the entity path
+     */
+    private static String componentPath(final RecordComponent component) {
+        final var annotation = component.getAnnotation(ProjectionPath.class);
+        return Objects.isNull(annotation) ? component.getName() : annotation.value();
+    }
+
+    /**
+     * Looks up the constructor matching the key and adapts it to {@code (Object[]) -> Object}.
+     *
+     * @param key the projection type and arity
+     * @return a spreading method handle
+     */
+    private static MethodHandle resolveConstructor(final ConstructorKey key) {
+        final var type = key.type();
+        try {
+            final Constructor<?> constructor;
+            if (type.isRecord()) {
+                final var parameterTypes = Arrays.stream(type.getRecordComponents())
+                        .map(RecordComponent::getType)
+                        .toArray(Class<?>[]::new);
+                constructor = type.getDeclaredConstructor(parameterTypes);
+            } else {
+                final var candidates = Arrays.stream(type.getDeclaredConstructors())
+                        .filter(c -> c.getParameterCount() == key.arity())
+                        .toList();
+                if (candidates.size() != 1) {
+                    throw new IllegalArgumentException("Expected exactly one constructor with %d parameters on %s"
+                            .formatted(key.arity(), type.getName()));
+                }
+                constructor = candidates.get(0);
+            }
+            if (constructor.getParameterCount() != key.arity()) {
+                throw new IllegalArgumentException("Projection %s expects %d values but %d paths were given"
+                        .formatted(type.getName(), constructor.getParameterCount(), key.arity()));
+            }
+            constructor.setAccessible(true);
+            return MethodHandles.lookup()
+                    .unreflectConstructor(constructor)
+                    .asSpreader(Object[].class, key.arity())
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (final NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalArgumentException("Cannot access constructor of projection " + type.getName(), e);
+        }
+    }
+
+    /**
+     * Cache key for resolved constructors.
+     *
+     * @param type  the projection type
+     * @param arity the number of selected paths
+     */
+    private record ConstructorKey(Class<?> type, int arity) {
+    }
+}
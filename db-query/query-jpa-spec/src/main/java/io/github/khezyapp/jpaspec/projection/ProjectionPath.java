@@ -0,0 +1,26 @@
+package io.github.khezyapp.jpaspec.projection;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Overrides the entity path selected for a record component of a projection type.
+ * <p>
+ * Without this annotation the component name is used as the path. Nested associations use the
+ * same dotted syntax as the filter language, e.g. {@code @ProjectionPath("author.name") String authorName}.
+ * </p>
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.RECORD_COMPONENT)
+public @interface ProjectionPath {
+
+    /**
+     * The dotted entity path to select for the annotated component.
+     * @return the entity path
+     */
+    String value();
+}
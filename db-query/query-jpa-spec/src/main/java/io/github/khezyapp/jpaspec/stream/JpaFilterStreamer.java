@@ -0,0 +1,301 @@
+package io.github.khezyapp.jpaspec.stream;
+
+import io.github.khezyapp.grammar.ast.JoinType;
+import io.github.khezyapp.jpaspec.JpaPaths;
+import io.github.khezyapp.jpaspec.JpaSessionFilters;
+import io.github.khezyapp.jpaspec.projection.JpaProjection;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.query.SelectionQuery;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Streams filter results through a Hibernate {@link StatelessSession} and a forward-only cursor.
+ * <p>
+ * Offset paging re-scans skipped rows on every page and loading a full {@code List} keeps every row
+ * on the heap. This streamer instead opens a cursor with a configurable JDBC fetch size, so only one
+ * fetch batch is held at a time. A stateless session has no persistence context: rows are not
+ * tracked, dirty-checked or cached, and lazy associations cannot be initialized, so prefer a
+ * {@link JpaProjection} for exports that need associated columns.
+ * </p>
+ * <p>
+ * The stateless session is not the caller's session, so Hibernate filters enabled on the caller, such as the
+ * {@code tenantFilter} of {@code @RowLevelSecurity}, do not apply to it by themselves. A streamer constructed
+ * from an {@link EntityManager} captures the filters enabled on it and enables them on every session it opens;
+ * one constructed from an {@link EntityManagerFactory} applies no filter and sees every row.
+ * </p>
+ * <p>
+ * The returned streams own a session, a read-only transaction and a JDBC cursor; they must be closed,
+ * typically with try-with-resources. The transaction is what lets drivers such as PostgreSQL use a
+ * server-side cursor instead of buffering the whole result.
+ * </p>
+ *
+ * @param <T> the type of the root entity
+ */
+public class JpaFilterStreamer<T> {
+    /**
+     * Default number of rows fetched from the database per round trip.
+     */
+    public static final int DEFAULT_FETCH_SIZE = 1_000;
+
+    private final SessionFactory sessionFactory;
+    private final Class<T> domainClass;
+    private final Map<String, Map<String, Object>> sessionFilters;
+
+    /**
+     * Constructs a streamer for the given entity type that applies no session filter.
+     *
+     * @param entityManagerFactory the factory backed by Hibernate
+     * @param domainClass          the root entity class
+     */
+    public JpaFilterStreamer(final EntityManagerFactory entityManagerFactory,
+                             final Class<T> domainClass) {
+        this(entityManagerFactory, domainClass, Map.of());
+    }
+
+    /**
+     * Constructs a streamer for the given entity type that applies the session filters enabled on the caller's
+     * entity manager now, e.g., the tenant filter of the current request.
+     *
+     * @param entityManager the caller's entity manager, backed by Hibernate
+     * @param domainClass   the root entity class
+     */
+    public JpaFilterStreamer(final EntityManager entityManager,
+                             final Class<T> domainClass) {
+        this(Objects.requireNonNull(entityManager, "entityManager must not be null").getEntityManagerFactory(),
+                domainClass, JpaSessionFilters.enabled(entityManager));
+    }
+
+    /**
+     * Constructs a streamer applying captured session filters.
+     *
+     * @param entityManagerFactory the factory backed by Hibernate
+     * @param domainClass          the root entity class
+     * @param sessionFilters       filters from {@link JpaSessionFilters#enabled(EntityManager)}
+     */
+    JpaFilterStreamer(final EntityManagerFactory entityManagerFactory,
+                      final Class<T> domainClass,
+                      final Map<String, Map<String, Object>> sessionFilters) {
+        Objects.requireNonNull(entityManagerFactory, "entityManagerFactory must not be null");
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.domainClass = Objects.requireNonNull(domainClass, "domainClass must not be null");
+        this.sessionFilters = Map.copyOf(sessionFilters);
+    }
+
+    /**
+     * Gets the session filters enabled on every session this streamer opens.
+     *
+     * @return filter name to parameter values
+     */
+    Map<String, Map<String, Object>> sessionFilters() {
+        return sessionFilters;
+    }
+
+    /**
+     * Streams the entities matching the specification.
+     *
+     * @param spec      the filter specification
+     * @param sort      the sort order, use {@link Sort#unsorted()} for none
+     * @param fetchSize the number of rows fetched per round trip
+     * @return a stream that must be closed by the caller
+     */
+    public Stream<T> stream(final Specification<T> spec,
+                            final Sort sort,
+                            final int fetchSize) {
+        return open(fetchSize, session -> {
+            final var cb = session.getCriteriaBuilder();
+            final var criteria = cb.createQuery(domainClass);
+            final var root = criteria.from(domainClass);
+            applyWhere(spec, root, criteria, cb);
+            criteria.select(root);
+            applySort(sort, root, criteria, cb);
+            return session.createSelectionQuery(criteria);
+        }, Function.identity());
+    }
+
+    /**
+     * Streams the matching rows mapped into a projection.
+     *
+     * @param spec       the filter specification
+     * @param projection the projection to select and map into
+     * @param sort       the sort order, use {@link Sort#unsorted()} for none
+     * @param fetchSize  the number of rows fetched per round trip
+     * @param <R>        the projection result type
+     * @return a stream that must be closed by the caller
+     */
+    public <R> Stream<R> stream(final Specification<T> spec,
+                                final JpaProjection<R> projection,
+                                final Sort sort,
+                                final int fetchSize) {
+        return open(fetchSize, session -> {
+            final var cb = session.getCriteriaBuilder();
+            final var criteria = cb.createTupleQuery();
+            final var root = criteria.from(domainClass);
+            applyWhere(spec, root, criteria, cb);
+
+            final var selections = new ArrayList<Selection<?>>(projection.paths().size());
+            for (final var path : projection.paths()) {
+                selections.add(JpaPaths.resolve(root, path, JoinType.LEFT));
+            }
+            criteria.multiselect(selections);
+            applySort(sort, root, criteria, cb);
+            return session.createSelectionQuery(criteria);
+        }, (Tuple tuple) -> projection.map(tuple.toArray()));
+    }
+
+    /**
+     * Passes every matching entity to the consumer, closing all resources before returning.
+     *
+     * @param spec      the filter specification
+     * @param sort      the sort order, use {@link Sort#unsorted()} for none
+     * @param fetchSize the number of rows fetched per round trip
+     * @param consumer  receives each entity
+     */
+    public void forEach(final Specification<T> spec,
+                        final Sort sort,
+                        final int fetchSize,
+                        final Consumer<? super T> consumer) {
+        try (var rows = stream(spec, sort, fetchSize)) {
+            rows.forEach(consumer);
+        }
+    }
+
+    /**
+     * Opens a stateless session, enables the captured session filters, runs the query with a forward-only cursor
+     * and wraps it as a stream.
+     *
+     * @param fetchSize the number of rows fetched per round trip
+     * @param query     builds the selection query on the session
+     * @param mapper    maps a cursor row to the stream element
+     * @param <Q>       the cursor row type
+     * @param <R>       the stream element type
+     * @return the stream owning the session
+     */
+    private <Q, R> Stream<R> open(final int fetchSize,
+                                  final Function<StatelessSession, SelectionQuery<Q>> query,
+                                  final Function<Q, R> mapper) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("Fetch size must not be less than one");
+        }
+        final var session = sessionFactory.openStatelessSession();
+        try {
+            JpaSessionFilters.enable(session, sessionFilters);
+            final var transaction = session.beginTransaction();
+            final var scroll = query.apply(session)
+                    .setFetchSize(fetchSize)
+                    .setReadOnly(true)
+                    .scroll(ScrollMode.FORWARD_ONLY);
+            final var iterator = new ScrollIterator<>(scroll, mapper);
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+                    .onClose(() -> {
+                        try {
+                            scroll.close();
+                            if (transaction.isActive()) {
+                                transaction.commit();
+                            }
+                        } finally {
+                            session.close();
+                        }
+                    });
+        } catch (final RuntimeException e) {
+            session.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Applies the specification predicate to the criteria query, if any.
+     *
+     * @param spec     the filter specification
+     * @param root     the query root
+     * @param criteria the criteria query
+     * @param cb       the criteria builder
+     */
+    private static <T> void applyWhere(final Specification<T> spec,
+                                       final Root<T> root,
+                                       final CriteriaQuery<?> criteria,
+                                       final CriteriaBuilder cb) {
+        if (Objects.isNull(spec)) {
+            return;
+        }
+        final var predicate = spec.toPredicate(root, criteria, cb);
+        if (Objects.nonNull(predicate)) {
+            criteria.where(predicate);
+        }
+    }
+
+    /**
+     * Applies the sort order to the criteria query, if sorted.
+     *
+     * @param sort     the sort order
+     * @param root     the query root
+     * @param criteria the criteria query
+     * @param cb       the criteria builder
+     */
+    private static void applySort(final Sort sort,
+                                  final Root<?> root,
+                                  final CriteriaQuery<?> criteria,
+                                  final CriteriaBuilder cb) {
+        if (Objects.nonNull(sort) && sort.isSorted()) {
+            criteria.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+    }
+
+    /**
+     * Iterator over a forward-only cursor, advancing one row per call.
+     *
+     * @param <Q> the cursor row type
+     * @param <R> the mapped element type
+     */
+    private static final class ScrollIterator<Q, R> implements Iterator<R> {
+        private final ScrollableResults<Q> scroll;
+        private final Function<Q, R> mapper;
+        private Boolean hasNext;
+
+        private ScrollIterator(final ScrollableResults<Q> scroll,
+                               final Function<Q, R> mapper) {
+            this.scroll = scroll;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (Objects.isNull(hasNext)) {
+                hasNext = scroll.next();
+            }
+            return hasNext;
+        }
+
+        @Override
+        public R next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            hasNext = null;
+            return mapper.apply(scroll.get());
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package io.github.khezyapp.jpaspec.stream;
+
+import io.github.khezyapp.grammar.ast.JoinType;
+import io.github.khezyapp.jpaspec.FilterSpecification;
+import io.github.khezyapp.jpaspec.JpaPaths;
+import io.github.khezyapp.jpaspec.JpaSessionFilters;
+import io.github.khezyapp.querysupport.KeyRange;
+import io.github.khezyapp.querysupport.PartitionSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.Expression;
+import org.hibernate.Session;
+import org.springframework.data.domain.Sort;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * Reads a {@link FilterSpecification} one key range at a time for a
+ * {@link io.github.khezyapp.querysupport.PartitionedScan}.
+ * <p>
+ * Each range is expressed as extra predicates in the specification's AST, so the partition query
+ * is the original filter plus {@code key >= from AND key < to}. Ranges are streamed with
+ * {@link JpaFilterStreamer}, giving each partition its own stateless session and connection.
+ * </p>
+ * <p>
+ * Partitions run on other threads and sessions than the caller's. A source constructed from an
+ * {@link EntityManager} captures the session filters enabled on it, such as the tenant filter, and enables them
+ * on the bounds query and on every partition; one constructed from an {@link EntityManagerFactory} applies no
+ * filter.
+ * </p>
+ *
+ * @param <T> the type of the root entity
+ */
+public class JpaPartitionSource<T> implements PartitionSource<T> {
+    private final EntityManagerFactory entityManagerFactory;
+    private final JpaFilterStreamer<T> streamer;
+    private final Class<T> domainClass;
+    private final FilterSpecification<T> spec;
+    private final String keyPath;
+    private final ToLongFunction<? super T> keyOf;
+    private final int fetchSize;
+
+    /**
+     * Constructs a partition source that applies no session filter.
+     *
+     * @param entityManagerFactory the factory backed by Hibernate
+     * @param domainClass          the root entity class
+     * @param spec                 the filter to scan, must not group
+     * @param keyPath              the dotted path of a unique numeric key (e.g., "id")
+     * @param keyOf                reads the key from an entity
+     * @param fetchSize            the number of rows fetched per round trip
+     */
+    public JpaPartitionSource(final EntityManagerFactory entityManagerFactory,
+                              final Class<T> domainClass,
+                              final FilterSpecification<T> spec,
+                              final String keyPath,
+                              final ToLongFunction<? super T> keyOf,
+                              final int fetchSize) {
+        this(new JpaFilterStreamer<>(entityManagerFactory, domainClass), entityManagerFactory, domainClass, spec,
+                keyPath, keyOf, fetchSize);
+    }
+
+    /**
+     * Constructs a partition source that applies the session filters enabled on the caller's entity manager now.
+     *
+     * @param entityManager the caller's entity manager, backed by Hibernate
+     * @param domainClass   the root entity class
+     * @param spec          the filter to scan, must not group
+     * @param keyPath       the dotted path of a unique numeric key (e.g., "id")
+     * @param keyOf         reads the key from an entity
+     * @param fetchSize     the number of rows fetched per round trip
+     */
+    public JpaPartitionSource(final EntityManager entityManager,
+                              final Class<T> domainClass,
+                              final FilterSpecification<T> spec,
+                              final String keyPath,
+                              final ToLongFunction<? super T> keyOf,
+                              final int fetchSize) {
+        this(new JpaFilterStreamer<>(entityManager, domainClass), entityManager.getEntityManagerFactory(),
+                domainClass, spec, keyPath, keyOf, fetchSize);
+    }
+
+    /**
+     * Constructs a partition source reading through a streamer.
+     *
+     * @param streamer             streams the partitions and holds the session filters
+     * @param entityManagerFactory the factory backed by Hibernate
+     * @param domainClass          the root entity class
+     * @param spec                 the filter to scan, must not group
+     * @param keyPath              the dotted path of a unique numeric key (e.g., "id")
+     * @param keyOf                reads the key from an entity
+     * @param fetchSize            the number of rows fetched per round trip
+     */
+    private JpaPartitionSource(final JpaFilterStreamer<T> streamer,
+                               final EntityManagerFactory entityManagerFactory,
+                               final Class<T> domainClass,
+                               final FilterSpecification<T> spec,
+                               final String keyPath,
+                               final ToLongFunction<? super T> keyOf,
+                               final int fetchSize) {
+        this.streamer = streamer;
+        this.entityManagerFactory = Objects.requireNonNull(entityManagerFactory,
+                "entityManagerFactory must not be null");
+        this.domainClass = Objects.requireNonNull(domainClass, "domainClass must not be null");
+        this.spec = Objects.requireNonNull(spec, "spec must not be null");
+        this.keyPath = Objects.requireNonNull(keyPath, "keyPath must not be null");
+        this.keyOf = Objects.requireNonNull(keyOf, "keyOf must not be null");
+        this.fetchSize = fetchSize;
+        final var astRoot = spec.getAstRoot();
+        if (Objects.nonNull(astRoot) && Objects.nonNull(astRoot.groupBy()) &&
+                Objects.nonNull(astRoot.groupBy().items()) && !astRoot.groupBy().items().isEmpty()) {
+            throw new IllegalArgumentException("Grouped specifications cannot be partitioned by key");
+        }
+    }
+
+    /**
+     * Reads {@code MIN(key)} and {@code MAX(key)} of the filtered rows.
+     * @return the key range, or empty when no row matches
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<KeyRange> bounds() {
+        final var entityManager = entityManagerFactory.createEntityManager();
+        try {
+            JpaSessionFilters.enable(entityManager.unwrap(Session.class), streamer.sessionFilters());
+            final var cb = entityManager.getCriteriaBuilder();
+            final var criteria = cb.createTupleQuery();
+            final var root = criteria.from(domainClass);
+            final var predicate = spec.toPredicate(root, criteria, cb);
+            if (Objects.nonNull(predicate)) {
+                criteria.where(predicate);
+            }
+            final var key = (Expression<Number>) JpaPaths.resolve(root, keyPath, JoinType.INNER);
+            criteria.multiselect(cb.min(key), cb.max(key));
+
+            final var bounds = entityManager.createQuery(criteria).getSingleResult();
+            final var min = bounds.get(0, Number.class);
+            final var max = bounds.get(1, Number.class);
+            if (Objects.isNull(min) || Objects.isNull(max)) {
+                return Optional.empty();
+            }
+            return Optional.of(new KeyRange(min.longValue(), Math.addExact(max.longValue(), 1L)));
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    /**
+     * Streams the filtered rows of the range, ordered by key.
+     *
+     * @param range the key range to read
+     * @return the ordered rows, owning a stateless session
+     */
+    @Override
+    public Stream<T> open(final KeyRange range) {
+        final var rangeSpec = new FilterSpecification<T>(range.applyTo(spec.getAstRoot(), keyPath));
+        return streamer.stream(rangeSpec, Sort.by(Sort.Direction.ASC, keyPath), fetchSize);
+    }
+
+    @Override
+    public long keyOf(final T row) {
+        return keyOf.applyAsLong(row);
+    }
+}
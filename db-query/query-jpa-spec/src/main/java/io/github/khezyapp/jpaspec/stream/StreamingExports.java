@@ -0,0 +1,69 @@
+package io.github.khezyapp.jpaspec.stream;
+
+import io.github.khezyapp.querysupport.RowFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Utility class for writing streamed filter results directly to an HTTP response.
+ * <p>
+ * The row stream is opened inside the response body callback, which Spring MVC runs on an async
+ * thread after the controller returns. The stream and its database resources are closed when the
+ * body has been written, including when the client disconnects.
+ * </p>
+ */
+public final class StreamingExports {
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private StreamingExports() {
+    }
+
+    /**
+     * Creates a response body that writes every row of the stream in the given format.
+     *
+     * @param rows   opens the row stream, called once when the body is written
+     * @param format the output format
+     * @param <T>    the row type
+     * @return the streaming response body
+     */
+    public static <T> StreamingResponseBody body(final Supplier<? extends Stream<? extends T>> rows,
+                                                 final RowFormat<T> format) {
+        Objects.requireNonNull(rows, "rows must not be null");
+        Objects.requireNonNull(format, "format must not be null");
+        return out -> {
+            final var writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+            try (var stream = rows.get()) {
+                format.writeHeader(writer);
+                final var iterator = stream.iterator();
+                while (iterator.hasNext()) {
+                    format.writeRow(writer, iterator.next());
+                }
+            }
+            writer.flush();
+        };
+    }
+
+    /**
+     * Creates a {@code 200 OK} response streaming the rows, with the content type of the format.
+     *
+     * @param rows   opens the row stream, called once when the body is written
+     * @param format the output format
+     * @param <T>    the row type
+     * @return the response entity
+     */
+    public static <T> ResponseEntity<StreamingResponseBody> response(
+            final Supplier<? extends Stream<? extends T>> rows,
+            final RowFormat<T> format) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.contentType()))
+                .body(body(rows, format));
+    }
+}
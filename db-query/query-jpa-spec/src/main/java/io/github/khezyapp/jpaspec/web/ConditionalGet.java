@@ -0,0 +1,116 @@
+package io.github.khezyapp.jpaspec.web;
+
+import io.github.khezyapp.jpaspec.JpaPaginationQuery;
+import io.github.khezyapp.jpaspec.JpaSessionFilters;
+import io.github.khezyapp.querysupport.ChangeVersionSource;
+import io.github.khezyapp.querysupport.ListETags;
+import jakarta.persistence.EntityManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Answers polled list requests with {@code 304 Not Modified} when nothing they read has changed.
+ * <p>
+ * The strong {@code ETag} is built from the query key, the page and the change version of the tables the query
+ * reads. The version is read before the query runs; if a write commits while the query runs, the response
+ * carries the older tag and the next poll simply loads the page again. Obtain an instance as a controller
+ * parameter through {@link ConditionalGetArgumentResolver}.
+ * </p>
+ * <p>
+ * The tag is scoped to the caller: it also covers the principal's name and, when an entity manager is given,
+ * the Hibernate filters enabled on it (see {@link JpaSessionFilters#scope(EntityManager)}). Both responses carry
+ * {@code Vary: Authorization, Cookie}, so a shared client or cache never answers one user's poll with another
+ * user's list. Filters must be enabled before {@code respond} is called, e.g., by a handler interceptor.
+ * </p>
+ */
+public final class ConditionalGet {
+    private static final String[] VARY = {HttpHeaders.AUTHORIZATION, HttpHeaders.COOKIE};
+
+    private final WebRequest request;
+    private final ChangeVersionSource versions;
+    private final EntityManager entityManager;
+
+    /**
+     * Constructs a conditional GET helper for one request, scoping tags by the principal only.
+     *
+     * @param request  the current request
+     * @param versions the change version source
+     */
+    public ConditionalGet(final WebRequest request,
+                          final ChangeVersionSource versions) {
+        this.request = Objects.requireNonNull(request, "request must not be null");
+        this.versions = Objects.requireNonNull(versions, "versions must not be null");
+        this.entityManager = null;
+    }
+
+    /**
+     * Constructs a conditional GET helper for one request, scoping tags by the principal and the session filters.
+     *
+     * @param request       the current request
+     * @param versions      the change version source
+     * @param entityManager the entity manager whose enabled filters narrow the caller's rows
+     */
+    public ConditionalGet(final WebRequest request,
+                          final ChangeVersionSource versions,
+                          final EntityManager entityManager) {
+        this.request = Objects.requireNonNull(request, "request must not be null");
+        this.versions = Objects.requireNonNull(versions, "versions must not be null");
+        this.entityManager = Objects.requireNonNull(entityManager, "entityManager must not be null");
+    }
+
+    /**
+     * Answers a JPA list request, running the loader only when the client's copy is stale.
+     *
+     * @param query  the pagination query
+     * @param tables the tables the query reads
+     * @param loader loads the response body
+     * @param <R>    the body type
+     * @return a {@code 304} response without body, or a {@code 200} response with the body and its tag
+     */
+    public <R> ResponseEntity<R> respond(final JpaPaginationQuery<?> query,
+                                         final Collection<String> tables,
+                                         final Supplier<? extends R> loader) {
+        final var pageable = query.getPageable();
+        return respond(query.getQueryKey(), pageable.isPaged() ? pageable.getPageNumber() : 0, tables, loader);
+    }
+
+    /**
+     * Answers a list request identified by a query key, e.g., of a {@code JooqPaginationQuery}.
+     *
+     * @param queryKey   identifies the filter, page size and sort
+     * @param pageNumber the zero-based page
+     * @param tables     the tables the query reads
+     * @param loader     loads the response body
+     * @param <R>        the body type
+     * @return a {@code 304} response without body, or a {@code 200} response with the body and its tag
+     */
+    public <R> ResponseEntity<R> respond(final String queryKey,
+                                         final int pageNumber,
+                                         final Collection<String> tables,
+                                         final Supplier<? extends R> loader) {
+        Objects.requireNonNull(loader, "loader must not be null");
+        final var etag = ListETags.of(queryKey, pageNumber, scope(), versions.version(tables));
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(VARY).build();
+        }
+        return ResponseEntity.ok().eTag(etag).varyBy(VARY).body(loader.get());
+    }
+
+    /**
+     * Identifies what narrows the caller's rows: the principal's name and the enabled session filters.
+     *
+     * @return e.g., {@code alice|tenantFilter(tenantId=1)}, or {@code |} for an anonymous unfiltered caller
+     */
+    private String scope() {
+        final var principal = request.getUserPrincipal();
+        final var name = Objects.isNull(principal) ? "" : principal.getName();
+        final var filters = Objects.isNull(entityManager) ? "" : JpaSessionFilters.scope(entityManager);
+        return name + "|" + filters;
+    }
+}
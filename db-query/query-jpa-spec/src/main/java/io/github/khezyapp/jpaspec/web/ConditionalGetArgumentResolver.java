@@ -0,0 +1,59 @@
+package io.github.khezyapp.jpaspec.web;
+
+import io.github.khezyapp.querysupport.ChangeVersionSource;
+import jakarta.persistence.EntityManager;
+import org.springframework.core.MethodParameter;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import java.util.Objects;
+
+/**
+ * Spring MVC argument resolver supplying {@link ConditionalGet} parameters to controller methods.
+ * <p>
+ * Register it with {@code WebMvcConfigurer#addArgumentResolvers}; every resolved instance shares the
+ * configured change version source. Pass the shared entity manager proxy when lists are narrowed by Hibernate
+ * filters, so each caller's tags also cover the filters enabled for their request.
+ * </p>
+ */
+public class ConditionalGetArgumentResolver implements HandlerMethodArgumentResolver {
+    private final ChangeVersionSource versions;
+    private final EntityManager entityManager;
+
+    /**
+     * Constructs a resolver backed by the given version source, scoping tags by the principal only.
+     * @param versions the change version source, e.g., table counters or a last-modified probe
+     */
+    public ConditionalGetArgumentResolver(final ChangeVersionSource versions) {
+        this.versions = Objects.requireNonNull(versions, "versions must not be null");
+        this.entityManager = null;
+    }
+
+    /**
+     * Constructs a resolver backed by the given version source, scoping tags by the principal and session filters.
+     * @param versions      the change version source, e.g., table counters or a last-modified probe
+     * @param entityManager the shared entity manager whose enabled filters narrow each caller's rows
+     */
+    public ConditionalGetArgumentResolver(final ChangeVersionSource versions,
+                                          final EntityManager entityManager) {
+        this.versions = Objects.requireNonNull(versions, "versions must not be null");
+        this.entityManager = Objects.requireNonNull(entityManager, "entityManager must not be null");
+    }
+
+    @Override
+    public boolean supportsParameter(final MethodParameter parameter) {
+        return ConditionalGet.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(final MethodParameter parameter,
+                                  final ModelAndViewContainer mavContainer,
+                                  final NativeWebRequest webRequest,
+                                  final WebDataBinderFactory binderFactory) {
+        return Objects.isNull(entityManager)
+                ? new ConditionalGet(webRequest, versions)
+                : new ConditionalGet(webRequest, versions, entityManager);
+    }
+}
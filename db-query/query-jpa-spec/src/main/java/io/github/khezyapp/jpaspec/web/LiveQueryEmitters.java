@@ -0,0 +1,141 @@
+package io.github.khezyapp.jpaspec.web;
+
+import io.github.khezyapp.grammar.ASTSpecs;
+import io.github.khezyapp.grammar.ast.QuerySpec;
+import io.github.khezyapp.querysupport.LiveQueryHub;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Utility class for serving live queries as Server-Sent Events.
+ * <p>
+ * The stream starts with a {@code snapshot} event holding the initial page, followed by {@code added},
+ * {@code updated}, {@code removed} and {@code resync} events from the hub. The subscription is opened before
+ * the initial page is loaded, so changes committed meanwhile are delivered after the snapshot. It is closed
+ * when the client disconnects, the emitter times out or a send fails.
+ * </p>
+ * <p>
+ * Session filters such as the tenant filter do not apply to the hub, which sees every committed row. When the
+ * initial page is filtered that way, subscribe with a scope and a visibility predicate matching the filter.
+ * </p>
+ */
+public final class LiveQueryEmitters {
+    /**
+     * Name of the first event, carrying the initial page.
+     */
+    public static final String SNAPSHOT_EVENT = "snapshot";
+
+    private LiveQueryEmitters() {
+    }
+
+    /**
+     * Subscribes to a filter string and streams its changes.
+     *
+     * @param hub         the hub of the listed entity
+     * @param filterQuery the raw filter
+     * @param initialPage loads the first page sent to the client
+     * @param timeout     how long the stream stays open
+     * @return the emitter to return from the controller
+     */
+    public static SseEmitter subscribe(final LiveQueryHub<?, ?> hub,
+                                       final String filterQuery,
+                                       final Supplier<?> initialPage,
+                                       final Duration timeout) {
+        final var querySpec = Objects.isNull(filterQuery) || filterQuery.isBlank()
+                ? null
+                : ASTSpecs.fromQuery(filterQuery);
+        return subscribe(hub, querySpec, initialPage, timeout);
+    }
+
+    /**
+     * Subscribes to a specification and streams its changes.
+     *
+     * @param hub         the hub of the listed entity
+     * @param querySpec   the filter, {@code null} for all rows
+     * @param initialPage loads the first page sent to the client
+     * @param timeout     how long the stream stays open
+     * @return the emitter to return from the controller
+     */
+    public static SseEmitter subscribe(final LiveQueryHub<?, ?> hub,
+                                       final QuerySpec querySpec,
+                                       final Supplier<?> initialPage,
+                                       final Duration timeout) {
+        return subscribe(hub, querySpec, "", row -> true, initialPage, timeout);
+    }
+
+    /**
+     * Subscribes to a filter string within the rows visible to a scope, such as a tenant, and streams its
+     * changes.
+     *
+     * @param hub         the hub of the listed entity
+     * @param filterQuery the raw filter
+     * @param scope       identifies what the client may see, e.g., the tenant identifier
+     * @param visibility  tests whether a row is visible within the scope
+     * @param initialPage loads the first page sent to the client
+     * @param timeout     how long the stream stays open
+     * @param <E>         the entity type
+     * @return the emitter to return from the controller
+     */
+    public static <E> SseEmitter subscribe(final LiveQueryHub<E, ?> hub,
+                                           final String filterQuery,
+                                           final String scope,
+                                           final Predicate<? super E> visibility,
+                                           final Supplier<?> initialPage,
+                                           final Duration timeout) {
+        final var querySpec = Objects.isNull(filterQuery) || filterQuery.isBlank()
+                ? null
+                : ASTSpecs.fromQuery(filterQuery);
+        return subscribe(hub, querySpec, scope, visibility, initialPage, timeout);
+    }
+
+    /**
+     * Subscribes to a specification within the rows visible to a scope, such as a tenant, and streams its
+     * changes.
+     *
+     * @param hub         the hub of the listed entity
+     * @param querySpec   the filter, {@code null} for all rows
+     * @param scope       identifies what the client may see, e.g., the tenant identifier
+     * @param visibility  tests whether a row is visible within the scope
+     * @param initialPage loads the first page sent to the client
+     * @param timeout     how long the stream stays open
+     * @param <E>         the entity type
+     * @return the emitter to return from the controller
+     */
+    public static <E> SseEmitter subscribe(final LiveQueryHub<E, ?> hub,
+                                           final QuerySpec querySpec,
+                                           final String scope,
+                                           final Predicate<? super E> visibility,
+                                           final Supplier<?> initialPage,
+                                           final Duration timeout) {
+        Objects.requireNonNull(hub, "hub must not be null");
+        Objects.requireNonNull(initialPage, "initialPage must not be null");
+        final var emitter = new SseEmitter(timeout.toMillis());
+        final var subscription = hub.subscribe(querySpec, scope, visibility, event -> {
+            try {
+                emitter.send(SseEmitter.event()
+                        .name(event.type().name().toLowerCase(Locale.ROOT))
+                        .data(event));
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(e -> subscription.close());
+        try {
+            emitter.send(SseEmitter.event().name(SNAPSHOT_EVENT).data(initialPage.get()));
+            subscription.start();
+        } catch (final IOException | RuntimeException e) {
+            subscription.close();
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.khezyapp.jpaspec;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.OneToMany;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Entity
+public class Author {
+    @Id
+    private Long id;
+    private String name;
+    @OneToMany(mappedBy = "author")
+    private List<Book> books = new ArrayList<>();
+
+    protected Author() {
+    }
+
+    public Author(final Long id,
+                  final String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<Book> getBooks() {
+        return books;
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.khezyapp.jpaspec;
+
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.ManyToMany;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToMany;
+import org.hibernate.annotations.Filter;
+import org.hibernate.annotations.FilterDef;
+import org.hibernate.annotations.ParamDef;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Mirrors the per-tenant filter that @RowLevelSecurity enables on each call
+@Entity
+@FilterDef(name = "tenantFilter", parameters = @ParamDef(name = "tenantId", type = Long.class))
+@Filter(name = "tenantFilter", condition = "tenant_id = :tenantId")
+public class Book {
+    @Id
+    private Long id;
+    private String title;
+    private Integer price;
+    private Long tenantId;
+    @ManyToOne(fetch = FetchType.LAZY)
+    private Author author;
+    @OneToMany(mappedBy = "book")
+    private List<Review> reviews = new ArrayList<>();
+    @ManyToMany
+    private Set<Author> editors = new HashSet<>();
+    @ElementCollection
+    private Set<String> tags = new HashSet<>();
+
+    protected Book() {
+    }
+
+    public Book(final Long id,
+                final String title,
+                final Integer price,
+                final Long tenantId,
+                final Author author) {
+        this.id = id;
+        this.title = title;
+        this.price = price;
+        this.tenantId = tenantId;
+        this.author = author;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public Integer getPrice() {
+        return price;
+    }
+
+    public void setPrice(final Integer price) {
+        this.price = price;
+    }
+
+    public Long getTenantId() {
+        return tenantId;
+    }
+
+    public Author getAuthor() {
+        return author;
+    }
+
+    public List<Review> getReviews() {
+        return reviews;
+    }
+
+    public Set<Author> getEditors() {
+        return editors;
+    }
+
+    public Set<String> getTags() {
+        return tags;
+    }
+}
@@ -0,0 +1,168 @@
+package io.github.khezyapp.jpaspec;
+
+import io.github.khezyapp.jpaspec.projection.JpaProjection;
+import io.github.khezyapp.querysupport.CountCache;
+import io.github.khezyapp.querysupport.CountStrategy;
+import io.github.khezyapp.querysupport.SingleFlight;
+import io.github.khezyapp.querysupport.TotalCount;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JpaFilterExecutorTest {
+    private static JpaTestDatabase database;
+    private EntityManager entityManager;
+    private JpaFilterExecutor<Book> executor;
+
+    @BeforeAll
+    static void createDatabase() {
+        database = new JpaTestDatabase("filter_executor");
+    }
+
+    @AfterAll
+    static void closeDatabase() {
+        database.close();
+    }
+
+    @BeforeEach
+    void openEntityManager() {
+        entityManager = database.factory().createEntityManager();
+        executor = new JpaFilterExecutor<>(entityManager, Book.class);
+    }
+
+    @AfterEach
+    void closeEntityManager() {
+        entityManager.close();
+    }
+
+    // Books 3..24 match
+    private static JpaPaginationQuery<Book> query(final int pageNumber,
+                                                  final CountStrategy countStrategy) {
+        return new JpaPaginationQuery<>("price > 2", PageRequest.of(pageNumber, 4, Sort.by("id")), countStrategy);
+    }
+
+    private static List<Long> ids(final FilterPage<Book> page) {
+        return page.getContent().stream().map(Book::getId).toList();
+    }
+
+    @Test
+    @DisplayName("Should detect the next page by probing and derive the total on the last page")
+    void shouldProbeNextPage() {
+        final var first = executor.findAll(query(0, CountStrategy.slice()));
+        final var last = executor.findAll(query(5, CountStrategy.slice()));
+        final var capped = executor.findAll(query(0, CountStrategy.capped(5)));
+
+        assertEquals(List.of(3L, 4L, 5L, 6L), ids(first));
+        assertTrue(first.hasNext());
+        assertEquals(TotalCount.unknown(), first.getTotalCount());
+        assertEquals(List.of(23L, 24L), ids(last));
+        assertFalse(last.hasNext());
+        assertEquals(TotalCount.exact(22), last.getTotalCount());
+        assertEquals(TotalCount.atLeast(5), capped.getTotalCount());
+    }
+
+    @Test
+    @DisplayName("Should count a page past the end instead of reporting its offset as the total")
+    void shouldCountPastTheEnd() {
+        final var capped = executor.findAll(query(9, CountStrategy.capped(100)));
+        final var exact = executor.findAll(query(9, CountStrategy.exact()));
+        final var slice = executor.findAll(query(9, CountStrategy.slice()));
+
+        assertTrue(capped.getContent().isEmpty());
+        assertFalse(capped.hasNext());
+        assertEquals(TotalCount.exact(22), capped.getTotalCount());
+        assertEquals(TotalCount.exact(22), exact.getTotalCount());
+        assertEquals(TotalCount.unknown(), slice.getTotalCount());
+    }
+
+    @Test
+    @DisplayName("Should cache one total per tenant for the same filter")
+    void shouldScopeCachedCountsBySessionFilters() {
+        final var counts = new CountCache(Duration.ofMinutes(1));
+        final var query = new JpaPaginationQuery<Book>("price > 3", PageRequest.of(0, 4, Sort.by("id")),
+                CountStrategy.cached(counts));
+        final var session = entityManager.unwrap(Session.class);
+
+        // Tenant 1 owns the even books, tenant 2 the odd ones
+        session.enableFilter("tenantFilter").setParameter("tenantId", 1L);
+        final var first = executor.findAll(query);
+        session.enableFilter("tenantFilter").setParameter("tenantId", 2L);
+        final var second = executor.findAll(query);
+
+        assertEquals(11, first.getTotalElements());
+        assertEquals(10, second.getTotalElements());
+        assertEquals(2, counts.size());
+    }
+
+    @Test
+    @DisplayName("Should not coalesce pages of callers with different session filters")
+    void shouldScopeCoalescingBySessionFilters() throws Exception {
+        final var singleFlight = SingleFlight.<String, FilterPage<?>>builder().build();
+        final var barrier = new CyclicBarrier(2);
+        final var query = query(0, CountStrategy.exact());
+        final var pool = Executors.newFixedThreadPool(2);
+
+        final var tenants = List.of(1L, 2L).stream()
+                .map(tenant -> CompletableFuture.supplyAsync(() -> {
+                    final var tenantManager = database.factory().createEntityManager();
+                    try {
+                        tenantManager.unwrap(Session.class).enableFilter("tenantFilter")
+                                .setParameter("tenantId", tenant);
+                        final var tenantExecutor = new JpaFilterExecutor<>(tenantManager, Book.class)
+                                .withSingleFlight(singleFlight);
+                        barrier.await();
+                        return tenantExecutor.findAll(query, JpaProjection.of(BookId.class)).getContent().stream()
+                                .map(BookId::id)
+                                .toList();
+                    } catch (final Exception e) {
+                        throw new IllegalStateException(e);
+                    } finally {
+                        tenantManager.close();
+                    }
+                }, pool))
+                .toList();
+
+        // Tenant 1 owns the even books, tenant 2 the odd ones
+        try {
+            assertEquals(List.of(4L, 6L, 8L, 10L), tenants.get(0).get());
+            assertEquals(List.of(3L, 5L, 7L, 9L), tenants.get(1).get());
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(2, singleFlight.executedCount());
+        assertEquals(0, singleFlight.coalescedCount());
+    }
+
+    @Test
+    @DisplayName("Should not coalesce entity pages unless the group copies them")
+    void shouldCoalesceEntityPagesOnlyWithCopier() {
+        final var sharing = SingleFlight.<String, FilterPage<?>>builder().build();
+        final var copying = SingleFlight.<String, FilterPage<?>>builder().copier(page -> page).build();
+
+        final var query = query(0, CountStrategy.slice());
+
+        assertEquals(List.of(3L, 4L, 5L, 6L), ids(executor.withSingleFlight(sharing).findAll(query)));
+        assertEquals(List.of(3L, 4L, 5L, 6L), ids(executor.withSingleFlight(copying).findAll(query)));
+
+        assertEquals(0, sharing.executedCount());
+        assertEquals(1, copying.executedCount());
+    }
+
+    record BookId(Long id) {
+    }
+}
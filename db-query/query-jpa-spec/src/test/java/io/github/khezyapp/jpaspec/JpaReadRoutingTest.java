@@ -0,0 +1,57 @@
+package io.github.khezyapp.jpaspec;
+
+import io.github.khezyapp.querysupport.ReplicaRoutingDataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JpaReadRoutingTest {
+
+    private static JdbcDataSource dataSource(final String name) {
+        final var dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:%s;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE".formatted(name));
+        return dataSource;
+    }
+
+    private static String catalog(final ReplicaRoutingDataSource routing) {
+        return routing.read(Duration.ofSeconds(1), () -> {
+            try (var connection = routing.getConnection()) {
+                return connection.getCatalog();
+            } catch (final SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    @AfterEach
+    void clearTransaction() {
+        TransactionSynchronizationManager.clear();
+    }
+
+    @Test
+    @DisplayName("Should keep routed reads on the primary inside a read-write Spring transaction")
+    void shouldKeepReadsOnPrimaryInWriteTransactions() {
+        final var routing = ReplicaRoutingDataSource.builder(dataSource("routing_primary"), c -> Duration.ZERO)
+                .replica("replica", dataSource("routing_replica"))
+                .build();
+        routing.probeAll();
+
+        assertEquals("routing_replica", catalog(routing));
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        assertTrue(routing.inWriteTransaction());
+        assertEquals("routing_primary", catalog(routing));
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertFalse(routing.inWriteTransaction());
+        assertEquals("routing_replica", catalog(routing));
+        assertEquals(1L, routing.writeFallbackCount());
+    }
+}
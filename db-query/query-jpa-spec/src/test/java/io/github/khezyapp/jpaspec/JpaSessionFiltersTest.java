@@ -0,0 +1,58 @@
+package io.github.khezyapp.jpaspec;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JpaSessionFiltersTest {
+    private static JpaTestDatabase database;
+    private EntityManager entityManager;
+
+    @BeforeAll
+    static void createDatabase() {
+        database = new JpaTestDatabase("session_filters");
+    }
+
+    @AfterAll
+    static void closeDatabase() {
+        database.close();
+    }
+
+    @BeforeEach
+    void openEntityManager() {
+        entityManager = database.factory().createEntityManager();
+    }
+
+    @AfterEach
+    void closeEntityManager() {
+        entityManager.close();
+    }
+
+    @Test
+    @DisplayName("Should describe no scope without enabled filters")
+    void shouldDescribeEmptyScope() {
+        assertEquals("", JpaSessionFilters.scope(entityManager));
+    }
+
+    @Test
+    @DisplayName("Should describe enabled filters with their parameter values")
+    void shouldDescribeEnabledFilters() {
+        final var session = entityManager.unwrap(Session.class);
+
+        session.enableFilter("tenantFilter").setParameter("tenantId", 1L);
+        assertEquals("tenantFilter(tenantId=1)", JpaSessionFilters.scope(entityManager));
+
+        session.enableFilter("tenantFilter").setParameter("tenantId", 2L);
+        assertEquals("tenantFilter(tenantId=2)", JpaSessionFilters.scope(entityManager));
+
+        session.disableFilter("tenantFilter");
+        assertEquals("", JpaSessionFilters.scope(entityManager));
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.khezyapp.jpaspec;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceConfiguration;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory H2 persistence unit with authors, books and reviews, recording every SQL statement it runs.
+ * <p>
+ * Book {@code i} (1..24) costs {@code i}, belongs to tenant {@code 1 + i % 2} and author {@code 1 + i % 3},
+ * and has two reviews.
+ * </p>
+ */
+public final class JpaTestDatabase implements StatementInspector, AutoCloseable {
+    public static final int BOOKS = 24;
+    private static final Pattern JOIN = Pattern.compile("\\bjoin\\b", Pattern.CASE_INSENSITIVE);
+
+    private final List<String> statements = new CopyOnWriteArrayList<>();
+    private final EntityManagerFactory entityManagerFactory;
+
+    public JpaTestDatabase(final String name) {
+        entityManagerFactory = new PersistenceConfiguration(name)
+                .managedClass(Author.class)
+                .managedClass(Book.class)
+                .managedClass(Review.class)
+                .property(PersistenceConfiguration.JDBC_URL, "jdbc:h2:mem:%s;DB_CLOSE_DELAY=-1".formatted(name))
+                .property(PersistenceConfiguration.SCHEMAGEN_DATABASE_ACTION, "drop-and-create")
+                .property("hibernate.session_factory.statement_inspector", this)
+                .createEntityManagerFactory();
+        entityManagerFactory.runInTransaction(em -> {
+            final var authors = List.of(new Author(1L, "Ann"), new Author(2L, "Bob"), new Author(3L, "Cy"));
+            authors.forEach(em::persist);
+            for (var i = 1L; i <= BOOKS; i++) {
+                final var book = new Book(i, "Book " + i, (int) i, 1 + i % 2, authors.get((int) (i % 3)));
+                book.getTags().add(i % 2 == 0 ? "even" : "odd");
+                em.persist(book);
+                em.persist(new Review(2 * i - 1, 5, book));
+                em.persist(new Review(2 * i, (int) (1 + i % 5), book));
+            }
+        });
+        statements.clear();
+    }
+
+    public EntityManagerFactory factory() {
+        return entityManagerFactory;
+    }
+
+    public List<String> statements() {
+        return List.copyOf(statements);
+    }
+
+    public void clearStatements() {
+        statements.clear();
+    }
+
+    public static long joins(final String sql) {
+        return JOIN.matcher(sql).results().count();
+    }
+
+    @Override
+    public String inspect(final String sql) {
+        statements.add(sql);
+        return sql;
+    }
+
+    @Override
+    public void close() {
+        entityManagerFactory.close();
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.khezyapp.jpaspec;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.ManyToOne;
+
+@Entity
+public class Review {
+    @Id
+    private Long id;
+    private Integer stars;
+    @ManyToOne(fetch = FetchType.LAZY)
+    private Book book;
+
+    protected Review() {
+    }
+
+    public Review(final Long id,
+                  final Integer stars,
+                  final Book book) {
+        this.id = id;
+        this.stars = stars;
+        this.book = book;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Integer getStars() {
+        return stars;
+    }
+
+    public Book getBook() {
+        return book;
+    }
+}
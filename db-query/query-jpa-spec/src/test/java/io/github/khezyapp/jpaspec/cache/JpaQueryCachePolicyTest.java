@@ -0,0 +1,58 @@
+package io.github.khezyapp.jpaspec.cache;
+
+import io.github.khezyapp.jpaspec.JpaPaginationQuery;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JpaQueryCachePolicyTest {
+    private final JpaQueryCachePolicy policy = JpaQueryCachePolicy.builder()
+            .volatilePaths(Set.of("stock", "author.lastSeen"))
+            .maxPageSize(50)
+            .build();
+
+    @Test
+    @DisplayName("Should cache bounded pages that do not reference volatile paths")
+    void shouldCacheStableQueries() {
+        final var query = new JpaPaginationQuery<Object>("title ILIKE '%dune%'", PageRequest.of(0, 20));
+
+        assertTrue(policy.isCacheable(query));
+        assertEquals("filter.java.lang.Object", policy.hints(Object.class).get(JpaQueryCachePolicy.HINT_CACHE_REGION));
+    }
+
+    @Test
+    @DisplayName("Should not cache queries filtering or sorting on volatile paths")
+    void shouldRejectVolatilePaths() {
+        final var filtered = new JpaPaginationQuery<Object>("stock > 0", PageRequest.of(0, 20));
+        final var nested = new JpaPaginationQuery<Object>("author.lastSeen > '2024-01-01'", PageRequest.of(0, 20));
+        final var sorted = new JpaPaginationQuery<Object>("title = 'Dune'", PageRequest.of(0, 20, Sort.by("stock")));
+
+        assertFalse(policy.isCacheable(filtered));
+        assertFalse(policy.isCacheable(nested));
+        assertFalse(policy.isCacheable(sorted));
+    }
+
+    @Test
+    @DisplayName("Should not cache large or unpaged queries")
+    void shouldRejectUnboundedPages() {
+        assertFalse(policy.isCacheable(new JpaPaginationQuery<Object>("title = 'Dune'", PageRequest.of(0, 500))));
+        assertFalse(policy.isCacheable(new JpaPaginationQuery<Object>("title = 'Dune'", Pageable.unpaged())));
+    }
+
+    @Test
+    @DisplayName("Should derive the same key for equivalent queries and a different key per page")
+    void shouldComputeStableKeys() {
+        final var first = new JpaPaginationQuery<Object>("title = 'Dune'", PageRequest.of(0, 20));
+        final var same = new JpaPaginationQuery<Object>("title  =  'Dune'", PageRequest.of(0, 20));
+        final var nextPage = new JpaPaginationQuery<Object>("title = 'Dune'", PageRequest.of(1, 20));
+
+        assertEquals(policy.cacheKey(first), policy.cacheKey(same));
+        assertNotEquals(policy.cacheKey(first), policy.cacheKey(nextPage));
+    }
+}
@@ -0,0 +1,150 @@
+package io.github.khezyapp.jpaspec.cache;
+
+import io.github.khezyapp.jpaspec.Author;
+import io.github.khezyapp.jpaspec.Book;
+import io.github.khezyapp.jpaspec.FilterPage;
+import io.github.khezyapp.jpaspec.JpaFilterExecutor;
+import io.github.khezyapp.jpaspec.JpaPaginationQuery;
+import io.github.khezyapp.jpaspec.JpaTestDatabase;
+import io.github.khezyapp.jpaspec.projection.JpaProjection;
+import io.github.khezyapp.querysupport.CountStrategy;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JpaResultCacheInvalidatorTest {
+    private static final EntityVersions VERSIONS = new EntityVersions();
+
+    private static JpaTestDatabase database;
+
+    @BeforeAll
+    static void createDatabase() {
+        database = new JpaTestDatabase("result_cache_invalidator");
+        JpaResultCacheInvalidator.register(database.factory(), VERSIONS);
+    }
+
+    @AfterAll
+    static void closeDatabase() {
+        database.close();
+    }
+
+    @Test
+    @DisplayName("Should bump the entity version only after the transaction commits")
+    void shouldBumpCommittedEntities() {
+        final var book = VERSIONS.current(Book.class);
+        final var author = VERSIONS.current(Author.class);
+
+        database.factory().runInTransaction(em -> em.find(Book.class, 1L).setPrice(100));
+        assertEquals(book + 1, VERSIONS.current(Book.class));
+        assertEquals(author, VERSIONS.current(Author.class));
+
+        final var entityManager = database.factory().createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            entityManager.find(Book.class, 1L).setPrice(200);
+            entityManager.flush();
+            entityManager.getTransaction().rollback();
+        } finally {
+            entityManager.close();
+        }
+        assertEquals(book + 1, VERSIONS.current(Book.class));
+    }
+
+    @Test
+    @DisplayName("Should bump the owner of a collection changed without any entity update")
+    void shouldBumpCollectionOwner() {
+        final var book = VERSIONS.current(Book.class);
+
+        database.factory().runInTransaction(em -> em.find(Book.class, 2L).getEditors().add(em.find(Author.class, 1L)));
+        assertEquals(book + 1, VERSIONS.current(Book.class));
+
+        final var entityManager = database.factory().createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            entityManager.find(Book.class, 2L).getEditors().clear();
+            entityManager.flush();
+            entityManager.getTransaction().rollback();
+        } finally {
+            entityManager.close();
+        }
+        assertEquals(book + 1, VERSIONS.current(Book.class));
+    }
+
+    @Test
+    @DisplayName("Should cache one page per tenant for the same filter")
+    void shouldScopeCachedPagesByTenant() {
+        final var cache = JpaResultCache.builder().versions(VERSIONS).build();
+        final var query = new JpaPaginationQuery<Book>("price > 2 AND price < 11", PageRequest.of(0, 10, Sort.by("id")),
+                CountStrategy.exact());
+
+        final var first = findAsTenant(cache, query, 1L);
+        final var second = findAsTenant(cache, query, 2L);
+        final var again = findAsTenant(cache, query, 1L);
+
+        // Tenant 1 owns the even books, tenant 2 the odd ones
+        assertEquals(List.of(4L, 6L, 8L, 10L), first.getContent().stream().map(BookPrice::id).toList());
+        assertEquals(List.of(3L, 5L, 7L, 9L), second.getContent().stream().map(BookPrice::id).toList());
+        assertEquals(first.getContent(), again.getContent());
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.hitCount());
+    }
+
+    @Test
+    @DisplayName("Should not cache a page read inside a read-write transaction")
+    void shouldBypassCacheInReadWriteTransaction() {
+        final var cache = JpaResultCache.builder().versions(VERSIONS).build();
+        final var query = new JpaPaginationQuery<Book>("price > 900", PageRequest.of(0, 10, Sort.by("id")),
+                CountStrategy.exact());
+
+        final var entityManager = database.factory().createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            entityManager.find(Book.class, 5L).setPrice(1000);
+            entityManager.flush();
+            final var uncommitted = new JpaFilterExecutor<>(entityManager, Book.class)
+                    .withResultCache(cache)
+                    .findAll(query, JpaProjection.of(BookPrice.class));
+            entityManager.getTransaction().rollback();
+            assertEquals(List.of(new BookPrice(5L, 1000)), uncommitted.getContent());
+        } finally {
+            entityManager.close();
+        }
+        assertEquals(0, cache.size());
+
+        final var reader = database.factory().createEntityManager();
+        try {
+            final var committed = new JpaFilterExecutor<>(reader, Book.class)
+                    .withResultCache(cache)
+                    .findAll(query, JpaProjection.of(BookPrice.class));
+            assertTrue(committed.getContent().isEmpty());
+            assertEquals(1, cache.size());
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static FilterPage<BookPrice> findAsTenant(final JpaResultCache cache,
+                                                      final JpaPaginationQuery<Book> query,
+                                                      final long tenant) {
+        final var entityManager = database.factory().createEntityManager();
+        try {
+            entityManager.unwrap(Session.class).enableFilter("tenantFilter").setParameter("tenantId", tenant);
+            return new JpaFilterExecutor<>(entityManager, Book.class)
+                    .withResultCache(cache)
+                    .findAll(query, JpaProjection.of(BookPrice.class));
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    record BookPrice(Long id, Integer price) {
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.khezyapp.jpaspec.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JpaResultCacheTest {
+    private final JpaResultCache cache = JpaResultCache.builder().build();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private List<String> load() {
+        return List.of("page-" + loads.incrementAndGet());
+    }
+
+    @Test
+    @DisplayName("Should serve repeated lookups from the cache until a tagged entity changes")
+    void shouldInvalidateOnTaggedChange() {
+        final Set<Class<?>> tags = Set.of(Book.class, Author.class);
+
+        final List<String> first = cache.get("books|0x20", tags, this::load);
+        final List<String> second = cache.get("books|0x20", tags, this::load);
+        cache.invalidate(Author.class);
+        final List<String> third = cache.get("books|0x20", tags, this::load);
+
+        assertEquals(List.of("page-1"), first);
+        assertSame(first, second);
+        assertEquals(List.of("page-2"), third);
+        assertEquals(1, cache.hitCount());
+        assertEquals(2, cache.missCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    @DisplayName("Should keep results that do not depend on the changed entity")
+    void shouldIgnoreUntaggedChange() {
+        cache.get("books", Set.of(Book.class), this::load);
+        cache.invalidate(Author.class);
+        cache.get("books", Set.of(Book.class), this::load);
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should invalidate results on a base entity when a subclass changes")
+    void shouldBumpSuperclasses() {
+        final var versions = new EntityVersions();
+
+        versions.bump(EBook.class);
+
+        assertEquals(1, versions.current(EBook.class));
+        assertEquals(1, versions.current(Book.class));
+        assertEquals(0, versions.current(Author.class));
+    }
+
+    @Test
+    @DisplayName("Should not serve a result loaded while a change committed")
+    void shouldDiscardResultLoadedDuringChange() {
+        cache.get("books", Set.of(Book.class), () -> {
+            cache.invalidate(Book.class);
+            return load();
+        });
+        cache.get("books", Set.of(Book.class), this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    static class Book {
+    }
+
+    static class EBook extends Book {
+    }
+
+    static class Author {
+    }
+}
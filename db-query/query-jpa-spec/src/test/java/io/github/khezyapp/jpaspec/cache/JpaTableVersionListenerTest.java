@@ -0,0 +1,65 @@
+package io.github.khezyapp.jpaspec.cache;
+
+import io.github.khezyapp.jpaspec.Author;
+import io.github.khezyapp.jpaspec.Book;
+import io.github.khezyapp.jpaspec.JpaTestDatabase;
+import io.github.khezyapp.querysupport.TableVersions;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JpaTableVersionListenerTest {
+    private static final TableVersions VERSIONS = new TableVersions();
+
+    private static JpaTestDatabase database;
+
+    @BeforeAll
+    static void createDatabase() {
+        database = new JpaTestDatabase("table_version_listener");
+        JpaTableVersionListener.register(database.factory(), VERSIONS);
+    }
+
+    @AfterAll
+    static void closeDatabase() {
+        database.close();
+    }
+
+    @Test
+    @DisplayName("Should change the version of the owner's tables when only a collection changes")
+    void shouldBumpCollectionTables() {
+        final var tables = JpaTableVersionListener.tablesOf(database.factory(), Book.class);
+        final var before = VERSIONS.version(tables);
+
+        database.factory().runInTransaction(em -> em.find(Book.class, 3L).getEditors().add(em.find(Author.class, 1L)));
+        final var committed = VERSIONS.version(tables);
+        assertNotEquals(before, committed);
+
+        final var entityManager = database.factory().createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            entityManager.find(Book.class, 3L).getEditors().clear();
+            entityManager.flush();
+            entityManager.getTransaction().rollback();
+        } finally {
+            entityManager.close();
+        }
+        assertEquals(committed, VERSIONS.version(tables));
+    }
+
+    @Test
+    @DisplayName("Should leave the tables of other entities alone")
+    void shouldBumpWrittenTablesOnly() {
+        final var authors = JpaTableVersionListener.tablesOf(database.factory(), Author.class);
+        final var books = JpaTableVersionListener.tablesOf(database.factory(), Book.class);
+        final var author = VERSIONS.version(authors);
+        final var book = VERSIONS.version(books);
+
+        database.factory().runInTransaction(em -> em.find(Book.class, 4L).setPrice(100));
+
+        assertEquals(author, VERSIONS.version(authors));
+        assertNotEquals(book, VERSIONS.version(books));
+    }
+}
@@ -0,0 +1,122 @@
+package io.github.khezyapp.jpaspec.fetch;
+
+import io.github.khezyapp.jpaspec.Book;
+import io.github.khezyapp.jpaspec.JpaFilterExecutor;
+import io.github.khezyapp.jpaspec.JpaPaginationQuery;
+import io.github.khezyapp.jpaspec.JpaTestDatabase;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JpaFetchPlanTest {
+    private static JpaTestDatabase database;
+
+    @BeforeAll
+    static void createDatabase() {
+        database = new JpaTestDatabase("fetch_plan");
+    }
+
+    @AfterAll
+    static void closeDatabase() {
+        database.close();
+    }
+
+    @BeforeEach
+    void clearStatements() {
+        database.clearStatements();
+    }
+
+    private static JpaPaginationQuery<Book> query(final String filter) {
+        return new JpaPaginationQuery<>(filter, PageRequest.of(0, 5, Sort.by("id")));
+    }
+
+    @Test
+    @DisplayName("Should split paths into to-one paths and paths crossing a collection")
+    void shouldResolvePaths() {
+        final var resolved = JpaFetchPlan.of("author", "reviews", "author.books", " ")
+                .resolve(database.factory().getMetamodel(), Book.class);
+
+        assertEquals(List.of("author"), resolved.toOnePaths());
+        assertEquals(List.of("reviews", "author.books"), resolved.toManyPaths());
+        assertThrows(IllegalArgumentException.class, () -> JpaFetchPlan.of("title")
+                .resolve(database.factory().getMetamodel(), Book.class));
+    }
+
+    @Test
+    @DisplayName("Should fetch an element collection of basic values with a secondary query")
+    void shouldFetchElementCollection() {
+        final var resolved = JpaFetchPlan.of("tags", "author.books.tags")
+                .resolve(database.factory().getMetamodel(), Book.class);
+        assertEquals(List.of("author"), resolved.toOnePaths());
+        assertEquals(List.of("tags", "author.books.tags"), resolved.toManyPaths());
+        assertThrows(IllegalArgumentException.class, () -> JpaFetchPlan.of("tags.length")
+                .resolve(database.factory().getMetamodel(), Book.class));
+
+        final var entityManager = database.factory().createEntityManager();
+        try {
+            final var page = new JpaFilterExecutor<>(entityManager, Book.class)
+                    .findAll(query("price > 3"), JpaFetchPlan.of("tags"));
+
+            assertEquals(3, database.statements().size());
+            for (final var book : page.getContent()) {
+                assertTrue(Hibernate.isInitialized(book.getTags()));
+                assertEquals(Set.of(book.getId() % 2 == 0 ? "even" : "odd"), book.getTags());
+            }
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should load the page, its total and each collection path in one statement each")
+    void shouldBatchAssociations() {
+        final var entityManager = database.factory().createEntityManager();
+        try {
+            final var page = new JpaFilterExecutor<>(entityManager, Book.class)
+                    .findAll(query("price > 3"), JpaFetchPlan.of("author", "reviews"));
+            final var statements = database.statements();
+
+            assertEquals(List.of(4L, 5L, 6L, 7L, 8L), page.getContent().stream().map(Book::getId).toList());
+            assertEquals(JpaTestDatabase.BOOKS - 3, page.getTotalElements());
+            // page with the author joined, count, one IN query for the reviews of the five books
+            assertEquals(3, statements.size());
+            assertEquals(1, JpaTestDatabase.joins(statements.get(0)));
+            for (final var book : page.getContent()) {
+                assertTrue(Hibernate.isInitialized(book.getAuthor()));
+                assertTrue(Hibernate.isInitialized(book.getReviews()));
+                assertEquals(2, book.getReviews().size());
+            }
+            assertEquals(3, database.statements().size());
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should join a filtered association again for the load graph")
+    void shouldJoinFilteredAssociationTwice() {
+        final var entityManager = database.factory().createEntityManager();
+        try {
+            final var page = new JpaFilterExecutor<>(entityManager, Book.class)
+                    .findAll(query("author.name = 'Ann'"), JpaFetchPlan.of("author"));
+            final var pageSql = database.statements().get(0);
+
+            assertEquals(List.of(3L, 6L, 9L, 12L, 15L), page.getContent().stream().map(Book::getId).toList());
+            assertTrue(page.getContent().stream().allMatch(b -> Hibernate.isInitialized(b.getAuthor())));
+            // The filter's join and the load graph's fetch join are separate
+            assertEquals(2, JpaTestDatabase.joins(pageSql));
+        } finally {
+            entityManager.close();
+        }
+    }
+}
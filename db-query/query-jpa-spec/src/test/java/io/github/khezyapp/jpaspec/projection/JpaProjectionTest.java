@@ -0,0 +1,60 @@
+package io.github.khezyapp.jpaspec.projection;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JpaProjectionTest {
+
+    @Test
+    @DisplayName("Should derive paths from record components and honor ProjectionPath")
+    void shouldDerivePathsFromRecord() {
+        final var projection = JpaProjection.of(BookSummary.class);
+
+        assertEquals(List.of("id", "title", "author.name"), projection.paths());
+        assertEquals(BookSummary.class, projection.type());
+    }
+
+    @Test
+    @DisplayName("Should map selected values through the canonical constructor")
+    void shouldMapValuesToRecord() {
+        final var projection = JpaProjection.of(BookSummary.class);
+
+        final var result = projection.map(new Object[]{1L, "Dune", "Frank Herbert"});
+
+        assertEquals(new BookSummary(1L, "Dune", "Frank Herbert"), result);
+    }
+
+    @Test
+    @DisplayName("Should widen boxed numbers for primitive components")
+    void shouldWidenNumbers() {
+        final var projection = JpaProjection.of(BookPrice.class, "id", "price");
+
+        final var result = projection.map(new Object[]{7, 9.5d});
+
+        assertEquals(new BookPrice(7L, 9.5d), result);
+    }
+
+    @Test
+    @DisplayName("Should reject explicit paths that do not match the constructor arity")
+    void shouldRejectArityMismatch() {
+        assertThrows(IllegalArgumentException.class, () -> JpaProjection.of(BookPrice.class, "id"));
+    }
+
+    @Test
+    @DisplayName("Should wrap constructor failures into IllegalStateException")
+    void shouldWrapMappingFailure() {
+        final var projection = JpaProjection.of(BookPrice.class, "id", "price");
+
+        assertThrows(IllegalStateException.class, () -> projection.map(new Object[]{null, 1.0d}));
+    }
+
+    record BookSummary(Long id, String title, @ProjectionPath("author.name") String authorName) {
+    }
+
+    record BookPrice(long id, double price) {
+    }
+}
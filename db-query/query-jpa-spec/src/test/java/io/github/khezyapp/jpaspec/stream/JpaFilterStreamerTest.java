@@ -0,0 +1,96 @@
+package io.github.khezyapp.jpaspec.stream;
+
+import io.github.khezyapp.jpaspec.Book;
+import io.github.khezyapp.jpaspec.FilterSpecification;
+import io.github.khezyapp.jpaspec.JpaTestDatabase;
+import io.github.khezyapp.jpaspec.projection.JpaProjection;
+import io.github.khezyapp.querysupport.KeyRange;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JpaFilterStreamerTest {
+    private static JpaTestDatabase database;
+    private EntityManager entityManager;
+
+    @BeforeAll
+    static void createDatabase() {
+        database = new JpaTestDatabase("filter_streamer");
+    }
+
+    @AfterAll
+    static void closeDatabase() {
+        database.close();
+    }
+
+    @BeforeEach
+    void openEntityManager() {
+        entityManager = database.factory().createEntityManager();
+    }
+
+    @AfterEach
+    void closeEntityManager() {
+        entityManager.close();
+    }
+
+    @Test
+    @DisplayName("Should stream every matching row without session filters")
+    void shouldStreamAllRows() {
+        final var streamer = new JpaFilterStreamer<>(database.factory(), Book.class);
+
+        try (var books = streamer.stream(new FilterSpecification<Book>("price <= 4"), Sort.by("id"), 2)) {
+            assertEquals(List.of(1L, 2L, 3L, 4L), books.map(Book::getId).toList());
+        }
+    }
+
+    @Test
+    @DisplayName("Should apply the caller's tenant filter to streamed entities and projections")
+    void shouldStreamOwnTenantOnly() {
+        // Tenant 1 owns the even books, tenant 2 the odd ones
+        final var spec = new FilterSpecification<Book>("price <= 8");
+
+        asTenant(1L);
+        final var first = new JpaFilterStreamer<>(entityManager, Book.class);
+        asTenant(2L);
+        final var second = new JpaFilterStreamer<>(entityManager, Book.class);
+
+        try (var books = first.stream(spec, Sort.by("id"), 2)) {
+            assertEquals(List.of(2L, 4L, 6L, 8L), books.map(Book::getId).toList());
+        }
+        try (var prices = second.stream(spec, JpaProjection.of(BookPrice.class), Sort.by("id"), 2)) {
+            assertEquals(List.of(new BookPrice(1L, 1), new BookPrice(3L, 3), new BookPrice(5L, 5),
+                    new BookPrice(7L, 7)), prices.toList());
+        }
+    }
+
+    @Test
+    @DisplayName("Should apply the caller's tenant filter to partition bounds and ranges")
+    void shouldPartitionOwnTenantOnly() {
+        asTenant(2L);
+        final var source = new JpaPartitionSource<>(entityManager, Book.class,
+                new FilterSpecification<Book>("price > 10"), "id", Book::getId, 2);
+
+        assertEquals(Optional.of(new KeyRange(11L, 24L)), source.bounds());
+        try (var books = source.open(new KeyRange(11L, 16L))) {
+            assertEquals(List.of(11L, 13L, 15L), books.map(Book::getId).toList());
+        }
+    }
+
+    private void asTenant(final long tenant) {
+        entityManager.unwrap(Session.class).enableFilter("tenantFilter").setParameter("tenantId", tenant);
+    }
+
+    record BookPrice(Long id, Integer price) {
+    }
+}
@@ -0,0 +1,694 @@
+package io.github.khezyapp.querysupport;
+
+import io.github.khezyapp.grammar.ast.ASTSpec;
+import io.github.khezyapp.grammar.ast.AggregateFunction;
+import io.github.khezyapp.grammar.ast.LogicalAndSpec;
+import io.github.khezyapp.grammar.ast.LogicalOrSpec;
+import io.github.khezyapp.grammar.ast.QuerySpec;
+import io.github.khezyapp.grammar.ast.operand.AggregateOperand;
+import io.github.khezyapp.grammar.ast.operand.PathOperand;
+import io.github.khezyapp.grammar.support.SpecFingerprints;
+import io.github.khezyapp.grammar.support.SpecPaths;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Materialized GROUP BY result of one filter, kept current from row changes instead of being recomputed.
+ * <p>
+ * Only decomposable aggregates are supported: {@code COUNT}, {@code SUM} and {@code AVG} (kept as sum and
+ * count) are adjusted by each change, and {@code MIN}/{@code MAX} keep a count per distinct value so deletes
+ * can be undone. An update is applied as the removal of the previous state followed by the addition of the
+ * new one; an update without previous state marks the rollup stale until the next {@link #verify()}.
+ * Group-by and aggregated paths must lead to at most one value per row.
+ * </p>
+ * <p>
+ * {@link #verify()} recomputes every group from the loader, counts the groups that had drifted, and replaces
+ * the state. The loader must return a stream over one consistent snapshot that is fixed when it returns, as
+ * a single query executed by {@code getResultStream()} is. The event version at that point is the watermark:
+ * changes received after it are buffered and replayed onto the recomputed groups, so verification completes
+ * under a steady write load. A change received while the loader opened its snapshot may or may not be in it;
+ * the groups it touches keep their maintained values and are verified by the next run instead of being
+ * counted twice. Only an update without previous state, a change that cannot be applied during the scan, or
+ * a change to a stale rollup while the loader opens its snapshot makes it give up. Instances are created by
+ * {@link RollupRegistry}.
+ * </p>
+ */
+public final class AggregateRollup {
+    private static final String ALL_COLUMNS = "*";
+
+    private final String name;
+    private final List<ASTSpec> conjuncts;
+    private final List<PathOperand> groupBy;
+    private final Set<String> groupPaths;
+    private final String groupFingerprint;
+    private final List<AggregateOperand> aggregates;
+    private final SpecMatcher matcher;
+    private final Supplier<? extends Stream<?>> loader;
+    private final Clock clock;
+    private final Object lock = new Object();
+    private final Object verifyLock = new Object();
+
+    private Map<List<Object>, GroupState> groups = new HashMap<>();
+    private long version;
+    private boolean stale = true;
+    private Instant lastEventAt;
+    private Instant lastVerifiedAt;
+    private long unknownUpdates;
+    private long failures;
+    private long verifications;
+    private long skippedVerifications;
+    private long driftedGroups;
+    private List<Delta> pending;
+    private boolean pendingLost;
+
+    /**
+     * Constructs an empty rollup, populated by its first {@link #verify()}.
+     *
+     * @param name       the rollup name, used in metrics
+     * @param querySpec  the WHERE and GROUP BY of the rollup
+     * @param aggregates the aggregates to maintain
+     * @param loader     streams every row of the domain type for a full recompute
+     * @param clock      the clock used for metrics
+     * @throws IllegalArgumentException if the specification does not group, has HAVING, or an aggregate is not
+     *                                  decomposable
+     */
+    AggregateRollup(final String name,
+                    final QuerySpec querySpec,
+                    final Collection<AggregateOperand> aggregates,
+                    final Supplier<? extends Stream<?>> loader,
+                    final Clock clock) {
+        this.name = name;
+        this.loader = loader;
+        this.clock = clock;
+        this.groupBy = groupBy(querySpec);
+        if (groupBy.isEmpty()) {
+            throw new IllegalArgumentException("Rollup '%s' requires GROUP BY".formatted(name));
+        }
+        if (Objects.nonNull(querySpec.havingSpec())) {
+            throw new IllegalArgumentException(("Rollup '%s' keeps every group; "
+                    + "put HAVING on the queries it answers").formatted(name));
+        }
+        for (final var aggregate : aggregates) {
+            if (aggregate.function() == AggregateFunction.COUNT_DISTINCT_APPROX) {
+                throw new IllegalArgumentException("%s is not decomposable and cannot be rolled up"
+                        .formatted(SpecMatcher.label(aggregate)));
+            }
+        }
+        this.groupPaths = new LinkedHashSet<>(groupBy.stream().map(PathOperand::path).toList());
+        this.groupFingerprint = fingerprint(groupBy);
+        this.aggregates = List.copyOf(new LinkedHashSet<>(aggregates));
+        this.conjuncts = conjuncts(querySpec.whereSpec());
+        this.matcher = SpecMatcher.of(new QuerySpec(querySpec.whereSpec(), null, null));
+    }
+
+    /**
+     * Answers a grouped query from the rollup, when it can.
+     * <p>
+     * The query must group by the same paths, only use maintained aggregates (including those of its HAVING),
+     * and have a WHERE made of the rollup's conditions plus, optionally, conditions on the grouping paths,
+     * which are then applied to the groups. A stale rollup answers nothing.
+     * </p>
+     *
+     * @param query      the grouped query
+     * @param aggregates the aggregates the caller reads, besides those of HAVING
+     * @return the groups passing the query's conditions, or empty if the rollup cannot answer
+     */
+    public Optional<List<RollupGroup>> answer(final QuerySpec query,
+                                              final Collection<AggregateOperand> aggregates) {
+        final List<PathOperand> queryGroupBy;
+        try {
+            queryGroupBy = groupBy(query);
+        } catch (final IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        if (!groupFingerprint.equals(fingerprint(queryGroupBy))) {
+            return Optional.empty();
+        }
+        final var wanted = new HashSet<>(aggregates);
+        wanted.addAll(SpecPaths.aggregates(query));
+        if (!wanted.stream().allMatch(a -> isAllColumns(a) && a.function() == AggregateFunction.COUNT
+                || this.aggregates.contains(a))) {
+            return Optional.empty();
+        }
+        final var residual = new ArrayList<>(conjuncts(query.whereSpec()));
+        for (final var conjunct : conjuncts) {
+            if (!residual.remove(conjunct)) {
+                return Optional.empty();
+            }
+        }
+        final var residualSpec = new QuerySpec(new LogicalAndSpec(residual), null, null);
+        if (!groupPaths.containsAll(SpecPaths.collect(residualSpec))) {
+            return Optional.empty();
+        }
+
+        final var keyMatcher = SpecMatcher.of(residualSpec);
+        final var having = SpecMatcher.having(query);
+        final var result = new ArrayList<RollupGroup>();
+        synchronized (lock) {
+            if (stale) {
+                return Optional.empty();
+            }
+            for (final var entry : groups.entrySet()) {
+                final var group = new RollupGroup(entry.getKey(), entry.getValue().values());
+                if (keyMatcher.test(keyMap(entry.getKey())) && having.test(group.values())) {
+                    result.add(group);
+                }
+            }
+        }
+        return Optional.of(List.copyOf(result));
+    }
+
+    /**
+     * Recomputes every group from the loader, replays the changes received after its snapshot, and replaces
+     * the maintained state. Concurrent calls run one after the other.
+     * @return the outcome of the verification
+     */
+    public Verification verify() {
+        synchronized (verifyLock) {
+            synchronized (lock) {
+                pending = new ArrayList<>();
+                pendingLost = false;
+            }
+            try {
+                final var fresh = new HashMap<List<Object>, GroupState>();
+                final long watermark;
+                try (var rows = loader.get()) {
+                    synchronized (lock) {
+                        watermark = version;
+                    }
+                    rows.forEach(row -> add(fresh, contribution(row), 1));
+                }
+                synchronized (lock) {
+                    verifications++;
+                    if (pendingLost) {
+                        skippedVerifications++;
+                        return new Verification(false, 0, 0);
+                    }
+                    final var deferred = new HashSet<List<Object>>();
+                    for (final var delta : pending) {
+                        if (delta.version() <= watermark) {
+                            // Maybe in the snapshot already; the maintained state holds it exactly once
+                            deferred.addAll(delta.keys());
+                        } else {
+                            add(fresh, delta.removed(), -1);
+                            add(fresh, delta.added(), 1);
+                        }
+                    }
+                    if (stale && !deferred.isEmpty()) {
+                        // No trustworthy maintained values to keep for the deferred groups
+                        skippedVerifications++;
+                        return new Verification(false, 0, 0);
+                    }
+                    for (final var key : deferred) {
+                        final var maintained = groups.get(key);
+                        if (Objects.isNull(maintained)) {
+                            fresh.remove(key);
+                        } else {
+                            fresh.put(key, maintained);
+                        }
+                    }
+                    final var drifted = drift(groups, fresh);
+                    driftedGroups += drifted;
+                    groups = fresh;
+                    stale = false;
+                    lastVerifiedAt = clock.instant();
+                    return new Verification(true, drifted, deferred.size());
+                }
+            } finally {
+                synchronized (lock) {
+                    pending = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the rollup name.
+     * @return the name
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Gets the maintained aggregates.
+     * @return an unmodifiable list of aggregates
+     */
+    public List<AggregateOperand> aggregates() {
+        return aggregates;
+    }
+
+    /**
+     * Gets the staleness and accuracy metrics of the rollup.
+     * @return a snapshot of the metrics
+     */
+    public Stats stats() {
+        synchronized (lock) {
+            return new Stats(groups.size(), version, unknownUpdates, failures, stale, lastEventAt, lastVerifiedAt,
+                    verifications, skippedVerifications, driftedGroups);
+        }
+    }
+
+    /**
+     * Gets the time since the last completed verification.
+     * @return the elapsed time, or {@code null} if the rollup was never verified
+     */
+    public Duration sinceVerified() {
+        synchronized (lock) {
+            return Objects.isNull(lastVerifiedAt) ? null : Duration.between(lastVerifiedAt, clock.instant());
+        }
+    }
+
+    /**
+     * Applies a committed change.
+     *
+     * @param before        the previous state, or {@code null}
+     * @param beforeUnknown whether a missing previous state means "unknown" rather than "did not exist"
+     * @param after         the new state, or {@code null} if deleted
+     */
+    void apply(final Object before,
+               final boolean beforeUnknown,
+               final Object after) {
+        synchronized (lock) {
+            version++;
+            lastEventAt = clock.instant();
+            if (beforeUnknown) {
+                unknownUpdates++;
+                stale = true;
+                pendingLost = true;
+                return;
+            }
+            try {
+                final var removed = Objects.isNull(before) ? null : contribution(before);
+                final var added = Objects.isNull(after) ? null : contribution(after);
+                add(groups, removed, -1);
+                add(groups, added, 1);
+                if (Objects.nonNull(pending)) {
+                    pending.add(new Delta(version, removed, added));
+                }
+            } catch (final RuntimeException e) {
+                // Never fail the committing thread; the state is rebuilt by the next verification
+                failures++;
+                stale = true;
+                pendingLost = true;
+            }
+        }
+    }
+
+    /**
+     * Reads the group key and aggregated values of a row, so the row can be applied now or replayed later
+     * even if the object changes in between.
+     *
+     * @param row the row or a map of property values
+     * @return the contribution, or {@code null} if the row does not match the rollup's WHERE
+     */
+    private Contribution contribution(final Object row) {
+        if (!matcher.test(row)) {
+            return null;
+        }
+        final var key = new ArrayList<>(groupBy.size());
+        for (final var path : groupBy) {
+            key.add(single(row, path));
+        }
+        final var values = new ArrayList<>(aggregates.size());
+        for (final var aggregate : aggregates) {
+            values.add(isAllColumns(aggregate) ? null : single(row, aggregate.path()));
+        }
+        return new Contribution(key, values);
+    }
+
+    /**
+     * Adds a row's contribution to, or removes it from, a group map.
+     *
+     * @param target       the group map
+     * @param contribution the contribution, {@code null} for a row outside the rollup
+     * @param sign         {@code 1} to add, {@code -1} to remove
+     */
+    private void add(final Map<List<Object>, GroupState> target,
+                     final Contribution contribution,
+                     final int sign) {
+        if (Objects.isNull(contribution)) {
+            return;
+        }
+        final var key = contribution.key();
+        final var state = target.computeIfAbsent(key, k -> new GroupState(aggregates));
+        state.rows += sign;
+        var index = 0;
+        for (final var accumulator : state.accumulators.values()) {
+            if (!isAllColumns(accumulator.aggregate)) {
+                accumulator.apply(contribution.values().get(index), sign);
+            }
+            index++;
+        }
+        if (state.rows <= 0) {
+            target.remove(key);
+        }
+    }
+
+    /**
+     * Counts the groups whose values differ between two group maps.
+     *
+     * @param current the maintained groups
+     * @param fresh   the recomputed groups
+     * @return the number of differing groups
+     */
+    private static int drift(final Map<List<Object>, GroupState> current,
+                             final Map<List<Object>, GroupState> fresh) {
+        final var keys = new HashSet<>(current.keySet());
+        keys.addAll(fresh.keySet());
+        var drifted = 0;
+        for (final var key : keys) {
+            final var left = current.get(key);
+            final var right = fresh.get(key);
+            if (Objects.isNull(left) || Objects.isNull(right) || !sameValues(left.values(), right.values())) {
+                drifted++;
+            }
+        }
+        return drifted;
+    }
+
+    /**
+     * Compares two value maps, treating decimals of different scale as equal.
+     *
+     * @param left  the first map
+     * @param right the second map
+     * @return {@code true} if every value is equal
+     */
+    private static boolean sameValues(final Map<String, Object> left,
+                                      final Map<String, Object> right) {
+        if (!left.keySet().equals(right.keySet())) {
+            return false;
+        }
+        for (final var entry : left.entrySet()) {
+            final var other = right.get(entry.getKey());
+            if (entry.getValue() instanceof BigDecimal a && other instanceof BigDecimal b) {
+                if (a.compareTo(b) != 0) {
+                    return false;
+                }
+            } else if (!Objects.equals(entry.getValue(), other)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads a path that must lead to at most one value.
+     *
+     * @param row  the row
+     * @param path the path
+     * @return the value, or {@code null}
+     * @throws IllegalStateException if the path crosses a collection with several elements
+     */
+    private static Object single(final Object row,
+                                 final PathOperand path) {
+        final var values = SpecMatcher.read(row, path.identifiers());
+        if (values.size() > 1) {
+            throw new IllegalStateException("Rollup path '%s' leads to %d values; only single-valued paths "
+                    .formatted(path.path(), values.size()) + "can be rolled up");
+        }
+        return values.isEmpty() ? null : values.get(0);
+    }
+
+    /**
+     * Builds a nested map of a group key, so conditions on the grouping paths can be evaluated on it.
+     *
+     * @param key the group key
+     * @return the key as nested property maps (e.g., {@code {author={id=1}}})
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> keyMap(final List<Object> key) {
+        final var root = new HashMap<String, Object>();
+        for (var i = 0; i < groupBy.size(); i++) {
+            final var identifiers = groupBy.get(i).identifiers();
+            var node = root;
+            for (final var identifier : identifiers.subList(0, identifiers.size() - 1)) {
+                node = (HashMap<String, Object>) node.computeIfAbsent(identifier, k -> new HashMap<String, Object>());
+            }
+            node.put(identifiers.get(identifiers.size() - 1), key.get(i));
+        }
+        return root;
+    }
+
+    /**
+     * Gets the grouping paths of a specification.
+     *
+     * @param querySpec the specification
+     * @return the paths, empty without GROUP BY
+     * @throws IllegalArgumentException if an item is not a path
+     */
+    private static List<PathOperand> groupBy(final QuerySpec querySpec) {
+        if (Objects.isNull(querySpec.groupBy()) || Objects.isNull(querySpec.groupBy().items())) {
+            return List.of();
+        }
+        return querySpec.groupBy().items().stream().map(item -> {
+            if (item instanceof PathOperand path) {
+                return path;
+            }
+            throw new IllegalArgumentException("Only paths can be grouped by, got " + item);
+        }).toList();
+    }
+
+    /**
+     * Fingerprints the grouping paths, in order.
+     *
+     * @param groupBy the paths
+     * @return the fingerprint
+     */
+    private static String fingerprint(final List<PathOperand> groupBy) {
+        return SpecFingerprints.of(String.join(",", groupBy.stream().map(PathOperand::path).toList()));
+    }
+
+    /**
+     * Splits a WHERE tree into its top-level AND terms.
+     *
+     * @param spec the WHERE tree, may be {@code null}
+     * @return the terms
+     */
+    private static List<ASTSpec> conjuncts(final ASTSpec spec) {
+        if (Objects.isNull(spec)) {
+            return List.of();
+        }
+        if (spec instanceof LogicalOrSpec or && or.children().size() == 1) {
+            return conjuncts(or.children().get(0));
+        }
+        if (spec instanceof LogicalAndSpec and) {
+            return and.children().stream().flatMap(c -> conjuncts(c).stream()).toList();
+        }
+        return List.of(spec);
+    }
+
+    /**
+     * Checks whether an aggregate applies to {@code *}.
+     *
+     * @param aggregate the aggregate
+     * @return {@code true} for {@code COUNT(*)}
+     */
+    private static boolean isAllColumns(final AggregateOperand aggregate) {
+        return ALL_COLUMNS.equals(aggregate.path().path());
+    }
+
+    /**
+     * Group key and aggregated values of one row, in the order of the maintained aggregates.
+     *
+     * @param key    the group key
+     * @param values the aggregated values, {@code null} for {@code COUNT(*)}
+     */
+    private record Contribution(List<Object> key, List<Object> values) {
+    }
+
+    /**
+     * A change received while a verification runs, replayed onto the recomputed groups if it follows the
+     * loader's snapshot.
+     *
+     * @param version the event version of the change
+     * @param removed the contribution of the previous state, or {@code null}
+     * @param added   the contribution of the new state, or {@code null}
+     */
+    private record Delta(long version, Contribution removed, Contribution added) {
+
+        /**
+         * Gets the keys of the groups the change touches.
+         * @return the group keys, empty for a change outside the rollup
+         */
+        private List<List<Object>> keys() {
+            return Stream.of(removed, added).filter(Objects::nonNull).map(Contribution::key).toList();
+        }
+    }
+
+    /**
+     * Outcome of a {@link #verify()} call.
+     *
+     * @param completed      {@code false} if a change that cannot be replayed arrived during the recompute, or
+     *                       a stale rollup changed while the loader opened its snapshot, and the state was kept
+     * @param driftedGroups  the number of groups whose maintained values differed from the recompute
+     * @param deferredGroups the number of groups changed while the loader opened its snapshot, which kept their
+     *                       maintained values until the next verification
+     */
+    public record Verification(boolean completed, int driftedGroups, int deferredGroups) {
+    }
+
+    /**
+     * Staleness and accuracy metrics of a rollup.
+     *
+     * @param groups               the number of maintained groups
+     * @param events               the number of changes received
+     * @param unknownUpdates       the number of updates without previous state, each making the rollup stale
+     * @param failures             the number of changes that could not be applied
+     * @param stale                whether the rollup refuses to answer until the next verification
+     * @param lastEventAt          when the last change was received, {@code null} if none
+     * @param lastVerifiedAt       when the last verification completed, {@code null} if none
+     * @param verifications        the number of verifications run
+     * @param skippedVerifications the number of verifications given up because of a change that cannot be
+     *                             replayed
+     * @param driftedGroups        the total number of drifted groups found by verifications
+     */
+    public record Stats(
+            int groups,
+            long events,
+            long unknownUpdates,
+            long failures,
+            boolean stale,
+            Instant lastEventAt,
+            Instant lastVerifiedAt,
+            long verifications,
+            long skippedVerifications,
+            long driftedGroups
+    ) {
+    }
+
+    /**
+     * Running aggregates of one group.
+     */
+    private static final class GroupState {
+        private final Map<String, Accumulator> accumulators = new LinkedHashMap<>();
+        private long rows;
+
+        private GroupState(final List<AggregateOperand> aggregates) {
+            for (final var aggregate : aggregates) {
+                accumulators.put(SpecMatcher.label(aggregate), new Accumulator(aggregate));
+            }
+        }
+
+        /**
+         * Gets the current values keyed by aggregate label, always including {@code COUNT(*)}.
+         * @return the values
+         */
+        private Map<String, Object> values() {
+            final var values = new LinkedHashMap<String, Object>();
+            values.put(AggregateFunction.COUNT.getValue() + "(" + ALL_COLUMNS + ")", rows);
+            accumulators.forEach((label, accumulator) ->
+                    values.put(label, isAllColumns(accumulator.aggregate) ? rows : accumulator.value()));
+            return values;
+        }
+    }
+
+    /**
+     * Invertible accumulator of one aggregate.
+     */
+    private static final class Accumulator {
+        private final AggregateOperand aggregate;
+        private final TreeMap<Object, Long> distinct;
+        private long count;
+        private BigDecimal sum = BigDecimal.ZERO;
+
+        private Accumulator(final AggregateOperand aggregate) {
+            this.aggregate = aggregate;
+            final var ordered = aggregate.function() == AggregateFunction.MIN
+                    || aggregate.function() == AggregateFunction.MAX;
+            this.distinct = ordered ? new TreeMap<>() : null;
+        }
+
+        /**
+         * Adds or removes one value; {@code null} is ignored like in SQL.
+         *
+         * @param value the value
+         * @param sign  {@code 1} to add, {@code -1} to remove
+         */
+        private void apply(final Object value,
+                           final int sign) {
+            if (Objects.isNull(value)) {
+                return;
+            }
+            count += sign;
+            switch (aggregate.function()) {
+                case SUM, AVG -> sum = sign > 0 ? sum.add(decimal(value)) : sum.subtract(decimal(value));
+                case MIN, MAX -> {
+                    if (!(value instanceof Comparable<?>)) {
+                        throw new IllegalStateException("%s needs comparable values, got %s"
+                                .formatted(SpecMatcher.label(aggregate), value.getClass().getName()));
+                    }
+                    distinct.compute(value, (k, n) -> {
+                        final var next = (Objects.isNull(n) ? 0 : n) + sign;
+                        return next <= 0 ? null : next;
+                    });
+                }
+                default -> {
+                    // COUNT only needs the count
+                }
+            }
+        }
+
+        /**
+         * Gets the aggregate value with SQL semantics ({@code null} over no value, except for counts).
+         * @return the value
+         */
+        private Object value() {
+            return switch (aggregate.function()) {
+                case COUNT -> count;
+                case SUM -> count == 0 ? null : sum;
+                case AVG -> count == 0 ? null : sum.divide(BigDecimal.valueOf(count), MathContext.DECIMAL64);
+                case MIN -> distinct.isEmpty() ? null : distinct.firstKey();
+                case MAX -> distinct.isEmpty() ? null : distinct.lastKey();
+                default -> throw new IllegalStateException("Unexpected aggregate " + aggregate);
+            };
+        }
+
+        /**
+         * Converts a numeric value to a decimal.
+         *
+         * @param value the value
+         * @return the decimal
+         * @throws IllegalStateException if the value is not a finite number
+         */
+        private BigDecimal decimal(final Object value) {
+            if (value instanceof BigDecimal decimal) {
+                return decimal;
+            }
+            if (value instanceof BigInteger integer) {
+                return new BigDecimal(integer);
+            }
+            if (value instanceof Double || value instanceof Float) {
+                final var number = ((Number) value).doubleValue();
+                if (!Double.isFinite(number)) {
+                    throw new IllegalStateException("%s cannot add %s".formatted(SpecMatcher.label(aggregate), value));
+                }
+                return BigDecimal.valueOf(number);
+            }
+            if (value instanceof Number number) {
+                return BigDecimal.valueOf(number.longValue());
+            }
+            throw new IllegalStateException("%s needs numeric values, got %s"
+                    .formatted(SpecMatcher.label(aggregate), value.getClass().getName()));
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package io.github.khezyapp.querysupport;
+
+import java.util.Collection;
+
+/**
+ * Source of a version describing the current state of a set of tables.
+ * <p>
+ * The version changes whenever a committed write may have changed the rows of one of the tables, and stays
+ * the same otherwise. It is used to validate cached list responses without running their query, e.g., as
+ * part of an HTTP {@code ETag}.
+ * </p>
+ */
+@FunctionalInterface
+public interface ChangeVersionSource {
+
+    /**
+     * Gets the current version of the given tables.
+     *
+     * @param tables the table names a query reads
+     * @return an opaque version string, equal for equal table states
+     */
+    String version(Collection<String> tables);
+}
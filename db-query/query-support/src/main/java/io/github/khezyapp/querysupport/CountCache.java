@@ -0,0 +1,121 @@
+package io.github.khezyapp.querysupport;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory cache of exact row counts keyed by query fingerprint, with a fixed time-to-live.
+ * <p>
+ * A single instance is meant to be shared by the endpoints that use {@link CountStrategy#cached(CountCache)}.
+ * Expired entries are recomputed on access. When the cache grows beyond its size limit, expired entries
+ * are purged first and the whole cache is cleared if that is not enough.
+ * </p>
+ */
+public class CountCache {
+    private static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Duration ttl;
+    private final int maxEntries;
+    private final Clock clock;
+
+    /**
+     * Constructs a cache with the given time-to-live and default limits.
+     * @param ttl how long a count stays valid
+     */
+    public CountCache(final Duration ttl) {
+        this(ttl, DEFAULT_MAX_ENTRIES, Clock.systemUTC());
+    }
+
+    /**
+     * Constructs a cache with explicit limits.
+     *
+     * @param ttl        how long a count stays valid
+     * @param maxEntries the maximum number of cached counts
+     * @param clock      the clock used to expire entries
+     */
+    public CountCache(final Duration ttl,
+                      final int maxEntries,
+                      final Clock clock) {
+        this.ttl = Objects.requireNonNull(ttl, "ttl must not be null");
+        this.clock = Objects.requireNonNull(clock, "clock must not be null");
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Count cache TTL must be positive");
+        }
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Count cache size must not be less than one");
+        }
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns the cached count for the key, computing and storing it when absent or expired.
+     *
+     * @param key     the query fingerprint
+     * @param counter computes the exact count on a miss
+     * @return the count
+     */
+    public long get(final String key,
+                    final LongSupplier counter) {
+        Objects.requireNonNull(key, "key must not be null");
+        final var now = clock.millis();
+        final var cached = entries.get(key);
+        if (Objects.nonNull(cached) && cached.expiresAt() > now) {
+            return cached.value();
+        }
+
+        final var value = counter.getAsLong();
+        if (entries.size() >= maxEntries) {
+            purge(now);
+        }
+        entries.put(key, new Entry(value, now + ttl.toMillis()));
+        return value;
+    }
+
+    /**
+     * Removes the count stored for the key.
+     * @param key the query fingerprint
+     */
+    public void evict(final String key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Removes all cached counts.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Gets the number of cached counts, including expired ones not yet purged.
+     * @return the number of entries
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Drops expired entries, or everything if the cache is still full afterwards.
+     * @param now the current time in milliseconds
+     */
+    private void purge(final long now) {
+        entries.values().removeIf(e -> e.expiresAt() <= now);
+        if (entries.size() >= maxEntries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Cached count with its expiry time.
+     *
+     * @param value     the count
+     * @param expiresAt the expiry time in epoch milliseconds
+     */
+    private record Entry(long value, long expiresAt) {
+    }
+}
@@ -0,0 +1,33 @@
+package io.github.khezyapp.querysupport;
+
+import java.util.OptionalLong;
+
+/**
+ * Backend hook used by {@link CountStrategy} to obtain counts for a filtered query.
+ * <p>
+ * Each query module (JPA, jOOQ) implements this interface for the query being paginated, so the
+ * strategy logic itself stays independent of how the SQL is built.
+ * </p>
+ */
+public interface CountSource {
+
+    /**
+     * Counts all matching rows.
+     * @return the exact number of rows
+     */
+    long exact();
+
+    /**
+     * Counts matching rows, stopping once {@code limit} rows have been seen.
+     *
+     * @param limit the maximum number of rows to count
+     * @return the number of rows counted, never greater than {@code limit}
+     */
+    long upTo(long limit);
+
+    /**
+     * Reads the planner's row estimate for the filtered query.
+     * @return the estimate, or empty if the backend cannot provide one
+     */
+    OptionalLong estimate();
+}
@@ -0,0 +1,144 @@
+package io.github.khezyapp.querysupport;
+
+import java.util.Objects;
+
+/**
+ * Describes how the total number of rows is obtained for a paginated filter query.
+ * <p>
+ * An exact {@code COUNT(*)} repeats the full filter, joins and grouping of the page query and is often
+ * the slowest part of a request. Endpoints can choose a cheaper strategy instead:
+ * </p>
+ * <ul>
+ *     <li>{@link Mode#EXACT}: always count (default)</li>
+ *     <li>{@link Mode#SLICE}: fetch {@code size + 1} rows and report only whether a next page exists</li>
+ *     <li>{@link Mode#CAPPED}: count at most {@code cap} rows and report "cap+" beyond that</li>
+ *     <li>{@link Mode#ESTIMATED}: report the planner row estimate</li>
+ *     <li>{@link Mode#CACHED}: reuse an exact count keyed by the spec fingerprint until its TTL expires</li>
+ * </ul>
+ * <p>
+ * Every mode except {@link Mode#EXACT} fetches one extra row with the page. {@code hasNext} is then always
+ * accurate, and on the last page the total is known exactly without running any count. A page past the end
+ * has no row to derive the total from, so it is counted with the mode like any other page.
+ * </p>
+ *
+ * @param mode  the counting mode
+ * @param cap   the maximum number of rows counted in {@link Mode#CAPPED} mode
+ * @param cache the cache used in {@link Mode#CACHED} mode
+ */
+public record CountStrategy(
+        Mode mode,
+        long cap,
+        CountCache cache
+) {
+    private static final CountStrategy EXACT = new CountStrategy(Mode.EXACT, 0L, null);
+    private static final CountStrategy SLICE = new CountStrategy(Mode.SLICE, 0L, null);
+    private static final CountStrategy ESTIMATED = new CountStrategy(Mode.ESTIMATED, 0L, null);
+
+    /**
+     * Compact constructor validating mode-specific settings.
+     * @throws IllegalArgumentException if the cap or the cache is missing for its mode
+     */
+    public CountStrategy {
+        Objects.requireNonNull(mode, "mode must not be null");
+        if (mode == Mode.CAPPED && cap < 1) {
+            throw new IllegalArgumentException("Count cap must not be less than one");
+        }
+        if (mode == Mode.CACHED && Objects.isNull(cache)) {
+            throw new IllegalArgumentException("Cached count strategy requires a cache");
+        }
+    }
+
+    /**
+     * Counts every matching row.
+     * @return the exact strategy
+     */
+    public static CountStrategy exact() {
+        return EXACT;
+    }
+
+    /**
+     * Skips counting and probes one extra row to detect a next page.
+     * @return the slice strategy
+     */
+    public static CountStrategy slice() {
+        return SLICE;
+    }
+
+    /**
+     * Counts up to {@code cap} rows.
+     *
+     * @param cap the maximum number of rows to count
+     * @return the capped strategy
+     */
+    public static CountStrategy capped(final long cap) {
+        return new CountStrategy(Mode.CAPPED, cap, null);
+    }
+
+    /**
+     * Uses the planner row estimate, falling back to an exact count when no estimate is available.
+     * @return the estimated strategy
+     */
+    public static CountStrategy estimated() {
+        return ESTIMATED;
+    }
+
+    /**
+     * Reuses exact counts stored in the given cache.
+     *
+     * @param cache the cache holding counts by fingerprint
+     * @return the cached strategy
+     */
+    public static CountStrategy cached(final CountCache cache) {
+        return new CountStrategy(Mode.CACHED, 0L, cache);
+    }
+
+    /**
+     * Checks whether the page query must fetch one extra row to detect the next page.
+     * @return {@code true} for every mode except {@link Mode#EXACT}
+     */
+    public boolean probesNextPage() {
+        return mode != Mode.EXACT;
+    }
+
+    /**
+     * Computes the total for the query described by the source.
+     *
+     * @param key    the fingerprint identifying the filtered query, used in cached mode
+     * @param source the backend able to count the filtered query
+     * @return the total count
+     */
+    public TotalCount count(final String key,
+                            final CountSource source) {
+        return switch (mode) {
+            case EXACT -> TotalCount.exact(source.exact());
+            case SLICE -> TotalCount.unknown();
+            case CAPPED -> {
+                // Count one row past the cap to tell "exactly cap" apart from "more than cap"
+                final var counted = source.upTo(cap + 1);
+                yield counted > cap ? TotalCount.atLeast(cap) : TotalCount.exact(counted);
+            }
+            case ESTIMATED -> {
+                final var estimate = source.estimate();
+                yield estimate.isPresent() ?
+                        TotalCount.estimated(estimate.getAsLong()) : TotalCount.exact(source.exact());
+            }
+            case CACHED -> TotalCount.exact(cache.get(key, source::exact));
+        };
+    }
+
+    /**
+     * Supported counting modes.
+     */
+    public enum Mode {
+        /** Always run an exact count. */
+        EXACT,
+        /** Do not count; probe one extra row instead. */
+        SLICE,
+        /** Count up to a cap. */
+        CAPPED,
+        /** Use the planner row estimate. */
+        ESTIMATED,
+        /** Reuse exact counts from a TTL cache. */
+        CACHED
+    }
+}
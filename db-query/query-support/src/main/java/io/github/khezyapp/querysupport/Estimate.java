@@ -0,0 +1,205 @@
+package io.github.khezyapp.querysupport;
+
+/**
+ * Approximate aggregate value with a two-sided confidence interval.
+ * <p>
+ * The factories implement the usual estimators for a Bernoulli sample, where every row was kept independently
+ * with probability {@code fraction}: counts and sums are scaled up by {@code 1 / fraction} and averages are
+ * taken as is. Intervals use the normal approximation, which holds once a group has a few dozen sampled rows;
+ * below that they are optimistic. A fraction of one means no sampling and yields exact values.
+ * </p>
+ *
+ * @param value      the estimated value
+ * @param lower      the lower bound of the interval
+ * @param upper      the upper bound of the interval
+ * @param confidence the probability that the interval covers the true value, between zero and one
+ */
+public record Estimate(
+        double value,
+        double lower,
+        double upper,
+        double confidence
+) {
+
+    /**
+     * Creates an exact value, whose interval is the value itself.
+     *
+     * @param value the value
+     * @return the estimate
+     */
+    public static Estimate exact(final double value) {
+        return new Estimate(value, value, value, 1.0);
+    }
+
+    /**
+     * Creates a normally distributed estimate from its standard error.
+     *
+     * @param value         the estimated value
+     * @param standardError the standard error of the estimator
+     * @param confidence    the confidence level, e.g., 0.95
+     * @return the estimate
+     */
+    public static Estimate normal(final double value,
+                                  final double standardError,
+                                  final double confidence) {
+        final var margin = z(confidence) * standardError;
+        return new Estimate(value, value - margin, value + margin, confidence);
+    }
+
+    /**
+     * Estimates {@code COUNT} from the number of sampled rows.
+     *
+     * @param sampledRows the number of rows in the sample
+     * @param fraction    the sampling fraction, in (0, 1]
+     * @param confidence  the confidence level
+     * @return the estimate, never below zero
+     */
+    public static Estimate ofCount(final long sampledRows,
+                                   final double fraction,
+                                   final double confidence) {
+        checkFraction(fraction);
+        // Var(n / f) = N(1 - f) / f, with N estimated by n / f
+        final var standardError = Math.sqrt(sampledRows * (1 - fraction)) / fraction;
+        return clampAtZero(normal(sampledRows / fraction, standardError, confidence));
+    }
+
+    /**
+     * Estimates {@code SUM} from the sum and the sum of squares of the sampled values.
+     *
+     * @param sum          the sum of the sampled values
+     * @param sumOfSquares the sum of the squared sampled values
+     * @param fraction     the sampling fraction, in (0, 1]
+     * @param confidence   the confidence level
+     * @return the estimate
+     */
+    public static Estimate ofSum(final double sum,
+                                 final double sumOfSquares,
+                                 final double fraction,
+                                 final double confidence) {
+        checkFraction(fraction);
+        // Horvitz-Thompson: Var(sum / f) = (1 - f) / f^2 * sum(y^2)
+        final var standardError = Math.sqrt((1 - fraction) * sumOfSquares) / fraction;
+        return normal(sum / fraction, standardError, confidence);
+    }
+
+    /**
+     * Estimates {@code AVG} from the count, sum and sum of squares of the sampled values.
+     * <p>
+     * With a single sampled value the variance is unknown and the interval is unbounded.
+     * </p>
+     *
+     * @param count        the number of sampled non-null values, at least one
+     * @param sum          the sum of the sampled values
+     * @param sumOfSquares the sum of the squared sampled values
+     * @param fraction     the sampling fraction, in (0, 1]
+     * @param confidence   the confidence level
+     * @return the estimate
+     * @throws IllegalArgumentException if no value was sampled
+     */
+    public static Estimate ofAverage(final long count,
+                                     final double sum,
+                                     final double sumOfSquares,
+                                     final double fraction,
+                                     final double confidence) {
+        checkFraction(fraction);
+        if (count < 1) {
+            throw new IllegalArgumentException("An average needs at least one sampled value");
+        }
+        final var mean = sum / count;
+        if (fraction >= 1) {
+            return exact(mean);
+        }
+        if (count == 1) {
+            return new Estimate(mean, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, confidence);
+        }
+        final var variance = Math.max(0, (sumOfSquares - count * mean * mean) / (count - 1));
+        return normal(mean, Math.sqrt(variance / count * (1 - fraction)), confidence);
+    }
+
+    /**
+     * Gets the half width of the interval relative to the value.
+     * @return the relative error, e.g., 0.01 for +/-1%, or infinity when the value is zero
+     */
+    public double relativeError() {
+        final var halfWidth = (upper - lower) / 2;
+        return halfWidth == 0 ? 0 : halfWidth / Math.abs(value);
+    }
+
+    /**
+     * Checks whether the interval contains a value.
+     *
+     * @param candidate the value
+     * @return {@code true} if {@code lower <= candidate <= upper}
+     */
+    public boolean covers(final double candidate) {
+        return lower <= candidate && candidate <= upper;
+    }
+
+    /**
+     * Gets the standard normal quantile for a two-sided confidence level (1.96 for 0.95).
+     *
+     * @param confidence the confidence level, in (0, 1)
+     * @return the quantile
+     * @throws IllegalArgumentException if the level is outside (0, 1)
+     */
+    public static double z(final double confidence) {
+        if (!(confidence > 0 && confidence < 1)) {
+            throw new IllegalArgumentException("Confidence must be between zero and one, got " + confidence);
+        }
+        return inverseNormal(0.5 + confidence / 2);
+    }
+
+    /**
+     * Validates a sampling fraction.
+     * @param fraction the fraction
+     */
+    private static void checkFraction(final double fraction) {
+        if (!(fraction > 0 && fraction <= 1)) {
+            throw new IllegalArgumentException("Sampling fraction must be in (0, 1], got " + fraction);
+        }
+    }
+
+    /**
+     * Raises a negative lower bound to zero, for quantities that cannot be negative.
+     *
+     * @param estimate the estimate
+     * @return the clamped estimate
+     */
+    private static Estimate clampAtZero(final Estimate estimate) {
+        return estimate.lower() >= 0 ? estimate :
+                new Estimate(estimate.value(), 0, estimate.upper(), estimate.confidence());
+    }
+
+    /**
+     * Inverse of the standard normal distribution function (Acklam's rational approximation, relative error
+     * below 1.2e-9).
+     *
+     * @param p the probability, in (0, 1)
+     * @return the quantile
+     */
+    private static double inverseNormal(final double p) {
+        final double[] a = {-3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02,
+                1.383577518672690e+02, -3.066479806614716e+01, 2.506628277459239e+00};
+        final double[] b = {-5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02,
+                6.680131188771972e+01, -1.328068155288572e+01};
+        final double[] c = {-7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00,
+                -2.549732539343734e+00, 4.374664141464968e+00, 2.938163982698783e+00};
+        final double[] d = {7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00,
+                3.754408661907416e+00};
+        final var low = 0.02425;
+        if (p < low) {
+            final var q = Math.sqrt(-2 * Math.log(p));
+            return (((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5])
+                    / ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+        }
+        if (p > 1 - low) {
+            final var q = Math.sqrt(-2 * Math.log(1 - p));
+            return -(((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5])
+                    / ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+        }
+        final var q = p - 0.5;
+        final var r = q * q;
+        return (((((a[0] * r + a[1]) * r + a[2]) * r + a[3]) * r + a[4]) * r + a[5]) * q
+                / (((((b[0] * r + b[1]) * r + b[2]) * r + b[3]) * r + b[4]) * r + 1);
+    }
+}
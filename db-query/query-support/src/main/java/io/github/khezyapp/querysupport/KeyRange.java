@@ -0,0 +1,106 @@
+package io.github.khezyapp.querysupport;
+
+import io.github.khezyapp.grammar.ast.QuerySpec;
+import io.github.khezyapp.grammar.ast.builder.ASTSpecConditions;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A half-open range of numeric keys, {@code [from, to)}.
+ *
+ * @param from the first key included in the range
+ * @param to   the first key after the range
+ */
+public record KeyRange(
+        long from,
+        long to
+) {
+
+    /**
+     * Compact constructor validating the bounds.
+     * @throws IllegalArgumentException if {@code to} is before {@code from}
+     */
+    public KeyRange {
+        if (to < from) {
+            throw new IllegalArgumentException("Key range end must not be before its start");
+        }
+    }
+
+    /**
+     * Splits the inclusive key interval {@code [min, max]} into at most {@code partitions} contiguous ranges.
+     * <p>
+     * Ranges have the same width except the last one, which absorbs the remainder. Fewer ranges are
+     * returned when the interval holds fewer keys than requested partitions. Widths are computed without
+     * overflow, so the interval may span the whole {@code long} range except {@link Long#MAX_VALUE}, which
+     * a half-open range cannot end after.
+     * </p>
+     *
+     * @param min        the smallest key
+     * @param max        the largest key
+     * @param partitions the requested number of ranges
+     * @return the ranges in ascending key order
+     * @throws ArithmeticException if {@code max} is {@link Long#MAX_VALUE}
+     */
+    public static List<KeyRange> split(final long min,
+                                       final long max,
+                                       final int partitions) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("Partition count must not be less than one");
+        }
+        if (max < min) {
+            throw new IllegalArgumentException("Maximum key must not be less than the minimum key");
+        }
+        final var end = Math.addExact(max, 1L);
+        // The span of a wide interval does not fit in a long
+        final var span = BigInteger.valueOf(end).subtract(BigInteger.valueOf(min));
+        final var count = span.min(BigInteger.valueOf(partitions)).intValue();
+        final var width = span.divide(BigInteger.valueOf(count));
+        final var ranges = new ArrayList<KeyRange>(count);
+        var from = min;
+        for (var i = 0; i < count; i++) {
+            final var to = i == count - 1 ? end : BigInteger.valueOf(from).add(width).longValueExact();
+            ranges.add(new KeyRange(from, to));
+            from = to;
+        }
+        return ranges;
+    }
+
+    /**
+     * Checks whether the range holds no keys.
+     * @return {@code true} if {@code from == to}
+     */
+    public boolean isEmpty() {
+        return from == to;
+    }
+
+    /**
+     * Returns a copy of the query specification restricted to this range.
+     * <p>
+     * The WHERE clause becomes {@code (original) AND keyPath >= from AND keyPath < to}; HAVING and
+     * GROUP BY are kept as they are.
+     * </p>
+     *
+     * @param querySpec the specification to restrict, may be {@code null} for "no filter"
+     * @param keyPath   the dotted path of the numeric key (e.g., "id")
+     * @return the restricted specification
+     */
+    public QuerySpec applyTo(final QuerySpec querySpec,
+                             final String keyPath) {
+        Objects.requireNonNull(keyPath, "keyPath must not be null");
+        final var range = ASTSpecConditions.and(
+                ASTSpecConditions.gte(keyPath, from),
+                ASTSpecConditions.lt(keyPath, to)
+        );
+        if (Objects.isNull(querySpec)) {
+            return new QuerySpec(range, null, null);
+        }
+        return new QuerySpec(
+                ASTSpecConditions.and(querySpec.whereSpec(), range),
+                querySpec.havingSpec(),
+                querySpec.groupBy()
+        );
+    }
+}
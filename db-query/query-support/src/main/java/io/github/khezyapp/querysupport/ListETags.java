@@ -0,0 +1,57 @@
+package io.github.khezyapp.querysupport;
+
+import io.github.khezyapp.grammar.support.SpecFingerprints;
+
+import java.util.Objects;
+
+/**
+ * Utility class for computing strong entity tags of filtered list responses.
+ * <p>
+ * The tag covers the query key (filter fingerprint, page size and sort), the page number, the caller's scope
+ * and the change version of the tables the query reads. Two requests get the same tag only if they ask for the
+ * same page of the same listing on behalf of the same caller and no table changed in between, so a matching
+ * {@code If-None-Match} can be answered with {@code 304 Not Modified} before the query runs.
+ * </p>
+ * <p>
+ * The scope names whatever narrows the rows one caller sees, e.g., the principal or the enabled tenant filter.
+ * Without it, two users sharing a browser or an HTTP client would get a {@code 304} for each other's list.
+ * </p>
+ */
+public final class ListETags {
+
+    private ListETags() {
+    }
+
+    /**
+     * Computes the strong entity tag of a list page every caller sees alike.
+     *
+     * @param queryKey   identifies the filter, page size and sort
+     * @param pageNumber the zero-based page
+     * @param version    the change version of the tables read by the query
+     * @return the quoted entity tag, e.g., {@code "3f9a..."}
+     */
+    public static String of(final String queryKey,
+                            final int pageNumber,
+                            final String version) {
+        return of(queryKey, pageNumber, "", version);
+    }
+
+    /**
+     * Computes the strong entity tag of a list page seen by one caller.
+     *
+     * @param queryKey   identifies the filter, page size and sort
+     * @param pageNumber the zero-based page
+     * @param scope      identifies what narrows the caller's rows, e.g., the principal and tenant filter
+     * @param version    the change version of the tables read by the query
+     * @return the quoted entity tag, e.g., {@code "3f9a..."}
+     */
+    public static String of(final String queryKey,
+                            final int pageNumber,
+                            final String scope,
+                            final String version) {
+        Objects.requireNonNull(queryKey, "queryKey must not be null");
+        Objects.requireNonNull(scope, "scope must not be null");
+        Objects.requireNonNull(version, "version must not be null");
+        return '"' + SpecFingerprints.of(String.join("|", queryKey, String.valueOf(pageNumber), scope, version)) + '"';
+    }
+}
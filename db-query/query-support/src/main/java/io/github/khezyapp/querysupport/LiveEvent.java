@@ -0,0 +1,30 @@
+package io.github.khezyapp.querysupport;
+
+/**
+ * Change pushed to a live query subscriber.
+ *
+ * @param type    what happened to the row within the subscribed filter
+ * @param id      the identifier of the changed row, {@code null} for {@link Type#RESYNC}
+ * @param payload the row as sent to clients, {@code null} for {@link Type#REMOVED} and {@link Type#RESYNC}
+ * @param <R>     the payload type
+ */
+public record LiveEvent<R>(
+        Type type,
+        Object id,
+        R payload
+) {
+
+    /**
+     * Kinds of live query events.
+     */
+    public enum Type {
+        /** The row entered the filter: it was inserted, or updated so that it now matches. */
+        ADDED,
+        /** The row matched before and after an update, or its previous state is unknown. */
+        UPDATED,
+        /** The row left the filter: it was deleted, or updated so that it no longer matches. */
+        REMOVED,
+        /** Events were dropped because the subscriber fell behind; the client must reload the list. */
+        RESYNC
+    }
+}
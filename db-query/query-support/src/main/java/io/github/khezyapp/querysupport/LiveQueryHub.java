@@ -0,0 +1,480 @@
+package io.github.khezyapp.querysupport;
+
+import io.github.khezyapp.grammar.ast.QuerySpec;
+import io.github.khezyapp.grammar.support.SpecFingerprints;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Pushes row changes to subscribers of filtered lists, evaluating the filters in memory.
+ * <p>
+ * Subscriptions are grouped by specification fingerprint: a change is tested once against each distinct filter
+ * with a {@link SpecMatcher}, however many clients watch it, and no SQL is run. Each change is classified per
+ * filter by testing the row before and after it: entering the filter is {@link LiveEvent.Type#ADDED}, staying
+ * in is {@link LiveEvent.Type#UPDATED}, leaving is {@link LiveEvent.Type#REMOVED}.
+ * </p>
+ * <p>
+ * Every subscriber has a bounded buffer drained on the delivery executor, so a slow client never blocks the
+ * publishing thread or other clients. When the buffer overflows, its events are dropped and replaced by one
+ * {@link LiveEvent.Type#RESYNC} telling the client to reload. A sink that throws ends its subscription.
+ * </p>
+ * <p>
+ * The hub sees every committed row, including rows of other tenants that session filters would hide from the
+ * subscriber's own queries. Subscribe with a scope and a visibility predicate, such as the tenant and a test of
+ * the row's tenant, so that a subscriber only receives rows it may read. Groups are keyed by fingerprint and
+ * scope, so subscribers with different scopes never share one.
+ * </p>
+ *
+ * @param <E> the row (entity) type
+ * @param <R> the payload type sent to clients
+ */
+public class LiveQueryHub<E, R> implements AutoCloseable, RowChangeListener {
+    private final Map<String, Group> groups = new ConcurrentHashMap<>();
+    private final Class<E> domainClass;
+    private final Function<? super E, ? extends R> mapper;
+    private final ExecutorService executor;
+    private final boolean ownExecutor;
+    private final int bufferSize;
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder overflows = new LongAdder();
+
+    private LiveQueryHub(final Builder<E, R> builder) {
+        this.domainClass = builder.domainClass;
+        this.mapper = builder.mapper;
+        this.ownExecutor = Objects.isNull(builder.executor);
+        this.executor = ownExecutor ? Executors.newFixedThreadPool(builder.deliveryThreads, task -> {
+            final var thread = new Thread(task, "live-query");
+            thread.setDaemon(true);
+            return thread;
+        }) : builder.executor;
+        this.bufferSize = builder.bufferSize;
+    }
+
+    /**
+     * Creates a builder for a hub of the given row type.
+     *
+     * @param domainClass the row (entity) class
+     * @param mapper      converts a row into the payload sent to clients
+     * @param <E>         the row type
+     * @param <R>         the payload type
+     * @return a new {@link Builder}
+     */
+    public static <E, R> Builder<E, R> builder(final Class<E> domainClass,
+                                               final Function<? super E, ? extends R> mapper) {
+        return new Builder<>(domainClass, mapper);
+    }
+
+    /**
+     * Subscribes to the changes of a filter, across all rows the hub sees.
+     * <p>
+     * Use {@link #subscribe(QuerySpec, String, Predicate, Consumer)} when subscribers may only see some rows.
+     * </p>
+     *
+     * @param querySpec the filter, {@code null} for all rows
+     * @param sink      receives events on a delivery thread
+     * @return the subscription, to start and close
+     * @throws IllegalArgumentException if the filter cannot be evaluated in memory
+     */
+    public Subscription subscribe(final QuerySpec querySpec,
+                                  final Consumer<? super LiveEvent<R>> sink) {
+        return subscribe(querySpec, "", row -> true, sink);
+    }
+
+    /**
+     * Subscribes to the changes of a filter within the rows visible to a scope, such as a tenant.
+     * <p>
+     * The subscription starts paused: events are buffered until {@link Subscription#start()}. Subscribe
+     * first, send the initial page, then start, so that no change committed in between is lost. Such changes
+     * may repeat rows of the page; clients should apply {@code ADDED} and {@code UPDATED} as upserts.
+     * </p>
+     * <p>
+     * A row is only delivered if the visibility predicate accepts it; a row that stops being visible is
+     * reported as {@code REMOVED}. Subscribers of the same filter and scope share the predicate of the first
+     * one, so the predicate must depend on the scope only.
+     * </p>
+     *
+     * @param querySpec  the filter, {@code null} for all rows
+     * @param scope      identifies what the subscriber may see, e.g., the tenant identifier
+     * @param visibility tests whether a row is visible within the scope
+     * @param sink       receives events on a delivery thread
+     * @return the subscription, to start and close
+     * @throws IllegalArgumentException if the filter cannot be evaluated in memory
+     */
+    public Subscription subscribe(final QuerySpec querySpec,
+                                  final String scope,
+                                  final Predicate<? super E> visibility,
+                                  final Consumer<? super LiveEvent<R>> sink) {
+        Objects.requireNonNull(scope, "scope must not be null");
+        Objects.requireNonNull(visibility, "visibility must not be null");
+        Objects.requireNonNull(sink, "sink must not be null");
+        final var key = SpecFingerprints.of(querySpec) + "|" + scope;
+        final var subscriber = new Subscriber(key, sink);
+        groups.compute(key, (k, group) -> {
+            final var use = Objects.isNull(group) ? new Group(SpecMatcher.of(querySpec), visibility) : group;
+            use.subscribers().add(subscriber);
+            return use;
+        });
+        return subscriber;
+    }
+
+    /**
+     * Publishes an inserted row.
+     *
+     * @param id  the row identifier
+     * @param row the inserted row
+     */
+    @Override
+    public void inserted(final Object id,
+                         final Object row) {
+        publish(id, null, false, row);
+    }
+
+    /**
+     * Publishes an updated row.
+     *
+     * @param id     the row identifier
+     * @param before the previous state, as the row or a map of property values; {@code null} if unknown
+     * @param after  the updated row
+     */
+    @Override
+    public void updated(final Object id,
+                        final Object before,
+                        final Object after) {
+        publish(id, before, Objects.isNull(before), after);
+    }
+
+    /**
+     * Publishes a deleted row.
+     *
+     * @param id  the row identifier
+     * @param row the deleted row
+     */
+    @Override
+    public void deleted(final Object id,
+                        final Object row) {
+        publish(id, row, false, null);
+    }
+
+    /**
+     * Gets the row type this hub publishes.
+     * @return the row class
+     */
+    @Override
+    public Class<E> domainClass() {
+        return domainClass;
+    }
+
+    /**
+     * Gets the number of distinct filter and scope pairs being watched.
+     * @return the group count
+     */
+    public int groupCount() {
+        return groups.size();
+    }
+
+    /**
+     * Gets the number of open subscriptions.
+     * @return the subscriber count
+     */
+    public int subscriberCount() {
+        return groups.values().stream().mapToInt(g -> g.subscribers().size()).sum();
+    }
+
+    /**
+     * Gets the number of filter evaluations run, one per change and watched filter.
+     * @return the evaluation count
+     */
+    public long evaluationCount() {
+        return evaluations.sum();
+    }
+
+    /**
+     * Gets the number of buffer overflows that forced a client to resync.
+     * @return the overflow count
+     */
+    public long overflowCount() {
+        return overflows.sum();
+    }
+
+    /**
+     * Drops all subscriptions and shuts down the delivery executor if the hub created it.
+     */
+    @Override
+    public void close() {
+        groups.clear();
+        if (ownExecutor) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Classifies a change against every watched filter and queues the resulting events.
+     * <p>
+     * A row the group's scope cannot see counts as outside the filter. The previous state is tested for
+     * visibility when it is a row, otherwise the new state is; a change whose previous state is unknown is only
+     * reported as removed to scopes that can see the new state.
+     * </p>
+     *
+     * @param id            the row identifier
+     * @param before        the previous state, or {@code null}
+     * @param beforeUnknown whether a missing previous state means "unknown" rather than "did not exist"
+     * @param after         the new state, or {@code null} if deleted
+     */
+    private void publish(final Object id,
+                         final Object before,
+                         final boolean beforeUnknown,
+                         final Object after) {
+        LiveEvent<R> added = null;
+        LiveEvent<R> updated = null;
+        LiveEvent<R> removed = null;
+        for (final var group : groups.values()) {
+            evaluations.increment();
+            final var visibleBefore = domainClass.isInstance(before) ? group.visible(before) : group.visible(after);
+            final var wasIn = Objects.nonNull(before) && visibleBefore && group.matcher().test(before);
+            final var isIn = Objects.nonNull(after) && group.visible(after) && group.matcher().test(after);
+            if (beforeUnknown && !visibleBefore) {
+                continue;
+            }
+            final LiveEvent<R> event;
+            if (isIn && (wasIn || beforeUnknown)) {
+                updated = Objects.isNull(updated) ? event(LiveEvent.Type.UPDATED, id, after) : updated;
+                event = updated;
+            } else if (isIn) {
+                added = Objects.isNull(added) ? event(LiveEvent.Type.ADDED, id, after) : added;
+                event = added;
+            } else if (wasIn || beforeUnknown) {
+                removed = Objects.isNull(removed) ? new LiveEvent<>(LiveEvent.Type.REMOVED, id, null) : removed;
+                event = removed;
+            } else {
+                continue;
+            }
+            group.subscribers().forEach(s -> s.offer(event));
+        }
+    }
+
+    /**
+     * Builds an event carrying the mapped row.
+     *
+     * @param type the event type
+     * @param id   the row identifier
+     * @param row  the row
+     * @return the event
+     */
+    private LiveEvent<R> event(final LiveEvent.Type type,
+                               final Object id,
+                               final Object row) {
+        return new LiveEvent<>(type, id, mapper.apply(domainClass.cast(row)));
+    }
+
+    /**
+     * Handle of one subscription.
+     */
+    public interface Subscription extends AutoCloseable {
+
+        /**
+         * Starts delivering buffered and future events.
+         */
+        void start();
+
+        /**
+         * Ends the subscription; buffered events are discarded.
+         */
+        @Override
+        void close();
+    }
+
+    /**
+     * Subscribers sharing one filter and scope.
+     */
+    private final class Group {
+        private final SpecMatcher matcher;
+        private final Predicate<? super E> visibility;
+        private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+        private Group(final SpecMatcher matcher,
+                      final Predicate<? super E> visibility) {
+            this.matcher = matcher;
+            this.visibility = visibility;
+        }
+
+        private SpecMatcher matcher() {
+            return matcher;
+        }
+
+        /**
+         * Tests whether the scope may see a row.
+         * @param row the row, or {@code null}
+         * @return {@code false} for {@code null} or a row the scope cannot see
+         */
+        private boolean visible(final Object row) {
+            return domainClass.isInstance(row) && visibility.test(domainClass.cast(row));
+        }
+
+        private Set<Subscriber> subscribers() {
+            return subscribers;
+        }
+    }
+
+    /**
+     * One client, with its bounded buffer and delivery state.
+     */
+    private final class Subscriber implements Subscription {
+        private final String key;
+        private final Consumer<? super LiveEvent<R>> sink;
+        private final Queue<LiveEvent<R>> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean started;
+        private volatile boolean closed;
+
+        private Subscriber(final String key,
+                           final Consumer<? super LiveEvent<R>> sink) {
+            this.key = key;
+            this.sink = sink;
+        }
+
+        @Override
+        public void start() {
+            started = true;
+            schedule();
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            buffer.clear();
+            groups.computeIfPresent(key, (k, group) -> {
+                group.subscribers().remove(this);
+                return group.subscribers().isEmpty() ? null : group;
+            });
+        }
+
+        /**
+         * Buffers an event, replacing the buffer with a resync marker when it is full.
+         * @param event the event
+         */
+        private void offer(final LiveEvent<R> event) {
+            if (closed) {
+                return;
+            }
+            if (!buffer.offer(event)) {
+                overflows.increment();
+                synchronized (buffer) {
+                    buffer.clear();
+                    buffer.offer(new LiveEvent<>(LiveEvent.Type.RESYNC, null, null));
+                }
+            }
+            schedule();
+        }
+
+        /**
+         * Starts a drain on the delivery executor unless one is running or the subscription is paused.
+         */
+        private void schedule() {
+            if (!started || closed || buffer.isEmpty() || !draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                executor.execute(this::drain);
+            } catch (final RejectedExecutionException e) {
+                draining.set(false);
+            }
+        }
+
+        /**
+         * Delivers buffered events until the buffer is empty.
+         */
+        private void drain() {
+            try {
+                LiveEvent<R> event;
+                while (!closed && Objects.nonNull(event = buffer.poll())) {
+                    sink.accept(event);
+                }
+            } catch (final RuntimeException e) {
+                close();
+            } finally {
+                draining.set(false);
+            }
+            schedule();
+        }
+    }
+
+    /**
+     * Builder for {@link LiveQueryHub}.
+     *
+     * @param <E> the row type
+     * @param <R> the payload type
+     */
+    public static class Builder<E, R> {
+        private final Class<E> domainClass;
+        private final Function<? super E, ? extends R> mapper;
+        private ExecutorService executor;
+        private int deliveryThreads = 2;
+        private int bufferSize = 256;
+
+        private Builder(final Class<E> domainClass,
+                        final Function<? super E, ? extends R> mapper) {
+            this.domainClass = Objects.requireNonNull(domainClass, "domainClass must not be null");
+            this.mapper = Objects.requireNonNull(mapper, "mapper must not be null");
+        }
+
+        /**
+         * Sets the executor delivering events to sinks.
+         *
+         * @param executor the executor, not shut down by {@link #close()}
+         * @return this builder
+         */
+        public Builder<E, R> executor(final ExecutorService executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Sets the number of delivery threads created when no executor is given.
+         *
+         * @param deliveryThreads the thread count, at least one (default: 2)
+         * @return this builder
+         */
+        public Builder<E, R> deliveryThreads(final int deliveryThreads) {
+            if (deliveryThreads < 1) {
+                throw new IllegalArgumentException("deliveryThreads must be at least 1");
+            }
+            this.deliveryThreads = deliveryThreads;
+            return this;
+        }
+
+        /**
+         * Sets how many events a subscriber may have pending before it must resync.
+         *
+         * @param bufferSize the buffer size, at least one (default: 256)
+         * @return this builder
+         */
+        public Builder<E, R> bufferSize(final int bufferSize) {
+            if (bufferSize < 1) {
+                throw new IllegalArgumentException("bufferSize must be at least 1");
+            }
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        /**
+         * Builds the hub.
+         * @return the hub
+         */
+        public LiveQueryHub<E, R> build() {
+            return new LiveQueryHub<>(this);
+        }
+    }
+}
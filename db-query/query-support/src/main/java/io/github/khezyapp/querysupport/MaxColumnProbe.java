@@ -0,0 +1,130 @@
+package io.github.khezyapp.querysupport;
+
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * Change version source that reads {@code MAX(<column>)} of a last-modified column in each table.
+ * <p>
+ * Useful when writes bypass the application (batch jobs, other services) so in-process counters cannot see
+ * them. Each version check runs one {@code SELECT MAX(...)} per table on a single connection; an index on the
+ * column keeps it cheap. Hard deletes do not change the maximum and are not detected, so tables with deletes
+ * should use soft deletes that touch the column, or {@link TableVersions}.
+ * </p>
+ * <p>
+ * Table and column names come from configuration and are rendered as-is; they must never come from a request.
+ * </p>
+ */
+public class MaxColumnProbe implements ChangeVersionSource {
+    private final DataSource dataSource;
+    private final Map<String, Probe> probes;
+
+    private MaxColumnProbe(final Builder builder) {
+        this.dataSource = Objects.requireNonNull(builder.dataSource, "dataSource must not be null");
+        this.probes = Map.copyOf(builder.probes);
+        if (probes.isEmpty()) {
+            throw new IllegalArgumentException("At least one table must be configured");
+        }
+    }
+
+    /**
+     * Creates a builder for a probe querying the given data source.
+     *
+     * @param dataSource the data source
+     * @return a new {@link Builder}
+     */
+    public static Builder builder(final DataSource dataSource) {
+        return new Builder(dataSource);
+    }
+
+    /**
+     * Reads the maximum of the configured column of each table.
+     *
+     * @param tables the table names a query reads
+     * @return the version string
+     * @throws IllegalArgumentException if a table has no configured column
+     * @throws IllegalStateException    if a probe query fails
+     */
+    @Override
+    public String version(final Collection<String> tables) {
+        final var sorted = new TreeSet<String>();
+        for (final var table : tables) {
+            sorted.add(Objects.requireNonNull(table, "table must not be null").toLowerCase(Locale.ROOT));
+        }
+        final var sb = new StringBuilder();
+        try (var connection = dataSource.getConnection();
+             var statement = connection.createStatement()) {
+            for (final var table : sorted) {
+                final var probe = probes.get(table);
+                if (Objects.isNull(probe)) {
+                    throw new IllegalArgumentException("No last-modified column configured for table " + table);
+                }
+                try (var rs = statement.executeQuery(probe.sql())) {
+                    sb.append(table).append('@').append(rs.next() ? rs.getObject(1) : null).append(';');
+                }
+            }
+        } catch (final SQLException e) {
+            throw new IllegalStateException("Failed to probe change version of " + sorted, e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Probe query of one table.
+     *
+     * @param table  the table name as configured
+     * @param column the last-modified column
+     */
+    private record Probe(String table, String column) {
+
+        /**
+         * Renders the probe query.
+         * @return the SQL
+         */
+        String sql() {
+            return "SELECT MAX(%s) FROM %s".formatted(column, table);
+        }
+    }
+
+    /**
+     * Builder for {@link MaxColumnProbe}.
+     */
+    public static class Builder {
+        private final DataSource dataSource;
+        private final Map<String, Probe> probes = new LinkedHashMap<>();
+
+        private Builder(final DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        /**
+         * Declares the last-modified column of a table.
+         *
+         * @param table  the table name, matched case-insensitively
+         * @param column the column updated on every insert and update (e.g., {@code updated_at})
+         * @return this builder
+         */
+        public Builder table(final String table,
+                             final String column) {
+            Objects.requireNonNull(table, "table must not be null");
+            probes.put(table.toLowerCase(Locale.ROOT),
+                    new Probe(table, Objects.requireNonNull(column, "column must not be null")));
+            return this;
+        }
+
+        /**
+         * Builds the probe.
+         * @return the probe
+         */
+        public MaxColumnProbe build() {
+            return new MaxColumnProbe(this);
+        }
+    }
+}
@@ -0,0 +1,446 @@
+package io.github.khezyapp.querysupport;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Speculatively loads page N+1 after serving page N, for clients that scroll through pages in order.
+ * <p>
+ * Prefetched pages are kept per principal, query key and page number for a short time-to-live and are handed
+ * out once. A request finding its page still loading waits for it up to {@code maxWait}, then loads the page
+ * itself rather than blocking behind a slow prefetch.
+ * </p>
+ * <p>
+ * The loader of a prefetch runs on the prefetch executor, outside the request thread. Security and tenant state
+ * bound to the request thread, such as a {@code SecurityContext} or the session filters of
+ * {@code @RowLevelSecurity}, is not visible there unless a {@link Builder#taskDecorator(UnaryOperator) task
+ * decorator} captures it when the prefetch is scheduled. The principal passed to {@link #fetch} must identify
+ * that state (e.g., user and tenant), since it scopes the kept pages.
+ * </p>
+ * <p>
+ * Prefetching is extra database work and is skipped under load: at most {@code maxConcurrent} prefetches run at
+ * a time, and none is started while the executor queue holds {@code maxQueueDepth} tasks or more. The
+ * {@link #hitRate()} tells whether the extra work pays off; a low rate means users rarely ask for the next page.
+ * </p>
+ *
+ * @param <V> the page type
+ */
+public class PagePrefetcher<V> implements AutoCloseable {
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    private final Map<String, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+    private final boolean ownExecutor;
+    private final Semaphore permits;
+    private final int maxQueueDepth;
+    private final Duration ttl;
+    private final Duration maxWait;
+    private final UnaryOperator<Runnable> taskDecorator;
+    private final int maxEntries;
+    private final Clock clock;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder issued = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+
+    private PagePrefetcher(final Builder builder) {
+        this.ownExecutor = Objects.isNull(builder.executor);
+        this.executor = ownExecutor
+                ? new ThreadPoolExecutor(builder.maxConcurrent, builder.maxConcurrent, 60L, TimeUnit.SECONDS,
+                        new ArrayBlockingQueue<>(Math.max(1, builder.maxQueueDepth)), PagePrefetcher::daemon)
+                : builder.executor;
+        this.permits = new Semaphore(builder.maxConcurrent);
+        this.maxQueueDepth = builder.maxQueueDepth;
+        this.ttl = builder.ttl;
+        this.maxWait = builder.maxWait;
+        this.taskDecorator = builder.taskDecorator;
+        this.maxEntries = builder.maxEntries;
+        this.clock = builder.clock;
+    }
+
+    /**
+     * Creates a builder.
+     * @return a new {@link Builder}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Serves a page, from a prefetch when one exists, and starts prefetching the next page when there is one.
+     *
+     * @param principal  the user the pages belong to, including any tenant or row-level scope, so pages never
+     *                   cross users or tenants
+     * @param queryKey   identifies the filter, sort and page size, e.g., {@code getQueryKey()} of a pagination query
+     * @param pageNumber the zero-based page requested
+     * @param loader     loads a page by number; also used for the prefetch on the prefetch executor, so it must
+     *                   not depend on the calling thread (e.g., a thread-bound persistence context) beyond the
+     *                   state propagated by the task decorator
+     * @param hasNext    tells whether a page has a next page
+     * @return the page
+     */
+    public V fetch(final String principal,
+                   final String queryKey,
+                   final int pageNumber,
+                   final IntFunction<? extends V> loader,
+                   final Predicate<? super V> hasNext) {
+        Objects.requireNonNull(loader, "loader must not be null");
+        Objects.requireNonNull(hasNext, "hasNext must not be null");
+        final var entry = entries.remove(key(principal, queryKey, pageNumber));
+        var page = Objects.isNull(entry) || entry.expiresAt() <= clock.millis() ? null : await(entry.page());
+        if (Objects.nonNull(page)) {
+            hits.increment();
+        } else {
+            misses.increment();
+            page = loader.apply(pageNumber);
+        }
+        if (hasNext.test(page)) {
+            prefetch(principal, queryKey, pageNumber + 1, loader);
+        }
+        return page;
+    }
+
+    /**
+     * Gets the share of requests served from a prefetch.
+     * @return the hit rate between zero and one, zero before any request
+     */
+    public double hitRate() {
+        final var hitCount = hits.sum();
+        final var total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    /**
+     * Gets the number of requests served from a prefetch.
+     * @return the hit count
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of requests that loaded their page themselves.
+     * @return the miss count
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the number of prefetches started.
+     * @return the prefetch count
+     */
+    public long prefetchCount() {
+        return issued.sum();
+    }
+
+    /**
+     * Gets the number of prefetches skipped because of the concurrency limit, queue depth or a full executor.
+     * @return the skipped count
+     */
+    public long skippedCount() {
+        return skipped.sum();
+    }
+
+    /**
+     * Shuts down the executor if the prefetcher created it.
+     */
+    @Override
+    public void close() {
+        if (ownExecutor) {
+            executor.shutdownNow();
+        }
+        entries.clear();
+    }
+
+    /**
+     * Starts loading a page in the background unless it is already loading or the system is busy.
+     *
+     * @param principal  the user the page belongs to
+     * @param queryKey   the query key
+     * @param pageNumber the page to load
+     * @param loader     loads a page by number
+     */
+    private void prefetch(final String principal,
+                          final String queryKey,
+                          final int pageNumber,
+                          final IntFunction<? extends V> loader) {
+        final var key = key(principal, queryKey, pageNumber);
+        if (entries.containsKey(key)) {
+            return;
+        }
+        if (!permits.tryAcquire()) {
+            skipped.increment();
+            return;
+        }
+        if (queueDepth() >= maxQueueDepth) {
+            permits.release();
+            skipped.increment();
+            return;
+        }
+        final var now = clock.millis();
+        if (entries.size() >= maxEntries) {
+            purge(now);
+        }
+        final var page = new CompletableFuture<V>();
+        final var entry = new Entry<>(page, now + ttl.toMillis());
+        entries.put(key, entry);
+        final Runnable load = () -> {
+            try {
+                page.complete(loader.apply(pageNumber));
+            } catch (final RuntimeException e) {
+                page.completeExceptionally(e);
+            }
+        };
+        final Runnable task;
+        try {
+            // Decorated on the request thread, so the decorator can capture its context
+            task = Objects.requireNonNull(taskDecorator.apply(load), "taskDecorator must not return null");
+        } catch (final RuntimeException e) {
+            entries.remove(key, entry);
+            permits.release();
+            throw e;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } catch (final RuntimeException e) {
+                    page.completeExceptionally(e);
+                } finally {
+                    permits.release();
+                }
+            });
+            issued.increment();
+        } catch (final RejectedExecutionException e) {
+            entries.remove(key, entry);
+            permits.release();
+            skipped.increment();
+        }
+    }
+
+    /**
+     * Waits for a prefetched page, at most for {@code maxWait}.
+     *
+     * @param page the prefetched page
+     * @return the page, or {@code null} if the prefetch failed or is too slow
+     */
+    private V await(final CompletableFuture<V> page) {
+        try {
+            return page.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (final ExecutionException | TimeoutException e) {
+            return null;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Gets the number of tasks waiting in the executor queue, when the executor exposes it.
+     * @return the queue depth, zero for unknown executors
+     */
+    private int queueDepth() {
+        return executor instanceof ThreadPoolExecutor pool ? pool.getQueue().size() : 0;
+    }
+
+    /**
+     * Drops expired entries, or everything if the cache is still full afterwards.
+     * @param now the current time in milliseconds
+     */
+    private void purge(final long now) {
+        entries.values().removeIf(e -> e.expiresAt() <= now);
+        if (entries.size() >= maxEntries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Builds the entry key of a page.
+     *
+     * @param principal  the user
+     * @param queryKey   the query key
+     * @param pageNumber the page number
+     * @return the key
+     */
+    private static String key(final String principal,
+                              final String queryKey,
+                              final int pageNumber) {
+        return Objects.requireNonNull(principal, "principal must not be null") + KEY_SEPARATOR
+                + Objects.requireNonNull(queryKey, "queryKey must not be null") + KEY_SEPARATOR + pageNumber;
+    }
+
+    /**
+     * Creates a daemon thread for the owned executor.
+     *
+     * @param task the worker task
+     * @return the thread
+     */
+    private static Thread daemon(final Runnable task) {
+        final var thread = new Thread(task, "page-prefetch");
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * A prefetched page with its expiry time.
+     *
+     * @param page      the page, possibly still loading
+     * @param expiresAt the expiry time in epoch milliseconds
+     * @param <V>       the page type
+     */
+    private record Entry<V>(CompletableFuture<V> page, long expiresAt) {
+    }
+
+    /**
+     * Builder for {@link PagePrefetcher}.
+     */
+    public static class Builder {
+        private ExecutorService executor;
+        private int maxConcurrent = 4;
+        private int maxQueueDepth = 16;
+        private Duration ttl = Duration.ofSeconds(30);
+        private Duration maxWait = Duration.ofMillis(250);
+        private UnaryOperator<Runnable> taskDecorator = UnaryOperator.identity();
+        private int maxEntries = 10_000;
+        private Clock clock = Clock.systemUTC();
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the executor running prefetches; a bounded pool of {@code maxConcurrent} threads is created when
+         * absent. The queue depth check applies to {@link ThreadPoolExecutor}s.
+         *
+         * @param executor the executor, not shut down by {@link #close()}
+         * @return this builder
+         */
+        public Builder executor(final ExecutorService executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of prefetches loading at a time.
+         *
+         * @param maxConcurrent the limit, at least one (default: 4)
+         * @return this builder
+         */
+        public Builder maxConcurrent(final int maxConcurrent) {
+            if (maxConcurrent < 1) {
+                throw new IllegalArgumentException("maxConcurrent must be at least 1");
+            }
+            this.maxConcurrent = maxConcurrent;
+            return this;
+        }
+
+        /**
+         * Sets the executor queue depth at which prefetching stops.
+         *
+         * @param maxQueueDepth the depth, zero to prefetch only onto idle threads (default: 16)
+         * @return this builder
+         */
+        public Builder maxQueueDepth(final int maxQueueDepth) {
+            if (maxQueueDepth < 0) {
+                throw new IllegalArgumentException("maxQueueDepth must not be negative");
+            }
+            this.maxQueueDepth = maxQueueDepth;
+            return this;
+        }
+
+        /**
+         * Sets how long a prefetched page is kept.
+         *
+         * @param ttl the time-to-live (default: 30 seconds)
+         * @return this builder
+         */
+        public Builder ttl(final Duration ttl) {
+            Objects.requireNonNull(ttl, "ttl must not be null");
+            if (ttl.isNegative() || ttl.isZero()) {
+                throw new IllegalArgumentException("Prefetch TTL must be positive");
+            }
+            this.ttl = ttl;
+            return this;
+        }
+
+        /**
+         * Sets how long a request waits for its page while the prefetch is still loading, before loading the page
+         * itself. Keep it well below the usual page latency.
+         *
+         * @param maxWait the wait bound (default: 250 milliseconds)
+         * @return this builder
+         */
+        public Builder maxWait(final Duration maxWait) {
+            Objects.requireNonNull(maxWait, "maxWait must not be null");
+            if (maxWait.isNegative()) {
+                throw new IllegalArgumentException("Prefetch wait must not be negative");
+            }
+            this.maxWait = maxWait;
+            return this;
+        }
+
+        /**
+         * Sets a decorator applied to every prefetch task on the request thread, before it is handed to the
+         * executor, to carry thread-bound context to the prefetch thread, e.g.,
+         * {@code DelegatingSecurityContextRunnable::new} of Spring Security.
+         *
+         * @param taskDecorator wraps the loading task (default: none)
+         * @return this builder
+         */
+        public Builder taskDecorator(final UnaryOperator<Runnable> taskDecorator) {
+            this.taskDecorator = Objects.requireNonNull(taskDecorator, "taskDecorator must not be null");
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of kept pages.
+         *
+         * @param maxEntries the limit, at least one (default: 10000)
+         * @return this builder
+         */
+        public Builder maxEntries(final int maxEntries) {
+            if (maxEntries < 1) {
+                throw new IllegalArgumentException("maxEntries must be at least 1");
+            }
+            this.maxEntries = maxEntries;
+            return this;
+        }
+
+        /**
+         * Sets the clock used to expire pages.
+         *
+         * @param clock the clock
+         * @return this builder
+         */
+        public Builder clock(final Clock clock) {
+            this.clock = Objects.requireNonNull(clock, "clock must not be null");
+            return this;
+        }
+
+        /**
+         * Builds the prefetcher.
+         *
+         * @param <V> the page type
+         * @return the prefetcher
+         */
+        public <V> PagePrefetcher<V> build() {
+            return new PagePrefetcher<>(this);
+        }
+    }
+}
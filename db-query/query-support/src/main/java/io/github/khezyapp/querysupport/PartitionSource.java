@@ -0,0 +1,37 @@
+package io.github.khezyapp.querysupport;
+
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Backend hook used by {@link PartitionedScan} to read a filtered query one key range at a time.
+ *
+ * @param <T> the row type
+ */
+public interface PartitionSource<T> {
+
+    /**
+     * Finds the key range covering every row matching the filter.
+     * @return the range {@code [min, max + 1)}, or empty when no row matches
+     */
+    Optional<KeyRange> bounds();
+
+    /**
+     * Opens the rows of a key range, ordered by ascending key.
+     * <p>
+     * The stream is closed by the scan; implementations should hold their own connection for it.
+     * </p>
+     *
+     * @param range the key range to read
+     * @return the ordered rows
+     */
+    Stream<T> open(KeyRange range);
+
+    /**
+     * Extracts the key of a row.
+     *
+     * @param row the row
+     * @return the numeric key
+     */
+    long keyOf(T row);
+}
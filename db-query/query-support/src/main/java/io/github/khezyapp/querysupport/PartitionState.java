@@ -0,0 +1,61 @@
+package io.github.khezyapp.querysupport;
+
+/**
+ * Checkpointed progress of one partition of a {@link PartitionedScan}.
+ *
+ * @param index      the zero-based partition index
+ * @param range      the key range assigned to the partition
+ * @param resumeFrom the first key not yet confirmed as processed
+ * @param rows       the number of rows processed up to the checkpoint
+ * @param completed  whether the whole range has been processed
+ */
+public record PartitionState(
+        int index,
+        KeyRange range,
+        long resumeFrom,
+        long rows,
+        boolean completed
+) {
+
+    /**
+     * Creates the state of a partition that has not started yet.
+     *
+     * @param index the partition index
+     * @param range the key range
+     * @return the initial state
+     */
+    public static PartitionState initial(final int index,
+                                         final KeyRange range) {
+        return new PartitionState(index, range, range.from(), 0L, false);
+    }
+
+    /**
+     * Gets the part of the range still to be processed.
+     * @return the remaining key range
+     */
+    public KeyRange remaining() {
+        return new KeyRange(Math.min(resumeFrom, range.to()), range.to());
+    }
+
+    /**
+     * Records a checkpoint after the row with the given key.
+     *
+     * @param lastKey the key of the last processed row
+     * @param rows    the number of rows processed so far
+     * @return the new state
+     */
+    public PartitionState advance(final long lastKey,
+                                  final long rows) {
+        return new PartitionState(index, range, lastKey + 1, rows, false);
+    }
+
+    /**
+     * Marks the partition as completed.
+     *
+     * @param rows the total number of rows processed
+     * @return the new state
+     */
+    public PartitionState complete(final long rows) {
+        return new PartitionState(index, range, range.to(), rows, true);
+    }
+}
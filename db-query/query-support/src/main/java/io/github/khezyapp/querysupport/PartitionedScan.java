@@ -0,0 +1,326 @@
+package io.github.khezyapp.querysupport;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * Processes every row of a filtered query by splitting its key range into partitions scanned concurrently.
+ * <p>
+ * The key bounds of the filter are read once, split into contiguous ranges and each range is streamed
+ * by its own task, in ascending key order, on its own connection. At most {@code parallelism} partitions
+ * run at a time, whatever executor is used, so the scan cannot exhaust a connection pool. Without an
+ * executor, each run uses a virtual thread per partition on Java 21+, and a fixed pool of {@code parallelism}
+ * threads on older runtimes.
+ * </p>
+ * <p>
+ * Every {@code checkpointInterval} rows a partition saves its position to the {@link ScanCheckpointStore}.
+ * When partitions fail, the others still finish and the scan throws; running it again with the same
+ * scan id skips completed partitions and resumes the others from their last checkpoint. Rows processed
+ * after the last checkpoint are delivered again on resume (at-least-once), and keys must be unique.
+ * </p>
+ */
+public final class PartitionedScan {
+    private static final MethodHandle VIRTUAL_THREAD_EXECUTOR = virtualThreadExecutor();
+
+    private final String scanId;
+    private final int partitions;
+    private final int parallelism;
+    private final int checkpointInterval;
+    private final ScanCheckpointStore checkpointStore;
+    private final ScanListener listener;
+    private final ExecutorService executor;
+
+    private PartitionedScan(final Builder builder) {
+        this.scanId = Objects.requireNonNull(builder.scanId, "scanId must not be null");
+        this.partitions = builder.partitions;
+        this.parallelism = builder.parallelism > 0 ? builder.parallelism : builder.partitions;
+        this.checkpointInterval = builder.checkpointInterval;
+        this.checkpointStore = Objects.requireNonNullElseGet(builder.checkpointStore, ScanCheckpointStore::inMemory);
+        this.listener = Objects.requireNonNullElseGet(builder.listener, () -> new ScanListener() {
+        });
+        this.executor = builder.executor;
+        if (partitions < 1) {
+            throw new IllegalArgumentException("Partition count must not be less than one");
+        }
+        if (checkpointInterval < 1) {
+            throw new IllegalArgumentException("Checkpoint interval must not be less than one");
+        }
+    }
+
+    /**
+     * Creates a builder for a scan.
+     *
+     * @param scanId identifies the scan in the checkpoint store; reuse it to resume
+     * @return a new builder
+     */
+    public static Builder builder(final String scanId) {
+        return new Builder().scanId(scanId);
+    }
+
+    /**
+     * Runs the scan, passing every row to the consumer.
+     * <p>
+     * The consumer is called concurrently from several partitions and must be thread-safe.
+     * </p>
+     *
+     * @param source   the backend reading the filtered query by key range
+     * @param consumer receives every row
+     * @param <T>      the row type
+     * @return the final state of every partition
+     * @throws IllegalStateException if any partition failed; checkpoints are kept for resume
+     */
+    public <T> List<PartitionState> run(final PartitionSource<T> source,
+                                        final Consumer<? super T> consumer) {
+        final var states = checkpointStore.load(scanId).orElseGet(() -> plan(source));
+        final var ownExecutor = Objects.isNull(executor);
+        final var useExecutor = ownExecutor ? newExecutor() : executor;
+        final var permits = new Semaphore(parallelism);
+        try {
+            final var futures = new ArrayList<Future<PartitionState>>(states.size());
+            for (final var state : states) {
+                if (state.completed()) {
+                    continue;
+                }
+                futures.add(useExecutor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return scan(state, source, consumer);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            return await(states, futures);
+        } finally {
+            if (ownExecutor) {
+                useExecutor.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Creates the executor of one run: virtual threads when the runtime has them, a fixed pool otherwise.
+     *
+     * @return the executor, shut down after the run
+     */
+    private ExecutorService newExecutor() {
+        if (Objects.nonNull(VIRTUAL_THREAD_EXECUTOR)) {
+            try {
+                return (ExecutorService) VIRTUAL_THREAD_EXECUTOR.invokeExact();
+            } catch (final Throwable e) {
+                throw new IllegalStateException("Cannot create a virtual-thread executor", e);
+            }
+        }
+        return Executors.newFixedThreadPool(parallelism);
+    }
+
+    /**
+     * Looks up {@code Executors.newVirtualThreadPerTaskExecutor()}, which the Java 17 release level cannot
+     * call directly.
+     *
+     * @return the factory handle, or {@code null} before Java 21
+     */
+    private static MethodHandle virtualThreadExecutor() {
+        try {
+            return MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+                    MethodType.methodType(ExecutorService.class));
+        } catch (final NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Reads the key bounds and stores the initial state of every partition.
+     *
+     * @param source the backend reading the filtered query
+     * @return the initial partition states
+     */
+    private List<PartitionState> plan(final PartitionSource<?> source) {
+        final var bounds = source.bounds();
+        if (bounds.isEmpty() || bounds.get().isEmpty()) {
+            return List.of();
+        }
+        final var ranges = KeyRange.split(bounds.get().from(), bounds.get().to() - 1, partitions);
+        final var states = new ArrayList<PartitionState>(ranges.size());
+        for (var i = 0; i < ranges.size(); i++) {
+            final var state = PartitionState.initial(i, ranges.get(i));
+            checkpointStore.save(scanId, state);
+            states.add(state);
+        }
+        return states;
+    }
+
+    /**
+     * Streams the remaining range of one partition, saving checkpoints along the way.
+     *
+     * @param initial  the state to resume from
+     * @param source   the backend reading the filtered query
+     * @param consumer receives every row
+     * @param <T>      the row type
+     * @return the completed state
+     */
+    private <T> PartitionState scan(final PartitionState initial,
+                                    final PartitionSource<T> source,
+                                    final Consumer<? super T> consumer) {
+        var state = initial;
+        var rows = initial.rows();
+        var sinceCheckpoint = 0;
+        try (var stream = source.open(initial.remaining())) {
+            final var iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                final var row = iterator.next();
+                consumer.accept(row);
+                rows++;
+                if (++sinceCheckpoint >= checkpointInterval) {
+                    state = state.advance(source.keyOf(row), rows);
+                    checkpointStore.save(scanId, state);
+                    listener.onProgress(state);
+                    sinceCheckpoint = 0;
+                }
+            }
+        } catch (final RuntimeException e) {
+            listener.onFailure(state, e);
+            throw e;
+        }
+        state = state.complete(rows);
+        checkpointStore.save(scanId, state);
+        listener.onComplete(state);
+        return state;
+    }
+
+    /**
+     * Waits for every partition and reports failures together.
+     *
+     * @param states  the states the scan started from
+     * @param futures the running partitions
+     * @return the final state of every partition
+     */
+    private List<PartitionState> await(final List<PartitionState> states,
+                                       final List<Future<PartitionState>> futures) {
+        final var failures = new ArrayList<Throwable>();
+        for (final var future : futures) {
+            try {
+                future.get();
+            } catch (final ExecutionException e) {
+                failures.add(e.getCause());
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(true));
+                throw new IllegalStateException("Partitioned scan '%s' was interrupted".formatted(scanId), e);
+            }
+        }
+        if (!failures.isEmpty()) {
+            final var error = new IllegalStateException(
+                    "%d of %d partitions of scan '%s' failed; run it again to resume"
+                            .formatted(failures.size(), futures.size(), scanId));
+            failures.forEach(error::addSuppressed);
+            throw error;
+        }
+
+        final var finalStates = checkpointStore.load(scanId).orElse(states);
+        checkpointStore.clear(scanId);
+        return finalStates;
+    }
+
+    /**
+     * Fluent builder for {@link PartitionedScan}.
+     */
+    public static final class Builder {
+        private String scanId;
+        private int partitions = Runtime.getRuntime().availableProcessors();
+        private int parallelism;
+        private int checkpointInterval = 10_000;
+        private ScanCheckpointStore checkpointStore;
+        private ScanListener listener;
+        private ExecutorService executor;
+
+        /**
+         * Sets the scan identifier.
+         * @param scanId the scan identifier
+         * @return the builder instance
+         */
+        public Builder scanId(final String scanId) {
+            this.scanId = scanId;
+            return this;
+        }
+
+        /**
+         * Sets the number of key ranges; defaults to the number of processors.
+         * @param partitions the partition count
+         * @return the builder instance
+         */
+        public Builder partitions(final int partitions) {
+            this.partitions = partitions;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of partitions scanned at once; defaults to the partition count.
+         * @param parallelism the maximum number of concurrent partitions
+         * @return the builder instance
+         */
+        public Builder parallelism(final int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Sets how many rows a partition processes between checkpoints.
+         * @param checkpointInterval the number of rows
+         * @return the builder instance
+         */
+        public Builder checkpointInterval(final int checkpointInterval) {
+            this.checkpointInterval = checkpointInterval;
+            return this;
+        }
+
+        /**
+         * Sets the checkpoint store; defaults to an in-memory store.
+         * @param checkpointStore the checkpoint store
+         * @return the builder instance
+         */
+        public Builder checkpointStore(final ScanCheckpointStore checkpointStore) {
+            this.checkpointStore = checkpointStore;
+            return this;
+        }
+
+        /**
+         * Sets the progress listener.
+         * @param listener the listener
+         * @return the builder instance
+         */
+        public Builder listener(final ScanListener listener) {
+            this.listener = listener;
+            return this;
+        }
+
+        /**
+         * Sets the executor running the partitions; virtual threads (or a fixed pool before Java 21) are used
+         * per run when absent.
+         * @param executor the executor, not shut down by the scan
+         * @return the builder instance
+         */
+        public Builder executor(final ExecutorService executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Builds the scan.
+         * @return the configured scan
+         */
+        public PartitionedScan build() {
+            return new PartitionedScan(this);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.khezyapp.querysupport;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Freshness bounds of one endpoint's filter queries, applied through a {@link ReplicaRoutingDataSource}.
+ * <p>
+ * Executors run their page queries under {@link #page(Supplier)} and their count queries under
+ * {@link #count(Supplier)}. Counts usually tolerate more staleness than the rows a user acts on, so
+ * {@link #counts(ReplicaRoutingDataSource, Duration)} sends only counts to replicas.
+ * </p>
+ *
+ * @param dataSource     the routing data source behind the executor's connections
+ * @param pageStaleness  the freshness bound of page queries, {@code null} to keep them on the primary
+ * @param countStaleness the freshness bound of count queries, {@code null} to keep them on the primary
+ */
+public record ReadRouting(
+        ReplicaRoutingDataSource dataSource,
+        Duration pageStaleness,
+        Duration countStaleness
+) {
+
+    /**
+     * Compact constructor validating the data source.
+     */
+    public ReadRouting {
+        Objects.requireNonNull(dataSource, "dataSource must not be null");
+    }
+
+    /**
+     * Creates a routing sending pages and counts to replicas within the given bounds.
+     *
+     * @param dataSource     the routing data source
+     * @param pageStaleness  the freshness bound of page queries
+     * @param countStaleness the freshness bound of count queries
+     * @return the routing
+     */
+    public static ReadRouting of(final ReplicaRoutingDataSource dataSource,
+                                 final Duration pageStaleness,
+                                 final Duration countStaleness) {
+        return new ReadRouting(dataSource, Objects.requireNonNull(pageStaleness, "pageStaleness must not be null"),
+                Objects.requireNonNull(countStaleness, "countStaleness must not be null"));
+    }
+
+    /**
+     * Creates a routing sending only count queries to replicas.
+     *
+     * @param dataSource     the routing data source
+     * @param countStaleness the freshness bound of count queries
+     * @return the routing
+     */
+    public static ReadRouting counts(final ReplicaRoutingDataSource dataSource,
+                                     final Duration countStaleness) {
+        return new ReadRouting(dataSource, null,
+                Objects.requireNonNull(countStaleness, "countStaleness must not be null"));
+    }
+
+    /**
+     * Runs a page query, on a replica when pages are routed.
+     *
+     * @param query the page query
+     * @param <T>   the result type
+     * @return the result
+     */
+    public <T> T page(final Supplier<T> query) {
+        return Objects.isNull(pageStaleness) ? query.get() : dataSource.read(pageStaleness, query);
+    }
+
+    /**
+     * Runs a count query, on a replica when counts are routed.
+     *
+     * @param query the count query
+     * @param <T>   the result type
+     * @return the result
+     */
+    public <T> T count(final Supplier<T> query) {
+        return Objects.isNull(countStaleness) ? query.get() : dataSource.read(countStaleness, query);
+    }
+}
@@ -0,0 +1,51 @@
+package io.github.khezyapp.querysupport;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Measures how far a read replica is behind its primary, for {@link ReplicaRoutingDataSource}.
+ * <p>
+ * Probes run on a dedicated connection to the replica. Typical queries are, on PostgreSQL,
+ * {@code SELECT COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)} (which also grows
+ * while the primary is idle), or a heartbeat table the primary updates every second:
+ * {@code SELECT EXTRACT(EPOCH FROM now() - MAX(beat_at)) FROM heartbeat}.
+ * </p>
+ */
+@FunctionalInterface
+public interface ReplicaLagProbe {
+
+    /**
+     * Measures the replication lag.
+     *
+     * @param replica a connection to the replica, closed by the caller
+     * @return the lag, never negative
+     * @throws SQLException if the lag cannot be read; the replica is then considered unavailable
+     */
+    Duration lag(Connection replica) throws SQLException;
+
+    /**
+     * Creates a probe reading the lag in seconds from the first column of a query.
+     *
+     * @param sql the query, returning a number of seconds; fractions are kept to the millisecond
+     * @return the probe
+     */
+    static ReplicaLagProbe seconds(final String sql) {
+        Objects.requireNonNull(sql, "sql must not be null");
+        return replica -> {
+            try (var statement = replica.createStatement();
+                 var rows = statement.executeQuery(sql)) {
+                if (!rows.next()) {
+                    throw new SQLException("Replica lag query returned no row");
+                }
+                final var seconds = rows.getDouble(1);
+                if (rows.wasNull()) {
+                    throw new SQLException("Replica lag query returned NULL");
+                }
+                return Duration.ofMillis(Math.max(0L, Math.round(seconds * 1000)));
+            }
+        };
+    }
+}
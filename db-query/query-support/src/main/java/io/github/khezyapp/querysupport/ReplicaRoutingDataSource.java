@@ -0,0 +1,739 @@
+package io.github.khezyapp.querysupport;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Data source sending the connections of read-only work to read replicas, and everything else to the primary.
+ * <p>
+ * Work wrapped in {@link #read(Duration, Supplier)} gets replica connections, picked by least outstanding
+ * requests: the replica with the fewest connections currently open through this data source wins. A replica
+ * is used only if its last measured lag, plus the age of that measurement, is within the freshness bound of the
+ * read, so each endpoint chooses how stale its answers may be. Connections fall back to the primary when no
+ * replica is fresh enough, when a replica refuses connections, or when the current thread has written on a
+ * primary connection that has not committed, rolled back or closed since, so a transaction reads its own writes.
+ * With Spring on the classpath, reads inside a transaction that is not read-only stay on the primary as well.
+ * </p>
+ * <p>
+ * Replica connections reject statements that do not only read, including {@code WITH} queries whose common
+ * table expressions insert, update or delete, with an {@link SQLException} before they reach the replica.
+ * </p>
+ * <p>
+ * Lag is measured by a {@link ReplicaLagProbe}; until the first probe, replicas are unknown and unused, so
+ * call {@link #probeAll()} or {@link #scheduleProbes(ScheduledExecutorService, Duration)} after building.
+ * </p>
+ * <p>
+ * Routing happens when a connection is obtained. A JPA or JDBC transaction that already holds a connection
+ * keeps it, so read scopes must start before the connection is acquired (e.g., outside the transaction, or
+ * behind Spring's {@code LazyConnectionDataSourceProxy}).
+ * </p>
+ */
+public class ReplicaRoutingDataSource implements DataSource {
+    private static final Set<String> READ_KEYWORDS = Set.of("SELECT", "WITH", "SHOW", "EXPLAIN", "VALUES", "SET");
+    private static final Set<String> WRITE_KEYWORDS = Set.of("INSERT", "UPDATE", "DELETE", "MERGE", "UPSERT");
+    private static final String SPRING_TRANSACTIONS =
+            "org.springframework.transaction.support.TransactionSynchronizationManager";
+    private static final MethodHandle TRANSACTION_ACTIVE = springTransactionState("isActualTransactionActive");
+    private static final MethodHandle TRANSACTION_READ_ONLY = springTransactionState("isCurrentTransactionReadOnly");
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final ReplicaLagProbe probe;
+    private final Clock clock;
+    private final ThreadLocal<Duration> readScope = new ThreadLocal<>();
+    private final ThreadLocal<TrackedConnection> writer = new ThreadLocal<>();
+    private final LongAdder lagFallbacks = new LongAdder();
+    private final LongAdder writeFallbacks = new LongAdder();
+
+    private ReplicaRoutingDataSource(final Builder builder) {
+        this.primary = builder.primary;
+        this.probe = builder.probe;
+        this.clock = builder.clock;
+        final var list = new ArrayList<Replica>();
+        builder.replicas.forEach((name, dataSource) -> list.add(new Replica(name, dataSource)));
+        this.replicas = List.copyOf(list);
+    }
+
+    /**
+     * Creates a builder for a data source routing between a primary and its replicas.
+     *
+     * @param primary the primary data source
+     * @param probe   measures the lag of each replica
+     * @return a new {@link Builder}
+     */
+    public static Builder builder(final DataSource primary,
+                                  final ReplicaLagProbe probe) {
+        return new Builder(Objects.requireNonNull(primary, "primary must not be null"),
+                Objects.requireNonNull(probe, "probe must not be null"));
+    }
+
+    /**
+     * Runs read-only work on replicas at most {@code maxStaleness} behind the primary.
+     * <p>
+     * Every connection the work obtains from this data source is routed; nested scopes use the innermost bound.
+     * The work must not write: replicas reject writes, and the routing cannot move a statement afterwards.
+     * </p>
+     *
+     * @param maxStaleness the freshness bound of the caller
+     * @param work         the read-only work
+     * @param <T>          the result type
+     * @return the result of the work
+     */
+    public <T> T read(final Duration maxStaleness,
+                      final Supplier<T> work) {
+        Objects.requireNonNull(maxStaleness, "maxStaleness must not be null");
+        Objects.requireNonNull(work, "work must not be null");
+        final var outer = readScope.get();
+        readScope.set(maxStaleness);
+        try {
+            return work.get();
+        } finally {
+            if (Objects.isNull(outer)) {
+                readScope.remove();
+            } else {
+                readScope.set(outer);
+            }
+        }
+    }
+
+    /**
+     * Checks whether the current thread has an uncommitted write on a primary connection.
+     * @return {@code true} if reads of this thread stay on the primary
+     */
+    public boolean hasPendingWrite() {
+        return Objects.nonNull(writer.get());
+    }
+
+    /**
+     * Checks whether the current thread runs in a Spring transaction that may write.
+     * @return {@code true} inside an actual transaction that is not read-only; {@code false} without Spring
+     */
+    public boolean inWriteTransaction() {
+        if (Objects.isNull(TRANSACTION_ACTIVE) || Objects.isNull(TRANSACTION_READ_ONLY)) {
+            return false;
+        }
+        try {
+            return (boolean) TRANSACTION_ACTIVE.invokeExact() && !(boolean) TRANSACTION_READ_ONLY.invokeExact();
+        } catch (final Throwable e) {
+            return false;
+        }
+    }
+
+    /**
+     * Measures the lag of every replica now, one after the other.
+     * <p>
+     * A failing probe marks its replica unavailable until a later probe succeeds.
+     * </p>
+     */
+    public void probeAll() {
+        for (final var replica : replicas) {
+            try (var connection = replica.dataSource.getConnection()) {
+                final var lag = Objects.requireNonNull(probe.lag(connection), "probe returned no lag");
+                replica.lag = new Measurement(lag.isNegative() ? Duration.ZERO : lag, clock.instant());
+            } catch (final SQLException | RuntimeException e) {
+                replica.lag = new Measurement(null, clock.instant());
+            }
+        }
+    }
+
+    /**
+     * Runs {@link #probeAll()} now and then periodically.
+     *
+     * @param scheduler the scheduler, owned by the caller
+     * @param interval  the time between two probes; it adds to the worst-case staleness of a routed read
+     * @return the scheduled task, to cancel
+     */
+    public ScheduledFuture<?> scheduleProbes(final ScheduledExecutorService scheduler,
+                                             final Duration interval) {
+        Objects.requireNonNull(scheduler, "scheduler must not be null");
+        final var millis = Objects.requireNonNull(interval, "interval must not be null").toMillis();
+        if (millis < 1) {
+            throw new IllegalArgumentException("Probe interval must be positive");
+        }
+        return scheduler.scheduleWithFixedDelay(this::probeAll, 0, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Gets the state of every replica, in registration order.
+     * @return the replica states
+     */
+    public List<ReplicaStatus> replicas() {
+        return replicas.stream()
+                .map(r -> {
+                    final var measurement = r.lag;
+                    return new ReplicaStatus(r.name, measurement.lag(), measurement.measuredAt(),
+                            r.outstanding.get(), r.routed.sum());
+                })
+                .toList();
+    }
+
+    /**
+     * Gets the number of routed reads sent to the primary because no replica was fresh enough or reachable.
+     * @return the lag fallback count
+     */
+    public long lagFallbackCount() {
+        return lagFallbacks.sum();
+    }
+
+    /**
+     * Gets the number of routed reads sent to the primary because the thread had an uncommitted write or ran in a
+     * read-write transaction.
+     * @return the write fallback count
+     */
+    public long writeFallbackCount() {
+        return writeFallbacks.sum();
+    }
+
+    /**
+     * Gets a connection, from a replica inside {@link #read(Duration, Supplier)} when one qualifies, otherwise
+     * from the primary.
+     *
+     * @return the connection
+     * @throws SQLException if the primary cannot provide a connection
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(null, null);
+    }
+
+    /**
+     * Gets a connection for the given user, routed like {@link #getConnection()}.
+     *
+     * @param username the database user
+     * @param password the user's password
+     * @return the connection
+     * @throws SQLException if the primary cannot provide a connection
+     */
+    @Override
+    public Connection getConnection(final String username,
+                                    final String password) throws SQLException {
+        return route(Objects.requireNonNull(username, "username must not be null"), password);
+    }
+
+    /**
+     * Gets the log writer of the primary.
+     *
+     * @return the log writer
+     * @throws SQLException if the primary fails
+     */
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return primary.getLogWriter();
+    }
+
+    /**
+     * Sets the log writer of the primary.
+     *
+     * @param out the log writer
+     * @throws SQLException if the primary fails
+     */
+    @Override
+    public void setLogWriter(final PrintWriter out) throws SQLException {
+        primary.setLogWriter(out);
+    }
+
+    /**
+     * Sets the login timeout of the primary.
+     *
+     * @param seconds the timeout in seconds
+     * @throws SQLException if the primary fails
+     */
+    @Override
+    public void setLoginTimeout(final int seconds) throws SQLException {
+        primary.setLoginTimeout(seconds);
+    }
+
+    /**
+     * Gets the login timeout of the primary.
+     *
+     * @return the timeout in seconds
+     * @throws SQLException if the primary fails
+     */
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return primary.getLoginTimeout();
+    }
+
+    /**
+     * Not supported; this data source does not log.
+     *
+     * @return never
+     * @throws SQLFeatureNotSupportedException always
+     */
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException("ReplicaRoutingDataSource does not use java.util.logging");
+    }
+
+    /**
+     * Unwraps this data source, or the primary.
+     *
+     * @param iface the requested type
+     * @param <T>   the requested type
+     * @return this data source if it implements the type, otherwise the primary's unwrapped instance
+     * @throws SQLException if neither implements the type
+     */
+    @Override
+    public <T> T unwrap(final Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? iface.cast(this) : primary.unwrap(iface);
+    }
+
+    /**
+     * Checks whether this data source, or the primary, implements a type.
+     *
+     * @param iface the type
+     * @return {@code true} if {@link #unwrap(Class)} succeeds
+     * @throws SQLException if the primary fails
+     */
+    @Override
+    public boolean isWrapperFor(final Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || primary.isWrapperFor(iface);
+    }
+
+    /**
+     * Picks the data source of a new connection and wraps the connection to track it.
+     *
+     * @param username the database user, {@code null} for the default credentials
+     * @param password the user's password
+     * @return the tracked connection
+     * @throws SQLException if the primary cannot provide a connection
+     */
+    private Connection route(final String username,
+                             final String password) throws SQLException {
+        final var maxStaleness = readScope.get();
+        if (Objects.nonNull(maxStaleness)) {
+            if (hasPendingWrite() || inWriteTransaction()) {
+                writeFallbacks.increment();
+            } else {
+                final var replica = choose(maxStaleness);
+                if (Objects.nonNull(replica)) {
+                    replica.outstanding.incrementAndGet();
+                    try {
+                        final var connection = Objects.isNull(username)
+                                ? replica.dataSource.getConnection()
+                                : replica.dataSource.getConnection(username, password);
+                        replica.routed.increment();
+                        return track(connection, replica);
+                    } catch (final SQLException | RuntimeException e) {
+                        replica.outstanding.decrementAndGet();
+                        // Unreachable until the next successful probe
+                        replica.lag = new Measurement(null, clock.instant());
+                    }
+                }
+                lagFallbacks.increment();
+            }
+        }
+        final var connection = Objects.isNull(username)
+                ? primary.getConnection()
+                : primary.getConnection(username, password);
+        return track(connection, null);
+    }
+
+    /**
+     * Picks the fresh replica with the fewest outstanding connections, ties going to the least used one.
+     *
+     * @param maxStaleness the freshness bound
+     * @return the replica, or {@code null} if none is fresh enough
+     */
+    private Replica choose(final Duration maxStaleness) {
+        final var now = clock.instant();
+        Replica best = null;
+        for (final var replica : replicas) {
+            if (!replica.lag.within(maxStaleness, now)) {
+                continue;
+            }
+            if (Objects.isNull(best)) {
+                best = replica;
+                continue;
+            }
+            final var order = Integer.compare(replica.outstanding.get(), best.outstanding.get());
+            if (order < 0 || (order == 0 && replica.routed.sum() < best.routed.sum())) {
+                best = replica;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Wraps a connection to count it while open and, on the primary, to detect writes.
+     *
+     * @param connection the connection
+     * @param replica    the replica it came from, {@code null} for the primary
+     * @return the wrapped connection
+     */
+    private Connection track(final Connection connection,
+                             final Replica replica) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new TrackedConnection(connection, replica));
+    }
+
+    /**
+     * Checks whether a statement only reads.
+     * <p>
+     * The first keyword must be a query or a session setting, and no later word outside literals, quoted
+     * identifiers and comments may be a data-modifying keyword. This rejects {@code WITH ... DELETE},
+     * {@code EXPLAIN ANALYZE UPDATE} and locking reads such as {@code SELECT ... FOR UPDATE}.
+     * </p>
+     *
+     * @param sql the statement
+     * @return {@code true} for queries and session settings, and for statements made only of comments
+     */
+    static boolean isRead(final String sql) {
+        final var text = Objects.requireNonNullElse(sql, "");
+        String first = null;
+        var i = 0;
+        while (i < text.length()) {
+            final var c = text.charAt(i);
+            if (c == '\'' || c == '"' || c == '`') {
+                i = skipQuoted(text, i, c);
+            } else if (text.startsWith("--", i)) {
+                final var end = text.indexOf('\n', i);
+                i = end < 0 ? text.length() : end + 1;
+            } else if (text.startsWith("/*", i)) {
+                final var end = text.indexOf("*/", i + 2);
+                i = end < 0 ? text.length() : end + 2;
+            } else if (Character.isLetter(c)) {
+                var end = i + 1;
+                while (end < text.length()
+                        && (Character.isLetterOrDigit(text.charAt(end)) || text.charAt(end) == '_')) {
+                    end++;
+                }
+                final var word = text.substring(i, end).toUpperCase(Locale.ROOT);
+                if (Objects.isNull(first)) {
+                    first = word;
+                    if (!READ_KEYWORDS.contains(first)) {
+                        return false;
+                    }
+                } else if (WRITE_KEYWORDS.contains(word)) {
+                    return false;
+                }
+                i = end;
+            } else if (Objects.isNull(first) && !Character.isWhitespace(c) && c != '(') {
+                // e.g., a JDBC escape such as {call ...}
+                return false;
+            } else {
+                i++;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Skips a quoted literal or identifier, where a doubled quote stands for the quote itself.
+     *
+     * @param text  the statement
+     * @param start the index of the opening quote
+     * @param quote the quote character
+     * @return the index after the closing quote, or the end of the statement
+     */
+    private static int skipQuoted(final String text,
+                                  final int start,
+                                  final char quote) {
+        var i = start + 1;
+        while (i < text.length()) {
+            if (text.charAt(i) == quote) {
+                if (i + 1 < text.length() && text.charAt(i + 1) == quote) {
+                    i += 2;
+                    continue;
+                }
+                return i + 1;
+            }
+            i++;
+        }
+        return text.length();
+    }
+
+    /**
+     * Looks up a static boolean method of Spring's transaction synchronization manager.
+     *
+     * @param name the method name
+     * @return the method handle, or {@code null} without Spring on the classpath
+     */
+    private static MethodHandle springTransactionState(final String name) {
+        try {
+            final var manager = Class.forName(SPRING_TRANSACTIONS, false,
+                    ReplicaRoutingDataSource.class.getClassLoader());
+            return MethodHandles.publicLookup().findStatic(manager, name, MethodType.methodType(boolean.class));
+        } catch (final ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * Routing state of one replica.
+     *
+     * @param name        the replica name
+     * @param lag         the last measured lag, {@code null} if unknown or unavailable
+     * @param measuredAt  when the lag was measured, {@code null} before the first probe
+     * @param outstanding the number of connections currently open on the replica through this data source
+     * @param routedCount the number of connections routed to the replica so far
+     */
+    public record ReplicaStatus(
+            String name,
+            Duration lag,
+            Instant measuredAt,
+            int outstanding,
+            long routedCount
+    ) {
+    }
+
+    /**
+     * One lag measurement.
+     *
+     * @param lag        the lag, {@code null} if the replica was unavailable
+     * @param measuredAt when it was measured, {@code null} before the first probe
+     */
+    private record Measurement(Duration lag, Instant measuredAt) {
+        private static final Measurement UNKNOWN = new Measurement(null, null);
+
+        /**
+         * Checks whether the replica is at most a given staleness behind, counting the age of the measurement.
+         *
+         * @param maxStaleness the freshness bound
+         * @param now          the current time
+         * @return {@code true} if reads may use the replica
+         */
+        boolean within(final Duration maxStaleness,
+                       final Instant now) {
+            if (Objects.isNull(lag)) {
+                return false;
+            }
+            final var age = Duration.between(measuredAt, now);
+            return lag.plus(age.isNegative() ? Duration.ZERO : age).compareTo(maxStaleness) <= 0;
+        }
+    }
+
+    /**
+     * A replica and its routing counters.
+     */
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final LongAdder routed = new LongAdder();
+        private volatile Measurement lag = Measurement.UNKNOWN;
+
+        private Replica(final String name,
+                        final DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+
+    /**
+     * Connection wrapper releasing the replica slot on close, flagging writes made on the primary and rejecting
+     * them on replicas.
+     */
+    private final class TrackedConnection implements InvocationHandler {
+        private final Connection target;
+        private final Replica replica;
+        private boolean closed;
+
+        private TrackedConnection(final Connection target,
+                                  final Replica replica) {
+            this.target = target;
+            this.replica = replica;
+        }
+
+        /**
+         * Tracks close, commit, rollback and statement preparation, then calls the connection.
+         *
+         * @param proxy  the connection proxy
+         * @param method the called method
+         * @param args   the arguments, {@code null} for none
+         * @return the result, with statements wrapped
+         * @throws SQLException if a statement that writes is prepared on a replica
+         * @throws Throwable    what the connection throws
+         */
+        @Override
+        public Object invoke(final Object proxy,
+                             final Method method,
+                             final Object[] args) throws Throwable {
+            final var name = method.getName();
+            final var noArgs = Objects.isNull(args) || args.length == 0;
+            if ("close".equals(name) && noArgs) {
+                release();
+            } else if (("prepareStatement".equals(name) || "prepareCall".equals(name))
+                    && !isRead((String) args[0])) {
+                write((String) args[0]);
+            } else if (Objects.isNull(replica) && ("commit".equals(name) || "rollback".equals(name)) && noArgs) {
+                clearWrite();
+            }
+            final Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (final InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if ("createStatement".equals(name)) {
+                return Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{Statement.class},
+                        new TrackedStatement((Statement) result, (Connection) proxy, this));
+            }
+            return result;
+        }
+
+        /**
+         * Records a write on the primary, or rejects it on a replica.
+         *
+         * @param sql the statement
+         * @throws SQLException if this is a replica connection
+         */
+        private void write(final String sql) throws SQLException {
+            if (Objects.nonNull(replica)) {
+                throw new SQLException("Replica '%s' only accepts reads, got: %s".formatted(replica.name, sql));
+            }
+            writer.set(this);
+        }
+
+        /**
+         * Releases the replica slot, or the pending write of a primary connection, once.
+         */
+        private void release() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (Objects.isNull(replica)) {
+                clearWrite();
+            } else {
+                replica.outstanding.decrementAndGet();
+            }
+        }
+
+        /**
+         * Clears the pending write of the current thread if this connection made it.
+         */
+        private void clearWrite() {
+            if (writer.get() == this) {
+                writer.remove();
+            }
+        }
+    }
+
+    /**
+     * Statement wrapper flagging writes executed on a primary connection and rejecting them on a replica.
+     */
+    private final class TrackedStatement implements InvocationHandler {
+        private final Statement target;
+        private final Connection connection;
+        private final TrackedConnection owner;
+
+        private TrackedStatement(final Statement target,
+                                 final Connection connection,
+                                 final TrackedConnection owner) {
+            this.target = target;
+            this.connection = connection;
+            this.owner = owner;
+        }
+
+        /**
+         * Flags executed writes, then calls the statement.
+         *
+         * @param proxy  the statement proxy
+         * @param method the called method
+         * @param args   the arguments, {@code null} for none
+         * @return the result, with the tracked connection for {@code getConnection()}
+         * @throws SQLException if a statement that writes is executed on a replica
+         * @throws Throwable    what the statement throws
+         */
+        @Override
+        public Object invoke(final Object proxy,
+                             final Method method,
+                             final Object[] args) throws Throwable {
+            if ("getConnection".equals(method.getName())) {
+                return connection;
+            }
+            if (Objects.nonNull(args) && args.length > 0 && args[0] instanceof String sql
+                    && (method.getName().startsWith("execute") || "addBatch".equals(method.getName()))
+                    && !isRead(sql)) {
+                owner.write(sql);
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (final InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Builder for {@link ReplicaRoutingDataSource}.
+     */
+    public static class Builder {
+        private final DataSource primary;
+        private final ReplicaLagProbe probe;
+        private final Map<String, DataSource> replicas = new LinkedHashMap<>();
+        private Clock clock = Clock.systemUTC();
+
+        private Builder(final DataSource primary,
+                        final ReplicaLagProbe probe) {
+            this.primary = primary;
+            this.probe = probe;
+        }
+
+        /**
+         * Adds a read replica.
+         *
+         * @param name       the unique replica name, reported by {@link ReplicaRoutingDataSource#replicas()}
+         * @param dataSource the replica data source, typically a pool of its own
+         * @return this builder
+         * @throws IllegalArgumentException if the name is taken
+         */
+        public Builder replica(final String name,
+                               final DataSource dataSource) {
+            Objects.requireNonNull(name, "name must not be null");
+            Objects.requireNonNull(dataSource, "dataSource must not be null");
+            if (Objects.nonNull(replicas.putIfAbsent(name, dataSource))) {
+                throw new IllegalArgumentException("Replica '%s' is already registered".formatted(name));
+            }
+            return this;
+        }
+
+        /**
+         * Sets the clock dating lag measurements.
+         *
+         * @param clock the clock (default: system UTC)
+         * @return this builder
+         */
+        public Builder clock(final Clock clock) {
+            this.clock = Objects.requireNonNull(clock, "clock must not be null");
+            return this;
+        }
+
+        /**
+         * Builds the data source; replicas stay unused until the first probe.
+         * @return the data source
+         */
+        public ReplicaRoutingDataSource build() {
+            return new ReplicaRoutingDataSource(this);
+        }
+    }
+}
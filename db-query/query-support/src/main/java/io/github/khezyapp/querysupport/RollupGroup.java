@@ -0,0 +1,45 @@
+package io.github.khezyapp.querysupport;
+
+import io.github.khezyapp.grammar.ast.operand.AggregateOperand;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One group of aggregate values, answered by an {@link AggregateRollup} or merged from the partial aggregates
+ * of several shards.
+ * <p>
+ * Counts are {@link Long}s, sums and averages {@link java.math.BigDecimal}s, and minimums and maximums keep
+ * the type of the column. Sums, averages, minimums and maximums are {@code null} when the group has no
+ * non-null value, as in SQL.
+ * </p>
+ *
+ * @param key    the GROUP BY values, in GROUP BY order
+ * @param values the aggregate values keyed by label (e.g., "SUM(amount)"), always including "COUNT(*)"
+ */
+public record RollupGroup(
+        List<Object> key,
+        Map<String, Object> values
+) {
+
+    /**
+     * Compact constructor taking unmodifiable copies, which may contain {@code null}.
+     */
+    public RollupGroup {
+        key = Collections.unmodifiableList(new ArrayList<>(key));
+        values = Collections.unmodifiableMap(new LinkedHashMap<>(values));
+    }
+
+    /**
+     * Gets the value of an aggregate.
+     *
+     * @param aggregate the aggregate
+     * @return the value, or {@code null}
+     */
+    public Object get(final AggregateOperand aggregate) {
+        return values.get(SpecMatcher.label(aggregate));
+    }
+}
@@ -0,0 +1,259 @@
+package io.github.khezyapp.querysupport;
+
+import io.github.khezyapp.grammar.ast.QuerySpec;
+import io.github.khezyapp.grammar.ast.operand.AggregateOperand;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Keeps recurring GROUP BY filters materialized in memory and answers matching queries from them.
+ * <p>
+ * Each registered {@link AggregateRollup} is computed once from its loader and then maintained from the row
+ * changes this registry receives as a {@link RowChangeListener}, so a dashboard query costs a map scan instead
+ * of a grouped table scan. Queries that no rollup can answer get an empty result and should run against the
+ * database as usual.
+ * </p>
+ * <p>
+ * Rollups drift if a change bypasses the listener (bulk SQL updates, other applications). Schedule
+ * {@link #verifyAll()} to recompute them periodically; {@link AggregateRollup#stats()} reports the drift found
+ * and how long each rollup has gone unverified.
+ * </p>
+ */
+public class RollupRegistry implements RowChangeListener {
+    private final Map<String, AggregateRollup> rollups = new ConcurrentHashMap<>();
+    private final Class<?> domainClass;
+    private final Clock clock;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private RollupRegistry(final Builder builder) {
+        this.domainClass = builder.domainClass;
+        this.clock = builder.clock;
+    }
+
+    /**
+     * Creates a builder for a registry of rollups over the given row type.
+     *
+     * @param domainClass the row (entity) class
+     * @return a new {@link Builder}
+     */
+    public static Builder builder(final Class<?> domainClass) {
+        return new Builder(Objects.requireNonNull(domainClass, "domainClass must not be null"));
+    }
+
+    /**
+     * Registers a rollup and computes it from the loader.
+     * <p>
+     * If a change arrives while the loader opens its snapshot, the rollup stays stale until the next
+     * verification. The loader must fix its snapshot before it returns the stream, e.g., by executing a single
+     * query; see {@link AggregateRollup}.
+     * </p>
+     *
+     * @param name       a unique name, used in metrics
+     * @param querySpec  the WHERE and GROUP BY of the rollup, without HAVING
+     * @param loader     streams every row of the domain type; the stream is closed after each recompute
+     * @param aggregates the aggregates to maintain; {@code COUNT(*)} is always maintained
+     * @return the rollup
+     * @throws IllegalArgumentException if the name is taken or the specification cannot be rolled up
+     */
+    public AggregateRollup register(final String name,
+                                    final QuerySpec querySpec,
+                                    final Supplier<? extends Stream<?>> loader,
+                                    final AggregateOperand... aggregates) {
+        Objects.requireNonNull(name, "name must not be null");
+        Objects.requireNonNull(querySpec, "querySpec must not be null");
+        Objects.requireNonNull(loader, "loader must not be null");
+        final var rollup = new AggregateRollup(name, querySpec, Arrays.asList(aggregates), loader, clock);
+        if (Objects.nonNull(rollups.putIfAbsent(name, rollup))) {
+            throw new IllegalArgumentException("Rollup '%s' is already registered".formatted(name));
+        }
+        try {
+            rollup.verify();
+        } catch (final RuntimeException e) {
+            rollups.remove(name, rollup);
+            throw e;
+        }
+        return rollup;
+    }
+
+    /**
+     * Removes a rollup.
+     * @param name the rollup name
+     */
+    public void unregister(final String name) {
+        rollups.remove(name);
+    }
+
+    /**
+     * Gets a rollup by name.
+     *
+     * @param name the rollup name
+     * @return the rollup, or empty if none is registered under that name
+     */
+    public Optional<AggregateRollup> get(final String name) {
+        return Optional.ofNullable(rollups.get(name));
+    }
+
+    /**
+     * Answers a grouped query from the first rollup able to, see {@link AggregateRollup#answer}.
+     *
+     * @param query      the grouped query
+     * @param aggregates the aggregates the caller reads, besides those of HAVING
+     * @return the groups, or empty if the query must run against the database
+     */
+    public Optional<List<RollupGroup>> answer(final QuerySpec query,
+                                              final AggregateOperand... aggregates) {
+        Objects.requireNonNull(query, "query must not be null");
+        final var wanted = Arrays.asList(aggregates);
+        for (final var rollup : rollups.values()) {
+            final var answer = rollup.answer(query, wanted);
+            if (answer.isPresent()) {
+                hits.increment();
+                return answer;
+            }
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * Recomputes every rollup from its loader, one after the other.
+     * @return the outcome per rollup name
+     */
+    public Map<String, AggregateRollup.Verification> verifyAll() {
+        final var results = new LinkedHashMap<String, AggregateRollup.Verification>();
+        rollups.forEach((name, rollup) -> results.put(name, rollup.verify()));
+        return results;
+    }
+
+    /**
+     * Runs {@link #verifyAll()} periodically. A failing run is dropped and the next one runs on schedule.
+     *
+     * @param scheduler the scheduler, owned by the caller
+     * @param interval  the time between two runs
+     * @return the scheduled task, to cancel
+     */
+    public ScheduledFuture<?> scheduleVerification(final ScheduledExecutorService scheduler,
+                                                   final Duration interval) {
+        Objects.requireNonNull(scheduler, "scheduler must not be null");
+        final var millis = Objects.requireNonNull(interval, "interval must not be null").toMillis();
+        if (millis < 1) {
+            throw new IllegalArgumentException("Verification interval must be positive");
+        }
+        return scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                verifyAll();
+            } catch (final RuntimeException e) {
+                // keep the schedule alive; the rollups stay as they were
+            }
+        }, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Gets the number of queries answered from a rollup.
+     * @return the hit count
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of queries no rollup could answer.
+     * @return the miss count
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the row type whose changes maintain the rollups.
+     * @return the row class
+     */
+    @Override
+    public Class<?> domainClass() {
+        return domainClass;
+    }
+
+    /**
+     * Adds an inserted row to every rollup it matches.
+     *
+     * @param id  the row identifier
+     * @param row the inserted row
+     */
+    @Override
+    public void inserted(final Object id,
+                         final Object row) {
+        rollups.values().forEach(r -> r.apply(null, false, row));
+    }
+
+    /**
+     * Moves an updated row between groups; without previous state the rollups become stale.
+     *
+     * @param id     the row identifier
+     * @param before the previous state, as the row or a map of property values; {@code null} if unknown
+     * @param after  the updated row
+     */
+    @Override
+    public void updated(final Object id,
+                        final Object before,
+                        final Object after) {
+        rollups.values().forEach(r -> r.apply(before, Objects.isNull(before), after));
+    }
+
+    /**
+     * Removes a deleted row from every rollup it matched.
+     *
+     * @param id  the row identifier
+     * @param row the deleted row
+     */
+    @Override
+    public void deleted(final Object id,
+                        final Object row) {
+        rollups.values().forEach(r -> r.apply(row, false, null));
+    }
+
+    /**
+     * Builder for {@link RollupRegistry}.
+     */
+    public static class Builder {
+        private final Class<?> domainClass;
+        private Clock clock = Clock.systemUTC();
+
+        private Builder(final Class<?> domainClass) {
+            this.domainClass = domainClass;
+        }
+
+        /**
+         * Sets the clock used for staleness metrics.
+         *
+         * @param clock the clock (default: system UTC)
+         * @return this builder
+         */
+        public Builder clock(final Clock clock) {
+            this.clock = Objects.requireNonNull(clock, "clock must not be null");
+            return this;
+        }
+
+        /**
+         * Builds the registry.
+         * @return the registry
+         */
+        public RollupRegistry build() {
+            return new RollupRegistry(this);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package io.github.khezyapp.querysupport;
+
+/**
+ * Receives committed row changes of one row (entity) type, e.g., from a Hibernate post-commit listener.
+ * <p>
+ * Implemented by {@link LiveQueryHub} and {@link RollupRegistry}, so a single persistence listener can feed
+ * both. Calls arrive on the committing thread.
+ * </p>
+ */
+public interface RowChangeListener {
+
+    /**
+     * Gets the row type whose changes this listener receives, including subclasses.
+     * @return the row class
+     */
+    Class<?> domainClass();
+
+    /**
+     * Receives an inserted row.
+     *
+     * @param id  the row identifier
+     * @param row the inserted row
+     */
+    void inserted(Object id, Object row);
+
+    /**
+     * Receives an updated row.
+     *
+     * @param id     the row identifier
+     * @param before the previous state, as the row or a map of property values; {@code null} if unknown
+     * @param after  the updated row
+     */
+    void updated(Object id, Object before, Object after);
+
+    /**
+     * Receives a deleted row.
+     *
+     * @param id  the row identifier
+     * @param row the deleted row
+     */
+    void deleted(Object id, Object row);
+}
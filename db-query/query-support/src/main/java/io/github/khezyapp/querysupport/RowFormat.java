@@ -0,0 +1,144 @@
+package io.github.khezyapp.querysupport;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Writes rows of an export, one at a time, in a line-oriented text format.
+ * <p>
+ * Formats hold no per-row state, so an export of any size only keeps the current row in memory.
+ * JSON serialization is left to the caller (e.g., {@code objectMapper::writeValueAsString}) so this
+ * module does not depend on a particular JSON library.
+ * </p>
+ *
+ * @param <T> the row type
+ */
+public interface RowFormat<T> {
+
+    /**
+     * Gets the MIME type of the produced content.
+     * @return the content type (e.g., "text/csv")
+     */
+    String contentType();
+
+    /**
+     * Writes the content preceding the first row, if any.
+     *
+     * @param writer the target writer
+     * @throws IOException if writing fails
+     */
+    void writeHeader(Writer writer) throws IOException;
+
+    /**
+     * Writes a single row, including its line terminator.
+     *
+     * @param writer the target writer
+     * @param row    the row to write
+     * @throws IOException if writing fails
+     */
+    void writeRow(Writer writer, T row) throws IOException;
+
+    /**
+     * Creates a newline-delimited JSON format, one JSON document per line.
+     *
+     * @param toJson serializes a row to a single-line JSON document
+     * @param <T>    the row type
+     * @return the NDJSON format
+     */
+    static <T> RowFormat<T> ndjson(final Function<? super T, String> toJson) {
+        Objects.requireNonNull(toJson, "toJson must not be null");
+        return new RowFormat<>() {
+            @Override
+            public String contentType() {
+                return "application/x-ndjson";
+            }
+
+            @Override
+            public void writeHeader(final Writer writer) {
+                // NDJSON has no header
+            }
+
+            @Override
+            public void writeRow(final Writer writer,
+                                 final T row) throws IOException {
+                writer.write(toJson.apply(row));
+                writer.write('\n');
+            }
+        };
+    }
+
+    /**
+     * Creates an RFC 4180 CSV format with a header line.
+     * <p>
+     * Values are written with {@link String#valueOf(Object)}; {@code null} becomes an empty field.
+     * Fields containing a separator, quote or line break are quoted.
+     * </p>
+     *
+     * @param header the column names
+     * @param values extracts the column values of a row, in header order
+     * @param <T>    the row type
+     * @return the CSV format
+     */
+    static <T> RowFormat<T> csv(final List<String> header,
+                                final Function<? super T, ? extends List<?>> values) {
+        final var useHeader = List.copyOf(header);
+        Objects.requireNonNull(values, "values must not be null");
+        return new RowFormat<>() {
+            @Override
+            public String contentType() {
+                return "text/csv";
+            }
+
+            @Override
+            public void writeHeader(final Writer writer) throws IOException {
+                writeCsvLine(writer, useHeader);
+            }
+
+            @Override
+            public void writeRow(final Writer writer,
+                                 final T row) throws IOException {
+                writeCsvLine(writer, values.apply(row));
+            }
+        };
+    }
+
+    /**
+     * Writes one CSV line terminated by CRLF.
+     *
+     * @param writer the target writer
+     * @param fields the field values
+     * @throws IOException if writing fails
+     */
+    private static void writeCsvLine(final Writer writer,
+                                     final List<?> fields) throws IOException {
+        for (var i = 0; i < fields.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            final var field = fields.get(i);
+            if (Objects.nonNull(field)) {
+                writer.write(csvEscape(String.valueOf(field)));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * Quotes a CSV field when it contains a separator, quote or line break.
+     *
+     * @param value the raw field value
+     * @return the escaped field
+     */
+    private static String csvEscape(final String value) {
+        for (var i = 0; i < value.length(); i++) {
+            final var c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return '"' + value.replace("\"", "\"\"") + '"';
+            }
+        }
+        return value;
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.khezyapp.querysupport;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persists {@link PartitionState} checkpoints so a failed {@link PartitionedScan} can resume.
+ * <p>
+ * Implementations backed by a table or a key-value store make resume survive a restart; the
+ * {@link #inMemory()} store only covers retries within the same process.
+ * </p>
+ */
+public interface ScanCheckpointStore {
+
+    /**
+     * Loads the checkpoints of a scan.
+     *
+     * @param scanId the scan identifier
+     * @return the partition states, or empty if the scan has no checkpoints
+     */
+    Optional<List<PartitionState>> load(String scanId);
+
+    /**
+     * Saves the latest checkpoint of a partition.
+     *
+     * @param scanId the scan identifier
+     * @param state  the partition state
+     */
+    void save(String scanId, PartitionState state);
+
+    /**
+     * Removes all checkpoints of a scan, called once every partition completed.
+     * @param scanId the scan identifier
+     */
+    void clear(String scanId);
+
+    /**
+     * Creates a store keeping checkpoints in memory.
+     * @return the in-memory store
+     */
+    static ScanCheckpointStore inMemory() {
+        final Map<String, Map<Integer, PartitionState>> scans = new ConcurrentHashMap<>();
+        return new ScanCheckpointStore() {
+            @Override
+            public Optional<List<PartitionState>> load(final String scanId) {
+                return Optional.ofNullable(scans.get(scanId))
+                        .filter(states -> !states.isEmpty())
+                        .map(states -> states.values()
+                                .stream()
+                                .sorted(Comparator.comparingInt(PartitionState::index))
+                                .toList());
+            }
+
+            @Override
+            public void save(final String scanId,
+                             final PartitionState state) {
+                scans.computeIfAbsent(scanId, id -> new ConcurrentHashMap<>()).put(state.index(), state);
+            }
+
+            @Override
+            public void clear(final String scanId) {
+                scans.remove(scanId);
+            }
+        };
+    }
+}
@@ -0,0 +1,34 @@
+package io.github.khezyapp.querysupport;
+
+/**
+ * Receives progress events of a {@link PartitionedScan}.
+ * <p>
+ * Events are raised from partition worker threads, so implementations must be thread-safe.
+ * </p>
+ */
+public interface ScanListener {
+
+    /**
+     * Called after a checkpoint has been saved.
+     * @param state the partition state at the checkpoint
+     */
+    default void onProgress(final PartitionState state) {
+    }
+
+    /**
+     * Called once a partition processed its whole range.
+     * @param state the completed partition state
+     */
+    default void onComplete(final PartitionState state) {
+    }
+
+    /**
+     * Called when a partition fails; its last checkpoint is kept for resume.
+     *
+     * @param state the last saved partition state
+     * @param error the failure
+     */
+    default void onFailure(final PartitionState state,
+                           final Throwable error) {
+    }
+}
@@ -0,0 +1,75 @@
+package io.github.khezyapp.querysupport;
+
+import io.github.khezyapp.grammar.ast.QuerySpec;
+import io.github.khezyapp.grammar.support.SpecPaths;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Maps a shard key value to the shard holding its rows, so queries pinning the key skip the other shards.
+ * <p>
+ * {@link #prune(QuerySpec, String, Collection)} reads the key values the WHERE clause allows (see
+ * {@link SpecPaths#pinned(QuerySpec, String)}) and keeps only their shards; a query that does not pin the key
+ * runs on every shard.
+ * </p>
+ */
+@FunctionalInterface
+public interface ShardRouter {
+
+    /**
+     * Gets the shard holding the rows of a shard key value.
+     *
+     * @param key the shard key value, as written in the filter (e.g., a {@link Long} or a {@link String})
+     * @return the shard name
+     */
+    String shardFor(Object key);
+
+    /**
+     * Creates a router spreading keys over the shards by the hash of their string form.
+     * <p>
+     * Hashing the string form makes {@code 42}, {@code 42L} and {@code "42"} land on the same shard, and
+     * {@link String#hashCode()} is stable across JVMs, so rows can be placed with the same router.
+     * </p>
+     *
+     * @param shards the shard names, in a fixed order
+     * @return the router
+     * @throws IllegalArgumentException if no shard is given
+     */
+    static ShardRouter hash(final List<String> shards) {
+        final var names = List.copyOf(shards);
+        if (names.isEmpty()) {
+            throw new IllegalArgumentException("Hash routing requires at least one shard");
+        }
+        return key -> names.get(Math.floorMod(String.valueOf(key).hashCode(), names.size()));
+    }
+
+    /**
+     * Selects the shards a query has to run on.
+     *
+     * @param querySpec the specification, may be {@code null}
+     * @param keyPath   the dotted path of the shard key (e.g., "tenantId")
+     * @param shards    every shard name, in fan-out order
+     * @return the shards holding the pinned key values in {@code shards} order, or all of them if the key is
+     *         not pinned
+     */
+    default Set<String> prune(final QuerySpec querySpec,
+                              final String keyPath,
+                              final Collection<String> shards) {
+        final var keys = SpecPaths.pinned(querySpec, keyPath);
+        if (keys.isEmpty()) {
+            return new LinkedHashSet<>(shards);
+        }
+        final var targets = new ArrayList<String>();
+        for (final var key : keys.get()) {
+            targets.add(Objects.requireNonNull(shardFor(key), "Shard router returned no shard for " + key));
+        }
+        final var pruned = new LinkedHashSet<>(shards);
+        pruned.retainAll(targets);
+        return pruned;
+    }
+}
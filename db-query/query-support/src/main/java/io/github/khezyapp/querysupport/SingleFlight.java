@@ -0,0 +1,210 @@
+package io.github.khezyapp.querysupport;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Coalesces identical concurrent calls so that only one runs per key.
+ * <p>
+ * The first caller of a key becomes the leader and runs the loader; callers arriving while it runs wait for its
+ * result instead of running the same query again. Nothing is cached: once the leader finishes, the next call
+ * runs again. Waiting uses {@link CompletableFuture}, which parks the thread without holding a monitor, so
+ * virtual threads are unmounted while they wait.
+ * </p>
+ * <p>
+ * A waiter gives up after the timeout and runs the loader itself, so a slow leader delays others at most by the
+ * timeout. A leader failure is rethrown to every waiter. Waiters receive the leader's result through the copier,
+ * which should copy mutable results such as entities; the default shares the same instance.
+ * </p>
+ *
+ * @param <K> the key type, e.g., a fingerprint of the filter, page and sort
+ * @param <V> the result type
+ */
+public class SingleFlight<K, V> {
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Duration timeout;
+    private final UnaryOperator<V> copier;
+    private final boolean copying;
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    private SingleFlight(final Builder<K, V> builder) {
+        this.timeout = builder.timeout;
+        this.copier = builder.copier;
+        this.copying = builder.copying;
+    }
+
+    /**
+     * Creates a builder.
+     *
+     * @param <K> the key type
+     * @param <V> the result type
+     * @return a new {@link Builder}
+     */
+    public static <K, V> Builder<K, V> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Runs the loader, or waits for the call already running for the same key.
+     *
+     * @param key    identifies identical calls
+     * @param loader runs the call; its exceptions reach every waiter
+     * @return the result, a copy for waiters
+     * @throws IllegalStateException if the waiting thread is interrupted
+     */
+    public V execute(final K key,
+                     final Supplier<? extends V> loader) {
+        Objects.requireNonNull(key, "key must not be null");
+        Objects.requireNonNull(loader, "loader must not be null");
+        final var call = new CompletableFuture<V>();
+        final var running = inFlight.putIfAbsent(key, call);
+        if (Objects.isNull(running)) {
+            return lead(key, call, loader);
+        }
+
+        coalesced.increment();
+        try {
+            return copier.apply(running.get(timeout.toNanos(), TimeUnit.NANOSECONDS));
+        } catch (final TimeoutException e) {
+            timedOut.increment();
+            executed.increment();
+            return loader.get();
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Coalesced call failed", e.getCause());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a coalesced call", e);
+        }
+    }
+
+    /**
+     * Checks whether waiters receive copies of the leader's result rather than the same instance.
+     * @return {@code true} if a copier was set on the builder
+     */
+    public boolean copies() {
+        return copying;
+    }
+
+    /**
+     * Gets the number of loader runs, including runs after a timeout.
+     * @return the execution count
+     */
+    public long executedCount() {
+        return executed.sum();
+    }
+
+    /**
+     * Gets the number of calls that waited for another caller's run instead of starting their own.
+     * @return the coalesced call count
+     */
+    public long coalescedCount() {
+        return coalesced.sum();
+    }
+
+    /**
+     * Gets the number of coalesced calls that timed out and ran the loader themselves.
+     * @return the timeout count
+     */
+    public long timeoutCount() {
+        return timedOut.sum();
+    }
+
+    /**
+     * Gets the number of keys currently running.
+     * @return the in-flight key count
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * Runs the loader as leader and publishes the outcome to waiters.
+     *
+     * @param key    the call key
+     * @param call   the future published for the key
+     * @param loader runs the call
+     * @return the result
+     */
+    private V lead(final K key,
+                   final CompletableFuture<V> call,
+                   final Supplier<? extends V> loader) {
+        executed.increment();
+        try {
+            final V value = loader.get();
+            call.complete(value);
+            return value;
+        } catch (final RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * Builder for {@link SingleFlight}.
+     *
+     * @param <K> the key type
+     * @param <V> the result type
+     */
+    public static class Builder<K, V> {
+        private Duration timeout = Duration.ofSeconds(30);
+        private UnaryOperator<V> copier = UnaryOperator.identity();
+        private boolean copying;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets how long a caller waits for a running call before running its own.
+         *
+         * @param timeout the wait limit per call (default: 30 seconds)
+         * @return this builder
+         */
+        public Builder<K, V> timeout(final Duration timeout) {
+            Objects.requireNonNull(timeout, "timeout must not be null");
+            if (timeout.isNegative() || timeout.isZero()) {
+                throw new IllegalArgumentException("Single-flight timeout must be positive");
+            }
+            this.timeout = timeout;
+            return this;
+        }
+
+        /**
+         * Sets how waiters receive the leader's result, e.g., a deep copy for mutable entities.
+         *
+         * @param copier copies a result for each waiter (default: the same instance)
+         * @return this builder
+         */
+        public Builder<K, V> copier(final UnaryOperator<V> copier) {
+            this.copier = Objects.requireNonNull(copier, "copier must not be null");
+            this.copying = true;
+            return this;
+        }
+
+        /**
+         * Builds the single-flight group.
+         * @return the single-flight group
+         */
+        public SingleFlight<K, V> build() {
+            return new SingleFlight<>(this);
+        }
+    }
+}
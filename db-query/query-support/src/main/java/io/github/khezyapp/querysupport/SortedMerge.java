@@ -0,0 +1,76 @@
+package io.github.khezyapp.querysupport;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+
+/**
+ * Utility class merging individually sorted runs, e.g., the pages returned by several shards, into one order.
+ * <p>
+ * The merge keeps a heap holding the head of each run, so producing {@code n} rows out of {@code k} runs costs
+ * {@code O(n log k)} comparisons and never copies a run. Equal rows keep the order of their runs.
+ * </p>
+ */
+public final class SortedMerge {
+
+    private SortedMerge() {
+    }
+
+    /**
+     * Merges sorted runs and returns one window of the merged order.
+     *
+     * @param runs       the runs, each sorted by {@code comparator}
+     * @param comparator the order of every run
+     * @param skip       the number of merged rows to drop first, e.g., the page offset
+     * @param limit      the maximum number of rows returned
+     * @param <T>        the row type
+     * @return the rows at positions {@code [skip, skip + limit)} of the merged order
+     * @throws IllegalArgumentException if {@code skip} or {@code limit} is negative
+     */
+    public static <T> List<T> merge(final List<? extends List<? extends T>> runs,
+                                    final Comparator<? super T> comparator,
+                                    final long skip,
+                                    final int limit) {
+        Objects.requireNonNull(comparator, "comparator must not be null");
+        if (skip < 0 || limit < 0) {
+            throw new IllegalArgumentException("Skip and limit must not be negative");
+        }
+        final var heap = new PriorityQueue<Head<T>>((a, b) -> {
+            final var order = comparator.compare(a.value(), b.value());
+            return order != 0 ? order : Integer.compare(a.run(), b.run());
+        });
+        for (var run = 0; run < runs.size(); run++) {
+            if (!runs.get(run).isEmpty()) {
+                heap.add(new Head<>(runs.get(run).get(0), run, 0));
+            }
+        }
+
+        final var merged = new ArrayList<T>();
+        var position = 0L;
+        while (!heap.isEmpty() && merged.size() < limit) {
+            final var head = heap.poll();
+            if (position++ >= skip) {
+                merged.add(head.value());
+            }
+            final var next = head.index() + 1;
+            final var run = runs.get(head.run());
+            if (next < run.size()) {
+                heap.add(new Head<>(run.get(next), head.run(), next));
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * The smallest unmerged row of a run.
+     *
+     * @param value the row
+     * @param run   the run index
+     * @param index the row index within the run
+     * @param <T>   the row type
+     */
+    private record Head<T>(T value, int run, int index) {
+    }
+}
@@ -0,0 +1,472 @@
+package io.github.khezyapp.querysupport;
+
+import io.github.khezyapp.grammar.ast.ASTSpec;
+import io.github.khezyapp.grammar.ast.BetweenComparisonSpec;
+import io.github.khezyapp.grammar.ast.BinaryComparisonSpec;
+import io.github.khezyapp.grammar.ast.ComparisonOperator;
+import io.github.khezyapp.grammar.ast.InComparisonSpec;
+import io.github.khezyapp.grammar.ast.LogicalAndSpec;
+import io.github.khezyapp.grammar.ast.LogicalOrSpec;
+import io.github.khezyapp.grammar.ast.QuerySpec;
+import io.github.khezyapp.grammar.ast.SpecificationVisitor;
+import io.github.khezyapp.grammar.ast.UnaryComparisonSpec;
+import io.github.khezyapp.grammar.ast.operand.AggregateOperand;
+import io.github.khezyapp.grammar.ast.operand.LiteralOperand;
+import io.github.khezyapp.grammar.ast.operand.Operand;
+import io.github.khezyapp.grammar.ast.operand.PathOperand;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Evaluates the WHERE clause of a query specification against objects in memory.
+ * <p>
+ * The specification is compiled once into a predicate tree; testing an object only walks that tree. Paths are
+ * read through getters (including record accessors and {@code isX} for booleans), then fields, and map keys;
+ * a collection along a path matches when any of its elements matches, like the join it stands for in SQL.
+ * Comparisons follow SQL rules: anything compared with {@code null} is false, numbers compare by value
+ * whatever their type, enums compare by name, and string literals are parsed into the type of the value they
+ * are compared with (dates, times, UUIDs, booleans). {@code LIKE} and {@code ILIKE} use SQL wildcards.
+ * </p>
+ * <p>
+ * GROUP BY and HAVING cannot be evaluated per object and are rejected by {@link #of(QuerySpec)}. Groups that
+ * were aggregated elsewhere can be filtered with {@link #having(QuerySpec)}.
+ * </p>
+ */
+public final class SpecMatcher implements Predicate<Object> {
+    private static final ClassValue<Map<String, Optional<AccessibleObject>>> ACCESSORS = new ClassValue<>() {
+        @Override
+        protected Map<String, Optional<AccessibleObject>> computeValue(final Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private final Predicate<Object> predicate;
+
+    private SpecMatcher(final Predicate<Object> predicate) {
+        this.predicate = predicate;
+    }
+
+    /**
+     * Compiles a specification into a matcher.
+     *
+     * @param querySpec the specification, {@code null} matching everything
+     * @return the matcher
+     * @throws IllegalArgumentException if the specification groups rows or filters on aggregates
+     */
+    public static SpecMatcher of(final QuerySpec querySpec) {
+        if (Objects.isNull(querySpec)) {
+            return new SpecMatcher(target -> true);
+        }
+        if (Objects.nonNull(querySpec.havingSpec())
+                || (Objects.nonNull(querySpec.groupBy()) && Objects.nonNull(querySpec.groupBy().items())
+                && !querySpec.groupBy().items().isEmpty())) {
+            throw new IllegalArgumentException("GROUP BY and HAVING cannot be evaluated in memory");
+        }
+        return new SpecMatcher(querySpec.accept(new Compiler(false)));
+    }
+
+    /**
+     * Compiles the HAVING clause of a specification into a matcher over aggregated groups.
+     * <p>
+     * Each aggregate is read from the tested group under its {@link #label(AggregateOperand)}, so a group is
+     * usually a map such as {@code {"genre": "fantasy", "COUNT(*)": 1200}}. Plain paths are read as usual.
+     * </p>
+     *
+     * @param querySpec the specification, {@code null} or without HAVING matching every group
+     * @return the matcher
+     */
+    public static SpecMatcher having(final QuerySpec querySpec) {
+        if (Objects.isNull(querySpec) || Objects.isNull(querySpec.havingSpec())) {
+            return new SpecMatcher(target -> true);
+        }
+        return new SpecMatcher(new Compiler(true).compile(querySpec.havingSpec()));
+    }
+
+    /**
+     * Gets the key an aggregate is read from by {@link #having(QuerySpec)} (e.g., "SUM(amount)", "COUNT(*)").
+     *
+     * @param aggregate the aggregate
+     * @return the label
+     */
+    public static String label(final AggregateOperand aggregate) {
+        return aggregate.function().getValue() + "(" + aggregate.path().path() + ")";
+    }
+
+    /**
+     * Tests whether an object satisfies the specification.
+     *
+     * @param target the object, e.g., an entity or a map of property values
+     * @return {@code true} if it matches
+     */
+    @Override
+    public boolean test(final Object target) {
+        return Objects.nonNull(target) && predicate.test(target);
+    }
+
+    /**
+     * Reads every value a path leads to, expanding collections along the way.
+     *
+     * @param target      the root object
+     * @param identifiers the path segments
+     * @return the values, empty when the path ends at {@code null}
+     */
+    static List<Object> read(final Object target,
+                             final List<String> identifiers) {
+        List<Object> current = List.of(target);
+        for (final var identifier : identifiers) {
+            final var next = new ArrayList<>();
+            for (final var value : current) {
+                final var property = property(value, identifier);
+                if (property instanceof Collection<?> collection) {
+                    collection.stream().filter(Objects::nonNull).forEach(next::add);
+                } else if (Objects.nonNull(property)) {
+                    next.add(property);
+                }
+            }
+            current = next;
+        }
+        return current;
+    }
+
+    /**
+     * Reads one property of an object.
+     *
+     * @param target the object
+     * @param name   the property name
+     * @return the value, or {@code null} if absent
+     */
+    private static Object property(final Object target,
+                                   final String name) {
+        if (target instanceof Map<?, ?> map) {
+            return map.get(name);
+        }
+        final var type = target.getClass();
+        final var accessor = ACCESSORS.get(type).computeIfAbsent(name, n -> findAccessor(type, n));
+        if (accessor.isEmpty()) {
+            throw new IllegalArgumentException("No property '%s' on %s".formatted(name, type.getName()));
+        }
+        try {
+            if (accessor.get() instanceof Method method) {
+                return method.invoke(target);
+            }
+            return ((Field) accessor.get()).get(target);
+        } catch (final IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Failed to read '%s' of %s".formatted(name, type.getName()), e);
+        }
+    }
+
+    /**
+     * Finds the getter, record accessor or field of a property.
+     *
+     * @param type the class
+     * @param name the property name
+     * @return the accessor, empty if none exists
+     */
+    private static Optional<AccessibleObject> findAccessor(final Class<?> type,
+                                                           final String name) {
+        final var capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        for (final var candidate : List.of("get" + capitalized, "is" + capitalized, name)) {
+            try {
+                final var method = type.getMethod(candidate);
+                if (method.getParameterCount() == 0 && method.getReturnType() != void.class) {
+                    method.setAccessible(true);
+                    return Optional.of(method);
+                }
+            } catch (final NoSuchMethodException e) {
+                // try the next naming convention
+            }
+        }
+        for (Class<?> current = type; Objects.nonNull(current); current = current.getSuperclass()) {
+            try {
+                final var field = current.getDeclaredField(name);
+                field.setAccessible(true);
+                return Optional.of(field);
+            } catch (final NoSuchFieldException e) {
+                // look in the superclass
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Compares a value with a literal, converting the literal to the value's type.
+     *
+     * @param value   the value read from the object
+     * @param literal the literal or other value
+     * @return the comparison result, or {@code null} if the two cannot be compared
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static Integer compare(final Object value,
+                           final Object literal) {
+        if (Objects.isNull(value) || Objects.isNull(literal)) {
+            return null;
+        }
+        if (value instanceof Enum<?> constant) {
+            return constant.name().compareTo(String.valueOf(literal instanceof Enum<?> e ? e.name() : literal));
+        }
+        final var converted = literal instanceof String text && !(value instanceof String)
+                ? parse(text, value)
+                : literal;
+        if (value instanceof Number number && converted instanceof Number other) {
+            return compareNumbers(number, other);
+        }
+        if (value instanceof Comparable comparable && value.getClass().isInstance(converted)) {
+            return comparable.compareTo(converted);
+        }
+        return value.equals(converted) ? 0 : null;
+    }
+
+    /**
+     * Compares two numbers by value, using doubles when either is floating-point.
+     *
+     * @param left  the first number
+     * @param right the second number
+     * @return the comparison result
+     */
+    private static int compareNumbers(final Number left,
+                                      final Number right) {
+        if (left instanceof Double || left instanceof Float || right instanceof Double || right instanceof Float) {
+            return Double.compare(left.doubleValue(), right.doubleValue());
+        }
+        return new BigDecimal(left.toString()).compareTo(new BigDecimal(right.toString()));
+    }
+
+    /**
+     * Parses a string literal into the type of the value it is compared with.
+     *
+     * @param text  the literal
+     * @param value the value giving the type
+     * @return the parsed literal, or the text if the type is not supported or the text does not parse
+     */
+    private static Object parse(final String text,
+                                final Object value) {
+        try {
+            if (value instanceof LocalDate) {
+                return LocalDate.parse(text);
+            } else if (value instanceof LocalDateTime) {
+                return LocalDateTime.parse(text);
+            } else if (value instanceof LocalTime) {
+                return LocalTime.parse(text);
+            } else if (value instanceof Instant) {
+                return Instant.parse(text);
+            } else if (value instanceof OffsetDateTime) {
+                return OffsetDateTime.parse(text);
+            } else if (value instanceof ZonedDateTime) {
+                return ZonedDateTime.parse(text);
+            } else if (value instanceof UUID) {
+                return UUID.fromString(text);
+            } else if (value instanceof Boolean) {
+                return Boolean.valueOf(text);
+            } else if (value instanceof Number) {
+                return new BigDecimal(text);
+            }
+        } catch (final DateTimeParseException | IllegalArgumentException e) {
+            return text;
+        }
+        return text;
+    }
+
+    /**
+     * Converts a SQL {@code LIKE} pattern into a regular expression.
+     *
+     * @param pattern         the SQL pattern
+     * @param caseInsensitive whether to ignore case
+     * @return the compiled pattern
+     */
+    private static Pattern likePattern(final String pattern,
+                                       final boolean caseInsensitive) {
+        final var regex = new StringBuilder();
+        final var literal = new StringBuilder();
+        for (final var c : pattern.toCharArray()) {
+            if (c == '%' || c == '_') {
+                if (!literal.isEmpty()) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(c == '%' ? ".*" : ".");
+            } else {
+                literal.append(c);
+            }
+        }
+        if (!literal.isEmpty()) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        return Pattern.compile(regex.toString(),
+                Pattern.DOTALL | (caseInsensitive ? Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE : 0));
+    }
+
+    /**
+     * Visitor compiling specification nodes into predicates.
+     */
+    private static final class Compiler implements SpecificationVisitor<Predicate<Object>> {
+        private final boolean aggregates;
+
+        private Compiler(final boolean aggregates) {
+            this.aggregates = aggregates;
+        }
+
+        @Override
+        public Predicate<Object> visitQuerySpec(final QuerySpec querySpec) {
+            return compile(querySpec.whereSpec());
+        }
+
+        @Override
+        public Predicate<Object> visitLogicalOrSpec(final LogicalOrSpec orSpec) {
+            final var children = orSpec.children().stream().map(this::compile).toList();
+            return target -> children.isEmpty() || children.stream().anyMatch(c -> c.test(target));
+        }
+
+        @Override
+        public Predicate<Object> visitLogicalAndSpec(final LogicalAndSpec andSpec) {
+            final var children = andSpec.children().stream().map(this::compile).toList();
+            return target -> children.stream().allMatch(c -> c.test(target));
+        }
+
+        @Override
+        public Predicate<Object> visitBinaryComparisonSpec(final BinaryComparisonSpec spec) {
+            final var left = path(spec.left());
+            final var right = spec.right();
+            final var operator = spec.operator();
+            return switch (operator) {
+                case EQ -> compared(left, right, c -> c == 0);
+                case NE -> compared(left, right, c -> c != 0);
+                case LT -> compared(left, right, c -> c < 0);
+                case LTE -> compared(left, right, c -> c <= 0);
+                case GT -> compared(left, right, c -> c > 0);
+                case GTE -> compared(left, right, c -> c >= 0);
+                case LIKE, ILIKE -> {
+                    if (!(right instanceof LiteralOperand literal)) {
+                        throw new UnsupportedOperationException("%s requires a literal pattern".formatted(operator));
+                    }
+                    final var pattern = likePattern(String.valueOf(literal.value()),
+                            operator == ComparisonOperator.ILIKE);
+                    yield target -> read(target, left.identifiers()).stream()
+                            .anyMatch(v -> pattern.matcher(String.valueOf(v)).matches());
+                }
+                default -> throw new UnsupportedOperationException("Operator '%s' not supported in binary comparison"
+                        .formatted(operator));
+            };
+        }
+
+        @Override
+        public Predicate<Object> visitInComparisonSpec(final InComparisonSpec spec) {
+            final var left = path(spec.left());
+            final var candidates = spec.right().stream().map(this::literal).toList();
+            return target -> read(target, left.identifiers()).stream()
+                    .anyMatch(v -> candidates.stream().anyMatch(c -> Objects.equals(compare(v, c), 0)));
+        }
+
+        @Override
+        public Predicate<Object> visitBetweenComparisonSpec(final BetweenComparisonSpec spec) {
+            final var left = path(spec.left());
+            final var from = literal(spec.from());
+            final var to = literal(spec.to());
+            return target -> read(target, left.identifiers()).stream().anyMatch(v -> {
+                final var lower = compare(v, from);
+                final var upper = compare(v, to);
+                return Objects.nonNull(lower) && Objects.nonNull(upper) && lower >= 0 && upper <= 0;
+            });
+        }
+
+        @Override
+        public Predicate<Object> visitUnaryComparisonSpec(final UnaryComparisonSpec spec) {
+            final var left = path(spec.left());
+            return switch (spec.operator()) {
+                case IS_NULL -> target -> read(target, left.identifiers()).isEmpty();
+                case IS_NOT_NULL -> target -> !read(target, left.identifiers()).isEmpty();
+                default -> throw new UnsupportedOperationException("Operator '%s' not supported unary"
+                        .formatted(spec.operator()));
+            };
+        }
+
+        /**
+         * Compiles a node, treating a missing node as "match everything".
+         *
+         * @param spec the node, may be {@code null}
+         * @return the predicate
+         */
+        private Predicate<Object> compile(final ASTSpec spec) {
+            return Objects.isNull(spec) ? target -> true : spec.accept(this);
+        }
+
+        /**
+         * Builds a predicate comparing every value of a path with the right-hand operand.
+         *
+         * @param left  the path
+         * @param right a literal, another path, or an aggregate when compiling HAVING
+         * @param test  accepts the comparison result
+         * @return the predicate
+         */
+        private Predicate<Object> compared(final PathOperand left,
+                                           final Operand right,
+                                           final IntPredicate test) {
+            if (right instanceof PathOperand || (aggregates && right instanceof AggregateOperand)) {
+                final var other = path(right);
+                return target -> {
+                    final var rights = read(target, other.identifiers());
+                    return read(target, left.identifiers()).stream()
+                            .anyMatch(v -> rights.stream().map(r -> compare(v, r))
+                                    .anyMatch(c -> Objects.nonNull(c) && test.test(c)));
+                };
+            }
+            final var literal = literal(right);
+            return target -> read(target, left.identifiers()).stream()
+                    .map(v -> compare(v, literal))
+                    .anyMatch(c -> Objects.nonNull(c) && test.test(c));
+        }
+
+        /**
+         * Gets the path of an operand.
+         *
+         * @param operand the operand
+         * @return the path operand, or the label path of an aggregate when compiling HAVING
+         * @throws IllegalArgumentException if the operand is an aggregate outside HAVING
+         */
+        private PathOperand path(final Operand operand) {
+            if (operand instanceof PathOperand path) {
+                return path;
+            }
+            if (aggregates && operand instanceof AggregateOperand aggregate) {
+                final var label = label(aggregate);
+                return new PathOperand(List.of(label), label);
+            }
+            throw new IllegalArgumentException("Only attribute paths can be evaluated in memory, got " + operand);
+        }
+
+        /**
+         * Gets the value of a literal operand.
+         *
+         * @param operand the operand
+         * @return the literal value
+         * @throws IllegalArgumentException if the operand is not a literal
+         */
+        private Object literal(final Operand operand) {
+            if (operand instanceof LiteralOperand literal) {
+                return literal.value();
+            }
+            throw new IllegalArgumentException("Expected a literal, got " + operand);
+        }
+    }
+}
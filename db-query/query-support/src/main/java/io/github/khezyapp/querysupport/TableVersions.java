@@ -0,0 +1,82 @@
+package io.github.khezyapp.querysupport;
+
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory change counters per table, bumped by whatever observes committed writes.
+ * <p>
+ * Reading a version costs one map lookup per table, so it can run on every request. Table names are
+ * compared case-insensitively. Counters are local to the JVM: writes made by other instances or outside
+ * the application are not seen unless they are reported through {@link #bump(String)}.
+ * </p>
+ * <p>
+ * Counters restart at zero with the JVM, so every instance draws a random epoch that prefixes its version
+ * strings. A tag issued before a restart never matches one issued after it, even when the counters happen to
+ * be equal again.
+ * </p>
+ */
+public class TableVersions implements ChangeVersionSource {
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final String epoch = UUID.randomUUID().toString();
+
+    /**
+     * Gets the random epoch of this instance, part of every version string.
+     * @return the epoch
+     */
+    public String epoch() {
+        return epoch;
+    }
+
+    /**
+     * Marks a table as changed.
+     * @param table the table name
+     */
+    public void bump(final String table) {
+        versions.computeIfAbsent(normalize(table), t -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * Gets the change counter of a table.
+     *
+     * @param table the table name
+     * @return the counter, zero until the table is first changed
+     */
+    public long current(final String table) {
+        final var version = versions.get(normalize(table));
+        return Objects.isNull(version) ? 0L : version.get();
+    }
+
+    /**
+     * Gets the epoch and the counters of the given tables, in a stable order.
+     *
+     * @param tables the table names a query reads
+     * @return the version string
+     */
+    @Override
+    public String version(final Collection<String> tables) {
+        final var sb = new StringBuilder(epoch).append(';');
+        tables.stream()
+                .map(TableVersions::normalize)
+                .distinct()
+                .sorted()
+                .forEach(table -> sb.append(table).append('@').append(current(table)).append(';'));
+        return sb.toString();
+    }
+
+    /**
+     * Normalizes a table name for lookup.
+     *
+     * @param table the table name
+     * @return the lower-case name
+     */
+    private static String normalize(final String table) {
+        return Objects.requireNonNull(table, "table must not be null").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,86 @@
+package io.github.khezyapp.querysupport;
+
+/**
+ * Represents the total number of rows reported alongside a page, together with how precise that number is.
+ *
+ * @param value     the reported total, or {@code -1} when no total was computed
+ * @param precision how the value should be interpreted
+ */
+public record TotalCount(
+        long value,
+        Precision precision
+) {
+
+    /**
+     * Creates an exact total.
+     *
+     * @param value the number of matching rows
+     * @return the total count
+     */
+    public static TotalCount exact(final long value) {
+        return new TotalCount(value, Precision.EXACT);
+    }
+
+    /**
+     * Creates a lower bound, reported as "N+".
+     *
+     * @param value the number of rows counted before stopping
+     * @return the total count
+     */
+    public static TotalCount atLeast(final long value) {
+        return new TotalCount(value, Precision.AT_LEAST);
+    }
+
+    /**
+     * Creates a planner estimate.
+     *
+     * @param value the estimated number of rows
+     * @return the total count
+     */
+    public static TotalCount estimated(final long value) {
+        return new TotalCount(value, Precision.ESTIMATED);
+    }
+
+    /**
+     * Creates a total that was not computed (slice mode).
+     * @return the total count
+     */
+    public static TotalCount unknown() {
+        return new TotalCount(-1L, Precision.UNKNOWN);
+    }
+
+    /**
+     * Checks whether the value is the exact number of matching rows.
+     * @return {@code true} if exact
+     */
+    public boolean isExact() {
+        return precision == Precision.EXACT;
+    }
+
+    /**
+     * Formats the total for display (e.g., "120", "1000+", "~5000", or an empty string when unknown).
+     * @return the display text
+     */
+    public String display() {
+        return switch (precision) {
+            case EXACT -> Long.toString(value);
+            case AT_LEAST -> value + "+";
+            case ESTIMATED -> "~" + value;
+            case UNKNOWN -> "";
+        };
+    }
+
+    /**
+     * Describes how a {@link TotalCount} value was obtained.
+     */
+    public enum Precision {
+        /** The value was counted exactly (or served from a cached exact count). */
+        EXACT,
+        /** Counting stopped at a cap; the real total is the value or more. */
+        AT_LEAST,
+        /** The value comes from the database planner statistics. */
+        ESTIMATED,
+        /** No total was computed; only {@code hasNext} is known. */
+        UNKNOWN
+    }
+}
@@ -0,0 +1,124 @@
+package io.github.khezyapp.querysupport;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CountStrategyTest {
+
+    private static CountSource source(final long rows,
+                                      final OptionalLong estimate,
+                                      final AtomicInteger exactCalls) {
+        return new CountSource() {
+            @Override
+            public long exact() {
+                exactCalls.incrementAndGet();
+                return rows;
+            }
+
+            @Override
+            public long upTo(final long limit) {
+                return Math.min(rows, limit);
+            }
+
+            @Override
+            public OptionalLong estimate() {
+                return estimate;
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("Capped count reports N+ only when rows exceed the cap")
+    void testCapped() {
+        final var calls = new AtomicInteger();
+        final var over = CountStrategy.capped(1000).count("k", source(5000, OptionalLong.empty(), calls));
+        final var exactlyCap = CountStrategy.capped(1000).count("k", source(1000, OptionalLong.empty(), calls));
+
+        assertEquals("1000+", over.display());
+        assertEquals(TotalCount.Precision.AT_LEAST, over.precision());
+        assertTrue(exactlyCap.isExact());
+        assertEquals(1000, exactlyCap.value());
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    @DisplayName("Estimated count falls back to exact when no estimate is available")
+    void testEstimatedFallback() {
+        final var calls = new AtomicInteger();
+        final var estimated = CountStrategy.estimated().count("k", source(10, OptionalLong.of(12), calls));
+        final var fallback = CountStrategy.estimated().count("k", source(10, OptionalLong.empty(), calls));
+
+        assertEquals("~12", estimated.display());
+        assertEquals(TotalCount.exact(10), fallback);
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    @DisplayName("Slice strategy does not count")
+    void testSlice() {
+        final var calls = new AtomicInteger();
+        final var total = CountStrategy.slice().count("k", source(10, OptionalLong.of(12), calls));
+
+        assertEquals(TotalCount.unknown(), total);
+        assertTrue(CountStrategy.slice().probesNextPage());
+        assertFalse(CountStrategy.exact().probesNextPage());
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    @DisplayName("Cached count is reused until its TTL expires")
+    void testCachedTtl() {
+        final var clock = new MutableClock();
+        final var cache = new CountCache(Duration.ofSeconds(30), 100, clock);
+        final var strategy = CountStrategy.cached(cache);
+        final var calls = new AtomicInteger();
+        final var source = source(42, OptionalLong.empty(), calls);
+
+        assertEquals(42, strategy.count("k", source).value());
+        assertEquals(42, strategy.count("k", source).value());
+        assertEquals(1, calls.get());
+
+        clock.advance(Duration.ofSeconds(31));
+        strategy.count("k", source);
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    @DisplayName("Invalid strategy settings are rejected")
+    void testInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> CountStrategy.capped(0));
+        assertThrows(IllegalArgumentException.class, () -> CountStrategy.cached(null));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.EPOCH;
+
+        void advance(final Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(final java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
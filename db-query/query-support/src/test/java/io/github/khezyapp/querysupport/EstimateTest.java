@@ -0,0 +1,65 @@
+package io.github.khezyapp.querysupport;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EstimateTest {
+
+    @Test
+    @DisplayName("Test normal quantiles of common confidence levels")
+    void testZ() {
+        assertEquals(1.6449, Estimate.z(0.90), 1e-4);
+        assertEquals(1.9600, Estimate.z(0.95), 1e-4);
+        assertEquals(2.5758, Estimate.z(0.99), 1e-4);
+        assertThrows(IllegalArgumentException.class, () -> Estimate.z(1.0));
+    }
+
+    @Test
+    @DisplayName("Test a 1% Bernoulli sample estimates COUNT, SUM and AVG within their intervals")
+    void testSample() {
+        final var random = new SplittableRandom(42);
+        final var fraction = 0.01;
+        final var rows = 2_000_000;
+        var total = 0.0;
+        var sampled = 0L;
+        var sum = 0.0;
+        var sumOfSquares = 0.0;
+        for (var i = 0; i < rows; i++) {
+            final var amount = 1 + random.nextInt(200);
+            total += amount;
+            if (random.nextDouble() < fraction) {
+                sampled++;
+                sum += amount;
+                sumOfSquares += (double) amount * amount;
+            }
+        }
+
+        final var count = Estimate.ofCount(sampled, fraction, 0.95);
+        final var sumEstimate = Estimate.ofSum(sum, sumOfSquares, fraction, 0.95);
+        final var average = Estimate.ofAverage(sampled, sum, sumOfSquares, fraction, 0.95);
+
+        assertTrue(count.covers(rows), count.toString());
+        assertTrue(count.relativeError() < 0.02, count.toString());
+        assertTrue(sumEstimate.covers(total), sumEstimate.toString());
+        assertTrue(average.covers(total / rows), average.toString());
+    }
+
+    @Test
+    @DisplayName("Test a full sample is exact and a single value has an unbounded average interval")
+    void testEdges() {
+        final var count = Estimate.ofCount(120, 1.0, 0.95);
+        final var single = Estimate.ofAverage(1, 7, 49, 0.5, 0.95);
+
+        assertEquals(120, count.lower());
+        assertEquals(120, count.upper());
+        assertEquals(7, single.value());
+        assertTrue(Double.isInfinite(single.upper()));
+        assertEquals(0, Estimate.ofCount(0, 0.01, 0.95).lower());
+        assertThrows(IllegalArgumentException.class, () -> Estimate.ofCount(1, 0, 0.95));
+        assertThrows(IllegalArgumentException.class, () -> Estimate.ofAverage(0, 0, 0, 0.5, 0.95));
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.khezyapp.querysupport;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HyperLogLogTest {
+
+    @Test
+    @DisplayName("Test cardinality stays within three standard errors")
+    void testCardinality() {
+        for (final var expected : new long[]{10, 1_000, 100_000, 1_000_000}) {
+            final var sketch = new HyperLogLog();
+            for (var i = 0L; i < expected; i++) {
+                sketch.add(i);
+                sketch.add(i);
+            }
+
+            final var error = Math.abs(sketch.cardinality() - expected) / (double) expected;
+            assertTrue(error < 3 * sketch.standardError(), "error " + error + " for " + expected);
+        }
+    }
+
+    @Test
+    @DisplayName("Test equal values of different integral types count once and null is ignored")
+    void testValues() {
+        final var sketch = new HyperLogLog(10);
+        sketch.add(5);
+        sketch.add(5L);
+        sketch.add((short) 5);
+        sketch.add(null);
+        sketch.add("a");
+        sketch.add(new StringBuilder("a"));
+        sketch.add(UUID.fromString("00000000-0000-0000-0000-000000000001"));
+
+        assertEquals(3, sketch.cardinality());
+    }
+
+    @Test
+    @DisplayName("Test merged sketches estimate the union")
+    void testMerge() {
+        final var left = new HyperLogLog(12);
+        final var right = new HyperLogLog(12);
+        for (var i = 0; i < 60_000; i++) {
+            left.add("user-" + i);
+            right.add("user-" + (i + 30_000));
+        }
+        left.merge(right);
+
+        final var estimate = left.estimate(0.99);
+        assertTrue(estimate.covers(90_000), estimate.toString());
+        assertThrows(IllegalArgumentException.class, () -> left.merge(new HyperLogLog(11)));
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(3));
+    }
+}
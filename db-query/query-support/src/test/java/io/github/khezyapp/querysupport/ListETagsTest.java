@@ -0,0 +1,67 @@
+package io.github.khezyapp.querysupport;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ListETagsTest {
+
+    @Test
+    @DisplayName("Test the tag is quoted and stable while no table changes")
+    void testStableTag() {
+        final var versions = new TableVersions();
+        final var first = ListETags.of("q", 0, versions.version(List.of("book", "author")));
+        final var second = ListETags.of("q", 0, versions.version(List.of("AUTHOR", "book")));
+
+        assertEquals(first, second);
+        assertTrue(first.startsWith("\"") && first.endsWith("\""));
+    }
+
+    @Test
+    @DisplayName("Test the tag changes with the page or a write to a read table")
+    void testTagChanges() {
+        final var versions = new TableVersions();
+        final var tables = List.of("book", "author");
+        final var before = ListETags.of("q", 0, versions.version(tables));
+
+        assertNotEquals(before, ListETags.of("q", 1, versions.version(tables)));
+
+        versions.bump("publisher");
+        assertEquals(before, ListETags.of("q", 0, versions.version(tables)));
+
+        versions.bump("Author");
+        assertNotEquals(before, ListETags.of("q", 0, versions.version(tables)));
+        assertEquals(1, versions.current("author"));
+    }
+
+    @Test
+    @DisplayName("Test the tag differs between callers with different scopes")
+    void testScopedTag() {
+        final var versions = new TableVersions();
+        final var version = versions.version(List.of("book"));
+        final var alice = ListETags.of("q", 0, "alice|tenantFilter(tenantId=1)", version);
+
+        assertEquals(alice, ListETags.of("q", 0, "alice|tenantFilter(tenantId=1)", version));
+        assertNotEquals(alice, ListETags.of("q", 0, "bob|tenantFilter(tenantId=2)", version));
+        assertNotEquals(alice, ListETags.of("q", 0, version));
+        assertEquals(ListETags.of("q", 0, version), ListETags.of("q", 0, "", version));
+    }
+
+    @Test
+    @DisplayName("Test tags issued before a restart do not match tags issued after it")
+    void testRestart() {
+        final var tables = List.of("book", "author");
+        final var beforeRestart = new TableVersions();
+        final var afterRestart = new TableVersions();
+        beforeRestart.bump("book");
+        afterRestart.bump("book");
+
+        assertEquals(beforeRestart.current("book"), afterRestart.current("book"));
+        assertNotEquals(beforeRestart.epoch(), afterRestart.epoch());
+        assertNotEquals(ListETags.of("q", 0, beforeRestart.version(tables)),
+                ListETags.of("q", 0, afterRestart.version(tables)));
+    }
+}
@@ -0,0 +1,129 @@
+package io.github.khezyapp.querysupport;
+
+import io.github.khezyapp.grammar.ast.BinaryComparisonSpec;
+import io.github.khezyapp.grammar.ast.ComparisonOperator;
+import io.github.khezyapp.grammar.ast.JoinType;
+import io.github.khezyapp.grammar.ast.QuerySpec;
+import io.github.khezyapp.grammar.ast.operand.LiteralOperand;
+import io.github.khezyapp.grammar.ast.operand.PathOperand;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LiveQueryHubTest {
+
+    private static QuerySpec priceAbove(final long price) {
+        return new QuerySpec(new BinaryComparisonSpec(new PathOperand(List.of("price"), "price"),
+                ComparisonOperator.GT, new LiteralOperand(price), JoinType.INNER), null, null);
+    }
+
+    private static void awaitSize(final List<?> events,
+                                  final int size) throws InterruptedException {
+        final var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (events.size() < size && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    @DisplayName("Test subscribers of the same filter share one evaluation per change")
+    void testGroupedEvaluation() throws Exception {
+        try (var hub = LiveQueryHub.builder(Item.class, Item::name).build()) {
+            final var first = new CopyOnWriteArrayList<LiveEvent<String>>();
+            final var second = new CopyOnWriteArrayList<LiveEvent<String>>();
+            hub.subscribe(priceAbove(10L), first::add).start();
+            hub.subscribe(priceAbove(10L), second::add).start();
+
+            hub.inserted(1L, new Item("cheap", 5));
+            hub.inserted(2L, new Item("dear", 50));
+            awaitSize(first, 1);
+            awaitSize(second, 1);
+
+            assertEquals(1, hub.groupCount());
+            assertEquals(2, hub.subscriberCount());
+            assertEquals(2, hub.evaluationCount());
+            assertEquals(List.of(new LiveEvent<>(LiveEvent.Type.ADDED, 2L, "dear")), first);
+            assertEquals(first, second);
+        }
+    }
+
+    @Test
+    @DisplayName("Test updates are classified by matching the row before and after")
+    void testUpdateClassification() throws Exception {
+        try (var hub = LiveQueryHub.builder(Item.class, Item::name).build()) {
+            final var events = new CopyOnWriteArrayList<LiveEvent<String>>();
+            hub.subscribe(priceAbove(10L), events::add).start();
+
+            hub.updated(1L, Map.of("price", 5), new Item("a", 20));
+            hub.updated(1L, Map.of("price", 20), new Item("a", 30));
+            hub.updated(1L, Map.of("price", 30), new Item("a", 1));
+            hub.updated(2L, null, new Item("b", 1));
+            hub.deleted(3L, new Item("c", 1));
+            awaitSize(events, 4);
+
+            assertEquals(List.of(LiveEvent.Type.ADDED, LiveEvent.Type.UPDATED, LiveEvent.Type.REMOVED,
+                    LiveEvent.Type.REMOVED), events.stream().map(LiveEvent::type).toList());
+        }
+    }
+
+    @Test
+    @DisplayName("Test a subscriber falling behind gets a resync instead of unbounded events")
+    void testOverflow() throws Exception {
+        try (var hub = LiveQueryHub.builder(Item.class, Item::name).bufferSize(2).build()) {
+            final var events = new CopyOnWriteArrayList<LiveEvent<String>>();
+            final var subscription = hub.subscribe(null, events::add);
+            for (var i = 0; i < 5; i++) {
+                hub.inserted((long) i, new Item("item-" + i, i));
+            }
+            subscription.start();
+            awaitSize(events, 1);
+            Thread.sleep(50);
+
+            assertEquals(LiveEvent.Type.RESYNC, events.get(0).type());
+            assertTrue(events.size() <= 2);
+            assertTrue(hub.overflowCount() > 0);
+
+            subscription.close();
+            assertEquals(0, hub.groupCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Test subscribers of the same filter only receive rows visible to their scope")
+    void testScopedSubscribers() throws Exception {
+        try (var hub = LiveQueryHub.builder(TenantItem.class, TenantItem::name).build()) {
+            final var first = new CopyOnWriteArrayList<LiveEvent<String>>();
+            final var second = new CopyOnWriteArrayList<LiveEvent<String>>();
+            final var filter = priceAbove(10L);
+            hub.subscribe(filter, "1", row -> row.tenant() == 1L, first::add).start();
+            hub.subscribe(filter, "2", row -> row.tenant() == 2L, second::add).start();
+
+            hub.inserted(1L, new TenantItem("mine", 50, 1L));
+            hub.inserted(2L, new TenantItem("theirs", 50, 2L));
+            hub.updated(1L, new TenantItem("mine", 50, 1L), new TenantItem("mine", 50, 2L));
+            hub.updated(3L, null, new TenantItem("unknown", 1, 2L));
+            awaitSize(first, 2);
+            awaitSize(second, 3);
+            Thread.sleep(50);
+
+            assertEquals(2, hub.groupCount());
+            assertEquals(List.of(new LiveEvent<>(LiveEvent.Type.ADDED, 1L, "mine"),
+                    new LiveEvent<>(LiveEvent.Type.REMOVED, 1L, null)), first);
+            assertEquals(List.of(new LiveEvent<>(LiveEvent.Type.ADDED, 2L, "theirs"),
+                    new LiveEvent<>(LiveEvent.Type.ADDED, 1L, "mine"),
+                    new LiveEvent<>(LiveEvent.Type.REMOVED, 3L, null)), second);
+        }
+    }
+
+    record Item(String name, int price) {
+    }
+
+    record TenantItem(String name, int price, long tenant) {
+    }
+}
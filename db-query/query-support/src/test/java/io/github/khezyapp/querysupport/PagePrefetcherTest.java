@@ -0,0 +1,225 @@
+package io.github.khezyapp.querysupport;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PagePrefetcherTest {
+    private static final int LAST_PAGE = 3;
+
+    private static List<Integer> page(final List<Integer> loads,
+                                      final int pageNumber) {
+        loads.add(pageNumber);
+        return List.of(pageNumber);
+    }
+
+    private static boolean hasNext(final List<Integer> page) {
+        return page.get(0) < LAST_PAGE;
+    }
+
+    @Test
+    @DisplayName("Test scrolling through pages in order is served from prefetches")
+    void testSequentialScroll() {
+        final var loads = new CopyOnWriteArrayList<Integer>();
+        try (var prefetcher = PagePrefetcher.builder().<List<Integer>>build()) {
+            for (var pageNumber = 0; pageNumber <= LAST_PAGE; pageNumber++) {
+                final var result = prefetcher.fetch("alice", "q", pageNumber,
+                        n -> page(loads, n), PagePrefetcherTest::hasNext);
+                assertEquals(List.of(pageNumber), result);
+            }
+
+            assertEquals(List.of(0, 1, 2, 3), loads);
+            assertEquals(3, prefetcher.hitCount());
+            assertEquals(1, prefetcher.missCount());
+            assertEquals(3, prefetcher.prefetchCount());
+            assertEquals(0.75, prefetcher.hitRate());
+        }
+    }
+
+    @Test
+    @DisplayName("Test prefetched pages are not shared across principals or queries")
+    void testIsolation() {
+        final var loads = new CopyOnWriteArrayList<Integer>();
+        try (var prefetcher = PagePrefetcher.builder().<List<Integer>>build()) {
+            prefetcher.fetch("alice", "q", 0, n -> page(loads, n), PagePrefetcherTest::hasNext);
+            prefetcher.fetch("bob", "q", 1, n -> page(loads, n), PagePrefetcherTest::hasNext);
+            prefetcher.fetch("alice", "other", 1, n -> page(loads, n), PagePrefetcherTest::hasNext);
+
+            assertEquals(0, prefetcher.hitCount());
+            assertEquals(3, prefetcher.missCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Test expired prefetches are reloaded")
+    void testExpiry() {
+        final var now = new AtomicLong();
+        final var clock = new Clock() {
+            @Override
+            public ZoneOffset getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(final ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return Instant.ofEpochMilli(now.get());
+            }
+        };
+        final var loads = new CopyOnWriteArrayList<Integer>();
+        try (var prefetcher = PagePrefetcher.builder()
+                .ttl(Duration.ofSeconds(5))
+                .clock(clock)
+                .<List<Integer>>build()) {
+            prefetcher.fetch("alice", "q", 0, n -> page(loads, n), PagePrefetcherTest::hasNext);
+            now.set(Duration.ofSeconds(6).toMillis());
+            prefetcher.fetch("alice", "q", 1, n -> page(loads, n), PagePrefetcherTest::hasNext);
+
+            assertEquals(0, prefetcher.hitCount());
+            assertEquals(2, prefetcher.missCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Test prefetching is skipped while the executor queue is deep")
+    void testSkipUnderLoad() {
+        final var executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(4));
+        final var release = new CountDownLatch(1);
+        try (var prefetcher = PagePrefetcher.builder()
+                .executor(executor)
+                .maxQueueDepth(1)
+                .<List<Integer>>build()) {
+            executor.execute(() -> await(release));
+            executor.execute(() -> { });
+
+            final var loads = new CopyOnWriteArrayList<Integer>();
+            prefetcher.fetch("alice", "q", 0, n -> page(loads, n), PagePrefetcherTest::hasNext);
+
+            assertEquals(List.of(0), loads);
+            assertEquals(0, prefetcher.prefetchCount());
+            assertEquals(1, prefetcher.skippedCount());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Test a failed prefetch falls back to loading the page")
+    void testFailedPrefetch() {
+        final var loads = new CopyOnWriteArrayList<Integer>();
+        try (var prefetcher = PagePrefetcher.builder().<List<Integer>>build()) {
+            prefetcher.fetch("alice", "q", 0, n -> {
+                if (n > 0) {
+                    throw new IllegalStateException("boom");
+                }
+                return page(loads, n);
+            }, PagePrefetcherTest::hasNext);
+            final var result = prefetcher.fetch("alice", "q", 1, n -> page(loads, n),
+                    PagePrefetcherTest::hasNext);
+
+            assertEquals(List.of(1), result);
+            assertEquals(0, prefetcher.hitCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Test the task decorator carries request-thread context to the prefetch")
+    void testTaskDecorator() {
+        final var tenant = new ThreadLocal<String>();
+        final var loadedFor = new CopyOnWriteArrayList<String>();
+        try (var prefetcher = PagePrefetcher.builder()
+                .taskDecorator(task -> {
+                    final var captured = tenant.get();
+                    return () -> {
+                        tenant.set(captured);
+                        try {
+                            task.run();
+                        } finally {
+                            tenant.remove();
+                        }
+                    };
+                })
+                .<List<Integer>>build()) {
+            tenant.set("acme");
+            final IntFunction<List<Integer>> loader = n -> {
+                loadedFor.add(n + ":" + tenant.get());
+                return List.of(n);
+            };
+            prefetcher.fetch("alice@acme", "q", 0, loader, PagePrefetcherTest::hasNext);
+            prefetcher.fetch("alice@acme", "q", 1, loader, PagePrefetcherTest::hasNext);
+
+            assertEquals(1, prefetcher.hitCount());
+            assertEquals("0:acme", loadedFor.get(0));
+            assertEquals("1:acme", loadedFor.get(1));
+        } finally {
+            tenant.remove();
+        }
+    }
+
+    @Test
+    @DisplayName("Test a slow prefetch is not awaited longer than the wait bound")
+    void testSlowPrefetch() {
+        final var release = new CountDownLatch(1);
+        final var caller = Thread.currentThread();
+        final var loads = new CopyOnWriteArrayList<Integer>();
+        try (var prefetcher = PagePrefetcher.builder()
+                .ttl(Duration.ofMinutes(1))
+                .maxWait(Duration.ofMillis(50))
+                .<List<Integer>>build()) {
+            final IntFunction<List<Integer>> loader = n -> {
+                if (Thread.currentThread() != caller) {
+                    await(release);
+                }
+                return page(loads, n);
+            };
+            prefetcher.fetch("alice", "q", 0, loader, PagePrefetcherTest::hasNext);
+
+            final var start = System.nanoTime();
+            final var result = prefetcher.fetch("alice", "q", 1, loader, PagePrefetcherTest::hasNext);
+
+            assertEquals(List.of(1), result);
+            assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(5)) < 0);
+            assertEquals(0, prefetcher.hitCount());
+            assertEquals(2, prefetcher.missCount());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("Test builder validation")
+    void testBuilderValidation() {
+        assertThrows(IllegalArgumentException.class, () -> PagePrefetcher.builder().maxConcurrent(0));
+        assertThrows(IllegalArgumentException.class, () -> PagePrefetcher.builder().maxQueueDepth(-1));
+        assertThrows(IllegalArgumentException.class, () -> PagePrefetcher.builder().ttl(Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> PagePrefetcher.builder().maxWait(Duration.ofMillis(-1)));
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
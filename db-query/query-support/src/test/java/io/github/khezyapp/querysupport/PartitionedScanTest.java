@@ -0,0 +1,132 @@
+package io.github.khezyapp.querysupport;
+
+import io.github.khezyapp.grammar.ast.QuerySpec;
+import io.github.khezyapp.grammar.ast.builder.ASTSpecConditions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PartitionedScanTest {
+
+    /**
+     * In-memory source over keys {@code 1..rows}, optionally failing once at a given key.
+     */
+    private static PartitionSource<Long> source(final long rows,
+                                                final long failAt,
+                                                final AtomicBoolean failed) {
+        return new PartitionSource<>() {
+            @Override
+            public Optional<KeyRange> bounds() {
+                return Optional.of(new KeyRange(1, rows + 1));
+            }
+
+            @Override
+            public Stream<Long> open(final KeyRange range) {
+                return LongStream.range(range.from(), range.to())
+                        .boxed()
+                        .peek(key -> {
+                            if (key == failAt && failed.compareAndSet(false, true)) {
+                                throw new IllegalStateException("boom");
+                            }
+                        });
+            }
+
+            @Override
+            public long keyOf(final Long row) {
+                return row;
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("Key ranges cover the interval without gaps or overlaps")
+    void testSplit() {
+        final var ranges = KeyRange.split(1, 10, 3);
+
+        assertEquals(List.of(new KeyRange(1, 4), new KeyRange(4, 7), new KeyRange(7, 11)), ranges);
+        assertEquals(2, KeyRange.split(5, 6, 8).size());
+    }
+
+    @Test
+    @DisplayName("Key ranges split the whole long range without overflowing")
+    void testSplitWideRange() {
+        final var ranges = KeyRange.split(Long.MIN_VALUE, Long.MAX_VALUE - 1, 4);
+        // 2^64 - 1 keys: three ranges of 2^62 - 1 keys, the last one takes the remaining 2^62 + 2
+        final var width = (1L << 62) - 1;
+
+        assertEquals(List.of(
+                new KeyRange(Long.MIN_VALUE, Long.MIN_VALUE + width),
+                new KeyRange(Long.MIN_VALUE + width, Long.MIN_VALUE + 2 * width),
+                new KeyRange(Long.MIN_VALUE + 2 * width, Long.MIN_VALUE + 3 * width),
+                new KeyRange(Long.MIN_VALUE + 3 * width, Long.MAX_VALUE)), ranges);
+        assertThrows(ArithmeticException.class, () -> KeyRange.split(0, Long.MAX_VALUE, 2));
+    }
+
+    @Test
+    @DisplayName("Range predicates are ANDed into the WHERE clause")
+    void testApplyRange() {
+        final var querySpec = new QuerySpec(ASTSpecConditions.eq("status", "ACTIVE"), null, null);
+        final var matcher = SpecMatcher.of(new KeyRange(10, 20).applyTo(querySpec, "id"));
+
+        assertFalse(matcher.test(Map.of("id", 9L, "status", "ACTIVE")));
+        assertTrue(matcher.test(Map.of("id", 10L, "status", "ACTIVE")));
+        assertTrue(matcher.test(Map.of("id", 19L, "status", "ACTIVE")));
+        assertFalse(matcher.test(Map.of("id", 20L, "status", "ACTIVE")));
+        assertFalse(matcher.test(Map.of("id", 15L, "status", "CLOSED")));
+        assertTrue(SpecMatcher.of(new KeyRange(10, 20).applyTo(null, "id")).test(Map.of("id", 10L)));
+    }
+
+    @Test
+    @DisplayName("Partitions cover every key exactly once")
+    void testCoverage() {
+        final var keys = new ConcurrentLinkedQueue<Long>();
+        final var states = PartitionedScan.builder("coverage")
+                .partitions(4)
+                .build()
+                .run(source(1000, -1, new AtomicBoolean()), keys::add);
+
+        assertEquals(List.of(new KeyRange(1, 251), new KeyRange(251, 501), new KeyRange(501, 751),
+                new KeyRange(751, 1001)), states.stream().map(PartitionState::range).toList());
+        assertEquals(List.of(250L, 250L, 250L, 250L), states.stream().map(PartitionState::rows).toList());
+        final var sorted = new ArrayList<>(keys);
+        sorted.sort(null);
+        assertEquals(LongStream.rangeClosed(1, 1000).boxed().toList(), sorted);
+    }
+
+    @Test
+    @DisplayName("Failed partitions resume from their last checkpoint")
+    void testResume() {
+        final var store = ScanCheckpointStore.inMemory();
+        final var failed = new AtomicBoolean();
+        final var seen = ConcurrentHashMap.<Long>newKeySet();
+        final var scan = PartitionedScan.builder("reconcile")
+                .partitions(4)
+                .checkpointInterval(10)
+                .checkpointStore(store)
+                .build();
+
+        assertThrows(IllegalStateException.class, () -> scan.run(source(1000, 555, failed), seen::add));
+        assertTrue(store.load("reconcile").isPresent());
+
+        final Set<Long> resumed = ConcurrentHashMap.newKeySet();
+        final var states = scan.run(source(1000, 555, failed), resumed::add);
+
+        assertTrue(states.stream().allMatch(PartitionState::completed));
+        assertEquals(1000, states.stream().mapToLong(PartitionState::rows).sum());
+        // Only the failed partition runs again, starting at its last checkpoint
+        assertTrue(resumed.stream().allMatch(key -> key >= 551 && key <= 750));
+        assertTrue(store.load("reconcile").isEmpty());
+    }
+}
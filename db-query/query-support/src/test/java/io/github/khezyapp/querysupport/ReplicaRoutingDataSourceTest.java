@@ -0,0 +1,226 @@
+package io.github.khezyapp.querysupport;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReplicaRoutingDataSourceTest {
+    private final Map<String, Duration> lags = new HashMap<>();
+    private final MutableClock clock = new MutableClock();
+
+    // Fake connections report the name of their data source as catalog
+    private static DataSource dataSource(final String name,
+                                         final boolean reachable) {
+        return (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(),
+                new Class<?>[]{DataSource.class}, (proxy, method, args) -> {
+                    if (!"getConnection".equals(method.getName())) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    if (!reachable) {
+                        throw new SQLException(name + " is down");
+                    }
+                    return connection(name);
+                });
+    }
+
+    private static Connection connection(final String name) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "getCatalog" -> name;
+                    case "createStatement" -> Proxy.newProxyInstance(Statement.class.getClassLoader(),
+                            new Class<?>[]{Statement.class}, (statement, m, a) -> 0);
+                    default -> null;
+                });
+    }
+
+    private ReplicaRoutingDataSource routing(final DataSource... replicas) {
+        final var builder = ReplicaRoutingDataSource.builder(dataSource("primary", true),
+                        connection -> lags.get(connection.getCatalog()))
+                .clock(clock);
+        for (var i = 0; i < replicas.length; i++) {
+            builder.replica("r" + (i + 1), replicas[i]);
+        }
+        return builder.build();
+    }
+
+    private static String catalog(final ReplicaRoutingDataSource routing,
+                                  final Duration maxStaleness) {
+        return routing.read(maxStaleness, () -> {
+            try (var connection = routing.getConnection()) {
+                return connection.getCatalog();
+            } catch (final SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("Test reads go to the replica with the fewest outstanding connections")
+    void testLeastOutstanding() throws SQLException {
+        lags.put("r1", Duration.ZERO);
+        lags.put("r2", Duration.ZERO);
+        final var routing = routing(dataSource("r1", true), dataSource("r2", true));
+        routing.probeAll();
+
+        try (var write = routing.getConnection()) {
+            assertEquals("primary", write.getCatalog());
+        }
+        routing.read(Duration.ofSeconds(1), () -> {
+            try {
+                final var first = routing.getConnection();
+                final var second = routing.getConnection();
+                assertEquals("r1", first.getCatalog());
+                assertEquals("r2", second.getCatalog());
+                first.close();
+                first.close();
+                try (var third = routing.getConnection()) {
+                    assertEquals("r1", third.getCatalog());
+                    assertEquals(1, routing.replicas().get(1).outstanding());
+                }
+                second.close();
+            } catch (final SQLException e) {
+                throw new IllegalStateException(e);
+            }
+            return null;
+        });
+        assertEquals(0, routing.replicas().get(0).outstanding());
+        assertEquals(2L, routing.replicas().get(0).routedCount());
+    }
+
+    @Test
+    @DisplayName("Test replicas lagging past the freshness bound, or never probed, fall back to the primary")
+    void testLagFallback() {
+        lags.put("r1", Duration.ofSeconds(5));
+        lags.put("r2", Duration.ofSeconds(1));
+        final var routing = routing(dataSource("r1", true), dataSource("r2", true));
+
+        assertEquals("primary", catalog(routing, Duration.ofMinutes(1)));
+        routing.probeAll();
+        assertEquals("r2", catalog(routing, Duration.ofSeconds(2)));
+        assertEquals("r1", catalog(routing, Duration.ofSeconds(10)));
+        assertEquals("primary", catalog(routing, Duration.ofMillis(500)));
+
+        clock.advance(Duration.ofSeconds(2));
+        assertEquals("primary", catalog(routing, Duration.ofSeconds(2)));
+        assertEquals(3L, routing.lagFallbackCount());
+        assertEquals(Duration.ofSeconds(1), routing.replicas().get(1).lag());
+    }
+
+    @Test
+    @DisplayName("Test reads stay on the primary while the thread has an uncommitted write")
+    void testPendingWrite() throws SQLException {
+        lags.put("r1", Duration.ZERO);
+        final var routing = routing(dataSource("r1", true));
+        routing.probeAll();
+
+        try (var primary = routing.getConnection()) {
+            primary.prepareStatement("/* load */ SELECT * FROM book");
+            assertFalse(routing.hasPendingWrite());
+            primary.prepareStatement("-- audit\nUPDATE book SET price = 1");
+            assertTrue(routing.hasPendingWrite());
+            assertEquals("primary", catalog(routing, Duration.ofSeconds(1)));
+            assertTrue(routing.hasPendingWrite());
+            primary.commit();
+            assertEquals("r1", catalog(routing, Duration.ofSeconds(1)));
+
+            primary.createStatement().executeUpdate("DELETE FROM book");
+            assertTrue(routing.hasPendingWrite());
+        }
+        assertFalse(routing.hasPendingWrite());
+        assertEquals(1L, routing.writeFallbackCount());
+    }
+
+    @Test
+    @DisplayName("Test only statements that read are classified as reads")
+    void testIsRead() {
+        assertTrue(ReplicaRoutingDataSource.isRead("/* page */ SELECT updated_at FROM book WHERE title = 'update'"));
+        assertTrue(ReplicaRoutingDataSource.isRead("WITH recent AS (SELECT * FROM book) SELECT \"delete\" FROM x"));
+        assertTrue(ReplicaRoutingDataSource.isRead("(SELECT 1) UNION (SELECT 2)"));
+        assertTrue(ReplicaRoutingDataSource.isRead("-- nothing to run"));
+        assertFalse(ReplicaRoutingDataSource.isRead("WITH gone AS (DELETE FROM book RETURNING id) SELECT * FROM gone"));
+        assertFalse(ReplicaRoutingDataSource.isRead("with moved as (update book set price = 1 returning id) "
+                + "select count(*) from moved"));
+        assertFalse(ReplicaRoutingDataSource.isRead("EXPLAIN ANALYZE INSERT INTO book VALUES (1)"));
+        assertFalse(ReplicaRoutingDataSource.isRead("SELECT * FROM book FOR UPDATE"));
+        assertFalse(ReplicaRoutingDataSource.isRead("{call refresh_prices()}"));
+        assertFalse(ReplicaRoutingDataSource.isRead("MERGE INTO book USING dual ON (1 = 1)"));
+    }
+
+    @Test
+    @DisplayName("Test replica connections reject statements that write")
+    void testReplicaRejectsWrites() {
+        lags.put("r1", Duration.ZERO);
+        final var routing = routing(dataSource("r1", true));
+        routing.probeAll();
+
+        routing.read(Duration.ofSeconds(1), () -> {
+            try (var replica = routing.getConnection()) {
+                assertEquals("r1", replica.getCatalog());
+                replica.prepareStatement("SELECT * FROM book");
+                replica.createStatement().addBatch("SET search_path TO public");
+                assertThrows(SQLException.class, () -> replica.prepareStatement(
+                        "WITH gone AS (DELETE FROM book RETURNING id) SELECT * FROM gone"));
+                assertThrows(SQLException.class, () -> replica.createStatement().executeUpdate("DELETE FROM book"));
+            } catch (final SQLException e) {
+                throw new IllegalStateException(e);
+            }
+            return null;
+        });
+        assertFalse(routing.hasPendingWrite());
+        assertFalse(routing.inWriteTransaction());
+    }
+
+    @Test
+    @DisplayName("Test unreachable replicas are skipped until a probe succeeds")
+    void testUnreachableReplica() {
+        lags.put("r1", Duration.ZERO);
+        lags.put("r2", Duration.ZERO);
+        final var down = routing(dataSource("r1", false));
+        down.probeAll();
+        assertEquals("primary", catalog(down, Duration.ofSeconds(1)));
+        assertNull(down.replicas().get(0).lag());
+
+        final var failing = routing(dataSource("r1", true));
+        failing.probeAll();
+        lags.remove("r1");
+        failing.probeAll();
+        assertEquals("primary", catalog(failing, Duration.ofSeconds(1)));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.EPOCH;
+
+        void advance(final Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(final ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package io.github.khezyapp.querysupport;
+
+import io.github.khezyapp.grammar.ast.ASTSpec;
+import io.github.khezyapp.grammar.ast.AggregateFunction;
+import io.github.khezyapp.grammar.ast.BinaryComparisonSpec;
+import io.github.khezyapp.grammar.ast.ComparisonOperator;
+import io.github.khezyapp.grammar.ast.GroupBy;
+import io.github.khezyapp.grammar.ast.JoinType;
+import io.github.khezyapp.grammar.ast.LogicalAndSpec;
+import io.github.khezyapp.grammar.ast.QuerySpec;
+import io.github.khezyapp.grammar.ast.operand.AggregateOperand;
+import io.github.khezyapp.grammar.ast.operand.LiteralOperand;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static io.github.khezyapp.querysupport.SpecMatcherTest.compare;
+import static io.github.khezyapp.querysupport.SpecMatcherTest.path;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RollupRegistryTest {
+    private static final AggregateOperand SUM = new AggregateOperand(AggregateFunction.SUM, path("price"));
+    private static final AggregateOperand AVG = new AggregateOperand(AggregateFunction.AVG, path("price"));
+    private static final AggregateOperand MAX = new AggregateOperand(AggregateFunction.MAX, path("price"));
+    private static final AggregateOperand COUNT = new AggregateOperand(AggregateFunction.COUNT, path("*"));
+
+    private static QuerySpec revenuePerAuthor(final BinaryComparisonSpec... extra) {
+        final var conditions = new ArrayList<ASTSpec>();
+        conditions.add(compare("status", ComparisonOperator.EQ, "PAID"));
+        conditions.addAll(List.of(extra));
+        return new QuerySpec(new LogicalAndSpec(conditions), null, new GroupBy(List.of(path("author.id"))));
+    }
+
+    private static Map<Object, RollupGroup> byAuthor(final List<RollupGroup> groups) {
+        final var result = new HashMap<Object, RollupGroup>();
+        groups.forEach(g -> result.put(g.key().get(0), g));
+        return result;
+    }
+
+    @Test
+    @DisplayName("Test inserts, updates and deletes keep the rollup equal to a recompute")
+    void testIncrementalMaintenance() {
+        final var rows = new ArrayList<Sale>(List.of(
+                new Sale(1L, new Author(10L), new BigDecimal("5.00"), "PAID"),
+                new Sale(2L, new Author(10L), new BigDecimal("7.00"), "PAID"),
+                new Sale(3L, new Author(20L), new BigDecimal("9.00"), "OPEN")));
+        final var registry = RollupRegistry.builder(Sale.class).build();
+        final var rollup = registry.register("revenue", revenuePerAuthor(), () -> rows.stream(), SUM, AVG, MAX);
+
+        final var inserted = new Sale(4L, new Author(20L), new BigDecimal("3.50"), "PAID");
+        rows.add(inserted);
+        registry.inserted(4L, inserted);
+        final var moved = new Sale(2L, new Author(20L), new BigDecimal("8.00"), "PAID");
+        rows.set(1, moved);
+        registry.updated(2L, Map.of("id", 2L, "author", new Author(10L), "price", new BigDecimal("7.00"),
+                "status", "PAID"), moved);
+        rows.remove(0);
+        registry.deleted(1L, new Sale(1L, new Author(10L), new BigDecimal("5.00"), "PAID"));
+
+        final var groups = byAuthor(registry.answer(revenuePerAuthor(), SUM, AVG, MAX, COUNT).orElseThrow());
+        assertEquals(1, groups.size());
+        final var author20 = groups.get(20L);
+        assertEquals(2L, author20.get(COUNT));
+        assertEquals(0, new BigDecimal("11.50").compareTo((BigDecimal) author20.get(SUM)));
+        assertEquals(0, new BigDecimal("5.75").compareTo((BigDecimal) author20.get(AVG)));
+        assertEquals(new BigDecimal("8.00"), author20.get(MAX));
+
+        final var verification = rollup.verify();
+        assertTrue(verification.completed());
+        assertEquals(0, verification.driftedGroups());
+        assertEquals(3, rollup.stats().events());
+    }
+
+    @Test
+    @DisplayName("Test queries are answered only with matching grouping, aggregates and WHERE")
+    void testAnswerCompatibility() {
+        final var rows = List.of(
+                new Sale(1L, new Author(10L), new BigDecimal("5"), "PAID"),
+                new Sale(2L, new Author(20L), new BigDecimal("7"), "PAID"),
+                new Sale(3L, new Author(20L), new BigDecimal("1"), "PAID"));
+        final var registry = RollupRegistry.builder(Sale.class).build();
+        registry.register("revenue", revenuePerAuthor(), rows::stream, SUM);
+
+        final var narrowed = registry.answer(revenuePerAuthor(compare("author.id", ComparisonOperator.GT, 15L)), SUM);
+        assertEquals(List.of(20L), narrowed.orElseThrow().get(0).key());
+
+        final var having = new QuerySpec(revenuePerAuthor().whereSpec(), new BinaryComparisonSpec(COUNT,
+                ComparisonOperator.GT, new LiteralOperand(1L), JoinType.INNER), revenuePerAuthor().groupBy());
+        assertEquals(1, registry.answer(having).orElseThrow().size());
+
+        assertTrue(registry.answer(revenuePerAuthor(compare("price", ComparisonOperator.GT, 1L)), SUM).isEmpty());
+        assertTrue(registry.answer(revenuePerAuthor(), AVG).isEmpty());
+        assertTrue(registry.answer(new QuerySpec(null, null, revenuePerAuthor().groupBy()), SUM).isEmpty());
+        assertEquals(2, registry.hitCount());
+        assertEquals(3, registry.missCount());
+    }
+
+    @Test
+    @DisplayName("Test unknown previous state makes the rollup stale until verification finds the drift")
+    void testStaleness() {
+        final var rows = new ArrayList<Sale>(List.of(new Sale(1L, new Author(10L), new BigDecimal("5"), "PAID")));
+        final var registry = RollupRegistry.builder(Sale.class).build();
+        final var rollup = registry.register("revenue", revenuePerAuthor(), () -> rows.stream(), SUM);
+
+        final var updated = new Sale(1L, new Author(10L), new BigDecimal("6"), "PAID");
+        rows.set(0, updated);
+        registry.updated(1L, null, updated);
+
+        assertTrue(rollup.stats().stale());
+        assertEquals(1, rollup.stats().unknownUpdates());
+        assertTrue(registry.answer(revenuePerAuthor(), SUM).isEmpty());
+
+        final var verification = registry.verifyAll().get("revenue");
+        assertTrue(verification.completed());
+        assertEquals(1, verification.driftedGroups());
+        assertFalse(rollup.stats().stale());
+        assertEquals(0, new BigDecimal("6").compareTo(
+                (BigDecimal) registry.answer(revenuePerAuthor(), SUM).orElseThrow().get(0).get(SUM)));
+    }
+
+    @Test
+    @DisplayName("Test changes received while the loader scans are replayed onto the recomputed groups")
+    void testChangeDuringVerification() {
+        final var rows = new CopyOnWriteArrayList<Sale>(List.of(new Sale(1L, new Author(10L), new BigDecimal("5"),
+                "PAID")));
+        final var registry = RollupRegistry.builder(Sale.class).build();
+        final var writeDuringScan = new AtomicBoolean();
+        // The loader scans a snapshot, like a single query; the sale is committed after it started
+        final var rollup = registry.register("revenue", revenuePerAuthor(), () -> {
+            final var snapshot = List.copyOf(rows);
+            return snapshot.stream().peek(row -> {
+                if (writeDuringScan.getAndSet(false)) {
+                    final var inserted = new Sale(2L, new Author(10L), new BigDecimal("7"), "PAID");
+                    rows.add(inserted);
+                    registry.inserted(2L, inserted);
+                }
+            });
+        }, SUM);
+
+        writeDuringScan.set(true);
+        final var verification = rollup.verify();
+
+        assertTrue(verification.completed());
+        assertEquals(0, verification.driftedGroups());
+        assertEquals(0, new BigDecimal("12").compareTo(
+                (BigDecimal) registry.answer(revenuePerAuthor(), SUM).orElseThrow().get(0).get(SUM)));
+        assertEquals(0, rollup.stats().skippedVerifications());
+    }
+
+    @Test
+    @DisplayName("Test changes committed before the snapshot but received while the loader opens it count once")
+    void testChangeBeforeSnapshot() {
+        final var rows = new CopyOnWriteArrayList<Sale>(List.of(new Sale(1L, new Author(10L), new BigDecimal("5"),
+                "PAID")));
+        final var registry = RollupRegistry.builder(Sale.class).build();
+        final var writeBeforeSnapshot = new AtomicBoolean();
+        // The sale is committed before the snapshot, but its event arrives after the verification began
+        final var rollup = registry.register("revenue", revenuePerAuthor(), () -> {
+            final var inserted = new Sale(2L, new Author(10L), new BigDecimal("7"), "PAID");
+            final var write = writeBeforeSnapshot.getAndSet(false);
+            if (write) {
+                rows.add(inserted);
+            }
+            final var snapshot = List.copyOf(rows);
+            if (write) {
+                registry.inserted(2L, inserted);
+            }
+            return snapshot.stream();
+        }, SUM);
+
+        writeBeforeSnapshot.set(true);
+        final var verification = rollup.verify();
+
+        assertTrue(verification.completed());
+        assertEquals(0, verification.driftedGroups());
+        assertEquals(1, verification.deferredGroups());
+        assertEquals(0, new BigDecimal("12").compareTo(
+                (BigDecimal) registry.answer(revenuePerAuthor(), SUM).orElseThrow().get(0).get(SUM)));
+        assertEquals(new AggregateRollup.Verification(true, 0, 0), rollup.verify());
+    }
+
+    @Test
+    @DisplayName("Test verification completes while another thread keeps writing")
+    void testVerificationUnderConcurrentWrites() throws Exception {
+        final var rows = new CopyOnWriteArrayList<Sale>();
+        final var registry = RollupRegistry.builder(Sale.class).build();
+        final var rollup = registry.register("revenue", revenuePerAuthor(), () -> List.copyOf(rows).stream(), SUM);
+        final var writing = new AtomicBoolean(true);
+        final var writer = new Thread(() -> {
+            for (var id = 1L; writing.get(); id++) {
+                final var sale = new Sale(id, new Author(id % 3), BigDecimal.ONE, "PAID");
+                rows.add(sale);
+                registry.inserted(id, sale);
+            }
+        });
+        writer.start();
+        try {
+            for (var i = 0; i < 20; i++) {
+                assertTrue(rollup.verify().completed());
+            }
+        } finally {
+            writing.set(false);
+            writer.join();
+        }
+
+        rollup.verify();
+        final var groups = registry.answer(revenuePerAuthor(), SUM).orElseThrow();
+        final var total = groups.stream().map(g -> (BigDecimal) g.get(SUM)).reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, BigDecimal.valueOf(rows.size()).compareTo(total));
+        assertEquals(0, rollup.stats().skippedVerifications());
+    }
+
+    @Test
+    @DisplayName("Test rollups require GROUP BY, no HAVING and decomposable aggregates")
+    void testValidation() {
+        final var registry = RollupRegistry.builder(Sale.class).build();
+        final var distinct = new AggregateOperand(AggregateFunction.COUNT_DISTINCT_APPROX, path("id"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> registry.register("a", SpecMatcherTest.where(), List.<Sale>of()::stream, SUM));
+        assertThrows(IllegalArgumentException.class,
+                () -> registry.register("b", revenuePerAuthor(), List.<Sale>of()::stream, distinct));
+        registry.register("c", revenuePerAuthor(), List.<Sale>of()::stream, SUM);
+        assertThrows(IllegalArgumentException.class,
+                () -> registry.register("c", revenuePerAuthor(), List.<Sale>of()::stream, SUM));
+    }
+
+    record Author(Long id) {
+    }
+
+    record Sale(Long id, Author author, BigDecimal price, String status) {
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.khezyapp.querysupport;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RowFormatTest {
+
+    private static <T> String write(final RowFormat<T> format,
+                                    final List<T> rows) throws IOException {
+        final var writer = new StringWriter();
+        format.writeHeader(writer);
+        for (final var row : rows) {
+            format.writeRow(writer, row);
+        }
+        return writer.toString();
+    }
+
+    @Test
+    @DisplayName("CSV quotes fields containing separators, quotes and line breaks")
+    void testCsvEscaping() throws IOException {
+        final RowFormat<List<Object>> format = RowFormat.csv(List.of("id", "title"), row -> row);
+        final var csv = write(format, List.of(
+                List.of(1, "Plain"),
+                List.of(2, "Hello, \"World\""),
+                Arrays.asList(3, null)
+        ));
+
+        assertEquals("id,title\r\n1,Plain\r\n2,\"Hello, \"\"World\"\"\"\r\n3,\r\n", csv);
+    }
+
+    @Test
+    @DisplayName("NDJSON writes one document per line without a header")
+    void testNdjson() throws IOException {
+        final RowFormat<Integer> format = RowFormat.ndjson(id -> "{\"id\":" + id + "}");
+
+        assertEquals("{\"id\":1}\n{\"id\":2}\n", write(format, List.of(1, 2)));
+        assertEquals("application/x-ndjson", format.contentType());
+    }
+}
@@ -0,0 +1,93 @@
+package io.github.khezyapp.querysupport;
+
+import io.github.khezyapp.grammar.ast.ComparisonOperator;
+import io.github.khezyapp.grammar.ast.InComparisonSpec;
+import io.github.khezyapp.grammar.ast.JoinType;
+import io.github.khezyapp.grammar.ast.LogicalOrSpec;
+import io.github.khezyapp.grammar.ast.operand.LiteralOperand;
+import io.github.khezyapp.grammar.ast.operand.Operand;
+import io.github.khezyapp.grammar.support.SpecPaths;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static io.github.khezyapp.querysupport.SpecMatcherTest.compare;
+import static io.github.khezyapp.querysupport.SpecMatcherTest.path;
+import static io.github.khezyapp.querysupport.SpecMatcherTest.where;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardRouterTest {
+    private static final List<String> SHARDS = List.of("s0", "s1", "s2");
+    private static final ShardRouter BY_TENANT = key -> "s" + ((Number) key).longValue() % 3;
+
+    private static InComparisonSpec in(final String path,
+                                       final Object... values) {
+        return new InComparisonSpec(path(path), Arrays.stream(values).<Operand>map(LiteralOperand::new).toList(),
+                JoinType.INNER);
+    }
+
+    @Test
+    @DisplayName("Test equality and IN pin the shard key; AND intersects, OR joins")
+    void testPinned() {
+        final var status = compare("status", ComparisonOperator.EQ, "PAID");
+
+        assertEquals(Optional.of(Set.of(4L)), SpecPaths.pinned(where(compare("tenantId", ComparisonOperator.EQ, 4L),
+                status), "tenantId"));
+        assertEquals(Optional.of(Set.of(2L)), SpecPaths.pinned(where(in("tenantId", 1L, 2L),
+                in("tenantId", 2L, 3L)), "tenantId"));
+        assertEquals(Optional.of(Set.of(1L, 5L)), SpecPaths.pinned(where(new LogicalOrSpec(List.of(
+                compare("tenantId", ComparisonOperator.EQ, 1L), in("tenantId", 5L)))), "tenantId"));
+
+        assertTrue(SpecPaths.pinned(where(status), "tenantId").isEmpty());
+        assertTrue(SpecPaths.pinned(where(compare("tenantId", ComparisonOperator.GT, 4L)), "tenantId").isEmpty());
+        assertTrue(SpecPaths.pinned(where(new LogicalOrSpec(List.of(
+                compare("tenantId", ComparisonOperator.EQ, 1L), status))), "tenantId").isEmpty());
+        assertTrue(SpecPaths.pinned(null, "tenantId").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test queries pinning the shard key run only on the shards holding those keys")
+    void testPrune() {
+        assertEquals(List.of("s1"), List.copyOf(BY_TENANT.prune(
+                where(compare("tenantId", ComparisonOperator.EQ, 4L)), "tenantId", SHARDS)));
+        assertEquals(List.of("s0", "s2"), List.copyOf(BY_TENANT.prune(
+                where(in("tenantId", 5L, 3L, 6L)), "tenantId", SHARDS)));
+        assertEquals(SHARDS, List.copyOf(BY_TENANT.prune(
+                where(compare("status", ComparisonOperator.EQ, "PAID")), "tenantId", SHARDS)));
+        assertTrue(BY_TENANT.prune(where(in("tenantId", 1L), in("tenantId", 2L)), "tenantId", SHARDS).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test hash routing agrees across literal types and rejects an empty shard list")
+    void testHash() {
+        final var router = ShardRouter.hash(SHARDS);
+
+        assertEquals(router.shardFor(42L), router.shardFor(42));
+        assertEquals(router.shardFor(42L), router.shardFor("42"));
+        assertTrue(SHARDS.contains(router.shardFor("acme")));
+        assertThrows(IllegalArgumentException.class, () -> ShardRouter.hash(List.of()));
+    }
+
+    @Test
+    @DisplayName("Test sorted runs merge into one window of the global order")
+    void testSortedMerge() {
+        final var runs = List.of(List.of(1, 4, 7), List.of(2, 5, 8), List.<Integer>of(), List.of(3, 6, 9));
+
+        assertEquals(List.of(1, 2, 3, 4), SortedMerge.merge(runs, Comparator.naturalOrder(), 0, 4));
+        assertEquals(List.of(5, 6, 7, 8), SortedMerge.merge(runs, Comparator.naturalOrder(), 4, 4));
+        assertEquals(List.of(9), SortedMerge.merge(runs, Comparator.naturalOrder(), 8, 4));
+        assertEquals(List.of(9, 8, 7), SortedMerge.merge(
+                List.of(List.of(9, 7), List.of(8)), Comparator.<Integer>reverseOrder(), 0, 10));
+
+        final var ties = SortedMerge.merge(List.of(List.of("b1"), List.of("a1", "b2")),
+                Comparator.comparing(s -> s.charAt(0)), 0, 3);
+        assertEquals(List.of("a1", "b1", "b2"), ties);
+        assertThrows(IllegalArgumentException.class,
+                () -> SortedMerge.merge(runs, Comparator.<Integer>naturalOrder(), -1, 4));
+    }
+}
@@ -0,0 +1,135 @@
+package io.github.khezyapp.querysupport;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+
+    private static void awaitWaiters(final SingleFlight<?, ?> flight,
+                                     final long waiters) throws InterruptedException {
+        final var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (flight.coalescedCount() < waiters && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    @DisplayName("Test concurrent calls with the same key run the loader once and receive copies")
+    void testCoalescing() throws Exception {
+        final var flight = SingleFlight.<String, List<String>>builder()
+                .copier(ArrayList::new)
+                .build();
+        assertTrue(flight.copies());
+        assertFalse(SingleFlight.builder().build().copies());
+        final var runs = new AtomicInteger();
+        final var release = new CountDownLatch(1);
+        final var executor = Executors.newCachedThreadPool();
+        try {
+            final var leader = executor.submit(() -> flight.execute("page-0", () -> {
+                runs.incrementAndGet();
+                await(release);
+                return List.of("a", "b");
+            }));
+            while (flight.inFlightCount() == 0) {
+                Thread.sleep(1);
+            }
+            final var waiters = new ArrayList<Future<List<String>>>();
+            for (var i = 0; i < 10; i++) {
+                waiters.add(executor.submit(() -> flight.execute("page-0", () -> {
+                    runs.incrementAndGet();
+                    return List.of();
+                })));
+            }
+            awaitWaiters(flight, 10);
+            release.countDown();
+
+            final var result = leader.get();
+            for (final var waiter : waiters) {
+                assertEquals(result, waiter.get());
+                assertNotSame(result, waiter.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, runs.get());
+        assertEquals(1, flight.executedCount());
+        assertEquals(10, flight.coalescedCount());
+        assertEquals(0, flight.inFlightCount());
+    }
+
+    @Test
+    @DisplayName("Test a leader failure reaches waiters and the next call runs again")
+    void testFailure() throws Exception {
+        final var flight = SingleFlight.<String, String>builder().build();
+        final var release = new CountDownLatch(1);
+        final var executor = Executors.newCachedThreadPool();
+        try {
+            final var leader = executor.submit(() -> flight.execute("k", () -> {
+                await(release);
+                throw new IllegalArgumentException("boom");
+            }));
+            while (flight.inFlightCount() == 0) {
+                Thread.sleep(1);
+            }
+            final var waiter = executor.submit(() -> flight.execute("k", () -> "own"));
+            awaitWaiters(flight, 1);
+            release.countDown();
+
+            assertInstanceOf(IllegalArgumentException.class,
+                    assertThrows(ExecutionException.class, leader::get).getCause());
+            assertInstanceOf(IllegalArgumentException.class,
+                    assertThrows(ExecutionException.class, waiter::get).getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals("again", flight.execute("k", () -> "again"));
+    }
+
+    @Test
+    @DisplayName("Test a waiter runs its own call after the timeout")
+    void testTimeout() throws Exception {
+        final var flight = SingleFlight.<String, String>builder()
+                .timeout(Duration.ofMillis(20))
+                .build();
+        final var release = new CountDownLatch(1);
+        final var executor = Executors.newCachedThreadPool();
+        try {
+            final var leader = executor.submit(() -> flight.execute("k", () -> {
+                await(release);
+                return "leader";
+            }));
+            while (flight.inFlightCount() == 0) {
+                Thread.sleep(1);
+            }
+
+            assertEquals("own", flight.execute("k", () -> "own"));
+            release.countDown();
+            assertEquals("leader", leader.get());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, flight.timeoutCount());
+        assertEquals(2, flight.executedCount());
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
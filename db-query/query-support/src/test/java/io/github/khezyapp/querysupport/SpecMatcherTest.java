@@ -0,0 +1,110 @@
+package io.github.khezyapp.querysupport;
+
+import io.github.khezyapp.grammar.ast.ASTSpec;
+import io.github.khezyapp.grammar.ast.AggregateFunction;
+import io.github.khezyapp.grammar.ast.BinaryComparisonSpec;
+import io.github.khezyapp.grammar.ast.ComparisonOperator;
+import io.github.khezyapp.grammar.ast.GroupBy;
+import io.github.khezyapp.grammar.ast.InComparisonSpec;
+import io.github.khezyapp.grammar.ast.JoinType;
+import io.github.khezyapp.grammar.ast.LogicalAndSpec;
+import io.github.khezyapp.grammar.ast.QuerySpec;
+import io.github.khezyapp.grammar.ast.UnaryComparisonSpec;
+import io.github.khezyapp.grammar.ast.operand.AggregateOperand;
+import io.github.khezyapp.grammar.ast.operand.LiteralOperand;
+import io.github.khezyapp.grammar.ast.operand.Operand;
+import io.github.khezyapp.grammar.ast.operand.PathOperand;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpecMatcherTest {
+
+    static PathOperand path(final String path) {
+        return new PathOperand(List.of(path.split("\\.")), path);
+    }
+
+    static QuerySpec where(final ASTSpec... specs) {
+        return new QuerySpec(new LogicalAndSpec(List.of(specs)), null, null);
+    }
+
+    static BinaryComparisonSpec compare(final String path,
+                                        final ComparisonOperator operator,
+                                        final Object value) {
+        return new BinaryComparisonSpec(path(path), operator, new LiteralOperand(value), JoinType.INNER);
+    }
+
+    @Test
+    @DisplayName("Test comparisons convert literals to the value type")
+    void testComparisons() {
+        final var book = new Book(1L, "Dune Messiah", new BigDecimal("12.50"), Status.ACTIVE,
+                LocalDate.of(1969, 10, 15), new Author("Frank Herbert", List.of("sf", "classic")));
+
+        assertTrue(SpecMatcher.of(where(compare("price", ComparisonOperator.GT, 10L))).test(book));
+        assertTrue(SpecMatcher.of(where(compare("price", ComparisonOperator.LTE, 12.5))).test(book));
+        assertTrue(SpecMatcher.of(where(compare("status", ComparisonOperator.EQ, "ACTIVE"))).test(book));
+        assertTrue(SpecMatcher.of(where(compare("published", ComparisonOperator.LT, "1970-01-01"))).test(book));
+        assertTrue(SpecMatcher.of(where(compare("title", ComparisonOperator.ILIKE, "%dune%"))).test(book));
+        assertFalse(SpecMatcher.of(where(compare("title", ComparisonOperator.LIKE, "dune%"))).test(book));
+        assertTrue(SpecMatcher.of(where(compare("author.tags", ComparisonOperator.EQ, "classic"))).test(book));
+        assertFalse(SpecMatcher.of(where(
+                compare("price", ComparisonOperator.GT, 10L),
+                compare("status", ComparisonOperator.NE, "ACTIVE"))).test(book));
+    }
+
+    @Test
+    @DisplayName("Test null values follow SQL semantics")
+    void testNulls() {
+        final var book = new Book(2L, "Emma", null, Status.DRAFT, null, null);
+        final var isNull = new UnaryComparisonSpec(path("author.name"), ComparisonOperator.IS_NULL, JoinType.LEFT);
+        final List<Operand> ids = List.of(new LiteralOperand(1L), new LiteralOperand(2L));
+
+        assertTrue(SpecMatcher.of(where(isNull)).test(book));
+        assertFalse(SpecMatcher.of(where(compare("price", ComparisonOperator.NE, 1L))).test(book));
+        assertTrue(SpecMatcher.of(where(new InComparisonSpec(path("id"), ids, JoinType.INNER))).test(book));
+        assertTrue(SpecMatcher.of(where(compare("title", ComparisonOperator.EQ, "Emma")))
+                .test(Map.of("title", "Emma")));
+    }
+
+    @Test
+    @DisplayName("Test grouped specifications are rejected")
+    void testRejectsGrouping() {
+        final var grouped = new QuerySpec(null, null, new GroupBy(List.of(path("status"))));
+
+        assertThrows(IllegalArgumentException.class, () -> SpecMatcher.of(grouped));
+    }
+
+    @Test
+    @DisplayName("Test HAVING reads aggregates by label from aggregated groups")
+    void testHaving() {
+        final var count = new AggregateOperand(AggregateFunction.COUNT, path("*"));
+        final var sum = new AggregateOperand(AggregateFunction.SUM, path("amount"));
+        final var having = new QuerySpec(null, new LogicalAndSpec(List.of(
+                new BinaryComparisonSpec(count, ComparisonOperator.GTE, new LiteralOperand(10L), JoinType.INNER),
+                new BinaryComparisonSpec(sum, ComparisonOperator.GT, new LiteralOperand(500L), JoinType.INNER))),
+                new GroupBy(List.of(path("status"))));
+        final var matcher = SpecMatcher.having(having);
+
+        assertEquals("SUM(amount)", SpecMatcher.label(sum));
+        assertTrue(matcher.test(Map.of("COUNT(*)", 12.0, "SUM(amount)", 640.5)));
+        assertFalse(matcher.test(Map.of("COUNT(*)", 9.6, "SUM(amount)", 640.5)));
+        assertFalse(matcher.test(Map.of("COUNT(*)", 12.0)));
+        assertTrue(SpecMatcher.having(where(compare("price", ComparisonOperator.GT, 1L))).test(Map.of()));
+    }
+
+    enum Status {
+        DRAFT, ACTIVE
+    }
+
+    record Author(String name, List<String> tags) {
+    }
+
+    record Book(Long id, String title, BigDecimal price, Status status, LocalDate published, Author author) {
+    }
+}
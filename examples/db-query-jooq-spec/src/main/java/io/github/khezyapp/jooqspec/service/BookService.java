@@ -1,5 +1,6 @@
 package io.github.khezyapp.jooqspec.service;
 
+import io.github.khezyapp.jooqspec.JooqFilterExecutor;
 import io.github.khezyapp.jooqspec.JooqPaginationQuery;
 import io.github.khezyapp.jooqspec.data.Author;
 import io.github.khezyapp.jooqspec.data.Book;
@@ -32,41 +33,27 @@ public class BookService {
     private final DSLContext dsl;
 
     public Page<Book> getBook(final JooqPaginationQuery query) {
-        final var spec = query.specification();
-
-        var totalQuery = dsl.selectCount()
-                .from(BOOK)
-                .join(AUTHOR).on(BOOK_AUTHOR_ID.eq(AUTHOR_ID))
-                .where(spec.where())
-                .getQuery();
-        if (!spec.groupBy().isEmpty()) {
-            totalQuery.addGroupBy(spec.groupBy());
-            totalQuery.addHaving(spec.having());
-        }
-        final var total = totalQuery.fetchOne(0, Integer.class);
-        final var totalPage = (int) Math.ceil(Objects.requireNonNullElse(total, 0) / (double) query.getPageSize());
-        final var metadata = new PageMetadata(query.getPageNumber(), query.getPageSize(), total, totalPage);
-
         final var authorId = BOOK_AUTHOR_ID.as("authorId");
         final var authorName = AUTHOR_NAME.as("authorName");
-        final var select = dsl.select(
-                        BOOK_ID,
-                        BOOK_TITLE,
-                        BOOK_PRICE,
-                        authorId,
-                        authorName
-                )
-                .from(BOOK)
-                .leftJoin(AUTHOR).on(BOOK_AUTHOR_ID.eq(AUTHOR_ID))
-                .where(spec.where())
-                .getQuery();
-        if (!spec.groupBy().isEmpty()) {
-            select.addGroupBy(spec.groupBy());
-            select.addHaving(spec.having());
-        }
-        select.addLimit(query.getPageSize());
-        select.addOffset(query.getOffset());
-        final var resultSet = select.fetch();
+
+        // Rows and total in one round trip through COUNT(*) OVER(). The total counts the LEFT-joined rows the
+        // page lists, books without an author included; the former INNER-joined count left those out.
+        final var page = new JooqFilterExecutor(dsl).fetchPageWithTotal(
+                () -> dsl.select(
+                                BOOK_ID,
+                                BOOK_TITLE,
+                                BOOK_PRICE,
+                                authorId,
+                                authorName
+                        )
+                        .from(BOOK)
+                        .leftJoin(AUTHOR).on(BOOK_AUTHOR_ID.eq(AUTHOR_ID))
+                        .getQuery(),
+                query);
+        final var total = (int) page.totalCount().value();
+        final var metadata = new PageMetadata(query.getPageNumber(), query.getPageSize(), total,
+                (int) page.totalPages());
+        final var resultSet = page.content();
 
         // One-to-One mapping
         final var books = new ArrayList<Book>();
@@ -1,11 +1,21 @@
 package io.github.khezyapp.examples.controller;
 
 import io.github.khezyapp.examples.data.BookData;
+import io.github.khezyapp.examples.data.BookSummary;
 import io.github.khezyapp.examples.entity.Book;
 import io.github.khezyapp.examples.repo.BookRepository;
 import io.github.khezyapp.grammar.ASTSpecs;
 import io.github.khezyapp.grammar.ast.builder.ASTSpecConditions;
+import io.github.khezyapp.jpaspec.FilterSpecification;
+import io.github.khezyapp.jpaspec.JpaFilterExecutor;
 import io.github.khezyapp.jpaspec.JpaPaginationQuery;
+import io.github.khezyapp.jpaspec.fetch.JpaFetchPlan;
+import io.github.khezyapp.jpaspec.projection.JpaProjection;
+import io.github.khezyapp.jpaspec.stream.JpaFilterStreamer;
+import io.github.khezyapp.jpaspec.stream.StreamingExports;
+import io.github.khezyapp.querysupport.CountStrategy;
+import io.github.khezyapp.querysupport.RowFormat;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -16,12 +26,17 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Arrays;
+import java.util.List;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/books")
 public class BookController {
     private final BookRepository bookRepository;
+    private final EntityManager entityManager;
 
     @GetMapping
     public ResponseEntity<Page<BookData>> getBooks(
@@ -71,4 +86,44 @@ public class BookController {
         final var returnData = new PageImpl<>(bookData, filter.getPageable(), books.getTotalElements());
         return ResponseEntity.ok(returnData);
     }
+
+    @GetMapping("/summary")
+    public ResponseEntity<Page<BookSummary>> getBookSummaries(
+            @RequestParam("q") final String q,
+            @RequestParam(value = "sizeSize", defaultValue = "10") final int size,
+            @RequestParam(value = "pageNumber", defaultValue = "0") final int page
+    ) {
+        final var pageable = PageRequest.of(page, size, Sort.Direction.DESC, "id");
+        final var filter = new JpaPaginationQuery<Book>(q, pageable, CountStrategy.capped(10_000));
+        final var executor = new JpaFilterExecutor<>(entityManager, Book.class);
+        return ResponseEntity.ok(executor.findAll(filter, JpaProjection.of(BookSummary.class)));
+    }
+
+    @GetMapping("/with-author")
+    public ResponseEntity<Page<BookData>> getBooksWithAuthor(
+            @RequestParam("q") final String q,
+            @RequestParam(value = "sizeSize", defaultValue = "10") final int size,
+            @RequestParam(value = "pageNumber", defaultValue = "0") final int page
+    ) {
+        final var pageable = PageRequest.of(page, size, Sort.Direction.DESC, "id");
+        final var filter = new JpaPaginationQuery<Book>(q, pageable);
+        final var executor = new JpaFilterExecutor<>(entityManager, Book.class);
+        final var books = executor.findAll(filter, JpaFetchPlan.of("author"));
+        return ResponseEntity.ok(books.map(b -> BookData.from(b, true)));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBooks(@RequestParam("q") final String q) {
+        final var streamer = new JpaFilterStreamer<>(entityManager, Book.class);
+        final var spec = new FilterSpecification<Book>(q);
+        final var csv = RowFormat.<BookSummary>csv(
+                List.of("id", "title", "author"),
+                b -> Arrays.asList(b.id(), b.title(), b.authorName())
+        );
+        return StreamingExports.response(
+                () -> streamer.stream(spec, JpaProjection.of(BookSummary.class), Sort.by("id"),
+                        JpaFilterStreamer.DEFAULT_FETCH_SIZE),
+                csv
+        );
+    }
 }
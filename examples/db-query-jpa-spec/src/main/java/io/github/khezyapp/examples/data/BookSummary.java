@@ -0,0 +1,10 @@
+package io.github.khezyapp.examples.data;
+
+import io.github.khezyapp.jpaspec.projection.ProjectionPath;
+
+public record BookSummary(
+        Long id,
+        String title,
+        @ProjectionPath("author.name") String authorName
+) {
+}